@@ -0,0 +1,127 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of reading every column of a page of 20-column rows, including collections.
+ *
+ * <p>All the rows of the page share the same {@link ColumnDefinitions}, like the rows of a result
+ * set, so this mostly exercises codec resolution and decoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowReadBenchmark {
+
+  private static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.V4;
+
+  @Param({"1", "100"})
+  int pageSize;
+
+  private List<Row> page;
+
+  @Setup
+  public void setup() {
+    CodecRegistry codecRegistry = new CodecRegistry();
+    Object[][] columns = {
+      {DataType.cint(), 42},
+      {DataType.bigint(), 42L},
+      {DataType.text(), "foo"},
+      {DataType.uuid(), UUID.randomUUID()},
+      {DataType.timestamp(), new Date(0)},
+      {DataType.cdouble(), 4.2},
+      {DataType.cfloat(), 4.2f},
+      {DataType.cboolean(), true},
+      {DataType.list(DataType.text()), ImmutableList.of("foo", "bar", "baz")},
+      {DataType.set(DataType.cint()), ImmutableSet.of(1, 2, 3)},
+      {DataType.map(DataType.text(), DataType.cint()), ImmutableMap.of("foo", 1, "bar", 2)},
+      {DataType.cint(), 43},
+      {DataType.bigint(), 43L},
+      {DataType.text(), "bar"},
+      {DataType.uuid(), UUID.randomUUID()},
+      {DataType.timestamp(), new Date(1)},
+      {DataType.cdouble(), 4.3},
+      {DataType.list(DataType.bigint()), ImmutableList.of(1L, 2L, 3L)},
+      {DataType.set(DataType.text()), ImmutableSet.of("foo", "bar")},
+      {DataType.map(DataType.cint(), DataType.text()), ImmutableMap.of(1, "foo", 2, "bar")}
+    };
+    ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[columns.length];
+    List<ByteBuffer> values = new ArrayList<ByteBuffer>(columns.length);
+    for (int i = 0; i < columns.length; i++) {
+      DataType type = (DataType) columns[i][0];
+      definitions[i] = new ColumnDefinitions.Definition("ks", "table", "c" + i, type);
+      values.add(codecRegistry.codecFor(type).serialize(columns[i][1], PROTOCOL_VERSION));
+    }
+    ColumnDefinitions metadata = new ColumnDefinitions(definitions, codecRegistry);
+    page = new ArrayList<Row>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      List<ByteBuffer> data = new ArrayList<ByteBuffer>(values.size());
+      for (ByteBuffer value : values) data.add(value.duplicate());
+      page.add(ArrayBackedRow.fromData(metadata, null, PROTOCOL_VERSION, data));
+    }
+  }
+
+  @Benchmark
+  public void readPage(Blackhole bh) {
+    for (Row row : page) {
+      bh.consume(row.getInt(0));
+      bh.consume(row.getLong(1));
+      bh.consume(row.getString(2));
+      bh.consume(row.getUUID(3));
+      bh.consume(row.getTimestamp(4));
+      bh.consume(row.getDouble(5));
+      bh.consume(row.getFloat(6));
+      bh.consume(row.getBool(7));
+      bh.consume(row.getList(8, String.class));
+      bh.consume(row.getSet(9, Integer.class));
+      bh.consume(row.getMap(10, String.class, Integer.class));
+      bh.consume(row.getInt(11));
+      bh.consume(row.getLong(12));
+      bh.consume(row.getString(13));
+      bh.consume(row.getUUID(14));
+      bh.consume(row.getTimestamp(15));
+      bh.consume(row.getDouble(16));
+      bh.consume(row.getList(17, Long.class));
+      bh.consume(row.getSet(18, String.class));
+      bh.consume(row.getMap(19, Integer.class, String.class));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the monotonic timestamp generators when 1 to 64 threads share a single
+ * instance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimestampGeneratorBenchmark {
+
+  @Param({"atomic", "threadLocal", "striped"})
+  String generator;
+
+  private TimestampGenerator timestampGenerator;
+
+  @Setup
+  public void setup() {
+    if (generator.equals("atomic")) timestampGenerator = new AtomicMonotonicTimestampGenerator();
+    else if (generator.equals("threadLocal"))
+      timestampGenerator = new ThreadLocalMonotonicTimestampGenerator();
+    else if (generator.equals("striped"))
+      timestampGenerator = new StripedMonotonicTimestampGenerator();
+    else throw new IllegalArgumentException("Unknown generator " + generator);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long threads1() {
+    return timestampGenerator.next();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long threads4() {
+    return timestampGenerator.next();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public long threads16() {
+    return timestampGenerator.next();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public long threads64() {
+    return timestampGenerator.next();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the float and double array codecs of this package per element count,
+ * against the boxed list codecs of the core driver, and of {@link PackedFloatArrayCodec} for blobs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FloatArrayCodecBenchmark {
+
+  private static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.V4;
+
+  private static final TypeCodec<List<Float>> BOXED_FLOAT_LIST = TypeCodec.list(TypeCodec.cfloat());
+  private static final TypeCodec<List<Double>> BOXED_DOUBLE_LIST =
+      TypeCodec.list(TypeCodec.cdouble());
+
+  @Param({"16", "128", "512", "1024"})
+  int size;
+
+  private float[] floats;
+  private double[] doubles;
+
+  private ByteBuffer floatListBytes;
+  private ByteBuffer doubleListBytes;
+  private ByteBuffer packedFloatBytes;
+
+  @Setup
+  public void setup() {
+    floats = new float[size];
+    doubles = new double[size];
+    List<Float> boxedFloats = new ArrayList<Float>(size);
+    List<Double> boxedDoubles = new ArrayList<Double>(size);
+    for (int i = 0; i < size; i++) {
+      floats[i] = i * 0.5f;
+      doubles[i] = i * 0.5;
+      boxedFloats.add(floats[i]);
+      boxedDoubles.add(doubles[i]);
+    }
+    floatListBytes = BOXED_FLOAT_LIST.serialize(boxedFloats, PROTOCOL_VERSION);
+    doubleListBytes = BOXED_DOUBLE_LIST.serialize(boxedDoubles, PROTOCOL_VERSION);
+    packedFloatBytes = PackedFloatArrayCodec.instance.serialize(floats, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public List<Float> deserializeBoxedFloatList() {
+    return BOXED_FLOAT_LIST.deserialize(floatListBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public float[] deserializeFloatList() {
+    return FloatArrayCodec.instance.deserialize(floatListBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public List<Double> deserializeBoxedDoubleList() {
+    return BOXED_DOUBLE_LIST.deserialize(doubleListBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public double[] deserializeDoubleList() {
+    return DoubleArrayCodec.instance.deserialize(doubleListBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public float[] deserializePackedFloats() {
+    return PackedFloatArrayCodec.instance.deserialize(
+        packedFloatBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeFloatList() {
+    return FloatArrayCodec.instance.serialize(floats, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeDoubleList() {
+    return DoubleArrayCodec.instance.serialize(doubles, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializePackedFloats() {
+    return PackedFloatArrayCodec.instance.serialize(floats, PROTOCOL_VERSION);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the primitive set and map codecs of this package with the boxed codecs of the core
+ * driver, for {@code set<bigint>}, {@code map<bigint, double>} and {@code map<text, int>}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveCollectionCodecBenchmark {
+
+  private static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.V4;
+
+  private static final TypeCodec<Set<Long>> BOXED_LONG_SET = TypeCodec.set(TypeCodec.bigint());
+  private static final TypeCodec<Map<Long, Double>> BOXED_LONG_DOUBLE_MAP =
+      TypeCodec.map(TypeCodec.bigint(), TypeCodec.cdouble());
+  private static final TypeCodec<Map<String, Integer>> BOXED_TEXT_INT_MAP =
+      TypeCodec.map(TypeCodec.varchar(), TypeCodec.cint());
+
+  private static final LongArrayCodec LONG_SET = LongArrayCodec.setInstance;
+  private static final ArrayMapCodec<long[], double[]> LONG_DOUBLE_MAP =
+      new ArrayMapCodec<long[], double[]>(LongArrayCodec.instance, DoubleArrayCodec.instance);
+  private static final ArrayMapCodec<String[], int[]> TEXT_INT_MAP =
+      new ArrayMapCodec<String[], int[]>(
+          new ObjectArrayCodec<String>(
+              DataType.list(DataType.varchar()), String[].class, TypeCodec.varchar()),
+          IntArrayCodec.instance);
+
+  @Param({"10", "1000", "10000"})
+  int size;
+
+  private Set<Long> boxedLongSet;
+  private long[] longSet;
+  private Map<Long, Double> boxedLongDoubleMap;
+  private ArrayMap<long[], double[]> longDoubleMap;
+
+  private ByteBuffer longSetBytes;
+  private ByteBuffer longDoubleMapBytes;
+  private ByteBuffer textIntMapBytes;
+
+  @Setup
+  public void setup() {
+    boxedLongSet = new LinkedHashSet<Long>(size);
+    longSet = new long[size];
+    boxedLongDoubleMap = new LinkedHashMap<Long, Double>(size);
+    long[] keys = new long[size];
+    double[] values = new double[size];
+    Map<String, Integer> boxedTextIntMap = new LinkedHashMap<String, Integer>(size);
+    for (int i = 0; i < size; i++) {
+      boxedLongSet.add(i * 31L);
+      longSet[i] = i * 31L;
+      boxedLongDoubleMap.put((long) i, i * 0.5);
+      keys[i] = i;
+      values[i] = i * 0.5;
+      boxedTextIntMap.put("key" + i, i);
+    }
+    longDoubleMap = new ArrayMap<long[], double[]>(keys, values);
+
+    longSetBytes = BOXED_LONG_SET.serialize(boxedLongSet, PROTOCOL_VERSION);
+    longDoubleMapBytes = BOXED_LONG_DOUBLE_MAP.serialize(boxedLongDoubleMap, PROTOCOL_VERSION);
+    textIntMapBytes = BOXED_TEXT_INT_MAP.serialize(boxedTextIntMap, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public Set<Long> deserializeBoxedLongSet() {
+    return BOXED_LONG_SET.deserialize(longSetBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public long[] deserializeLongSet() {
+    return LONG_SET.deserialize(longSetBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public Map<Long, Double> deserializeBoxedLongDoubleMap() {
+    return BOXED_LONG_DOUBLE_MAP.deserialize(longDoubleMapBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ArrayMap<long[], double[]> deserializeLongDoubleMap() {
+    return LONG_DOUBLE_MAP.deserialize(longDoubleMapBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public Map<String, Integer> deserializeBoxedTextIntMap() {
+    return BOXED_TEXT_INT_MAP.deserialize(textIntMapBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ArrayMap<String[], int[]> deserializeTextIntMap() {
+    return TEXT_INT_MAP.deserialize(textIntMapBytes.duplicate(), PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeBoxedLongSet() {
+    return BOXED_LONG_SET.serialize(boxedLongSet, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeLongSet() {
+    return LONG_SET.serialize(longSet, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeBoxedLongDoubleMap() {
+    return BOXED_LONG_DOUBLE_MAP.serialize(boxedLongDoubleMap, PROTOCOL_VERSION);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeLongDoubleMap() {
+    return LONG_DOUBLE_MAP.serialize(longDoubleMap, PROTOCOL_VERSION);
+  }
+}
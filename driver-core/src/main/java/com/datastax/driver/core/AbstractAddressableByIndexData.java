@@ -32,6 +32,9 @@ abstract class AbstractAddressableByIndexData<T extends SettableByIndexData<T>>
 
   final ByteBuffer[] values;
 
+  // set when this value was decoded by TypeCodec, until it is first modified
+  private SerializedFields serialized;
+
   protected AbstractAddressableByIndexData(ProtocolVersion protocolVersion, int size) {
     super(protocolVersion);
     this.values = new ByteBuffer[size];
@@ -39,13 +42,35 @@ abstract class AbstractAddressableByIndexData<T extends SettableByIndexData<T>>
 
   @SuppressWarnings("unchecked")
   protected T setValue(int i, ByteBuffer value) {
+    if (serialized != null) {
+      serialized.copyTo(values);
+      serialized = null;
+    }
     values[i] = value;
     return (T) this;
   }
 
   @Override
   protected ByteBuffer getValue(int i) {
-    return values[i];
+    return serialized == null ? values[i] : serialized.get(i);
+  }
+
+  /**
+   * Initializes this value from its serialized form. Fields will be extracted from it when they are
+   * accessed; {@link #values} is only filled on the first modification.
+   */
+  void setSerialized(SerializedFields serialized) {
+    assert serialized.size() == values.length;
+    this.serialized = serialized;
+  }
+
+  /**
+   * Returns the serialized form this value was decoded from, if it hasn't been modified since and
+   * can be written back as is for a type with the given number of fields, or {@code null}
+   * otherwise.
+   */
+  ByteBuffer getSerialized(int length) {
+    return serialized == null ? null : serialized.getBytes(length);
   }
 
   @Override
@@ -272,8 +297,8 @@ abstract class AbstractAddressableByIndexData<T extends SettableByIndexData<T>>
       DataType thatType = that.getType(i);
       if (!thisType.equals(thatType)) return false;
 
-      Object thisValue = this.codecFor(i).deserialize(this.values[i], this.protocolVersion);
-      Object thatValue = that.codecFor(i).deserialize(that.values[i], that.protocolVersion);
+      Object thisValue = this.codecFor(i).deserialize(this.getValue(i), this.protocolVersion);
+      Object thatValue = that.codecFor(i).deserialize(that.getValue(i), that.protocolVersion);
       if (!MoreObjects.equal(thisValue, thatValue)) return false;
     }
     return true;
@@ -283,9 +308,10 @@ abstract class AbstractAddressableByIndexData<T extends SettableByIndexData<T>>
   public int hashCode() {
     // Same as equals
     int hash = 31;
-    for (int i = 0; i < values.length; i++)
-      hash +=
-          values[i] == null ? 1 : codecFor(i).deserialize(values[i], protocolVersion).hashCode();
+    for (int i = 0; i < values.length; i++) {
+      ByteBuffer value = getValue(i);
+      hash += value == null ? 1 : codecFor(i).deserialize(value, protocolVersion).hashCode();
+    }
     return hash;
   }
 }
@@ -35,6 +35,9 @@ abstract class AbstractData<T extends SettableData<T>> extends AbstractGettableD
   final T wrapped;
   final ByteBuffer[] values;
 
+  // set when this value was decoded by TypeCodec, until it is first modified
+  private SerializedFields serialized;
+
   // Ugly, we could probably clean that: it is currently needed however because we sometimes
   // want wrapped to be 'this' (UDTValue), and sometimes some other object (in BoundStatement).
   @SuppressWarnings("unchecked")
@@ -57,13 +60,35 @@ abstract class AbstractData<T extends SettableData<T>> extends AbstractGettableD
   protected abstract int[] getAllIndexesOf(String name);
 
   protected T setValue(int i, ByteBuffer value) {
+    if (serialized != null) {
+      serialized.copyTo(values);
+      serialized = null;
+    }
     values[i] = value;
     return wrapped;
   }
 
   @Override
   protected ByteBuffer getValue(int i) {
-    return values[i];
+    return serialized == null ? values[i] : serialized.get(i);
+  }
+
+  /**
+   * Initializes this value from its serialized form. Fields will be extracted from it when they are
+   * accessed; {@link #values} is only filled on the first modification.
+   */
+  void setSerialized(SerializedFields serialized) {
+    assert serialized.size() == values.length;
+    this.serialized = serialized;
+  }
+
+  /**
+   * Returns the serialized form this value was decoded from, if it hasn't been modified since and
+   * can be written back as is for a type with the given number of fields, or {@code null}
+   * otherwise.
+   */
+  ByteBuffer getSerialized(int length) {
+    return serialized == null ? null : serialized.getBytes(length);
   }
 
   @Override
@@ -569,8 +594,8 @@ abstract class AbstractData<T extends SettableData<T>> extends AbstractGettableD
       DataType thatType = that.getType(i);
       if (!thisType.equals(thatType)) return false;
 
-      Object thisValue = this.codecFor(i).deserialize(this.values[i], this.protocolVersion);
-      Object thatValue = that.codecFor(i).deserialize(that.values[i], that.protocolVersion);
+      Object thisValue = this.codecFor(i).deserialize(this.getValue(i), this.protocolVersion);
+      Object thatValue = that.codecFor(i).deserialize(that.getValue(i), that.protocolVersion);
       if (!MoreObjects.equal(thisValue, thatValue)) return false;
     }
     return true;
@@ -580,9 +605,10 @@ abstract class AbstractData<T extends SettableData<T>> extends AbstractGettableD
   public int hashCode() {
     // Same as equals
     int hash = 31;
-    for (int i = 0; i < values.length; i++)
-      hash +=
-          values[i] == null ? 1 : codecFor(i).deserialize(values[i], protocolVersion).hashCode();
+    for (int i = 0; i < values.length; i++) {
+      ByteBuffer value = getValue(i);
+      hash += value == null ? 1 : codecFor(i).deserialize(value, protocolVersion).hashCode();
+    }
     return hash;
   }
 }
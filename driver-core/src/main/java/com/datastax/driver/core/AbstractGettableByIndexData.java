@@ -241,7 +241,8 @@ abstract class AbstractGettableByIndexData implements GettableByIndexData {
   @Override
   @SuppressWarnings("unchecked")
   public <T> List<T> getList(int i, Class<T> elementsClass) {
-    return getList(i, TypeToken.of(elementsClass));
+    ByteBuffer value = getValue(i);
+    return codecFor(i, TypeTokens.listOf(elementsClass)).deserialize(value, protocolVersion);
   }
 
   /** {@inheritDoc} */
@@ -257,7 +258,8 @@ abstract class AbstractGettableByIndexData implements GettableByIndexData {
   @Override
   @SuppressWarnings("unchecked")
   public <T> Set<T> getSet(int i, Class<T> elementsClass) {
-    return getSet(i, TypeToken.of(elementsClass));
+    ByteBuffer value = getValue(i);
+    return codecFor(i, TypeTokens.setOf(elementsClass)).deserialize(value, protocolVersion);
   }
 
   /** {@inheritDoc} */
@@ -273,7 +275,9 @@ abstract class AbstractGettableByIndexData implements GettableByIndexData {
   @Override
   @SuppressWarnings("unchecked")
   public <K, V> Map<K, V> getMap(int i, Class<K> keysClass, Class<V> valuesClass) {
-    return getMap(i, TypeToken.of(keysClass), TypeToken.of(valuesClass));
+    ByteBuffer value = getValue(i);
+    return codecFor(i, TypeTokens.mapOf(keysClass, valuesClass))
+        .deserialize(value, protocolVersion);
   }
 
   /** {@inheritDoc} */
@@ -16,6 +16,7 @@
 package com.datastax.driver.core;
 
 import com.datastax.driver.core.exceptions.DriverInternalError;
+import com.google.common.reflect.TypeToken;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -80,6 +81,21 @@ class ArrayBackedRow extends AbstractGettableData implements Row {
     return metadata.codecRegistry;
   }
 
+  @Override
+  protected <T> TypeCodec<T> codecFor(int i) {
+    return metadata.codecFor(i);
+  }
+
+  @Override
+  protected <T> TypeCodec<T> codecFor(int i, Class<T> javaClass) {
+    return metadata.codecFor(i, javaClass);
+  }
+
+  @Override
+  protected <T> TypeCodec<T> codecFor(int i, TypeToken<T> javaType) {
+    return metadata.codecFor(i, javaType);
+  }
+
   @Override
   protected int getIndexOf(String name) {
     return metadata.getFirstIdx(name);
@@ -124,8 +140,7 @@ class ArrayBackedRow extends AbstractGettableData implements Row {
       ByteBuffer bb = data.get(i);
       if (bb == null) sb.append("NULL");
       else {
-        Object o =
-            getCodecRegistry().codecFor(metadata.getType(i)).deserialize(bb, protocolVersion);
+        Object o = metadata.codecFor(i).deserialize(bb, protocolVersion);
         if (o == null) {
           sb.append("NULL");
         } else {
@@ -0,0 +1,199 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.utils.MoreObjects;
+import com.google.common.util.concurrent.FutureCallback;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks how often simple statements are executed by a session, and prepares the most frequent ones
+ * in the background.
+ *
+ * <p>Frequencies are estimated with a count-min sketch, so memory usage doesn't depend on the
+ * number of distinct queries; counts are halved periodically, so that queries that were frequent a
+ * long time ago don't keep accumulating. Once a query reaches the threshold, it is prepared and
+ * remembered, up to a maximum number of queries. Queries that fail to prepare are not tried again.
+ *
+ * <p>This runs on the request path, so writes to shared memory are kept to a minimum: counts stop
+ * increasing at the threshold, only the cells that hold the estimate are incremented (conservative
+ * update), the number of additions is counted in batches in per-thread stripes, and halving runs on
+ * the given executor.
+ *
+ * @see QueryOptions#setAutoPrepareThreshold(int)
+ */
+class AutoPreparer {
+
+  private static final Logger logger = LoggerFactory.getLogger(AutoPreparer.class);
+
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 4096;
+  private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+  // halve the counts after this many additions
+  private static final int SAMPLE_SIZE = 10 * WIDTH;
+  // additions are counted locally in stripes, and added to the total in batches of this size
+  private static final int BATCH_SIZE = 64;
+  private static final int STRIPES = 16;
+  // space the stripes by a cache line, assuming 64 bytes
+  private static final int STRIPE_PADDING = 16;
+
+  private static final Entry PENDING = new Entry(null);
+  private static final Entry FAILED = new Entry(null);
+
+  private final SessionManager session;
+  private final Executor executor;
+  private final AtomicIntegerArray counts = new AtomicIntegerArray(DEPTH * WIDTH);
+  private final AtomicIntegerArray stripedAdditions =
+      new AtomicIntegerArray(STRIPES * STRIPE_PADDING);
+  private final AtomicInteger additions = new AtomicInteger();
+  private final AtomicBoolean halving = new AtomicBoolean();
+  private final ConcurrentMap<String, Entry> statements = new ConcurrentHashMap<String, Entry>();
+  // tracked separately because ConcurrentHashMap.size() can lock all segments on older JDKs
+  private final AtomicInteger statementCount = new AtomicInteger();
+
+  private final Runnable halveTask =
+      new Runnable() {
+        @Override
+        public void run() {
+          try {
+            halve();
+          } finally {
+            halving.set(false);
+          }
+        }
+      };
+
+  /**
+   * @param session the session that executes the queries.
+   * @param executor the executor to halve the counts on.
+   */
+  AutoPreparer(SessionManager session, Executor executor) {
+    this.session = session;
+    this.executor = executor;
+  }
+
+  /**
+   * Records an execution of the given query, and returns its prepared statement if it is available
+   * for the given keyspace.
+   *
+   * @param query the query string.
+   * @param keyspace the keyspace the session is currently logged into.
+   * @param threshold the number of executions after which the query gets prepared.
+   * @param maxStatements the maximum number of queries to track.
+   * @return the prepared statement, or {@code null} if the query should be executed as is.
+   */
+  PreparedStatement get(String query, String keyspace, int threshold, int maxStatements) {
+    Entry entry = statements.get(query);
+    if (entry != null) {
+      PreparedStatement prepared = entry.prepared;
+      // a statement prepared with another keyspace could target a different table
+      return prepared != null && MoreObjects.equal(prepared.getQueryKeyspace(), keyspace)
+          ? prepared
+          : null;
+    }
+    // don't bother counting if there is no room left
+    if (statementCount.get() < maxStatements
+        && increment(query, threshold) >= threshold
+        && statements.putIfAbsent(query, PENDING) == null) {
+      statementCount.incrementAndGet();
+      prepare(query);
+    }
+    return null;
+  }
+
+  private void prepare(final String query) {
+    logger.debug("Automatically preparing frequently executed query {}", query);
+    GuavaCompatibility.INSTANCE.addCallback(
+        session.prepareAsync(query),
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement prepared) {
+            statements.put(query, new Entry(prepared));
+            Metrics metrics = session.getCluster().getMetrics();
+            if (metrics != null) metrics.getAutoPreparedStatements().inc();
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            logger.debug("Could not automatically prepare query {}, will not try again", query, t);
+            statements.put(query, FAILED);
+          }
+        });
+  }
+
+  // Adds one to the count of the query, unless it has already reached the threshold, and returns
+  // its estimated count.
+  private int increment(String query, int threshold) {
+    int hash = query.hashCode();
+    int estimate = Integer.MAX_VALUE;
+    for (int i = 0; i < DEPTH; i++) estimate = Math.min(estimate, counts.get(index(hash, i)));
+    if (estimate >= threshold) return estimate;
+    for (int i = 0; i < DEPTH; i++) {
+      // The other cells already overestimate the count because of collisions. If the CAS fails,
+      // another thread has incremented the cell at the same time: one of the additions is lost,
+      // which the estimate can afford.
+      int index = index(hash, i);
+      if (counts.get(index) == estimate) counts.compareAndSet(index, estimate, estimate + 1);
+    }
+    recordAddition();
+    return estimate + 1;
+  }
+
+  private static int index(int hash, int row) {
+    int h = hash * SEEDS[row];
+    return row * WIDTH + ((h ^ (h >>> 16)) & (WIDTH - 1));
+  }
+
+  private void recordAddition() {
+    int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_PADDING;
+    // overflows are harmless, the batch size divides 2^32
+    if (stripedAdditions.incrementAndGet(stripe) % BATCH_SIZE != 0) return;
+    if (additions.addAndGet(BATCH_SIZE) >= SAMPLE_SIZE && halving.compareAndSet(false, true)) {
+      try {
+        executor.execute(halveTask);
+      } catch (RejectedExecutionException e) {
+        // the cluster is shutting down
+        halving.set(false);
+      }
+    }
+  }
+
+  private void halve() {
+    additions.set(0);
+    for (int i = 0; i < counts.length(); i++) {
+      int count;
+      do {
+        count = counts.get(i);
+      } while (!counts.compareAndSet(i, count, count >>> 1));
+    }
+  }
+
+  private static class Entry {
+    final PreparedStatement prepared;
+
+    Entry(PreparedStatement prepared) {
+      this.prepared = prepared;
+    }
+  }
+}
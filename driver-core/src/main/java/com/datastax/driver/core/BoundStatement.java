@@ -1212,5 +1212,32 @@ public class BoundStatement extends Statement
     protected CodecRegistry getCodecRegistry() {
       return wrapped.codecRegistry;
     }
+
+    // Use the codecs cached in the variables metadata, unless the statement was given a different
+    // registry.
+
+    @Override
+    protected <T> TypeCodec<T> codecFor(int i) {
+      ColumnDefinitions variables = wrapped.statement.getVariables();
+      return variables.codecRegistry == wrapped.codecRegistry
+          ? variables.<T>codecFor(i)
+          : super.<T>codecFor(i);
+    }
+
+    @Override
+    protected <T> TypeCodec<T> codecFor(int i, Class<T> javaClass) {
+      ColumnDefinitions variables = wrapped.statement.getVariables();
+      return variables.codecRegistry == wrapped.codecRegistry
+          ? variables.codecFor(i, javaClass)
+          : super.codecFor(i, javaClass);
+    }
+
+    @Override
+    protected <T> TypeCodec<T> codecFor(int i, TypeToken<T> javaType) {
+      ColumnDefinitions variables = wrapped.statement.getVariables();
+      return variables.codecRegistry == wrapped.codecRegistry
+          ? variables.codecFor(i, javaType)
+          : super.codecFor(i, javaType);
+    }
   }
 }
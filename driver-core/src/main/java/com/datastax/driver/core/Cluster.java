@@ -30,9 +30,11 @@ import com.datastax.driver.core.policies.LatencyAwarePolicy;
 import com.datastax.driver.core.policies.LoadBalancingPolicy;
 import com.datastax.driver.core.policies.Policies;
 import com.datastax.driver.core.policies.ReconnectionPolicy;
+import com.datastax.driver.core.policies.RetryBudget;
 import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy;
 import com.datastax.driver.core.utils.MoreFutures;
+import com.datastax.driver.core.utils.MoreObjects;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicates;
@@ -61,6 +63,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -126,6 +130,11 @@ public class Cluster implements Closeable {
   private static final int NOTIF_LOCK_TIMEOUT_SECONDS =
       SystemProperties.getInt("com.datastax.driver.NOTIF_LOCK_TIMEOUT_SECONDS", 60);
 
+  // Above this number of changed elements in the same keyspace, a debounced schema refresh reloads
+  // the whole keyspace instead of each element individually.
+  private static final int MAX_TARGETED_SCHEMA_REFRESHES =
+      SystemProperties.getInt("com.datastax.driver.MAX_TARGETED_SCHEMA_REFRESHES", 10);
+
   final Manager manager;
 
   /**
@@ -722,6 +731,8 @@ public class Cluster implements Closeable {
     private SSLOptions sslOptions = null;
     private boolean metricsEnabled = true;
     private boolean jmxEnabled = true;
+    private LatencyHistograms latencyHistograms;
+    private RequestTracer requestTracer;
     private boolean allowBetaProtocolVersion = false;
     private boolean noCompact = false;
 
@@ -1112,6 +1123,20 @@ public class Cluster implements Closeable {
       return this;
     }
 
+    /**
+     * Configures the retry budget to use for the new cluster.
+     *
+     * <p>If no budget is set through this method, the number of retries is only limited by the
+     * {@link RetryPolicy}.
+     *
+     * @param budget the budget to use.
+     * @return this Builder.
+     */
+    public Builder withRetryBudget(RetryBudget budget) {
+      policiesBuilder.withRetryBudget(budget);
+      return this;
+    }
+
     /**
      * Configures the {@link CodecRegistry} instance to use for the new cluster.
      *
@@ -1240,6 +1265,37 @@ public class Cluster implements Closeable {
       return this;
     }
 
+    /**
+     * Enables latency histograms (per host, per datacenter and per prepared statement).
+     *
+     * <p>They will be available with {@link Metrics#getLatencyHistograms()}. If metrics are
+     * disabled, this is a no-op.
+     *
+     * @param latencyHistograms the histograms to record.
+     * @return this builder.
+     */
+    public Builder withLatencyHistograms(LatencyHistograms latencyHistograms) {
+      this.latencyHistograms = latencyHistograms;
+      return this;
+    }
+
+    /**
+     * Configures a tracer that will be notified of the duration of each phase of each request
+     * (acquiring a connection, writing the request, waiting for the server, decoding the response,
+     * etc.).
+     *
+     * <p>This works independently of metrics. By default, no tracer is configured, and the driver
+     * does not record the corresponding timestamps.
+     *
+     * @param requestTracer the tracer to use.
+     * @return this builder.
+     * @see PhaseHistograms
+     */
+    public Builder withRequestTracer(RequestTracer requestTracer) {
+      this.requestTracer = requestTracer;
+      return this;
+    }
+
     /**
      * Sets the PoolingOptions to use for the newly created Cluster.
      *
@@ -1346,7 +1402,8 @@ public class Cluster implements Closeable {
                   noCompact)
               .setCompression(compression);
 
-      MetricsOptions metricsOptions = new MetricsOptions(metricsEnabled, jmxEnabled);
+      MetricsOptions metricsOptions =
+          new MetricsOptions(metricsEnabled, jmxEnabled, latencyHistograms, requestTracer);
 
       return configurationBuilder
           .withProtocolOptions(protocolOptions)
@@ -1438,6 +1495,8 @@ public class Cluster implements Closeable {
     EventDebouncer<NodeRefreshRequest> nodeRefreshRequestDebouncer;
     EventDebouncer<SchemaRefreshRequest> schemaRefreshRequestDebouncer;
 
+    SchemaAgreementTracker schemaAgreementTracker;
+
     private Manager(
         String clusterName,
         List<InetSocketAddress> contactPoints,
@@ -1499,8 +1558,30 @@ public class Cluster implements Closeable {
         this.connectionFactory = new Connection.Factory(this, configuration);
         this.controlConnection = new ControlConnection(this);
         this.metrics = configuration.getMetricsOptions().isEnabled() ? new Metrics(this) : null;
+        if (metrics != null && metrics.getLatencyHistograms() != null)
+          latencyTrackers.add(metrics.getLatencyHistograms());
         this.preparedQueries = new MapMaker().weakValues().makeMap();
 
+        this.schemaAgreementTracker =
+            new SchemaAgreementTracker(scheduledTasksExecutor) {
+              @Override
+              ListenableFuture<Boolean> checkAgreement(Connection connection) {
+                return ControlConnection.checkSchemaAgreementAsync(connection, Manager.this);
+              }
+
+              @Override
+              long maxWaitNanos() {
+                return TimeUnit.SECONDS.toNanos(
+                    configuration.getProtocolOptions().getMaxSchemaAgreementWaitSeconds());
+              }
+
+              @Override
+              void onCompleted(long elapsedNanos, boolean agreement) {
+                if (metrics != null)
+                  metrics.getSchemaAgreementTimer().update(elapsedNanos, TimeUnit.NANOSECONDS);
+              }
+            };
+
         // create debouncers - at this stage, they are not running yet
         final QueryOptions queryOptions = configuration.getQueryOptions();
         this.nodeListRefreshRequestDebouncer =
@@ -2501,16 +2582,12 @@ public class Cluster implements Closeable {
       final boolean refreshSchema =
           (targetKeyspace != null); // if false, only wait for schema agreement
 
-      executor.submit(
-          new Runnable() {
+      GuavaCompatibility.INSTANCE.addCallback(
+          schemaAgreementTracker.waitForAgreement(connection),
+          new FutureCallback<Boolean>() {
             @Override
-            public void run() {
-              boolean schemaInAgreement = false;
+            public void onSuccess(final Boolean schemaInAgreement) {
               try {
-                // Before refreshing the schema, wait for schema agreement so
-                // that querying a table just after having created it don't fail.
-                schemaInAgreement =
-                    ControlConnection.waitForSchemaAgreement(connection, Cluster.Manager.this);
                 if (!schemaInAgreement)
                   logger.warn(
                       "No schema agreement from live replicas after {} s. The schema may not be up to date on some nodes.",
@@ -2526,25 +2603,29 @@ public class Cluster implements Closeable {
                 } else {
                   schemaReady = MoreFutures.VOID_SUCCESS;
                 }
-                final boolean finalSchemaInAgreement = schemaInAgreement;
                 schemaReady.addListener(
                     new Runnable() {
                       @Override
                       public void run() {
-                        rs.getExecutionInfo().setSchemaInAgreement(finalSchemaInAgreement);
+                        rs.getExecutionInfo().setSchemaInAgreement(schemaInAgreement);
                         future.setResult(rs);
                       }
                     },
                     GuavaCompatibility.INSTANCE.sameThreadExecutor());
-
               } catch (Exception e) {
-                logger.warn("Error while waiting for schema agreement", e);
-                // This is not fatal, complete the future anyway
-                rs.getExecutionInfo().setSchemaInAgreement(schemaInAgreement);
-                future.setResult(rs);
+                onFailure(e);
               }
             }
-          });
+
+            @Override
+            public void onFailure(Throwable t) {
+              logger.warn("Error while waiting for schema agreement", t);
+              // This is not fatal, complete the future anyway
+              rs.getExecutionInfo().setSchemaInAgreement(false);
+              future.setResult(rs);
+            }
+          },
+          executor);
     }
 
     // Called when some message has been received but has been initiated from the server (streamId <
@@ -2580,6 +2661,7 @@ public class Cluster implements Closeable {
           }
           break;
         case STATUS_CHANGE:
+          schemaAgreementTracker.onEvent();
           ProtocolEvent.StatusChange stc = (ProtocolEvent.StatusChange) event;
           InetSocketAddress stAddr = translateAddress(stc.node.getAddress());
           Host.statesLogger.debug("[{}] received event {}", stAddr, stc.status);
@@ -2593,6 +2675,7 @@ public class Cluster implements Closeable {
           }
           break;
         case SCHEMA_CHANGE:
+          schemaAgreementTracker.onEvent();
           if (!configuration.getQueryOptions().isMetadataEnabled()) return;
 
           ProtocolEvent.SchemaChange scc = (ProtocolEvent.SchemaChange) event;
@@ -2821,24 +2904,20 @@ public class Cluster implements Closeable {
         this.targetSignature = targetSignature;
       }
 
-      /**
-       * Coalesce schema refresh requests. The algorithm is simple: if more than 2 keyspaces need
-       * refresh, then refresh the entire schema; otherwise if more than 2 elements in the same
-       * keyspace need refresh, then refresh the entire keyspace.
-       *
-       * @param that the other request to merge with the current one.
-       * @return A coalesced request
-       */
-      SchemaRefreshRequest coalesce(SchemaRefreshRequest that) {
-        if (this.targetType == null || that.targetType == null)
-          return new SchemaRefreshRequest(null, null, null, null);
-        if (!this.targetKeyspace.equals(that.targetKeyspace))
-          return new SchemaRefreshRequest(null, null, null, null);
-        if (this.targetName == null || that.targetName == null)
-          return new SchemaRefreshRequest(KEYSPACE, targetKeyspace, null, null);
-        if (!this.targetName.equals(that.targetName))
-          return new SchemaRefreshRequest(KEYSPACE, targetKeyspace, null, null);
-        return this;
+      @Override
+      public boolean equals(Object other) {
+        if (other == this) return true;
+        if (!(other instanceof SchemaRefreshRequest)) return false;
+        SchemaRefreshRequest that = (SchemaRefreshRequest) other;
+        return this.targetType == that.targetType
+            && MoreObjects.equal(this.targetKeyspace, that.targetKeyspace)
+            && MoreObjects.equal(this.targetName, that.targetName)
+            && MoreObjects.equal(this.targetSignature, that.targetSignature);
+      }
+
+      @Override
+      public int hashCode() {
+        return MoreObjects.hashCode(targetType, targetKeyspace, targetName, targetSignature);
       }
 
       @Override
@@ -2849,6 +2928,53 @@ public class Cluster implements Closeable {
       }
     }
 
+    /**
+     * Coalesce schema refresh requests. If the whole schema or more than one keyspace need a
+     * refresh, then refresh the entire schema. Otherwise, refresh each distinct element
+     * individually, unless more than {@code MAX_TARGETED_SCHEMA_REFRESHES} elements of the same
+     * keyspace changed, in which case refresh that keyspace as a whole.
+     *
+     * <p>Targeted refreshes only query the system rows of the changed elements, which is much
+     * cheaper than reloading a keyspace that contains a large number of tables.
+     *
+     * @param requests the requests to merge.
+     * @return the coalesced requests, in the order they should be executed.
+     */
+    private List<SchemaRefreshRequest> coalesce(List<SchemaRefreshRequest> requests) {
+      Set<String> refreshedKeyspaces = new LinkedHashSet<String>();
+      for (SchemaRefreshRequest request : requests) {
+        if (request.targetType == null)
+          return Collections.singletonList(new SchemaRefreshRequest(null, null, null, null));
+        if (request.targetName == null) refreshedKeyspaces.add(request.targetKeyspace);
+      }
+      if (refreshedKeyspaces.size() > 1)
+        return Collections.singletonList(new SchemaRefreshRequest(null, null, null, null));
+
+      // Group the remaining element requests by keyspace, removing duplicates
+      Map<String, Set<SchemaRefreshRequest>> elementsByKeyspace =
+          new LinkedHashMap<String, Set<SchemaRefreshRequest>>();
+      for (SchemaRefreshRequest request : requests) {
+        if (refreshedKeyspaces.contains(request.targetKeyspace)) continue;
+        Set<SchemaRefreshRequest> elements = elementsByKeyspace.get(request.targetKeyspace);
+        if (elements == null) {
+          elements = new LinkedHashSet<SchemaRefreshRequest>();
+          elementsByKeyspace.put(request.targetKeyspace, elements);
+        }
+        elements.add(request);
+      }
+
+      List<SchemaRefreshRequest> coalesced = new ArrayList<SchemaRefreshRequest>();
+      for (String keyspace : refreshedKeyspaces) {
+        coalesced.add(new SchemaRefreshRequest(KEYSPACE, keyspace, null, null));
+      }
+      for (Map.Entry<String, Set<SchemaRefreshRequest>> entry : elementsByKeyspace.entrySet()) {
+        if (entry.getValue().size() > MAX_TARGETED_SCHEMA_REFRESHES)
+          coalesced.add(new SchemaRefreshRequest(KEYSPACE, entry.getKey(), null, null));
+        else coalesced.addAll(entry.getValue());
+      }
+      return coalesced;
+    }
+
     private class SchemaRefreshRequestDeliveryCallback
         implements EventDebouncer.DeliveryCallback<SchemaRefreshRequest> {
 
@@ -2858,17 +2984,16 @@ public class Cluster implements Closeable {
             new ExceptionCatchingRunnable() {
               @Override
               public void runMayThrow() throws InterruptedException, ExecutionException {
-                SchemaRefreshRequest coalesced = null;
-                for (SchemaRefreshRequest request : events) {
-                  coalesced = coalesced == null ? request : coalesced.coalesce(request);
+                List<SchemaRefreshRequest> coalesced = coalesce(events);
+                assert !coalesced.isEmpty();
+                logger.trace("Coalesced schema refresh requests: {}", coalesced);
+                for (SchemaRefreshRequest request : coalesced) {
+                  controlConnection.refreshSchema(
+                      request.targetType,
+                      request.targetKeyspace,
+                      request.targetName,
+                      request.targetSignature);
                 }
-                assert coalesced != null;
-                logger.trace("Coalesced schema refresh request: {}", coalesced);
-                controlConnection.refreshSchema(
-                    coalesced.targetType,
-                    coalesced.targetKeyspace,
-                    coalesced.targetName,
-                    coalesced.targetSignature);
               }
             });
       }
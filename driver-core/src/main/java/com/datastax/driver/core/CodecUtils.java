@@ -15,6 +15,8 @@
  */
 package com.datastax.driver.core;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.nio.ByteBuffer;
 
 /** A set of utility methods to deal with type conversion and serialization. */
@@ -209,7 +211,7 @@ public final class CodecUtils {
     return ((long) days + EPOCH_AS_CQL_LONG);
   }
 
-  private static int sizeOfCollectionSize(ProtocolVersion version) {
+  static int sizeOfCollectionSize(ProtocolVersion version) {
     switch (version) {
       case V1:
       case V2:
@@ -243,6 +245,180 @@ public final class CodecUtils {
     }
   }
 
+  /**
+   * Returns the number of bytes taken by a value of the given size, including its size prefix.
+   *
+   * @param valueSize the size of the value, or -1 if it is {@code null}.
+   */
+  static int sizeOfValue(int valueSize, ProtocolVersion version) {
+    switch (version) {
+      case V1:
+      case V2:
+        assert valueSize >= 0;
+        if (valueSize > 65535)
+          throw new IllegalArgumentException(
+              String.format(
+                  "Native protocol version %d supports only elements with size up to 65535 bytes - but element size is %d bytes",
+                  version.toInt(), valueSize));
+        return 2 + valueSize;
+      case V3:
+      case V4:
+      case V5:
+        return valueSize < 0 ? 4 : 4 + valueSize;
+      default:
+        throw version.unsupported();
+    }
+  }
+
+  /** Same as {@link #writeSize(ByteBuffer, int, ProtocolVersion)}, but for a Netty buffer. */
+  static void writeSize(ByteBuf output, int size, ProtocolVersion version) {
+    switch (version) {
+      case V1:
+      case V2:
+        if (size > 65535)
+          throw new IllegalArgumentException(
+              String.format(
+                  "Native protocol version %d supports up to 65535 elements in any collection - but collection contains %d elements",
+                  version.toInt(), size));
+        output.writeShort(size);
+        break;
+      case V3:
+      case V4:
+      case V5:
+        output.writeInt(size);
+        break;
+      default:
+        throw version.unsupported();
+    }
+  }
+
+  /**
+   * Writes a non-null value with its size prefix, using {@link TypeCodec#writeTo(Object, ByteBuf,
+   * ProtocolVersion)}. The size prefix is written after the value, so that the size of the value
+   * doesn't need to be computed twice.
+   */
+  static <T> void writeValue(ByteBuf output, TypeCodec<T> codec, T value, ProtocolVersion version) {
+    int sizeIndex = output.writerIndex();
+    switch (version) {
+      case V1:
+      case V2:
+        output.writeShort(0);
+        codec.writeTo(value, output, version);
+        output.setShort(sizeIndex, output.writerIndex() - sizeIndex - 2);
+        break;
+      case V3:
+      case V4:
+      case V5:
+        output.writeInt(0);
+        codec.writeTo(value, output, version);
+        output.setInt(sizeIndex, output.writerIndex() - sizeIndex - 4);
+        break;
+      default:
+        throw version.unsupported();
+    }
+  }
+
+  /**
+   * Serializes a value in a single buffer allocation, using {@link TypeCodec#encodedSize(Object,
+   * ProtocolVersion)} and {@link TypeCodec#writeTo(Object, ByteBuf, ProtocolVersion)}.
+   */
+  static <T> ByteBuffer serializeWithWriteTo(TypeCodec<T> codec, T value, ProtocolVersion version) {
+    int size = codec.encodedSize(value, version);
+    if (size < 0) return null;
+    byte[] bytes = new byte[size];
+    ByteBuf output = Unpooled.wrappedBuffer(bytes);
+    output.clear();
+    codec.writeTo(value, output, version);
+    assert output.writerIndex() == size;
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /** Computes the serialized size of the fields of a UDT or tuple value. */
+  static int sizeOfFields(AbstractGettableByIndexData data, int count, int length) {
+    int size = 0;
+    for (int i = 0; i < length; i++) {
+      ByteBuffer value = i < count ? data.getValue(i) : null;
+      size += 4 + (value == null ? 0 : value.remaining());
+    }
+    return size;
+  }
+
+  /** Writes the fields of a UDT or tuple value. */
+  static void writeFields(ByteBuf output, AbstractGettableByIndexData data, int count, int length) {
+    for (int i = 0; i < length; i++) {
+      ByteBuffer value = i < count ? data.getValue(i) : null;
+      if (value == null) {
+        output.writeInt(-1);
+      } else {
+        output.writeInt(value.remaining());
+        output.writeBytes(value.duplicate());
+      }
+    }
+  }
+
+  /**
+   * Returns the length of the UTF-8 encoding of the given string. This matches {@code
+   * String.getBytes("UTF-8")}: unpaired surrogates are encoded as {@code '?'}.
+   */
+  static int utf8Length(CharSequence s) {
+    int length = s.length();
+    int size = length;
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) continue;
+      if (c < 0x800) {
+        size += 1;
+      } else if (isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          // 4 bytes for 2 chars
+          size += 2;
+          i += 1;
+        }
+        // else unpaired surrogate, encoded as 1 byte
+      } else {
+        size += 2;
+      }
+    }
+    return size;
+  }
+
+  /** Writes the UTF-8 encoding of the given string, as computed by {@link #utf8Length}. */
+  static void writeUtf8(CharSequence s, ByteBuf output) {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        output.writeByte(c);
+      } else if (c < 0x800) {
+        output.writeByte(0xC0 | (c >> 6));
+        output.writeByte(0x80 | (c & 0x3F));
+      } else if (isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+          output.writeByte(0xF0 | (codePoint >> 18));
+          output.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+          output.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+          output.writeByte(0x80 | (codePoint & 0x3F));
+          i += 1;
+        } else {
+          output.writeByte('?');
+        }
+      } else {
+        output.writeByte(0xE0 | (c >> 12));
+        output.writeByte(0x80 | ((c >> 6) & 0x3F));
+        output.writeByte(0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  private static boolean isSurrogate(char c) {
+    return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+  }
+
   private static int getUnsignedShort(ByteBuffer bb) {
     int length = (bb.get() & 0xFF) << 8;
     return length | (bb.get() & 0xFF);
@@ -15,11 +15,12 @@
  */
 package com.datastax.driver.core;
 
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.google.common.reflect.TypeToken;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Metadata describing the columns returned in a {@link ResultSet} or a {@link PreparedStatement}.
@@ -63,23 +64,40 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
       new ColumnDefinitions(new Definition[0], CodecRegistry.DEFAULT_INSTANCE);
 
   private final Definition[] byIdx;
-  private final Map<String, int[]> byName;
   final CodecRegistry codecRegistry;
 
+  // Open-addressing table of the column names, hashed and compared case-insensitively so that
+  // lookups don't allocate. Each slot holds the first name of a group of names that only differ
+  // by case, and the indexes of all the columns in that group.
+  private final String[] nameKeys;
+  private final int[][] nameIndexes;
+
+  // The codecs resolved so far for each column, populated lazily by codecFor.
+  private final AtomicReferenceArray<ResolvedCodec> codecs;
+
   ColumnDefinitions(Definition[] defs, CodecRegistry codecRegistry) {
 
     this.byIdx = defs;
     this.codecRegistry = codecRegistry;
-    this.byName = new HashMap<String, int[]>(defs.length);
+    this.codecs = new AtomicReferenceArray<ResolvedCodec>(defs.length);
+
+    // Keep the load factor under 0.5
+    int capacity = Integer.highestOneBit(Math.max(defs.length, 1)) << 2;
+    this.nameKeys = new String[capacity];
+    this.nameIndexes = new int[capacity][];
 
     for (int i = 0; i < defs.length; i++) {
-      // Be optimistic, 99% of the time, previous will be null.
-      int[] previous = this.byName.put(defs[i].name.toLowerCase(), new int[] {i});
-      if (previous != null) {
+      String name = defs[i].name;
+      int slot = findSlot(name, 0, name.length());
+      int[] previous = nameIndexes[slot];
+      if (previous == null) {
+        nameKeys[slot] = name;
+        nameIndexes[slot] = new int[] {i};
+      } else {
         int[] indexes = new int[previous.length + 1];
         System.arraycopy(previous, 0, indexes, 0, previous.length);
         indexes[indexes.length - 1] = i;
-        this.byName.put(defs[i].name.toLowerCase(), indexes);
+        nameIndexes[slot] = indexes;
       }
     }
   }
@@ -115,6 +133,23 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
     return findFirstIdx(name);
   }
 
+  /**
+   * Resolves the given column name once, in order to read that column from many rows without
+   * looking up its name every time.
+   *
+   * <p>The returned accessor can be used with the rows of any page of the result set this metadata
+   * was obtained from.
+   *
+   * @param name the name of the column, following the same rules as the other name-based methods of
+   *     this class.
+   * @return the accessor.
+   * @throws IllegalArgumentException if {@code name} is not in this metadata.
+   */
+  public Accessor accessor(String name) {
+    int i = getFirstIdx(name);
+    return new Accessor(i, byIdx[i], this);
+  }
+
   /**
    * Returns an iterator over the {@link Definition} contained in this metadata.
    *
@@ -241,31 +276,63 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
   }
 
   int[] findAllIdx(String name) {
+    int start = 0, end = name.length();
     boolean caseSensitive = false;
-    if (name.length() >= 2 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
-      name = name.substring(1, name.length() - 1);
+    if (end >= 2 && name.charAt(0) == '"' && name.charAt(end - 1) == '"') {
+      start += 1;
+      end -= 1;
       caseSensitive = true;
     }
 
-    int[] indexes = byName.get(name.toLowerCase());
+    int[] indexes = nameIndexes[findSlot(name, start, end)];
     if (!caseSensitive || indexes == null) return indexes;
 
     // First, optimistic and assume all are matching
     int nbMatch = 0;
-    for (int i = 0; i < indexes.length; i++) if (name.equals(byIdx[indexes[i]].name)) nbMatch++;
+    for (int i = 0; i < indexes.length; i++)
+      if (matches(byIdx[indexes[i]].name, name, start, end, false)) nbMatch++;
 
     if (nbMatch == indexes.length) return indexes;
+    if (nbMatch == 0) return null;
 
     int[] result = new int[nbMatch];
     int j = 0;
     for (int i = 0; i < indexes.length; i++) {
       int idx = indexes[i];
-      if (name.equals(byIdx[idx].name)) result[j++] = idx;
+      if (matches(byIdx[idx].name, name, start, end, false)) result[j++] = idx;
     }
 
     return result;
   }
 
+  /**
+   * Returns the slot of the table that contains {@code name.substring(start, end)} (case
+   * insensitively), or the empty slot where it would be inserted.
+   */
+  private int findSlot(String name, int start, int end) {
+    int mask = nameKeys.length - 1;
+    int slot = hashIgnoreCase(name, start, end) & mask;
+    while (true) {
+      String key = nameKeys[slot];
+      if (key == null || matches(key, name, start, end, true)) return slot;
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private static boolean matches(String key, String name, int start, int end, boolean ignoreCase) {
+    int length = end - start;
+    return key.length() == length && key.regionMatches(ignoreCase, 0, name, start, length);
+  }
+
+  // Consistent with String.regionMatches(true, ...): two characters are equal if their upper case
+  // forms are, or if the lower case forms of these are.
+  private static int hashIgnoreCase(String name, int start, int end) {
+    int h = 0;
+    for (int i = start; i < end; i++)
+      h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+    return h ^ (h >>> 16);
+  }
+
   int[] getAllIdx(String name) {
     int[] indexes = findAllIdx(name);
     if (indexes == null)
@@ -278,6 +345,199 @@ public class ColumnDefinitions implements Iterable<ColumnDefinitions.Definition>
     return getAllIdx(name)[0];
   }
 
+  /**
+   * Returns the codec for the {@code i}th column and the given Java type, as {@link
+   * CodecRegistry#codecFor(DataType, Class)} would.
+   *
+   * <p>The result is remembered for the lifetime of this object, so that accessing the same column
+   * of every row in a page only looks up the registry once. This is consistent with the registry
+   * itself, which never changes the codec it returns for a given pair of types once it has been
+   * resolved.
+   */
+  <T> TypeCodec<T> codecFor(int i, Class<T> javaClass) {
+    TypeCodec<T> codec = getResolvedCodec(i, javaClass);
+    if (codec == null) {
+      codec = codecRegistry.codecFor(byIdx[i].type, javaClass);
+      addResolvedCodec(i, javaClass, codec);
+    }
+    return codec;
+  }
+
+  /** Same as {@link #codecFor(int, Class)}, for a generic Java type. */
+  <T> TypeCodec<T> codecFor(int i, TypeToken<T> javaType) {
+    TypeCodec<T> codec = getResolvedCodec(i, javaType);
+    if (codec == null) {
+      codec = codecRegistry.codecFor(byIdx[i].type, javaType);
+      addResolvedCodec(i, javaType, codec);
+    }
+    return codec;
+  }
+
+  /** Same as {@link #codecFor(int, Class)}, when any Java type is acceptable. */
+  <T> TypeCodec<T> codecFor(int i) {
+    TypeCodec<T> codec = getResolvedCodec(i, null);
+    if (codec == null) {
+      codec = codecRegistry.codecFor(byIdx[i].type);
+      addResolvedCodec(i, null, codec);
+    }
+    return codec;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> TypeCodec<T> getResolvedCodec(int i, Object javaType) {
+    for (ResolvedCodec resolved = codecs.get(i); resolved != null; resolved = resolved.next) {
+      if (resolved.javaType == javaType || (javaType != null && javaType.equals(resolved.javaType)))
+        return (TypeCodec<T>) resolved.codec;
+    }
+    return null;
+  }
+
+  private void addResolvedCodec(int i, Object javaType, TypeCodec<?> codec) {
+    ResolvedCodec head = codecs.get(i);
+    // A column is rarely read as more than a couple of Java types, don't let a pathological client
+    // grow the list indefinitely.
+    if (head != null && head.depth >= ResolvedCodec.MAX_DEPTH) return;
+    // If another thread won the race, the codec will simply be resolved again next time.
+    codecs.compareAndSet(i, head, new ResolvedCodec(javaType, codec, head));
+  }
+
+  /** A node in the list of codecs resolved for a column. */
+  private static class ResolvedCodec {
+    static final int MAX_DEPTH = 8;
+
+    // Either a Class, a TypeToken, or null for codecFor(int)
+    final Object javaType;
+    final TypeCodec<?> codec;
+    final ResolvedCodec next;
+    final int depth;
+
+    ResolvedCodec(Object javaType, TypeCodec<?> codec, ResolvedCodec next) {
+      this.javaType = javaType;
+      this.codec = codec;
+      this.next = next;
+      this.depth = next == null ? 1 : next.depth + 1;
+    }
+  }
+
+  /**
+   * A handle to read a given column from rows, without resolving its name every time.
+   *
+   * <p>For example:
+   *
+   * <pre>{@code
+   * ResultSet rs = session.execute("SELECT id, name FROM users");
+   * ColumnDefinitions.Accessor name = rs.getColumnDefinitions().accessor("name");
+   * for (Row row : rs) {
+   *   String value = name.get(row, String.class);
+   *   ...
+   * }
+   * }</pre>
+   *
+   * Instances of this class are thread-safe.
+   *
+   * @see ColumnDefinitions#accessor(String)
+   */
+  public static class Accessor {
+
+    private final int index;
+    private final Definition definition;
+
+    // The last metadata that was checked. Races are harmless: at worst a page is checked twice.
+    private ColumnDefinitions checkedMetadata;
+
+    private Accessor(int index, Definition definition, ColumnDefinitions metadata) {
+      this.index = index;
+      this.definition = definition;
+      this.checkedMetadata = metadata;
+    }
+
+    /**
+     * Returns the index of the column in the rows.
+     *
+     * @return the index of the column.
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    /**
+     * Returns the definition of the column.
+     *
+     * @return the definition of the column.
+     */
+    public Definition getDefinition() {
+      return definition;
+    }
+
+    /**
+     * Returns whether the column is {@code NULL} in the given row.
+     *
+     * @param row the row, which must come from the same result set as the metadata this accessor
+     *     was resolved from.
+     * @return whether the value is {@code NULL}.
+     * @throws IllegalArgumentException if the row does not have this column at the expected index.
+     */
+    public boolean isNull(Row row) {
+      return checkRow(row).isNull(index);
+    }
+
+    /**
+     * Returns the value of the column in the given row, converted to the given Java type.
+     *
+     * <p>This is equivalent to {@code row.get(getIndex(), targetClass)}, but also checks that the
+     * row has the expected column at that index.
+     *
+     * @param row the row, which must come from the same result set as the metadata this accessor
+     *     was resolved from.
+     * @param targetClass the Java type to convert the value to.
+     * @return the value, converted to {@code targetClass}.
+     * @throws IllegalArgumentException if the row does not have this column at the expected index.
+     * @throws CodecNotFoundException if there is no registered codec to convert the value to the
+     *     specified class.
+     * @see GettableByIndexData#get(int, Class)
+     */
+    public <T> T get(Row row, Class<T> targetClass) {
+      return checkRow(row).get(index, targetClass);
+    }
+
+    /**
+     * Returns the value of the column in the given row, converted to the given Java type.
+     *
+     * <p>This is equivalent to {@code row.get(getIndex(), targetType)}, but also checks that the
+     * row has the expected column at that index.
+     *
+     * @param row the row, which must come from the same result set as the metadata this accessor
+     *     was resolved from.
+     * @param targetType the Java type to convert the value to.
+     * @return the value, converted to {@code targetType}.
+     * @throws IllegalArgumentException if the row does not have this column at the expected index.
+     * @throws CodecNotFoundException if there is no registered codec to convert the value to the
+     *     specified type.
+     * @see GettableByIndexData#get(int, TypeToken)
+     */
+    public <T> T get(Row row, TypeToken<T> targetType) {
+      return checkRow(row).get(index, targetType);
+    }
+
+    private Row checkRow(Row row) {
+      // Rows of the same page share their metadata, so this is only checked once per page
+      ColumnDefinitions metadata = row.getColumnDefinitions();
+      if (metadata != checkedMetadata) {
+        if (index >= metadata.size() || !definition.equals(metadata.byIdx[index]))
+          throw new IllegalArgumentException(
+              String.format(
+                  "%s does not have column %s at index %d", metadata, definition.name, index));
+        checkedMetadata = metadata;
+      }
+      return row;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Accessor[%s(%s) at %d]", definition.name, definition.type, index);
+    }
+  }
+
   /** A column definition. */
   public static class Definition {
 
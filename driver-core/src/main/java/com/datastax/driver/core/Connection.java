@@ -63,6 +63,7 @@ import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.Timeout;
 import io.netty.util.Timer;
 import io.netty.util.TimerTask;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.lang.ref.WeakReference;
 import java.net.InetSocketAddress;
@@ -541,6 +542,14 @@ class Connection {
     return dispatcher.streamIdHandler.maxAvailableStreams();
   }
 
+  /**
+   * The number of requests that were abandoned (timed out or cancelled) before their response
+   * arrived, and whose stream ids can't be reused yet.
+   */
+  int orphanedStreams() {
+    return dispatcher.streamIdHandler.markedStreams();
+  }
+
   <E extends Throwable> E defunct(E e) {
     if (isDefunct.compareAndSet(false, true)) {
 
@@ -707,8 +716,18 @@ class Connection {
   ResponseHandler write(
       ResponseCallback callback, long statementReadTimeoutMillis, boolean startTimeout)
       throws ConnectionException, BusyConnectionException {
+    return write(callback, statementReadTimeoutMillis, startTimeout, null);
+  }
 
-    ResponseHandler handler = new ResponseHandler(this, statementReadTimeoutMillis, callback);
+  ResponseHandler write(
+      ResponseCallback callback,
+      long statementReadTimeoutMillis,
+      boolean startTimeout,
+      TracedRequest trace)
+      throws ConnectionException, BusyConnectionException {
+
+    ResponseHandler handler =
+        new ResponseHandler(this, statementReadTimeoutMillis, callback, trace);
     dispatcher.add(handler);
 
     Message.Request request = callback.request().setStreamId(handler.streamId);
@@ -738,6 +757,8 @@ class Connection {
       flush(new FlushItem(channel, request, writeHandler(request, handler)));
     }
     if (startTimeout) handler.startTimeout();
+    if (trace != null)
+      trace.onPhase(RequestTracer.Phase.STREAM_ID, handler.streamIdStart, handler.startTime);
 
     return handler;
   }
@@ -787,6 +808,11 @@ class Connection {
         } else {
           logger.trace(
               "{}, stream {}, request sent successfully", Connection.this, request.getStreamId());
+          if (handler.trace != null) {
+            handler.writtenNanos = System.nanoTime();
+            handler.trace.onPhase(
+                RequestTracer.Phase.WRITE, handler.startTime, handler.writtenNanos);
+          }
         }
       }
     };
@@ -896,6 +922,9 @@ class Connection {
 
     final Timer timer;
 
+    // null unless NettyOptions.scheduleTimeoutsOnEventLoops() is enabled
+    final EventLoopTimer eventLoopTimer;
+
     final EventLoopGroup eventLoopGroup;
     private final Class<? extends Channel> channelClass;
 
@@ -907,6 +936,7 @@ class Connection {
     final Cluster.Manager manager;
     final Cluster.ConnectionReaper reaper;
     final Configuration configuration;
+    final RequestTracer requestTracer;
 
     final AuthProvider authProvider;
     private volatile boolean isShutdown;
@@ -919,6 +949,7 @@ class Connection {
       this.manager = manager;
       this.reaper = manager.reaper;
       this.configuration = configuration;
+      this.requestTracer = configuration.getMetricsOptions().getRequestTracer();
       this.authProvider = configuration.getProtocolOptions().getAuthProvider();
       this.protocolVersion = configuration.getProtocolOptions().initialProtocolVersion;
       this.nettyOptions = configuration.getNettyOptions();
@@ -935,6 +966,29 @@ class Connection {
                   .configuration
                   .getThreadingOptions()
                   .createThreadFactory(manager.clusterName, "timeouter"));
+      this.eventLoopTimer =
+          nettyOptions.scheduleTimeoutsOnEventLoops() ? new EventLoopTimer(eventLoopGroup) : null;
+    }
+
+    /**
+     * Schedules a read timeout or speculative execution.
+     *
+     * @param channel the channel the task relates to. If the task is scheduled on the event loops,
+     *     it will run on the channel's event loop; if {@code null}, an event loop is picked.
+     */
+    Timeout newTimeout(TimerTask task, long delayMillis, Channel channel) {
+      if (eventLoopTimer == null) return timer.newTimeout(task, delayMillis, TimeUnit.MILLISECONDS);
+      EventExecutor executor = channel == null ? eventLoopGroup.next() : channel.eventLoop();
+      return eventLoopTimer.newTimeout(task, delayMillis, TimeUnit.MILLISECONDS, executor);
+    }
+
+    /** Records how late a read timeout or speculative execution ran. */
+    void recordTimerLag(long deadlineNanos) {
+      Metrics metrics = manager.metrics;
+      if (metrics != null)
+        metrics
+            .getTimerLag()
+            .update(Math.max(0, System.nanoTime() - deadlineNanos), TimeUnit.NANOSECONDS);
     }
 
     int getPort() {
@@ -1230,8 +1284,23 @@ class Connection {
         return;
       }
       handler.cancelTimeout();
-      handler.callback.onSet(
-          Connection.this, response, System.nanoTime() - handler.startTime, handler.retryCount);
+      if (handler.trace == null) {
+        handler.callback.onSet(
+            Connection.this, response, System.nanoTime() - handler.startTime, handler.retryCount);
+      } else {
+        long dispatchedNanos = System.nanoTime();
+        handler.callback.onSet(
+            Connection.this, response, dispatchedNanos - handler.startTime, handler.retryCount);
+        long completedNanos = System.nanoTime();
+        // writtenNanos should always be set at this point, but don't report garbage if it's not
+        if (handler.writtenNanos != 0 && response.receivedNanos != 0)
+          handler.trace.onPhase(
+              RequestTracer.Phase.SERVER, handler.writtenNanos, response.receivedNanos);
+        if (response.receivedNanos != 0)
+          handler.trace.onPhase(
+              RequestTracer.Phase.DECODE, response.receivedNanos, dispatchedNanos);
+        handler.trace.onPhase(RequestTracer.Phase.COMPLETION, dispatchedNanos, completedNanos);
+      }
 
       // If we happen to be closed and we're the last outstanding request, we need to terminate the
       // connection
@@ -1520,34 +1589,56 @@ class Connection {
     final ResponseCallback callback;
     final int retryCount;
     private final long readTimeoutMillis;
+    // null unless a RequestTracer is configured
+    final TracedRequest trace;
 
     private final long startTime;
+    // When the allocation of the stream id started (only recorded if trace != null)
+    private final long streamIdStart;
+    // When the request was written to the socket (only recorded if trace != null)
+    volatile long writtenNanos;
     private volatile Timeout timeout;
+    private volatile long timeoutDeadline;
 
     private final AtomicBoolean isCancelled = new AtomicBoolean();
 
     ResponseHandler(
         Connection connection, long statementReadTimeoutMillis, ResponseCallback callback)
         throws BusyConnectionException {
+      this(connection, statementReadTimeoutMillis, callback, null);
+    }
+
+    ResponseHandler(
+        Connection connection,
+        long statementReadTimeoutMillis,
+        ResponseCallback callback,
+        TracedRequest trace)
+        throws BusyConnectionException {
       this.connection = connection;
       this.readTimeoutMillis =
           (statementReadTimeoutMillis >= 0)
               ? statementReadTimeoutMillis
               : connection.factory.getReadTimeoutMillis();
+      this.streamIdStart = (trace == null) ? 0 : System.nanoTime();
       this.streamId = connection.dispatcher.streamIdHandler.next();
       if (streamId == -1) throw new BusyConnectionException(connection.address);
       this.callback = callback;
       this.retryCount = callback.retryCount();
+      this.trace = trace;
 
       this.startTime = System.nanoTime();
     }
 
     void startTimeout() {
-      this.timeout =
-          this.readTimeoutMillis <= 0
-              ? null
-              : connection.factory.timer.newTimeout(
-                  onTimeoutTask(), this.readTimeoutMillis, TimeUnit.MILLISECONDS);
+      if (this.readTimeoutMillis <= 0) {
+        this.timeout = null;
+      } else {
+        this.timeoutDeadline =
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.readTimeoutMillis);
+        this.timeout =
+            connection.factory.newTimeout(
+                onTimeoutTask(), this.readTimeoutMillis, connection.channel);
+      }
     }
 
     void cancelTimeout() {
@@ -1572,6 +1663,7 @@ class Connection {
       return new TimerTask() {
         @Override
         public void run(Timeout timeout) {
+          connection.factory.recordTimerLag(timeoutDeadline);
           if (callback.onTimeout(connection, System.nanoTime() - startTime, retryCount))
             cancelHandler();
         }
@@ -1635,16 +1727,20 @@ class Connection {
       ChannelPipeline pipeline = channel.pipeline();
 
       if (sslOptions != null) {
+        SslHandler handler;
         if (sslOptions instanceof RemoteEndpointAwareSSLOptions) {
-          SslHandler handler =
+          handler =
               ((RemoteEndpointAwareSSLOptions) sslOptions)
                   .newSSLHandler(channel, connection.address);
-          pipeline.addLast("ssl", handler);
         } else {
           @SuppressWarnings("deprecation")
-          SslHandler handler = sslOptions.newSSLHandler(channel);
-          pipeline.addLast("ssl", handler);
+          SslHandler deprecatedHandler = sslOptions.newSSLHandler(channel);
+          handler = deprecatedHandler;
         }
+        if (metrics != null)
+          pipeline.addLast(
+              "sslHandshakeTimer", new SslHandshakeTimer(metrics.getSslHandshakesTimer(), handler));
+        pipeline.addLast("ssl", handler);
       }
 
       // pipeline.addLast("debug", new LoggingHandler(LogLevel.INFO));
@@ -1655,7 +1751,7 @@ class Connection {
         pipeline.addLast("outboundTrafficMeter", new OutboundTrafficMeter(metrics.getBytesSent()));
       }
 
-      pipeline.addLast("frameDecoder", new Frame.Decoder());
+      pipeline.addLast("frameDecoder", new Frame.Decoder(connection.factory.requestTracer != null));
       pipeline.addLast("frameEncoder", frameEncoder);
 
       if (compressor != null) {
@@ -28,7 +28,10 @@ import com.datastax.driver.core.exceptions.UnsupportedProtocolVersionException;
 import com.datastax.driver.core.utils.MoreFutures;
 import com.datastax.driver.core.utils.MoreObjects;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import java.net.InetAddress;
@@ -46,7 +49,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -378,6 +380,58 @@ class ControlConnection implements Connection.Owner {
       throws ConnectionException, BusyConnectionException, ExecutionException,
           InterruptedException {
     Host host = cluster.metadata.getHost(connection.address);
+    VersionNumber cassandraVersion = cassandraVersionForSchema(host, connection, cluster);
+    schemaParser(host, cassandraVersion)
+        .refresh(
+            cluster.getCluster(),
+            targetType,
+            targetKeyspace,
+            targetName,
+            targetSignature,
+            connection,
+            cassandraVersion);
+  }
+
+  /**
+   * Loads the contents of a keyspace when lazy schema loading is enabled.
+   *
+   * @see QueryOptions#setLazySchemaLoading(boolean)
+   */
+  void loadKeyspace(KeyspaceMetadata keyspace) throws InterruptedException {
+    // Serialize concurrent loads, so that a keyspace accessed by many threads is only fetched once.
+    // This uses a private lock rather than the monitor of the public KeyspaceMetadata object, which
+    // client code could hold; and unlike a monitor, it doesn't pin the carrier of a virtual thread
+    // during the blocking queries.
+    keyspace.loadLock.lockInterruptibly();
+    try {
+      if (keyspace.isLoaded()) return;
+      logger.debug("[Control connection] Loading keyspace {}", keyspace.getName());
+      try {
+        Connection c = connectionRef.get();
+        if (c == null || c.isClosed()) return;
+        Host host = cluster.metadata.getHost(c.address);
+        VersionNumber cassandraVersion = cassandraVersionForSchema(host, c, cluster);
+        schemaParser(host, cassandraVersion)
+            .load(cluster.getCluster(), keyspace, c, cassandraVersion);
+      } catch (ConnectionException e) {
+        logger.debug(
+            "[Control connection] Connection error while loading keyspace ({})", e.getMessage());
+        signalError();
+      } catch (ExecutionException e) {
+        if (!isShutdown)
+          logger.error("[Control connection] Unexpected error while loading keyspace", e);
+        signalError();
+      } catch (BusyConnectionException e) {
+        logger.debug("[Control connection] Connection is busy, reconnecting");
+        signalError();
+      }
+    } finally {
+      keyspace.loadLock.unlock();
+    }
+  }
+
+  private static VersionNumber cassandraVersionForSchema(
+      Host host, Connection connection, Cluster.Manager cluster) {
     // Neither host, nor it's version should be null. But instead of dying if there is a race or
     // something, we can kind of try to infer
     // a Cassandra version from the protocol version (this is not full proof, we can have the
@@ -395,24 +449,16 @@ class ControlConnection implements Connection.Owner {
     } else {
       cassandraVersion = host.getCassandraVersion();
     }
-    VersionNumber dseVersion;
-    SchemaParser schemaParser;
+    return cassandraVersion;
+  }
+
+  private static SchemaParser schemaParser(Host host, VersionNumber cassandraVersion) {
     // If using DSE, derive parser from DSE version.
     if (host == null || host.getDseVersion() == null) {
-      schemaParser = SchemaParser.forVersion(cassandraVersion);
+      return SchemaParser.forVersion(cassandraVersion);
     } else {
-      dseVersion = host.getDseVersion();
-      schemaParser = SchemaParser.forDseVersion(dseVersion);
+      return SchemaParser.forDseVersion(host.getDseVersion());
     }
-
-    schemaParser.refresh(
-        cluster.getCluster(),
-        targetType,
-        targetKeyspace,
-        targetName,
-        targetSignature,
-        connection,
-        cassandraVersion);
   }
 
   void refreshNodeListAndTokenMap() {
@@ -959,53 +1005,49 @@ class ControlConnection implements Connection.Owner {
     else if (peerRow.isNull(columnName)) sb.append(", ").append(columnName).append("=null");
   }
 
-  static boolean waitForSchemaAgreement(Connection connection, Cluster.Manager cluster)
-      throws ConnectionException, BusyConnectionException, ExecutionException,
-          InterruptedException {
-    long start = System.nanoTime();
-    long elapsed = 0;
-    int maxSchemaAgreementWaitSeconds =
-        cluster.configuration.getProtocolOptions().getMaxSchemaAgreementWaitSeconds();
-    while (elapsed < maxSchemaAgreementWaitSeconds * 1000) {
-
-      if (checkSchemaAgreement(connection, cluster)) return true;
-
-      // let's not flood the node too much
-      Thread.sleep(200);
-
-      elapsed = Cluster.timeSince(start, TimeUnit.MILLISECONDS);
-    }
-
-    return false;
-  }
-
-  private static boolean checkSchemaAgreement(Connection connection, Cluster.Manager cluster)
-      throws InterruptedException, ExecutionException {
+  static ListenableFuture<Boolean> checkSchemaAgreementAsync(
+      final Connection connection, final Cluster.Manager cluster) {
     DefaultResultSetFuture peersFuture =
         new DefaultResultSetFuture(
             null, cluster.protocolVersion(), new Requests.Query(SELECT_SCHEMA_PEERS));
     DefaultResultSetFuture localFuture =
         new DefaultResultSetFuture(
             null, cluster.protocolVersion(), new Requests.Query(SELECT_SCHEMA_LOCAL));
-    connection.write(peersFuture);
-    connection.write(localFuture);
+    try {
+      connection.write(peersFuture);
+      connection.write(localFuture);
+    } catch (Exception e) {
+      return Futures.immediateFailedFuture(e);
+    }
 
-    Set<UUID> versions = new HashSet<UUID>();
+    return GuavaCompatibility.INSTANCE.transform(
+        Futures.allAsList(ImmutableList.<ListenableFuture<ResultSet>>of(peersFuture, localFuture)),
+        new Function<List<ResultSet>, Boolean>() {
+          @Override
+          public Boolean apply(List<ResultSet> results) {
+            Set<UUID> versions = new HashSet<UUID>();
 
-    Row localRow = localFuture.get().one();
-    if (localRow != null && !localRow.isNull("schema_version"))
-      versions.add(localRow.getUUID("schema_version"));
+            Row localRow = results.get(1).one();
+            if (localRow != null && !localRow.isNull("schema_version"))
+              versions.add(localRow.getUUID("schema_version"));
 
-    for (Row row : peersFuture.get()) {
+            for (Row row : results.get(0)) {
 
-      InetSocketAddress addr = nativeAddressForPeerHost(row, connection.address, cluster);
-      if (addr == null || row.isNull("schema_version")) continue;
+              InetSocketAddress addr = nativeAddressForPeerHost(row, connection.address, cluster);
+              if (addr == null || row.isNull("schema_version")) continue;
 
-      Host peer = cluster.metadata.getHost(addr);
-      if (peer != null && peer.isUp()) versions.add(row.getUUID("schema_version"));
-    }
-    logger.debug("Checking for schema agreement: versions are {}", versions);
-    return versions.size() <= 1;
+              Host peer = cluster.metadata.getHost(addr);
+              if (peer != null && peer.isUp()) versions.add(row.getUUID("schema_version"));
+            }
+            logger.debug("Checking for schema agreement: versions are {}", versions);
+            return versions.size() <= 1;
+          }
+        });
+  }
+
+  private static boolean checkSchemaAgreement(Connection connection, Cluster.Manager cluster)
+      throws InterruptedException, ExecutionException {
+    return checkSchemaAgreementAsync(connection, cluster).get();
   }
 
   boolean checkSchemaAgreement()
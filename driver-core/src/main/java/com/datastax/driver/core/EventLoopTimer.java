@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Timer} that schedules its tasks on the driver's event loops, instead of a dedicated
+ * thread.
+ *
+ * <p>Tasks related to a connection can be scheduled on the event loop of its channel with {@link
+ * #newTimeout(TimerTask, long, TimeUnit, EventExecutor)}: they then run on the thread that also
+ * processes the connection's responses, and scheduling or cancelling them from that thread doesn't
+ * require any synchronization. Cancelled tasks are removed from the event loop's queue.
+ *
+ * @see NettyOptions#scheduleTimeoutsOnEventLoops()
+ */
+class EventLoopTimer implements Timer {
+
+  private static final Logger logger = LoggerFactory.getLogger(EventLoopTimer.class);
+
+  private final EventLoopGroup eventLoopGroup;
+
+  EventLoopTimer(EventLoopGroup eventLoopGroup) {
+    this.eventLoopGroup = eventLoopGroup;
+  }
+
+  @Override
+  public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+    return newTimeout(task, delay, unit, eventLoopGroup.next());
+  }
+
+  Timeout newTimeout(TimerTask task, long delay, TimeUnit unit, EventExecutor executor) {
+    EventLoopTimeout timeout = new EventLoopTimeout(task);
+    timeout.future = executor.schedule(timeout, delay, unit);
+    return timeout;
+  }
+
+  @Override
+  public Set<Timeout> stop() {
+    // pending tasks are discarded when the event loops shut down
+    return Collections.emptySet();
+  }
+
+  private class EventLoopTimeout implements Timeout, Runnable {
+
+    private final TimerTask task;
+    private volatile ScheduledFuture<?> future;
+    private volatile boolean expired;
+
+    EventLoopTimeout(TimerTask task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      expired = true;
+      try {
+        task.run(this);
+      } catch (Throwable t) {
+        logger.warn("An exception was thrown by " + TimerTask.class.getSimpleName() + ".", t);
+      }
+    }
+
+    @Override
+    public Timer timer() {
+      return EventLoopTimer.this;
+    }
+
+    @Override
+    public TimerTask task() {
+      return task;
+    }
+
+    @Override
+    public boolean isExpired() {
+      return expired;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      ScheduledFuture<?> f = future;
+      return f != null && f.isCancelled();
+    }
+
+    @Override
+    public boolean cancel() {
+      ScheduledFuture<?> f = future;
+      return f != null && f.cancel(false);
+    }
+  }
+}
@@ -86,13 +86,16 @@ class Frame {
 
   final Header header;
   final ByteBuf body;
+  // When the frame was read, in System.nanoTime() units (0 if not recorded, see Decoder)
+  final long receivedNanos;
 
-  private Frame(Header header, ByteBuf body) {
+  private Frame(Header header, ByteBuf body, long receivedNanos) {
     this.header = header;
     this.body = body;
+    this.receivedNanos = receivedNanos;
   }
 
-  private static Frame create(ByteBuf fullFrame) {
+  private static Frame create(ByteBuf fullFrame, long receivedNanos) {
     assert fullFrame.readableBytes() >= 1
         : String.format("Frame too short (%d bytes)", fullFrame.readableBytes());
 
@@ -110,7 +113,7 @@ class Frame {
     assert length == fullFrame.readableBytes();
 
     Header header = new Header(version, flags, streamId, opcode);
-    return new Frame(header, fullFrame);
+    return new Frame(header, fullFrame, receivedNanos);
   }
 
   private static int readStreamid(ByteBuf fullFrame, ProtocolVersion version) {
@@ -130,7 +133,7 @@ class Frame {
   static Frame create(
       ProtocolVersion version, int opcode, int streamId, EnumSet<Header.Flag> flags, ByteBuf body) {
     Header header = new Header(version, flags, streamId, opcode);
-    return new Frame(header, body);
+    return new Frame(header, body, 0);
   }
 
   static class Header {
@@ -197,12 +200,25 @@ class Frame {
   }
 
   Frame with(ByteBuf newBody) {
-    return new Frame(header, newBody);
+    return new Frame(header, newBody, receivedNanos);
   }
 
   static final class Decoder extends ByteToMessageDecoder {
+    private final boolean recordReceivedTime;
     private DecoderForStreamIdSize decoder;
 
+    Decoder() {
+      this(false);
+    }
+
+    /**
+     * @param recordReceivedTime whether to record {@link Frame#receivedNanos} (this costs a call to
+     *     {@link System#nanoTime()} per frame).
+     */
+    Decoder(boolean recordReceivedTime) {
+      this.recordReceivedTime = recordReceivedTime;
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out)
         throws Exception {
@@ -214,7 +230,7 @@ class Frame {
         int version = buffer.getByte(buffer.readerIndex());
         // version first bit is the "direction" of the frame (request or response)
         version = version & 0x7F;
-        decoder = new DecoderForStreamIdSize(version, version >= 3 ? 2 : 1);
+        decoder = new DecoderForStreamIdSize(version, version >= 3 ? 2 : 1, recordReceivedTime);
       }
 
       Object frame = decoder.decode(ctx, buffer);
@@ -229,10 +245,12 @@ class Frame {
               * 1024
               * 1024; // 256 MB
       private final int protocolVersion;
+      private final boolean recordReceivedTime;
 
-      DecoderForStreamIdSize(int protocolVersion, int streamIdSize) {
+      DecoderForStreamIdSize(int protocolVersion, int streamIdSize, boolean recordReceivedTime) {
         super(MAX_FRAME_LENGTH, /*lengthOffset=*/ 3 + streamIdSize, 4, 0, 0, true);
         this.protocolVersion = protocolVersion;
+        this.recordReceivedTime = recordReceivedTime;
       }
 
       @Override
@@ -250,7 +268,7 @@ class Frame {
           // in Message.ProtocolDecoder or Frame.Decompressor if compression is enabled (we
           // deallocate
           // it there).
-          Frame theFrame = Frame.create(frame);
+          Frame theFrame = Frame.create(frame, recordReceivedTime ? System.nanoTime() : 0);
           // Validate the opcode (this will throw if it's not a response)
           Message.Response.Type.fromOpcode(theFrame.header.opcode);
           return theFrame;
@@ -360,7 +360,8 @@ class HostConnectionPool implements Connection.Owner {
     }
 
     if (connection.state.get() != TRASHED) {
-      if (connection.maxAvailableStreams() < minAllowedStreams) {
+      if (connection.maxAvailableStreams() < minAllowedStreams
+          || connection.orphanedStreams() > options().getMaxOrphanedRequestsPerConnection()) {
         replaceConnection(connection);
       } else {
         dequeue(connection);
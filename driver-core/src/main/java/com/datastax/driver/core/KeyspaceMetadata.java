@@ -27,6 +27,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /** Describes a keyspace defined in this cluster. */
 public class KeyspaceMetadata {
@@ -53,6 +55,17 @@ public class KeyspaceMetadata {
   final Map<String, AggregateMetadata> aggregates =
       new ConcurrentHashMap<String, AggregateMetadata>();
 
+  // Only used with lazy schema loading (see QueryOptions#setLazySchemaLoading): the metadata that
+  // loads the contents of this keyspace on first access, or null if they were loaded eagerly.
+  private volatile Metadata loader;
+  // Whether the contents of this keyspace are loaded. Only modified while holding Metadata.lock.
+  private volatile boolean loaded = true;
+  // Serializes the loads of the contents of this keyspace
+  final Lock loadLock = new ReentrantLock();
+  // Number of schema refreshes targeting this keyspace that were skipped because it was not loaded
+  volatile int skippedRefreshes;
+  volatile long lastAccessNanos;
+
   @VisibleForTesting
   @Deprecated
   KeyspaceMetadata(String name, boolean durableWrites, Map<String, String> replication) {
@@ -136,6 +149,7 @@ public class KeyspaceMetadata {
    *     otherwise.
    */
   public TableMetadata getTable(String name) {
+    maybeLoad();
     return tables.get(Metadata.handleId(name));
   }
 
@@ -149,6 +163,7 @@ public class KeyspaceMetadata {
    * @return a collection of the metadata for the tables defined in this keyspace.
    */
   public Collection<TableMetadata> getTables() {
+    maybeLoad();
     return Collections.<TableMetadata>unmodifiableCollection(tables.values());
   }
 
@@ -160,6 +175,7 @@ public class KeyspaceMetadata {
    *     null} otherwise.
    */
   public MaterializedViewMetadata getMaterializedView(String name) {
+    maybeLoad();
     return views.get(Metadata.handleId(name));
   }
 
@@ -173,6 +189,7 @@ public class KeyspaceMetadata {
    * @return a collection of the metadata for the materialized views defined in this keyspace.
    */
   public Collection<MaterializedViewMetadata> getMaterializedViews() {
+    maybeLoad();
     return Collections.unmodifiableCollection(views.values());
   }
 
@@ -183,6 +200,7 @@ public class KeyspaceMetadata {
    * @return the definition for {@code name} if it exists in this keyspace, {@code null} otherwise.
    */
   public UserType getUserType(String name) {
+    maybeLoad();
     return userTypes.get(Metadata.handleId(name));
   }
 
@@ -192,6 +210,7 @@ public class KeyspaceMetadata {
    * @return a collection of the definition for the user types defined in this keyspace.
    */
   public Collection<UserType> getUserTypes() {
+    maybeLoad();
     return Collections.unmodifiableCollection(userTypes.values());
   }
 
@@ -207,6 +226,7 @@ public class KeyspaceMetadata {
    * @return the function definition if it exists in this keyspace, {@code null} otherwise.
    */
   public FunctionMetadata getFunction(String name, Collection<DataType> argumentTypes) {
+    maybeLoad();
     return functions.get(Metadata.fullFunctionName(Metadata.handleId(name), argumentTypes));
   }
 
@@ -227,6 +247,7 @@ public class KeyspaceMetadata {
    * @return a collection of the definition for the functions defined in this keyspace.
    */
   public Collection<FunctionMetadata> getFunctions() {
+    maybeLoad();
     return Collections.unmodifiableCollection(functions.values());
   }
 
@@ -242,6 +263,7 @@ public class KeyspaceMetadata {
    * @return the aggregate definition if it exists in this keyspace, {@code null} otherwise.
    */
   public AggregateMetadata getAggregate(String name, Collection<DataType> argumentTypes) {
+    maybeLoad();
     return aggregates.get(Metadata.fullFunctionName(Metadata.handleId(name), argumentTypes));
   }
 
@@ -262,6 +284,7 @@ public class KeyspaceMetadata {
    * @return a collection of the definition for the aggregates defined in this keyspace.
    */
   public Collection<AggregateMetadata> getAggregates() {
+    maybeLoad();
     return Collections.unmodifiableCollection(aggregates.values());
   }
 
@@ -308,6 +331,7 @@ public class KeyspaceMetadata {
    * @return the CQL queries representing this keyspace schema as a {code String}.
    */
   public String exportAsString() {
+    maybeLoad();
     StringBuilder sb = new StringBuilder();
 
     sb.append(asCQLQuery()).append('\n');
@@ -458,4 +482,46 @@ public class KeyspaceMetadata {
   ReplicationStrategy replicationStrategy() {
     return strategy;
   }
+
+  /**
+   * Marks this keyspace as lazily loaded by the given metadata instance.
+   *
+   * @param loaded whether the contents of this keyspace were already fetched.
+   */
+  void setLazy(Metadata loader, boolean loaded) {
+    this.loader = loader;
+    this.loaded = loaded;
+    this.lastAccessNanos = System.nanoTime();
+  }
+
+  boolean isLazy() {
+    return loader != null;
+  }
+
+  boolean isLoaded() {
+    return loaded;
+  }
+
+  void markLoaded() {
+    loaded = true;
+  }
+
+  // Drops the contents of a lazily loaded keyspace, they will be fetched again on next access.
+  void unload() {
+    assert loader != null;
+    loaded = false;
+    tables.clear();
+    views.clear();
+    userTypes.clear();
+    functions.clear();
+    aggregates.clear();
+  }
+
+  private void maybeLoad() {
+    Metadata loader = this.loader;
+    if (loader != null) {
+      lastAccessNanos = System.nanoTime();
+      if (!loaded) loader.loadKeyspace(this);
+    }
+  }
 }
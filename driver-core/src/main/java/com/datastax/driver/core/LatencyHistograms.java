@@ -0,0 +1,397 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records request latencies in <a
+ * href="http://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a> histograms, for the whole
+ * cluster, and broken down per host, per datacenter and per prepared statement.
+ *
+ * <p>To use it, pass an instance to {@link
+ * Cluster.Builder#withLatencyHistograms(LatencyHistograms)} (it will then be available with {@link
+ * Metrics#getLatencyHistograms()}), or {@link Cluster#register(LatencyTracker) register} it
+ * manually. Note that this requires the optional dependency to HdrHistogram.
+ *
+ * <p>Like other latency trackers, this class records the latency of each request sent to a node (so
+ * a single statement execution with retries or speculative executions produces multiple values).
+ * Errors that are usually very fast, such as {@code UnavailableException}, are not recorded, since
+ * they would make the latencies look better than they actually are.
+ *
+ * <p>Latencies are recorded in microseconds. Recording is wait-free; the histograms are read with
+ * {@link #snapshot(Snapshot)}, which returns the values recorded since the previous snapshot. To
+ * avoid unbounded growth:
+ *
+ * <ul>
+ *   <li>at each snapshot, hosts, datacenters and statements that did not record any value during
+ *       the interval are forgotten;
+ *   <li>at most {@link Builder#withMaxStatements(int) maxStatements} prepared statements are
+ *       tracked individually (they are identified by their query string). Executions of other
+ *       statements are aggregated in a separate histogram. If that histogram recorded values during
+ *       an interval, the least active tracked statements are forgotten at the end of it, to make
+ *       room for more active ones; over time, this converges towards the most executed statements.
+ * </ul>
+ *
+ * <p>This class is thread-safe.
+ */
+public class LatencyHistograms implements LatencyTracker {
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final long highestTrackableLatencyMicros;
+  private final int numberOfSignificantValueDigits;
+  private final int maxStatements;
+
+  private final Recorder cluster;
+  private final ConcurrentMap<Host, Recorder> hosts = new ConcurrentHashMap<Host, Recorder>();
+  private final ConcurrentMap<String, Recorder> datacenters =
+      new ConcurrentHashMap<String, Recorder>();
+  private final ConcurrentMap<String, Recorder> statements =
+      new ConcurrentHashMap<String, Recorder>();
+  // tracked separately because ConcurrentHashMap.size() can lock all segments on older JDKs
+  private final AtomicInteger statementCount = new AtomicInteger();
+  private final Recorder otherStatements;
+
+  private LatencyHistograms(
+      long highestTrackableLatencyMicros, int numberOfSignificantValueDigits, int maxStatements) {
+    this.highestTrackableLatencyMicros = highestTrackableLatencyMicros;
+    this.numberOfSignificantValueDigits = numberOfSignificantValueDigits;
+    this.maxStatements = maxStatements;
+    this.cluster = newRecorder();
+    this.otherStatements = newRecorder();
+  }
+
+  @Override
+  public void update(Host host, Statement statement, Exception exception, long newLatencyNanos) {
+    if (exception != null && PercentileTracker.EXCLUDED_EXCEPTIONS.contains(exception.getClass()))
+      return;
+
+    long latencyMicros =
+        Math.min(NANOSECONDS.toMicros(newLatencyNanos), highestTrackableLatencyMicros);
+    cluster.recordValue(latencyMicros);
+    if (host != null) {
+      recorder(hosts, null, host).recordValue(latencyMicros);
+      String datacenter = host.getDatacenter();
+      if (datacenter != null) recorder(datacenters, null, datacenter).recordValue(latencyMicros);
+    }
+    if (statement instanceof StatementWrapper)
+      statement = ((StatementWrapper) statement).getWrappedStatement();
+    if (statement instanceof BoundStatement) {
+      String query = ((BoundStatement) statement).preparedStatement().getQueryString();
+      Recorder recorder = statements.get(query);
+      if (recorder == null)
+        // racy, the limit can be slightly exceeded
+        recorder =
+            statementCount.get() < maxStatements
+                ? recorder(statements, statementCount, query)
+                : otherStatements;
+      recorder.recordValue(latencyMicros);
+    }
+  }
+
+  /**
+   * Returns the latencies recorded since the previous call to this method (or since this object was
+   * created, for the first call).
+   *
+   * @param previous a snapshot previously returned by this method, that is no longer used. Its
+   *     histograms will be recycled to avoid allocating new ones. Can be {@code null}.
+   * @return the snapshot.
+   */
+  public synchronized Snapshot snapshot(Snapshot previous) {
+    Map<Recorder, Histogram> recycled =
+        previous == null ? Collections.<Recorder, Histogram>emptyMap() : previous.byRecorder;
+    Map<Recorder, Histogram> byRecorder = new IdentityHashMap<Recorder, Histogram>();
+
+    Histogram clusterHistogram = intervalHistogram(cluster, recycled, byRecorder);
+    Map<Host, Histogram> hostHistograms = intervalHistograms(hosts, null, recycled, byRecorder);
+    Map<String, Histogram> datacenterHistograms =
+        intervalHistograms(datacenters, null, recycled, byRecorder);
+    Map<String, Histogram> statementHistograms =
+        intervalHistograms(statements, statementCount, recycled, byRecorder);
+    Histogram otherStatementsHistogram = intervalHistogram(otherStatements, recycled, byRecorder);
+
+    if (otherStatementsHistogram.getTotalCount() > 0 && statementHistograms.size() >= maxStatements)
+      evictLeastActiveStatements(statementHistograms);
+
+    return new Snapshot(
+        clusterHistogram,
+        hostHistograms,
+        datacenterHistograms,
+        statementHistograms,
+        otherStatementsHistogram,
+        byRecorder);
+  }
+
+  // count, if not null, is kept in sync with the size of recorders
+  private <K> Recorder recorder(ConcurrentMap<K, Recorder> recorders, AtomicInteger count, K key) {
+    Recorder recorder = recorders.get(key);
+    if (recorder == null) {
+      Recorder newRecorder = newRecorder();
+      recorder = recorders.putIfAbsent(key, newRecorder);
+      if (recorder == null) {
+        recorder = newRecorder;
+        if (count != null) count.incrementAndGet();
+      }
+    }
+    return recorder;
+  }
+
+  private Recorder newRecorder() {
+    return new Recorder(highestTrackableLatencyMicros, numberOfSignificantValueDigits);
+  }
+
+  private static Histogram intervalHistogram(
+      Recorder recorder, Map<Recorder, Histogram> recycled, Map<Recorder, Histogram> byRecorder) {
+    Histogram histogram = recorder.getIntervalHistogram(recycled.get(recorder));
+    byRecorder.put(recorder, histogram);
+    return histogram;
+  }
+
+  private static <K> Map<K, Histogram> intervalHistograms(
+      ConcurrentMap<K, Recorder> recorders,
+      AtomicInteger count,
+      Map<Recorder, Histogram> recycled,
+      Map<Recorder, Histogram> byRecorder) {
+    ImmutableMap.Builder<K, Histogram> builder = ImmutableMap.builder();
+    for (Map.Entry<K, Recorder> entry : recorders.entrySet()) {
+      Histogram histogram = intervalHistogram(entry.getValue(), recycled, byRecorder);
+      if (histogram.getTotalCount() == 0) {
+        // Idle, forget it. A concurrent update might still record in the old recorder, in which
+        // case a single value is lost.
+        if (recorders.remove(entry.getKey(), entry.getValue()) && count != null)
+          count.decrementAndGet();
+      } else {
+        builder.put(entry.getKey(), histogram);
+      }
+    }
+    return builder.build();
+  }
+
+  // Evicts the 10% least active statements, to give a chance to the ones that are not tracked yet.
+  private void evictLeastActiveStatements(Map<String, Histogram> statementHistograms) {
+    List<Map.Entry<String, Histogram>> entries =
+        new ArrayList<Map.Entry<String, Histogram>>(statementHistograms.entrySet());
+    Collections.sort(
+        entries,
+        new Comparator<Map.Entry<String, Histogram>>() {
+          @Override
+          public int compare(Map.Entry<String, Histogram> e1, Map.Entry<String, Histogram> e2) {
+            long c1 = e1.getValue().getTotalCount();
+            long c2 = e2.getValue().getTotalCount();
+            return c1 < c2 ? -1 : (c1 == c2 ? 0 : 1);
+          }
+        });
+    int toEvict = Math.max(1, entries.size() / 10);
+    for (int i = 0; i < toEvict; i++)
+      if (statements.remove(entries.get(i).getKey()) != null) statementCount.decrementAndGet();
+  }
+
+  @Override
+  public void onRegister(Cluster cluster) {
+    // nothing to do
+  }
+
+  @Override
+  public void onUnregister(Cluster cluster) {
+    // nothing to do
+  }
+
+  /**
+   * The latencies recorded during an interval.
+   *
+   * <p>All values are in microseconds. The histograms must not be modified, and should not be used
+   * anymore once the snapshot is passed to {@link LatencyHistograms#snapshot(Snapshot)}.
+   */
+  public static final class Snapshot {
+    private final Histogram clusterHistogram;
+    private final Map<Host, Histogram> hostHistograms;
+    private final Map<String, Histogram> datacenterHistograms;
+    private final Map<String, Histogram> statementHistograms;
+    private final Histogram otherStatementsHistogram;
+    private final Map<Recorder, Histogram> byRecorder;
+
+    private Snapshot(
+        Histogram clusterHistogram,
+        Map<Host, Histogram> hostHistograms,
+        Map<String, Histogram> datacenterHistograms,
+        Map<String, Histogram> statementHistograms,
+        Histogram otherStatementsHistogram,
+        Map<Recorder, Histogram> byRecorder) {
+      this.clusterHistogram = clusterHistogram;
+      this.hostHistograms = hostHistograms;
+      this.datacenterHistograms = datacenterHistograms;
+      this.statementHistograms = statementHistograms;
+      this.otherStatementsHistogram = otherStatementsHistogram;
+      this.byRecorder = byRecorder;
+    }
+
+    /**
+     * Returns the start time of the interval.
+     *
+     * @return the start time, in milliseconds since the epoch.
+     */
+    public long getStartTimeMillis() {
+      return clusterHistogram.getStartTimeStamp();
+    }
+
+    /**
+     * Returns the end time of the interval.
+     *
+     * @return the end time, in milliseconds since the epoch.
+     */
+    public long getEndTimeMillis() {
+      return clusterHistogram.getEndTimeStamp();
+    }
+
+    /**
+     * Returns the latencies of all requests.
+     *
+     * @return the histogram.
+     */
+    public Histogram getClusterHistogram() {
+      return clusterHistogram;
+    }
+
+    /**
+     * Returns the latencies of the requests sent to each host.
+     *
+     * @return the histograms. Hosts that didn't receive any request during the interval are absent.
+     */
+    public Map<Host, Histogram> getHostHistograms() {
+      return hostHistograms;
+    }
+
+    /**
+     * Returns the latencies of the requests sent to each datacenter.
+     *
+     * @return the histograms. Datacenters that didn't receive any request during the interval are
+     *     absent.
+     */
+    public Map<String, Histogram> getDatacenterHistograms() {
+      return datacenterHistograms;
+    }
+
+    /**
+     * Returns the latencies of each tracked prepared statement.
+     *
+     * @return the histograms, indexed by query string. Statements that were not executed during the
+     *     interval are absent.
+     */
+    public Map<String, Histogram> getStatementHistograms() {
+      return statementHistograms;
+    }
+
+    /**
+     * Returns the latencies of the prepared statements that are not tracked individually, because
+     * {@link Builder#withMaxStatements(int) the maximum} was reached.
+     *
+     * @return the histogram.
+     */
+    public Histogram getOtherStatementsHistogram() {
+      return otherStatementsHistogram;
+    }
+  }
+
+  /** Helper class to build {@link LatencyHistograms} instances. */
+  public static class Builder {
+    private long highestTrackableLatencyMicros = TimeUnit.MINUTES.toMicros(1);
+    private int numberOfSignificantValueDigits = 2;
+    private int maxStatements = 100;
+
+    /**
+     * Sets the highest latency that can be recorded. Higher values are recorded as this value.
+     *
+     * <p>If not set explicitly, this value defaults to one minute.
+     *
+     * @param latency the new value.
+     * @param unit the unit of {@code latency}.
+     * @return this builder.
+     */
+    public Builder withHighestTrackableLatency(long latency, TimeUnit unit) {
+      this.highestTrackableLatencyMicros = unit.toMicros(latency);
+      return this;
+    }
+
+    /**
+     * Sets the number of significant decimal digits to which histograms will maintain value
+     * resolution and separation. This must be an integer between 0 and 5.
+     *
+     * <p>If not set explicitly, this value defaults to 2, which keeps each histogram under a few
+     * kilobytes; see the HdrHistogram documentation for details.
+     *
+     * @param numberOfSignificantValueDigits the new value.
+     * @return this builder.
+     */
+    public Builder withNumberOfSignificantValueDigits(int numberOfSignificantValueDigits) {
+      this.numberOfSignificantValueDigits = numberOfSignificantValueDigits;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of prepared statements that are tracked individually.
+     *
+     * <p>If not set explicitly, this value defaults to 100.
+     *
+     * @param maxStatements the new value. 0 disables per-statement histograms.
+     * @return this builder.
+     */
+    public Builder withMaxStatements(int maxStatements) {
+      this.maxStatements = maxStatements;
+      return this;
+    }
+
+    /**
+     * Builds the instance.
+     *
+     * @return the new instance.
+     */
+    public LatencyHistograms build() {
+      checkArgument(
+          highestTrackableLatencyMicros >= 2,
+          "highest trackable latency must be at least 2 microseconds");
+      checkArgument(
+          numberOfSignificantValueDigits >= 0 && numberOfSignificantValueDigits <= 5,
+          "number of significant value digits must be between 0 and 5, got %s",
+          numberOfSignificantValueDigits);
+      checkArgument(maxStatements >= 0, "maxStatements must be positive, got %s", maxStatements);
+      return new LatencyHistograms(
+          highestTrackableLatencyMicros, numberOfSignificantValueDigits, maxStatements);
+    }
+  }
+}
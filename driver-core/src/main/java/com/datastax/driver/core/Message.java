@@ -245,6 +245,8 @@ abstract class Message {
     final Type type;
     protected volatile UUID tracingId;
     protected volatile List<String> warnings;
+    // When the frame of this response was read, in System.nanoTime() units (0 if not recorded)
+    long receivedNanos;
 
     protected Response(Type type) {
       this.type = type;
@@ -300,6 +302,7 @@ abstract class Message {
             .setWarnings(warnings)
             .setCustomPayload(customPayload)
             .setStreamId(frame.header.streamId);
+        response.receivedNanos = frame.receivedNanos;
         out.add(response);
       } finally {
         frame.body.release();
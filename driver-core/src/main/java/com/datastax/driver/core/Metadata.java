@@ -19,12 +19,14 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.concurrent.EventExecutor;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -146,6 +148,69 @@ public class Metadata {
     }
   }
 
+  // Loads the contents of a lazily loaded keyspace (see QueryOptions#setLazySchemaLoading)
+  void loadKeyspace(final KeyspaceMetadata keyspace) {
+    if (isInEventLoop()) {
+      // Blocking an I/O thread on a schema query could deadlock, load in the background instead
+      logger.debug(
+          "Keyspace {} accessed from an I/O thread, scheduling its loading in the background",
+          keyspace.getName());
+      cluster.executor.submit(
+          new ExceptionCatchingRunnable() {
+            @Override
+            public void runMayThrow() throws Exception {
+              cluster.controlConnection.loadKeyspace(keyspace);
+            }
+          });
+      return;
+    }
+    try {
+      cluster.controlConnection.loadKeyspace(keyspace);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Unloads the least recently accessed keyspaces to respect
+  // QueryOptions#getMaxLazilyLoadedKeyspaces. Must be called while holding the lock.
+  void evictLazilyLoadedKeyspaces(KeyspaceMetadata justLoaded) {
+    assert lock.isHeldByCurrentThread();
+    int max = cluster.configuration.getQueryOptions().getMaxLazilyLoadedKeyspaces();
+    List<KeyspaceMetadata> candidates = new ArrayList<KeyspaceMetadata>();
+    int loadedCount = 0;
+    for (KeyspaceMetadata keyspace : keyspaces.values()) {
+      if (keyspace.isLazy() && keyspace.isLoaded()) {
+        loadedCount += 1;
+        if (keyspace != justLoaded) candidates.add(keyspace);
+      }
+    }
+    if (loadedCount <= max) return;
+    Collections.sort(candidates, byLastAccess);
+    for (int i = 0; i < loadedCount - max && i < candidates.size(); i++) {
+      KeyspaceMetadata keyspace = candidates.get(i);
+      logger.debug("Unloading keyspace {}", keyspace.getName());
+      keyspace.unload();
+    }
+  }
+
+  private static final Comparator<KeyspaceMetadata> byLastAccess =
+      new Comparator<KeyspaceMetadata>() {
+        @Override
+        public int compare(KeyspaceMetadata ks1, KeyspaceMetadata ks2) {
+          long diff = ks1.lastAccessNanos - ks2.lastAccessNanos;
+          return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+      };
+
+  private boolean isInEventLoop() {
+    Connection.Factory connectionFactory = cluster.connectionFactory;
+    if (connectionFactory == null) return false;
+    for (EventExecutor executor : connectionFactory.eventLoopGroup) {
+      if (executor.inEventLoop()) return true;
+    }
+    return false;
+  }
+
   Host newHost(InetSocketAddress address) {
     return new Host(address, cluster.convictionPolicyFactory, cluster);
   }
@@ -21,6 +21,9 @@ import com.codahale.metrics.JmxReporter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.datastax.driver.core.policies.ContextAwareRetryPolicy;
+import com.datastax.driver.core.policies.RetryBudget;
+import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy;
 import java.util.HashSet;
 import java.util.Set;
@@ -47,8 +50,15 @@ public class Metrics {
   private final Errors errors = new Errors();
 
   private final Timer requests = registry.timer("requests");
+  private final Timer schemaAgreement = registry.timer("schema-agreement");
+  private final Timer sslHandshakes = registry.timer("ssl-handshakes");
+  private final Timer timerLag = registry.timer("timer-lag");
+  private final Timer sessionReady = registry.timer("session-ready");
+  private final Timer sessionWarmup = registry.timer("session-warmup");
   private final Meter bytesSent = registry.meter("bytes-sent");
   private final Meter bytesReceived = registry.meter("bytes-received");
+  private final Counter autoPreparedStatements = registry.counter("auto-prepared-statements");
+  private final Counter autoPrepareSavedBytes = registry.counter("auto-prepare-saved-bytes");
 
   private final Gauge<Integer> knownHosts =
       registry.register(
@@ -212,6 +222,116 @@ public class Metrics {
     return requests;
   }
 
+  /**
+   * Returns metrics on the schema agreement waits performed after schema-altering requests.
+   *
+   * <p>This metric records the time elapsed between the response to a schema-altering request and
+   * the moment schema agreement was reached, or the wait timed out (see {@link
+   * ProtocolOptions#getMaxSchemaAgreementWaitSeconds()}).
+   *
+   * @return a {@code Timer} metric object exposing the rate and latency of schema agreement waits.
+   */
+  public Timer getSchemaAgreementTimer() {
+    return schemaAgreement;
+  }
+
+  /**
+   * Returns metrics on the SSL handshakes performed when opening new connections.
+   *
+   * <p>This metric exposes the number of successful handshakes, and their latency (measured from
+   * the moment the TCP connection is established). Handshakes that resume a cached session are
+   * typically much faster than full handshakes. This metric stays empty if SSL is not enabled.
+   *
+   * @return a {@code Timer} metric object exposing the rate and latency of SSL handshakes.
+   */
+  public Timer getSslHandshakesTimer() {
+    return sslHandshakes;
+  }
+
+  /**
+   * Returns metrics on how late read timeouts and speculative executions run, compared to the time
+   * they were scheduled for.
+   *
+   * <p>A high lag means that the thread running them is overloaded: either the timer thread (see
+   * {@link NettyOptions#timer(java.util.concurrent.ThreadFactory)}), or the event loops if {@link
+   * NettyOptions#scheduleTimeoutsOnEventLoops()} is enabled. Only tasks that actually run are
+   * measured, not those that are cancelled because the response arrived in time.
+   *
+   * @return a {@code Timer} metric object exposing the lag of read timeouts and speculative
+   *     executions.
+   */
+  public Timer getTimerLag() {
+    return timerLag;
+  }
+
+  /**
+   * Returns metrics on the time it takes for new sessions to be ready.
+   *
+   * <p>This metric records the time elapsed between the start of a session's initialization and the
+   * moment it is returned to the client. Unless {@link
+   * PoolingOptions#setWarmupReadyFraction(double) pool warm-up} is enabled, this includes opening
+   * the pools to all hosts.
+   *
+   * @return a {@code Timer} metric object exposing the rate and duration of session
+   *     initializations.
+   */
+  public Timer getSessionReadyTimer() {
+    return sessionReady;
+  }
+
+  /**
+   * Returns metrics on the time it takes for new sessions to open the pools to all hosts.
+   *
+   * <p>This metric records the time elapsed between the start of a session's initialization and the
+   * moment all its pools have been attempted. If {@link
+   * PoolingOptions#setWarmupReadyFraction(double) pool warm-up} is enabled, this is later than
+   * {@link #getSessionReadyTimer() the moment the session is ready}, since the remaining pools are
+   * opened in the background; otherwise, both are the same.
+   *
+   * @return a {@code Timer} metric object exposing the rate and duration of session warm-ups.
+   */
+  public Timer getSessionWarmupTimer() {
+    return sessionWarmup;
+  }
+
+  /**
+   * Returns the number of simple statements that were prepared automatically.
+   *
+   * <p>This metric stays at 0 unless {@link QueryOptions#setAutoPrepareThreshold(int) automatic
+   * preparation} is enabled.
+   *
+   * @return the number of automatically prepared statements, across all sessions.
+   */
+  public Counter getAutoPreparedStatements() {
+    return autoPreparedStatements;
+  }
+
+  /**
+   * Returns the number of bytes that were not sent because simple statements were executed as
+   * automatically prepared statements: for each execution, the size of the query string, minus the
+   * size of the prepared statement identifiers.
+   *
+   * @return the number of bytes saved by automatic preparation, across all sessions.
+   * @see QueryOptions#setAutoPrepareThreshold(int)
+   */
+  public Counter getAutoPrepareSavedBytes() {
+    return autoPrepareSavedBytes;
+  }
+
+  /**
+   * Returns the latency histograms, if they were enabled with {@link
+   * Cluster.Builder#withLatencyHistograms(LatencyHistograms)}.
+   *
+   * <p>Unlike the other metrics, histograms are not registered in the {@link #getRegistry()
+   * registry}: use {@link LatencyHistograms#snapshot(LatencyHistograms.Snapshot)} to read them
+   * periodically.
+   *
+   * @return the histograms, or {@code null} if they are not enabled.
+   */
+  public LatencyHistograms getLatencyHistograms() {
+    return manager.configuration.getMetricsOptions().getLatencyHistograms();
+  }
+
   /**
    * Returns an object grouping metrics related to the errors encountered.
    *
@@ -403,6 +523,7 @@ public class Metrics {
     private final Counter readTimeouts = registry.counter("read-timeouts");
     private final Counter unavailables = registry.counter("unavailables");
     private final Counter clientTimeouts = registry.counter("client-timeouts");
+    private final Counter requestTimeouts = registry.counter("request-timeouts");
 
     private final Counter otherErrors = registry.counter("other-errors");
 
@@ -426,6 +547,8 @@ public class Metrics {
 
     private final Counter speculativeExecutions = registry.counter("speculative-executions");
 
+    private final Counter retriesRejected = registry.counter("retries-rejected");
+
     /**
      * Returns the number of errors while connecting to Cassandra nodes.
      *
@@ -664,5 +787,29 @@ public class Metrics {
     public Counter getSpeculativeExecutions() {
       return speculativeExecutions;
     }
+
+    /**
+     * Returns the number of requests that failed because their {@link
+     * Statement#setRequestTimeoutMillis(int) request timeout} elapsed.
+     *
+     * <p>Unlike {@link #getClientTimeouts()}, which counts individual attempts on a node, this
+     * counts statement executions, including all their retries and speculative executions.
+     *
+     * @return the number of request timeouts.
+     */
+    public Counter getRequestTimeouts() {
+      return requestTimeouts;
+    }
+
+    /**
+     * Returns the number of times the {@link RetryPolicy} decided to retry, but the retry was not
+     * attempted, either because the {@link RetryBudget} was exhausted, or because a {@link
+     * ContextAwareRetryPolicy} did not confirm it.
+     *
+     * @return the number of rejected retries.
+     */
+    public Counter getRetriesRejected() {
+      return retriesRejected;
+    }
   }
 }
@@ -20,6 +20,8 @@ public class MetricsOptions {
 
   private final boolean metricsEnabled;
   private final boolean jmxEnabled;
+  private final LatencyHistograms latencyHistograms;
+  private final RequestTracer requestTracer;
 
   /**
    * Creates a new {@code MetricsOptions} object with default values (metrics enabled, JMX reporting
@@ -35,8 +37,40 @@ public class MetricsOptions {
    * @param jmxEnabled whether to enable JMX reporting or not.
    */
   public MetricsOptions(boolean enabled, boolean jmxEnabled) {
+    this(enabled, jmxEnabled, null);
+  }
+
+  /**
+   * Creates a new {@code MetricsOptions} object.
+   *
+   * @param enabled whether to enable metrics or not.
+   * @param jmxEnabled whether to enable JMX reporting or not.
+   * @param latencyHistograms the latency histograms to record, or {@code null}. Ignored if metrics
+   *     are disabled.
+   */
+  public MetricsOptions(boolean enabled, boolean jmxEnabled, LatencyHistograms latencyHistograms) {
+    this(enabled, jmxEnabled, latencyHistograms, null);
+  }
+
+  /**
+   * Creates a new {@code MetricsOptions} object.
+   *
+   * @param enabled whether to enable metrics or not.
+   * @param jmxEnabled whether to enable JMX reporting or not.
+   * @param latencyHistograms the latency histograms to record, or {@code null}. Ignored if metrics
+   *     are disabled.
+   * @param requestTracer the tracer to notify of the phases of each request, or {@code null}.
+   *     Unlike the other options, it is used even if metrics are disabled.
+   */
+  public MetricsOptions(
+      boolean enabled,
+      boolean jmxEnabled,
+      LatencyHistograms latencyHistograms,
+      RequestTracer requestTracer) {
     this.metricsEnabled = enabled;
     this.jmxEnabled = jmxEnabled;
+    this.latencyHistograms = latencyHistograms;
+    this.requestTracer = requestTracer;
   }
 
   /**
@@ -56,4 +90,22 @@ public class MetricsOptions {
   public boolean isJMXReportingEnabled() {
     return jmxEnabled;
   }
+
+  /**
+   * Returns the latency histograms to record.
+   *
+   * @return the latency histograms, or {@code null} if they are not enabled.
+   */
+  public LatencyHistograms getLatencyHistograms() {
+    return latencyHistograms;
+  }
+
+  /**
+   * Returns the tracer to notify of the phases of each request.
+   *
+   * @return the tracer, or {@code null} if none is configured.
+   */
+  public RequestTracer getRequestTracer() {
+    return requestTracer;
+  }
 }
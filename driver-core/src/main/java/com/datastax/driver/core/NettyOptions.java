@@ -223,6 +223,27 @@ public class NettyOptions {
     return new HashedWheelTimer(threadFactory);
   }
 
+  /**
+   * Whether read timeouts and speculative executions should be scheduled on the driver's event
+   * loops, instead of the {@link #timer(ThreadFactory) timer}.
+   *
+   * <p>With the default timer, a single thread handles the timeouts of all requests, and
+   * speculative executions are handed over to another executor when they trigger; under very high
+   * request rates, this thread and its queue can become a bottleneck. When this method returns
+   * {@code true}, the read timeout of a request is scheduled on the event loop of its connection,
+   * and speculative executions are scheduled on, and started from, one of the event loops. The
+   * timer is still created, but not used for requests.
+   *
+   * <p>This hook is invoked only once at {@link Cluster} initialization. The default implementation
+   * returns {@code false}.
+   *
+   * @return whether to schedule timeouts on the event loops.
+   * @see Metrics#getTimerLag()
+   */
+  public boolean scheduleTimeoutsOnEventLoops() {
+    return false;
+  }
+
   /**
    * Hook invoked when the cluster is shutting down after a call to {@link Cluster#close()}.
    *
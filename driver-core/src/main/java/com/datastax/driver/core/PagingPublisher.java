@@ -0,0 +1,265 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A <a href="http://www.reactive-streams.org/">Reactive Streams</a> {@link Publisher} that emits
+ * the elements of a paged query result, and only fetches pages when they are needed to satisfy the
+ * demand of its subscriber.
+ *
+ * <p>To stream the rows of a query:
+ *
+ * <pre>{@code
+ * Publisher<Row> rows = PagingPublisher.executeReactive(session, statement);
+ * }</pre>
+ *
+ * Any other {@link PagingIterable}, such as a {@code Result<T>} of the object mapper, can be
+ * streamed with {@link #from(Supplier)}:
+ *
+ * <pre>{@code
+ * Publisher<User> users = PagingPublisher.from(new Supplier<ListenableFuture<Result<User>>>() {
+ *   public ListenableFuture<Result<User>> get() {
+ *     return mapper.mapAsync(session.executeAsync(statement));
+ *   }
+ * });
+ * }</pre>
+ *
+ * <p>The publisher is cold: the query is executed for each new subscriber, when it first requests
+ * elements. The next page is fetched in the background as soon as the outstanding demand exceeds
+ * the rows that are already available, so at most one page is buffered ahead of the subscriber. If
+ * the subscription is cancelled while the query is in flight, the request is cancelled as well.
+ *
+ * <p>Elements and terminal signals are delivered on the thread that calls {@link
+ * Subscription#request(long)}, or on a driver internal thread when a page arrives. Like for any
+ * asynchronous callback, subscribers must not block or call synchronous driver methods when they
+ * receive them (see the {@code async} section in the manual).
+ *
+ * <p>This class requires the {@code org.reactivestreams:reactive-streams} library, which is an
+ * optional dependency of the driver.
+ *
+ * @param <T> the type of the elements.
+ */
+public final class PagingPublisher<T> implements Publisher<T> {
+
+  /**
+   * Returns a publisher that executes the given statement, and emits the rows of its result.
+   *
+   * @param session the session to execute the statement with.
+   * @param statement the statement to execute.
+   * @return the publisher.
+   */
+  public static PagingPublisher<Row> executeReactive(
+      final Session session, final Statement statement) {
+    Preconditions.checkNotNull(session, "session cannot be null");
+    Preconditions.checkNotNull(statement, "statement cannot be null");
+    return new PagingPublisher<Row>(
+        new Supplier<ResultSetFuture>() {
+          @Override
+          public ResultSetFuture get() {
+            return session.executeAsync(statement);
+          }
+        });
+  }
+
+  /**
+   * Returns a publisher that emits the elements of the paged results produced by the given query.
+   *
+   * @param query the query, that will be invoked once for each subscriber.
+   * @param <T> the type of the elements.
+   * @return the publisher.
+   */
+  public static <T> PagingPublisher<T> from(
+      Supplier<? extends ListenableFuture<? extends PagingIterable<?, T>>> query) {
+    Preconditions.checkNotNull(query, "query cannot be null");
+    return new PagingPublisher<T>(query);
+  }
+
+  private final Supplier<? extends ListenableFuture<? extends PagingIterable<?, T>>> query;
+
+  private PagingPublisher(
+      Supplier<? extends ListenableFuture<? extends PagingIterable<?, T>>> query) {
+    this.query = query;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (subscriber == null) throw new NullPointerException("subscriber cannot be null");
+    PagingSubscription<T> subscription = new PagingSubscription<T>(query, subscriber);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private static class PagingSubscription<T> implements Subscription {
+
+    private final Supplier<? extends ListenableFuture<? extends PagingIterable<?, T>>> query;
+    private final Subscriber<? super T> subscriber;
+
+    private final AtomicLong requested = new AtomicLong();
+    // Ensures that only one thread emits signals at a time: the thread that increments it from 0
+    // drains, the others just record that another pass is needed.
+    private final AtomicInteger drains = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile ListenableFuture<?> pending;
+    private volatile PagingIterable<?, T> current;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+
+    PagingSubscription(
+        Supplier<? extends ListenableFuture<? extends PagingIterable<?, T>>> query,
+        Subscriber<? super T> subscriber) {
+      this.query = query;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        error =
+            new IllegalArgumentException(
+                "Subscription.request must be called with a positive number, got " + n);
+      } else {
+        long r, u;
+        do {
+          r = requested.get();
+          if (r == Long.MAX_VALUE) break;
+          u = r + n;
+          if (u < 0) u = Long.MAX_VALUE;
+        } while (!requested.compareAndSet(r, u));
+        if (started.compareAndSet(false, true)) {
+          execute();
+          return;
+        }
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      ListenableFuture<?> future = pending;
+      if (future != null) future.cancel(true);
+      drain();
+    }
+
+    private void execute() {
+      ListenableFuture<? extends PagingIterable<?, T>> future;
+      try {
+        future = query.get();
+      } catch (Throwable t) {
+        error = t;
+        drain();
+        return;
+      }
+      track(future);
+    }
+
+    private void track(ListenableFuture<? extends PagingIterable<?, T>> future) {
+      pending = future;
+      // If cancel() ran before we published the future, it may have missed it
+      if (cancelled) future.cancel(true);
+      GuavaCompatibility.INSTANCE.addCallback(
+          future,
+          new FutureCallback<PagingIterable<?, T>>() {
+            @Override
+            public void onSuccess(PagingIterable<?, T> page) {
+              current = page;
+              pending = null;
+              drain();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              error = t;
+              pending = null;
+              drain();
+            }
+          });
+    }
+
+    private void drain() {
+      if (drains.getAndIncrement() != 0) return;
+      int missed = 1;
+      do {
+        if (cancelled) {
+          current = null;
+          return;
+        }
+        Throwable t = error;
+        if (t != null) {
+          terminate();
+          subscriber.onError(t);
+          return;
+        }
+        PagingIterable<?, T> page = current;
+        if (page != null) {
+          long r = requested.get();
+          long emitted = 0;
+          while (emitted != r && page.getAvailableWithoutFetching() > 0) {
+            if (cancelled) break;
+            // doesn't block since there are rows available
+            T element = page.one();
+            try {
+              subscriber.onNext(element);
+            } catch (Throwable e) {
+              // the subscriber violated the specification (rule 2.13), consider it cancelled
+              terminate();
+              throw propagate(e);
+            }
+            emitted += 1;
+          }
+          if (emitted > 0 && r != Long.MAX_VALUE) r = requested.addAndGet(-emitted);
+          int available = page.getAvailableWithoutFetching();
+          if (!cancelled && pending == null) {
+            if (available == 0 && page.isFullyFetched()) {
+              terminate();
+              subscriber.onComplete();
+              return;
+            }
+            if (r > available && !page.isFullyFetched()) {
+              @SuppressWarnings("unchecked")
+              ListenableFuture<? extends PagingIterable<?, T>> next =
+                  (ListenableFuture<? extends PagingIterable<?, T>>) page.fetchMoreResults();
+              track(next);
+            }
+          }
+        }
+        missed = drains.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void terminate() {
+      cancelled = true;
+      current = null;
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+      if (t instanceof RuntimeException) return (RuntimeException) t;
+      if (t instanceof Error) throw (Error) t;
+      return new RuntimeException(t);
+    }
+  }
+}
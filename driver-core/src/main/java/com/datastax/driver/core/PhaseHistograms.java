@@ -0,0 +1,193 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * A {@link RequestTracer} that records the duration of each {@link RequestTracer.Phase phase} in <a
+ * href="http://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a> histograms.
+ *
+ * <p>To use it, pass an instance to {@link Cluster.Builder#withRequestTracer(RequestTracer)}. Note
+ * that this requires the optional dependency to HdrHistogram.
+ *
+ * <p>The histograms aggregate all hosts and statements. Comparing the {@link
+ * RequestTracer.Phase#SERVER SERVER} phase to the others separates the time spent on the client
+ * (waiting for a connection, encoding, decoding, invoking callbacks) from the time spent on the
+ * network and the server.
+ *
+ * <p>Durations are recorded in nanoseconds, since some phases typically last less than a
+ * microsecond. Recording is wait-free; the histograms are read with {@link #snapshot(Snapshot)},
+ * which returns the values recorded since the previous snapshot.
+ *
+ * <p>This class is thread-safe.
+ */
+public class PhaseHistograms implements RequestTracer {
+
+  private static final RequestTracer.Phase[] PHASES = RequestTracer.Phase.values();
+
+  /**
+   * Returns a builder to create a new instance.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final long highestTrackableNanos;
+  private final Recorder[] recorders;
+
+  private PhaseHistograms(long highestTrackableNanos, int numberOfSignificantValueDigits) {
+    this.highestTrackableNanos = highestTrackableNanos;
+    this.recorders = new Recorder[PHASES.length];
+    for (int i = 0; i < recorders.length; i++)
+      recorders[i] = new Recorder(highestTrackableNanos, numberOfSignificantValueDigits);
+  }
+
+  @Override
+  public void onPhase(
+      Host host, Statement statement, RequestTracer.Phase phase, long startNanos, long endNanos) {
+    long durationNanos = Math.min(Math.max(endNanos - startNanos, 0), highestTrackableNanos);
+    recorders[phase.ordinal()].recordValue(durationNanos);
+  }
+
+  /**
+   * Returns the durations recorded since the previous call to this method (or since this object was
+   * created, for the first call).
+   *
+   * @param previous a snapshot previously returned by this method, that is no longer used. Its
+   *     histograms will be recycled to avoid allocating new ones. Can be {@code null}.
+   * @return the snapshot.
+   */
+  public synchronized Snapshot snapshot(Snapshot previous) {
+    Map<RequestTracer.Phase, Histogram> histograms =
+        new EnumMap<RequestTracer.Phase, Histogram>(RequestTracer.Phase.class);
+    for (RequestTracer.Phase phase : PHASES) {
+      Histogram recycled = previous == null ? null : previous.histograms.get(phase);
+      histograms.put(phase, recorders[phase.ordinal()].getIntervalHistogram(recycled));
+    }
+    return new Snapshot(histograms);
+  }
+
+  /**
+   * The phase durations recorded during an interval.
+   *
+   * <p>All values are in nanoseconds. The histograms must not be modified, and should not be used
+   * anymore once the snapshot is passed to {@link PhaseHistograms#snapshot(Snapshot)}.
+   */
+  public static final class Snapshot {
+    private final Map<RequestTracer.Phase, Histogram> histograms;
+
+    private Snapshot(Map<RequestTracer.Phase, Histogram> histograms) {
+      this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Returns the start time of the interval.
+     *
+     * @return the start time, in milliseconds since the epoch.
+     */
+    public long getStartTimeMillis() {
+      return histograms.get(PHASES[0]).getStartTimeStamp();
+    }
+
+    /**
+     * Returns the end time of the interval.
+     *
+     * @return the end time, in milliseconds since the epoch.
+     */
+    public long getEndTimeMillis() {
+      return histograms.get(PHASES[0]).getEndTimeStamp();
+    }
+
+    /**
+     * Returns the durations of a phase.
+     *
+     * @param phase the phase.
+     * @return the histogram.
+     */
+    public Histogram getHistogram(RequestTracer.Phase phase) {
+      return histograms.get(phase);
+    }
+
+    /**
+     * Returns the durations of all phases.
+     *
+     * @return the histograms, in the order of the phases.
+     */
+    public Map<RequestTracer.Phase, Histogram> getHistograms() {
+      return histograms;
+    }
+  }
+
+  /** Helper class to build {@link PhaseHistograms} instances. */
+  public static class Builder {
+    private long highestTrackableNanos = TimeUnit.MINUTES.toNanos(1);
+    private int numberOfSignificantValueDigits = 2;
+
+    /**
+     * Sets the highest duration that can be recorded. Higher values are recorded as this value.
+     *
+     * <p>If not set explicitly, this value defaults to one minute.
+     *
+     * @param duration the new value.
+     * @param unit the unit of {@code duration}.
+     * @return this builder.
+     */
+    public Builder withHighestTrackableDuration(long duration, TimeUnit unit) {
+      this.highestTrackableNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    /**
+     * Sets the number of significant decimal digits to which histograms will maintain value
+     * resolution and separation. This must be an integer between 0 and 5.
+     *
+     * <p>If not set explicitly, this value defaults to 2; see the HdrHistogram documentation for
+     * details.
+     *
+     * @param numberOfSignificantValueDigits the new value.
+     * @return this builder.
+     */
+    public Builder withNumberOfSignificantValueDigits(int numberOfSignificantValueDigits) {
+      this.numberOfSignificantValueDigits = numberOfSignificantValueDigits;
+      return this;
+    }
+
+    /**
+     * Builds the instance.
+     *
+     * @return the new instance.
+     */
+    public PhaseHistograms build() {
+      checkArgument(
+          highestTrackableNanos >= 2, "highest trackable duration must be at least 2 nanoseconds");
+      checkArgument(
+          numberOfSignificantValueDigits >= 0 && numberOfSignificantValueDigits <= 5,
+          "number of significant value digits must be between 0 and 5, got %s",
+          numberOfSignificantValueDigits);
+      return new PhaseHistograms(highestTrackableNanos, numberOfSignificantValueDigits);
+    }
+  }
+}
@@ -131,9 +131,18 @@ public class PoolingOptions {
   /** The default value for {@link #getMaxQueueSize()} ({@value}). */
   public static final int DEFAULT_MAX_QUEUE_SIZE = 256;
 
+  /** The default value for {@link #getMaxOrphanedRequestsPerConnection()} ({@value}). */
+  public static final int DEFAULT_MAX_ORPHANED_REQUESTS_PER_CONNECTION = 256;
+
   /** The default value for {@link #getHeartbeatIntervalSeconds()} ({@value}). */
   public static final int DEFAULT_HEARTBEAT_INTERVAL_SECONDS = 30;
 
+  /** The default value for {@link #getWarmupReadyFraction()} ({@value}). */
+  public static final double DEFAULT_WARMUP_READY_FRACTION = 1.0;
+
+  /** The default value for {@link #getWarmupConcurrency()} ({@value}). */
+  public static final int DEFAULT_WARMUP_CONCURRENCY = 8;
+
   private static final Executor DEFAULT_INITIALIZATION_EXECUTOR =
       GuavaCompatibility.INSTANCE.sameThreadExecutor();
 
@@ -153,7 +162,11 @@ public class PoolingOptions {
   private volatile int idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_SECONDS;
   private volatile int poolTimeoutMillis = DEFAULT_POOL_TIMEOUT_MILLIS;
   private volatile int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private volatile int maxOrphanedRequestsPerConnection =
+      DEFAULT_MAX_ORPHANED_REQUESTS_PER_CONNECTION;
   private volatile int heartbeatIntervalSeconds = DEFAULT_HEARTBEAT_INTERVAL_SECONDS;
+  private volatile double warmupReadyFraction = DEFAULT_WARMUP_READY_FRACTION;
+  private volatile int warmupConcurrency = DEFAULT_WARMUP_CONCURRENCY;
 
   private volatile Executor initializationExecutor = DEFAULT_INITIALIZATION_EXECUTOR;
 
@@ -501,6 +514,45 @@ public class PoolingOptions {
     return this;
   }
 
+  /**
+   * Returns the maximum number of orphaned requests that a connection can have before it gets
+   * replaced.
+   *
+   * @return the maximum number of orphaned requests.
+   * @see #setMaxOrphanedRequestsPerConnection(int)
+   */
+  public int getMaxOrphanedRequestsPerConnection() {
+    return maxOrphanedRequestsPerConnection;
+  }
+
+  /**
+   * Sets the maximum number of orphaned requests that a connection can have before it gets
+   * replaced.
+   *
+   * <p>A request becomes orphaned when the driver stops waiting for its response (because it timed
+   * out, or because the client cancelled it) before the response has arrived. Its stream id can't
+   * be reused until then, otherwise a new request could receive the response of the old one. The
+   * stream id is reclaimed if the response eventually arrives; but if a node stops responding to
+   * some requests, their stream ids are lost for the lifetime of the connection.
+   *
+   * <p>When a connection is returned to its pool with more orphaned requests than this threshold,
+   * it is replaced by a new connection; it is closed once its remaining requests have completed.
+   *
+   * <p>The default value is {@value DEFAULT_MAX_ORPHANED_REQUESTS_PER_CONNECTION}. Note that with
+   * protocol versions 1 and 2, which only allow 128 stream ids, connections are also replaced when
+   * less than 3/4 of {@link #getMaxRequestsPerConnection(HostDistance)} stream ids remain.
+   *
+   * @param maxOrphanedRequestsPerConnection the new value.
+   * @return this {@code PoolingOptions}
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public PoolingOptions setMaxOrphanedRequestsPerConnection(int maxOrphanedRequestsPerConnection) {
+    if (maxOrphanedRequestsPerConnection < 0)
+      throw new IllegalArgumentException("Max orphaned requests per connection must be positive");
+    this.maxOrphanedRequestsPerConnection = maxOrphanedRequestsPerConnection;
+    return this;
+  }
+
   /**
    * Returns the heart beat interval, after which a message is sent on an idle connection to make
    * sure it's still alive.
@@ -535,6 +587,71 @@ public class PoolingOptions {
     return this;
   }
 
+  /**
+   * Returns the fraction of pools that must be up before a new session is considered ready.
+   *
+   * @return the fraction.
+   * @see #setWarmupReadyFraction(double)
+   */
+  public double getWarmupReadyFraction() {
+    return warmupReadyFraction;
+  }
+
+  /**
+   * Sets the fraction of pools that must be up before a new session is considered ready.
+   *
+   * <p>With the default value of 1, {@link Cluster#connect()} opens the pools to all hosts in
+   * parallel, and only returns once they have all been initialized.
+   *
+   * <p>With a lower value, the session warms up its pools in priority order: pools to {@link
+   * HostDistance#LOCAL local} hosts are opened first, and the session is returned as soon as the
+   * given fraction of them are up (or all of them have been attempted). The remaining pools,
+   * including those to {@link HostDistance#REMOTE remote} hosts, are opened in the background, no
+   * more than {@link #getWarmupConcurrency()} at a time. This reduces the time to first query when
+   * a large number of clients start at once, at the cost of a less balanced load until the warm-up
+   * completes.
+   *
+   * @param warmupReadyFraction the new value, between 0 (exclusive) and 1 (inclusive).
+   * @return this {@code PoolingOptions}
+   * @throws IllegalArgumentException if the value is not in the expected range.
+   */
+  public PoolingOptions setWarmupReadyFraction(double warmupReadyFraction) {
+    if (warmupReadyFraction <= 0 || warmupReadyFraction > 1)
+      throw new IllegalArgumentException(
+          "Warmup ready fraction must be in (0, 1], got " + warmupReadyFraction);
+    this.warmupReadyFraction = warmupReadyFraction;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of pools opened concurrently in the background when a session warms
+   * up.
+   *
+   * @return the maximum number of pools.
+   * @see #setWarmupReadyFraction(double)
+   */
+  public int getWarmupConcurrency() {
+    return warmupConcurrency;
+  }
+
+  /**
+   * Sets the maximum number of pools opened concurrently in the background when a session warms up.
+   *
+   * <p>This only applies if {@link #setWarmupReadyFraction(double)} was set to a value lower than
+   * 1. The default value is {@value DEFAULT_WARMUP_CONCURRENCY}.
+   *
+   * @param warmupConcurrency the new value.
+   * @return this {@code PoolingOptions}
+   * @throws IllegalArgumentException if the value is not strictly positive.
+   */
+  public PoolingOptions setWarmupConcurrency(int warmupConcurrency) {
+    if (warmupConcurrency <= 0)
+      throw new IllegalArgumentException(
+          "Warmup concurrency must be strictly positive, got " + warmupConcurrency);
+    this.warmupConcurrency = warmupConcurrency;
+    return this;
+  }
+
   /**
    * Returns the executor to use for connection initialization.
    *
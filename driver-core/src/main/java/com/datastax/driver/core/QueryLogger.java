@@ -16,12 +16,20 @@
 package com.datastax.driver.core;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.datastax.driver.core.querybuilder.BuiltStatement;
 import com.google.common.annotations.VisibleForTesting;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +103,31 @@ import org.slf4j.LoggerFactory;
  * behavior), or using a {@link Builder#withDynamicThreshold(PercentileTracker, double) dynamic
  * threshold} based on latency percentiles.
  *
+ * <p>
+ *
+ * <p><strong>Limiting the overhead of logging</strong>
+ *
+ * <p>Formatting a log message (in particular the query parameters) can be expensive, and slow
+ * queries tend to pile up exactly when the cluster is in trouble. The following options reduce the
+ * impact of the query logger on the client:
+ *
+ * <ul>
+ *   <li>{@link Builder#withAsynchronousLogging(int) asynchronous logging}: the thread that
+ *       completes the query only copies the query string and values into a compact record, and
+ *       hands it over to a bounded buffer; a background thread formats and emits the messages. If
+ *       the buffer is full, the record is dropped (see {@link #getDroppedLogs()});
+ *   <li>{@link Builder#withSamplingRate(double) sampling}: only log a fraction of the queries;
+ *   <li>{@link Builder#withMaxLogsPerStatementPerSecond(int) per-statement rate limiting}: log at
+ *       most a given number of executions of the same statement per second.
+ * </ul>
+ *
+ * <p>These options only apply to the messages that would be logged otherwise: for example, if only
+ * {@link #SLOW_LOGGER} is enabled, fast queries are discarded before sampling and rate limiting,
+ * and don't use up the rate limit of their statement.
+ *
+ * <p>Finally, {@link Builder#withStructuredOutput(boolean) structured output} formats messages as
+ * {@code key=value} pairs, which are easier to process by log aggregation tools.
+ *
  * <p>This class is thread-safe.
  *
  * @since 2.0.10
@@ -131,6 +164,12 @@ public abstract class QueryLogger implements LatencyTracker {
    */
   public static final int DEFAULT_MAX_LOGGED_PARAMETERS = 50;
 
+  // Above this number of tracked statements, rate limiting starts over from scratch, to avoid
+  // unbounded growth when statements are not reused (e.g. simple statements with inline values)
+  private static final int MAX_RATE_LIMITED_STATEMENTS = 10000;
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryLogger.class);
+
   // Loggers
 
   /**
@@ -208,15 +247,41 @@ public abstract class QueryLogger implements LatencyTracker {
 
   protected volatile int maxLoggedParameters;
 
+  protected volatile double samplingRate = 1.0;
+
+  protected volatile int maxLogsPerStatementPerSecond = -1;
+
+  protected volatile boolean structuredOutput;
+
+  // We're deliberately avoiding an anonymous subclass with initialValue(), because this can
+  // introduce classloader leaks in managed environments like Tomcat
+  private final ThreadLocal<Random> samplingRandoms = new ThreadLocal<Random>();
+
+  // For each statement: the current one-second window in the high 32 bits, and the number of
+  // messages logged during that window in the low 32 bits
+  private final ConcurrentMap<Object, AtomicLong> rateLimits =
+      new ConcurrentHashMap<Object, AtomicLong>();
+  private final long rateLimitOrigin = System.nanoTime();
+
+  // null if logging synchronously
+  private final BlockingQueue<QueryLogRecord> buffer;
+  private volatile Thread drainer;
+  private final AtomicLong droppedLogs = new AtomicLong();
+
   /**
    * Private constructor. Instances of QueryLogger should be obtained via the {@link #builder()}
    * method.
    */
   private QueryLogger(
-      int maxQueryStringLength, int maxParameterValueLength, int maxLoggedParameters) {
+      int maxQueryStringLength,
+      int maxParameterValueLength,
+      int maxLoggedParameters,
+      int asyncBufferSize) {
     this.maxQueryStringLength = maxQueryStringLength;
     this.maxParameterValueLength = maxParameterValueLength;
     this.maxLoggedParameters = maxLoggedParameters;
+    this.buffer =
+        asyncBufferSize > 0 ? new ArrayBlockingQueue<QueryLogRecord>(asyncBufferSize) : null;
   }
 
   /**
@@ -234,11 +299,22 @@ public abstract class QueryLogger implements LatencyTracker {
   @Override
   public void onRegister(Cluster cluster) {
     this.cluster = cluster;
+    if (buffer != null && drainer == null) {
+      Thread thread = new Thread(new Drainer(), cluster.getClusterName() + "-query-logger");
+      thread.setDaemon(true);
+      drainer = thread;
+      thread.start();
+    }
   }
 
   @Override
   public void onUnregister(Cluster cluster) {
-    // nothing to do
+    Thread thread = drainer;
+    if (thread != null) {
+      drainer = null;
+      // the drainer emits the remaining messages before exiting
+      thread.interrupt();
+    }
   }
 
   /**
@@ -254,8 +330,9 @@ public abstract class QueryLogger implements LatencyTracker {
         int maxQueryStringLength,
         int maxParameterValueLength,
         int maxLoggedParameters,
+        int asyncBufferSize,
         long slowQueryLatencyThresholdMillis) {
-      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters);
+      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters, asyncBufferSize);
       this.setSlowQueryLatencyThresholdMillis(slowQueryLatencyThresholdMillis);
     }
 
@@ -286,6 +363,11 @@ public abstract class QueryLogger implements LatencyTracker {
       this.slowQueryLatencyThresholdMillis = slowQueryLatencyThresholdMillis;
     }
 
+    @Override
+    long slowQueryThresholdMillis(Host host, Statement statement) {
+      return slowQueryLatencyThresholdMillis;
+    }
+
     @Override
     protected void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs) {
       if (latencyMs > slowQueryLatencyThresholdMillis) {
@@ -296,16 +378,16 @@ public abstract class QueryLogger implements LatencyTracker {
     }
 
     protected void maybeLogSlowQuery(Host host, Statement statement, long latencyMs) {
-      if (SLOW_LOGGER.isDebugEnabled()) {
-        String message =
-            String.format(
-                SLOW_TEMPLATE_MILLIS,
-                cluster.getClusterName(),
+      if (SLOW_LOGGER.isDebugEnabled())
+        log(
+            newRecord(
+                SLOW_LOGGER,
                 host,
+                statement,
+                null,
                 latencyMs,
-                statementAsString(statement));
-        logQuery(statement, null, SLOW_LOGGER, message);
-      }
+                slowQueryLatencyThresholdMillis,
+                Double.NaN));
     }
   }
 
@@ -325,9 +407,10 @@ public abstract class QueryLogger implements LatencyTracker {
         int maxQueryStringLength,
         int maxParameterValueLength,
         int maxLoggedParameters,
+        int asyncBufferSize,
         double slowQueryLatencyThresholdPercentile,
         PercentileTracker percentileLatencyTracker) {
-      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters);
+      super(maxQueryStringLength, maxParameterValueLength, maxLoggedParameters, asyncBufferSize);
       this.setSlowQueryLatencyThresholdPercentile(slowQueryLatencyThresholdPercentile);
       this.setPercentileLatencyTracker(percentileLatencyTracker);
     }
@@ -383,11 +466,20 @@ public abstract class QueryLogger implements LatencyTracker {
       this.slowQueryLatencyThresholdPercentile = slowQueryLatencyThresholdPercentile;
     }
 
+    @Override
+    long slowQueryThresholdMillis(Host host, Statement statement) {
+      return percentileLatencyTracker.getLatencyAtPercentile(
+          host, statement, null, slowQueryLatencyThresholdPercentile);
+    }
+
+    @Override
+    double slowQueryThresholdPercentile() {
+      return slowQueryLatencyThresholdPercentile;
+    }
+
     @Override
     protected void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs) {
-      long threshold =
-          percentileLatencyTracker.getLatencyAtPercentile(
-              host, statement, null, slowQueryLatencyThresholdPercentile);
+      long threshold = slowQueryThresholdMillis(host, statement);
       if (threshold >= 0 && latencyMs > threshold) {
         maybeLogSlowQuery(host, statement, latencyMs, threshold);
       } else {
@@ -397,18 +489,16 @@ public abstract class QueryLogger implements LatencyTracker {
 
     protected void maybeLogSlowQuery(
         Host host, Statement statement, long latencyMs, long threshold) {
-      if (SLOW_LOGGER.isDebugEnabled()) {
-        String message =
-            String.format(
-                SLOW_TEMPLATE_PERCENTILE,
-                cluster.getClusterName(),
+      if (SLOW_LOGGER.isDebugEnabled())
+        log(
+            newRecord(
+                SLOW_LOGGER,
                 host,
+                statement,
+                null,
                 latencyMs,
-                slowQueryLatencyThresholdPercentile,
                 threshold,
-                statementAsString(statement));
-        logQuery(statement, null, SLOW_LOGGER, message);
-      }
+                slowQueryLatencyThresholdPercentile));
     }
 
     @Override
@@ -439,6 +529,14 @@ public abstract class QueryLogger implements LatencyTracker {
 
     private boolean constantThreshold = true;
 
+    private int asyncBufferSize = 0;
+
+    private double samplingRate = 1.0;
+
+    private int maxLogsPerStatementPerSecond = -1;
+
+    private boolean structuredOutput = false;
+
     /**
      * Enables slow query latency tracking based on constant thresholds.
      *
@@ -527,6 +625,77 @@ public abstract class QueryLogger implements LatencyTracker {
       return this;
     }
 
+    /**
+     * Enables asynchronous logging.
+     *
+     * <p>In this mode, the thread that completes a query only captures a compact record of it
+     * (query string, bound values, host, latency and error), and adds it to a bounded buffer. A
+     * background thread takes records from the buffer, then formats and emits the messages. If the
+     * buffer is full, the record is dropped, so that logging never blocks the driver (see {@link
+     * QueryLogger#getDroppedLogs()}).
+     *
+     * <p>Note that the bound values are only copied shallowly: if your application mutates a value
+     * (for example a collection, a UDT value or the contents of a {@code ByteBuffer}) after
+     * executing the statement, the logged parameters may reflect those modifications. The query
+     * string, and which values are bound, are captured when the query completes.
+     *
+     * @param bufferSize the maximum number of records waiting to be logged. It must be strictly
+     *     positive.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withAsynchronousLogging(int bufferSize) {
+      if (bufferSize <= 0)
+        throw new IllegalArgumentException("Invalid bufferSize, should be > 0, got " + bufferSize);
+      this.asyncBufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * Set the fraction of the queries that will be logged. The default value is 1 (log all
+     * queries).
+     *
+     * @param samplingRate the fraction of queries to log. It must be strictly positive, and lower
+     *     than or equal to 1.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withSamplingRate(double samplingRate) {
+      this.samplingRate = samplingRate;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of executions of the same statement that will be logged each second.
+     *
+     * <p>Bound statements are considered the same if they come from the same prepared statement;
+     * regular statements if they have the same query string.
+     *
+     * @param maxLogsPerStatementPerSecond the maximum number of logs per statement and per second.
+     *     It must be strictly positive or {@code -1}, in which case there is no limit. The default
+     *     value is {@code -1}.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withMaxLogsPerStatementPerSecond(int maxLogsPerStatementPerSecond) {
+      this.maxLogsPerStatementPerSecond = maxLogsPerStatementPerSecond;
+      return this;
+    }
+
+    /**
+     * Set whether messages should be formatted as {@code key=value} pairs, for example:
+     *
+     * <pre>
+     * cluster=cluster1 host=/127.0.0.1:9042 status=slow latencyMs=5012 boundValues=1 query="SELECT * FROM t WHERE k = ?;"
+     * </pre>
+     *
+     * The default value is {@code false}.
+     *
+     * @param structuredOutput whether to enable structured output.
+     * @return this {@link Builder} instance (for method chaining).
+     */
+    public Builder withStructuredOutput(boolean structuredOutput) {
+      this.structuredOutput = structuredOutput;
+      return this;
+    }
+
     /**
      * Build the {@link QueryLogger} instance.
      *
@@ -535,20 +704,29 @@ public abstract class QueryLogger implements LatencyTracker {
      *     incorrect settings.
      */
     public QueryLogger build() {
+      QueryLogger logger;
       if (constantThreshold) {
-        return new ConstantThresholdQueryLogger(
-            maxQueryStringLength,
-            maxParameterValueLength,
-            maxLoggedParameters,
-            slowQueryLatencyThresholdMillis);
+        logger =
+            new ConstantThresholdQueryLogger(
+                maxQueryStringLength,
+                maxParameterValueLength,
+                maxLoggedParameters,
+                asyncBufferSize,
+                slowQueryLatencyThresholdMillis);
       } else {
-        return new DynamicThresholdQueryLogger(
-            maxQueryStringLength,
-            maxParameterValueLength,
-            maxLoggedParameters,
-            slowQueryLatencyThresholdPercentile,
-            percentileLatencyTracker);
+        logger =
+            new DynamicThresholdQueryLogger(
+                maxQueryStringLength,
+                maxParameterValueLength,
+                maxLoggedParameters,
+                asyncBufferSize,
+                slowQueryLatencyThresholdPercentile,
+                percentileLatencyTracker);
       }
+      logger.setSamplingRate(samplingRate);
+      logger.setMaxLogsPerStatementPerSecond(maxLogsPerStatementPerSecond);
+      logger.setStructuredOutput(structuredOutput);
+      return logger;
     }
   }
 
@@ -639,6 +817,83 @@ public abstract class QueryLogger implements LatencyTracker {
     this.maxLoggedParameters = maxLoggedParameters;
   }
 
+  /**
+   * Return the fraction of the queries that will be logged. The default value is 1.
+   *
+   * @return the fraction of the queries that will be logged.
+   */
+  public double getSamplingRate() {
+    return samplingRate;
+  }
+
+  /**
+   * Set the fraction of the queries that will be logged.
+   *
+   * @param samplingRate the fraction of queries to log. It must be strictly positive, and lower
+   *     than or equal to 1.
+   * @throws IllegalArgumentException if {@code samplingRate <= 0 || samplingRate > 1}.
+   */
+  public void setSamplingRate(double samplingRate) {
+    if (samplingRate <= 0 || samplingRate > 1)
+      throw new IllegalArgumentException(
+          "Invalid samplingRate, should be > 0 and <= 1, got " + samplingRate);
+    this.samplingRate = samplingRate;
+  }
+
+  /**
+   * Return the maximum number of executions of the same statement that will be logged each second.
+   * The default value is {@code -1} (no limit).
+   *
+   * @return the maximum number of logs per statement and per second.
+   */
+  public int getMaxLogsPerStatementPerSecond() {
+    return maxLogsPerStatementPerSecond;
+  }
+
+  /**
+   * Set the maximum number of executions of the same statement that will be logged each second.
+   *
+   * @param maxLogsPerStatementPerSecond the maximum number of logs per statement and per second. It
+   *     must be strictly positive or {@code -1}, in which case there is no limit.
+   * @throws IllegalArgumentException if {@code maxLogsPerStatementPerSecond <= 0 &&
+   *     maxLogsPerStatementPerSecond != -1}.
+   */
+  public void setMaxLogsPerStatementPerSecond(int maxLogsPerStatementPerSecond) {
+    if (maxLogsPerStatementPerSecond <= 0 && maxLogsPerStatementPerSecond != -1)
+      throw new IllegalArgumentException(
+          "Invalid maxLogsPerStatementPerSecond, should be > 0 or -1, got "
+              + maxLogsPerStatementPerSecond);
+    this.maxLogsPerStatementPerSecond = maxLogsPerStatementPerSecond;
+  }
+
+  /**
+   * Return whether messages are formatted as {@code key=value} pairs.
+   *
+   * @return whether structured output is enabled.
+   */
+  public boolean isStructuredOutput() {
+    return structuredOutput;
+  }
+
+  /**
+   * Set whether messages should be formatted as {@code key=value} pairs.
+   *
+   * @param structuredOutput whether to enable structured output.
+   */
+  public void setStructuredOutput(boolean structuredOutput) {
+    this.structuredOutput = structuredOutput;
+  }
+
+  /**
+   * Return the number of messages that were not logged because the buffer was full, if {@link
+   * Builder#withAsynchronousLogging(int) asynchronous logging} is enabled.
+   *
+   * @return the number of dropped messages.
+   */
+  public long getDroppedLogs() {
+    return droppedLogs.get();
+  }
+
   /** {@inheritDoc} */
   @Override
   public void update(Host host, Statement statement, Exception exception, long newLatencyNanos) {
@@ -649,89 +904,292 @@ public abstract class QueryLogger implements LatencyTracker {
     if (statement instanceof StatementWrapper)
       statement = ((StatementWrapper) statement).getWrappedStatement();
 
+    // Decide where the query would be logged first: sampling, rate limiting and the asynchronous
+    // buffer only apply to the messages that will actually be emitted
     long latencyMs = NANOSECONDS.toMillis(newLatencyNanos);
+    Logger logger;
+    long threshold = -1;
     if (exception == null) {
-      maybeLogNormalOrSlowQuery(host, statement, latencyMs);
+      if (!NORMAL_LOGGER.isDebugEnabled() && !SLOW_LOGGER.isDebugEnabled()) return;
+      threshold = slowQueryThresholdMillis(host, statement);
+      logger = (threshold >= 0 && latencyMs > threshold) ? SLOW_LOGGER : NORMAL_LOGGER;
+      if (!logger.isDebugEnabled()) return;
+    } else if (ERROR_LOGGER.isDebugEnabled()
+        && !(exception instanceof CancelledSpeculativeExecutionException)) {
+      logger = ERROR_LOGGER;
     } else {
-      maybeLogErrorQuery(host, statement, exception, latencyMs);
+      return;
+    }
+    if (!isSampled() || !isWithinRateLimit(statement)) return;
+
+    QueryLogRecord record =
+        newRecord(
+            logger,
+            host,
+            statement,
+            exception,
+            latencyMs,
+            threshold,
+            logger == SLOW_LOGGER ? slowQueryThresholdPercentile() : Double.NaN);
+    if (buffer == null) {
+      log(record);
+    } else if (!buffer.offer(record)) {
+      droppedLogs.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the latency beyond which a query is considered slow, or a negative value if it can't be
+   * determined yet.
+   */
+  abstract long slowQueryThresholdMillis(Host host, Statement statement);
+
+  /** Returns the percentile that the slow query threshold is based on, or NaN if it's constant. */
+  double slowQueryThresholdPercentile() {
+    return Double.NaN;
+  }
+
+  private boolean isSampled() {
+    double samplingRate = this.samplingRate;
+    if (samplingRate >= 1.0) return true;
+    Random random = samplingRandoms.get();
+    if (random == null) {
+      random = new Random();
+      samplingRandoms.set(random);
+    }
+    return random.nextDouble() < samplingRate;
+  }
+
+  private boolean isWithinRateLimit(Statement statement) {
+    int max = this.maxLogsPerStatementPerSecond;
+    if (max == -1) return true;
+    Object key;
+    if (statement instanceof BoundStatement) {
+      key = ((BoundStatement) statement).preparedStatement();
+    } else if (statement instanceof RegularStatement) {
+      key = ((RegularStatement) statement).getQueryString();
+    } else {
+      key = statement.getClass();
+    }
+    AtomicLong state = rateLimits.get(key);
+    if (state == null) {
+      if (rateLimits.size() >= MAX_RATE_LIMITED_STATEMENTS) rateLimits.clear();
+      AtomicLong newState = new AtomicLong();
+      state = rateLimits.putIfAbsent(key, newState);
+      if (state == null) state = newState;
+    }
+    long window = (System.nanoTime() - rateLimitOrigin) / 1000000000L;
+    while (true) {
+      long current = state.get();
+      long next;
+      if ((current >>> 32) != window) {
+        next = (window << 32) | 1;
+      } else if ((current & 0xffffffffL) >= max) {
+        return false;
+      } else {
+        next = current + 1;
+      }
+      if (state.compareAndSet(current, next)) return true;
     }
   }
 
   protected abstract void maybeLogNormalOrSlowQuery(Host host, Statement statement, long latencyMs);
 
   protected void maybeLogNormalQuery(Host host, Statement statement, long latencyMs) {
-    if (NORMAL_LOGGER.isDebugEnabled()) {
-      String message =
-          String.format(
-              NORMAL_TEMPLATE,
-              cluster.getClusterName(),
-              host,
-              latencyMs,
-              statementAsString(statement));
-      logQuery(statement, null, NORMAL_LOGGER, message);
-    }
+    if (NORMAL_LOGGER.isDebugEnabled())
+      log(newRecord(NORMAL_LOGGER, host, statement, null, latencyMs, -1, Double.NaN));
   }
 
   protected void maybeLogErrorQuery(
       Host host, Statement statement, Exception exception, long latencyMs) {
     if (ERROR_LOGGER.isDebugEnabled()
-        && !(exception instanceof CancelledSpeculativeExecutionException)) {
-      String message =
-          String.format(
-              ERROR_TEMPLATE,
-              cluster.getClusterName(),
-              host,
-              latencyMs,
-              statementAsString(statement));
-      logQuery(statement, exception, ERROR_LOGGER, message);
-    }
+        && !(exception instanceof CancelledSpeculativeExecutionException))
+      log(newRecord(ERROR_LOGGER, host, statement, exception, latencyMs, -1, Double.NaN));
   }
 
   protected void logQuery(Statement statement, Exception exception, Logger logger, String message) {
-    boolean showParameterValues = logger.isTraceEnabled();
-    if (showParameterValues) {
-      StringBuilder params = new StringBuilder();
-      if (statement instanceof BoundStatement) {
-        appendParameters((BoundStatement) statement, params, maxLoggedParameters);
-      } else if (statement instanceof SimpleStatement) {
-        appendParameters((SimpleStatement) statement, params, maxLoggedParameters);
-      } else if (statement instanceof BatchStatement) {
-        BatchStatement batchStatement = (BatchStatement) statement;
-        int remaining = maxLoggedParameters;
-        for (Statement inner : batchStatement.getStatements()) {
-          if (inner instanceof BoundStatement) {
-            remaining = appendParameters((BoundStatement) inner, params, remaining);
-          } else if (inner instanceof SimpleStatement) {
-            remaining = appendParameters((SimpleStatement) inner, params, remaining);
-          }
-        }
-      } else if (statement instanceof BuiltStatement) {
-        appendParameters((BuiltStatement) statement, params, maxLoggedParameters);
-      }
-      if (params.length() > 0) params.append("]");
-      logger.trace(message + params, exception);
+    if (logger.isTraceEnabled()) {
+      logger.trace(message + parametersAsString(captureParameters(statement)), exception);
     } else {
       logger.debug(message, exception);
     }
   }
 
   protected String statementAsString(Statement statement) {
+    StringBuilder query = new StringBuilder();
+    append(statement, query, maxQueryStringLength);
+    return statementAsString(statementCount(statement), boundValueCount(statement), query);
+  }
+
+  private static String statementAsString(int statements, int boundValues, CharSequence query) {
     StringBuilder sb = new StringBuilder();
-    if (statement instanceof BatchStatement) {
-      BatchStatement bs = (BatchStatement) statement;
-      int statements = bs.getStatements().size();
-      int boundValues = countBoundValues(bs);
+    if (statements >= 0) {
       sb.append("[" + statements + " statements, " + boundValues + " bound values] ");
-    } else if (statement instanceof BoundStatement) {
-      int boundValues = ((BoundStatement) statement).wrapper.values.length;
+    } else if (boundValues >= 0) {
       sb.append("[" + boundValues + " bound values] ");
+    }
+    return sb.append(query).toString();
+  }
+
+  // -1 if not a batch
+  private static int statementCount(Statement statement) {
+    return statement instanceof BatchStatement
+        ? ((BatchStatement) statement).getStatements().size()
+        : -1;
+  }
+
+  // -1 if unknown
+  private int boundValueCount(Statement statement) {
+    if (statement instanceof BatchStatement) {
+      return countBoundValues((BatchStatement) statement);
+    } else if (statement instanceof BoundStatement) {
+      return ((BoundStatement) statement).wrapper.values.length;
     } else if (statement instanceof SimpleStatement) {
-      int boundValues = ((SimpleStatement) statement).valuesCount();
-      sb.append("[" + boundValues + " bound values] ");
+      return ((SimpleStatement) statement).valuesCount();
+    } else {
+      return -1;
+    }
+  }
+
+  /**
+   * Captures what will be logged about a query. This runs on the thread that completed the query,
+   * so it only copies data; formatting happens in {@link #log(QueryLogRecord)}.
+   */
+  QueryLogRecord newRecord(
+      Logger logger,
+      Host host,
+      Statement statement,
+      Exception exception,
+      long latencyMs,
+      long thresholdMs,
+      double thresholdPercentile) {
+    StringBuilder query = new StringBuilder();
+    append(statement, query, maxQueryStringLength);
+    return new QueryLogRecord(
+        logger,
+        host,
+        exception,
+        latencyMs,
+        thresholdMs,
+        thresholdPercentile,
+        statementCount(statement),
+        boundValueCount(statement),
+        query.toString(),
+        logger.isTraceEnabled() ? captureParameters(statement) : null);
+  }
+
+  void log(QueryLogRecord record) {
+    String message = structuredOutput ? structuredMessage(record) : message(record);
+    if (record.parameters == null) {
+      record.logger.debug(message, record.exception);
+    } else {
+      record.logger.trace(message + parametersAsString(record.parameters), record.exception);
+    }
+  }
+
+  private String message(QueryLogRecord record) {
+    String statement = statementAsString(record.statements, record.boundValues, record.query);
+    String clusterName = cluster.getClusterName();
+    if (record.logger == ERROR_LOGGER) {
+      return String.format(ERROR_TEMPLATE, clusterName, record.host, record.latencyMs, statement);
+    } else if (record.logger == NORMAL_LOGGER) {
+      return String.format(NORMAL_TEMPLATE, clusterName, record.host, record.latencyMs, statement);
+    } else if (Double.isNaN(record.thresholdPercentile)) {
+      return String.format(
+          SLOW_TEMPLATE_MILLIS, clusterName, record.host, record.latencyMs, statement);
+    } else {
+      return String.format(
+          SLOW_TEMPLATE_PERCENTILE,
+          clusterName,
+          record.host,
+          record.latencyMs,
+          record.thresholdPercentile,
+          record.thresholdMs,
+          statement);
+    }
+  }
+
+  // Formats a message as key=value pairs
+  private String structuredMessage(QueryLogRecord record) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("cluster=")
+        .append(cluster.getClusterName())
+        .append(" host=")
+        .append(record.host)
+        .append(" status=")
+        .append(
+            record.logger == ERROR_LOGGER
+                ? "error"
+                : record.logger == NORMAL_LOGGER ? "normal" : "slow")
+        .append(" latencyMs=")
+        .append(record.latencyMs);
+    if (record.logger == SLOW_LOGGER && !Double.isNaN(record.thresholdPercentile))
+      sb.append(" thresholdPercentile=")
+          .append(record.thresholdPercentile)
+          .append(" thresholdMs=")
+          .append(record.thresholdMs);
+    if (record.statements >= 0) sb.append(" statements=").append(record.statements);
+    if (record.boundValues >= 0) sb.append(" boundValues=").append(record.boundValues);
+    sb.append(" query=\"");
+    for (int i = 0; i < record.query.length(); i++) {
+      char c = record.query.charAt(i);
+      if (c == '"' || c == '\\') sb.append('\\');
+      sb.append(c);
+    }
+    return sb.append('"').toString();
+  }
+
+  // Copies the parameters that will be logged, up to maxLoggedParameters
+  private List<LoggedParameter> captureParameters(Statement statement) {
+    List<LoggedParameter> parameters = new ArrayList<LoggedParameter>();
+    if (statement instanceof BoundStatement) {
+      captureParameters((BoundStatement) statement, parameters, maxLoggedParameters);
+    } else if (statement instanceof SimpleStatement) {
+      captureParameters((SimpleStatement) statement, parameters, maxLoggedParameters);
+    } else if (statement instanceof BatchStatement) {
+      BatchStatement batchStatement = (BatchStatement) statement;
+      int remaining = maxLoggedParameters;
+      for (Statement inner : batchStatement.getStatements()) {
+        if (inner instanceof BoundStatement) {
+          remaining = captureParameters((BoundStatement) inner, parameters, remaining);
+        } else if (inner instanceof SimpleStatement) {
+          remaining = captureParameters((SimpleStatement) inner, parameters, remaining);
+        }
+      }
+    } else if (statement instanceof BuiltStatement) {
+      captureParameters((BuiltStatement) statement, parameters, maxLoggedParameters);
     }
+    return parameters;
+  }
 
-    append(statement, sb, maxQueryStringLength);
-    return sb.toString();
+  private String parametersAsString(List<LoggedParameter> parameters) {
+    StringBuilder params = new StringBuilder();
+    appendParameters(parameters, params);
+    if (params.length() > 0) {
+      params.append("]");
+      // replace the leading space
+      if (structuredOutput) params.replace(0, 1, " params=");
+    }
+    return params.toString();
+  }
+
+  private void appendParameters(List<LoggedParameter> parameters, StringBuilder buffer) {
+    for (LoggedParameter parameter : parameters) {
+      if (parameter == LoggedParameter.FURTHER_PARAMS_OMITTED) {
+        buffer.append(FURTHER_PARAMS_OMITTED);
+        continue;
+      }
+      if (buffer.length() == 0) buffer.append(" [");
+      else buffer.append(", ");
+      if (parameter.name != null) buffer.append(parameter.name).append(':');
+      if (parameter.value == LoggedParameter.UNSET) {
+        buffer.append("<UNSET>");
+      } else if (parameter.definition != null) {
+        buffer.append(parameterValueAsString(parameter.definition, (ByteBuffer) parameter.value));
+      } else {
+        buffer.append(parameterValueAsString(parameter.value));
+      }
+    }
   }
 
   protected int countBoundValues(BatchStatement bs) {
@@ -744,6 +1202,14 @@ public abstract class QueryLogger implements LatencyTracker {
   }
 
   protected int appendParameters(BoundStatement statement, StringBuilder buffer, int remaining) {
+    List<LoggedParameter> parameters = new ArrayList<LoggedParameter>();
+    remaining = captureParameters(statement, parameters, remaining);
+    appendParameters(parameters, buffer);
+    return remaining;
+  }
+
+  private int captureParameters(
+      BoundStatement statement, List<LoggedParameter> parameters, int remaining) {
     if (remaining == 0) return 0;
     ColumnDefinitions metadata = statement.preparedStatement().getVariables();
     int numberOfParameters = metadata.size();
@@ -757,16 +1223,12 @@ public abstract class QueryLogger implements LatencyTracker {
         remaining -= numberOfLoggedParameters;
       }
       for (int i = 0; i < numberOfLoggedParameters; i++) {
-        if (buffer.length() == 0) buffer.append(" [");
-        else buffer.append(", ");
-        String value =
-            statement.isSet(i)
-                ? parameterValueAsString(definitions.get(i), statement.wrapper.values[i])
-                : "<UNSET>";
-        buffer.append(String.format("%s:%s", metadata.getName(i), value));
+        Object value =
+            statement.isSet(i) ? copy(statement.wrapper.values[i]) : LoggedParameter.UNSET;
+        parameters.add(new LoggedParameter(metadata.getName(i), definitions.get(i), value));
       }
       if (numberOfLoggedParameters < numberOfParameters) {
-        buffer.append(FURTHER_PARAMS_OMITTED);
+        parameters.add(LoggedParameter.FURTHER_PARAMS_OMITTED);
       }
     }
     return remaining;
@@ -805,6 +1267,14 @@ public abstract class QueryLogger implements LatencyTracker {
   }
 
   protected int appendParameters(SimpleStatement statement, StringBuilder buffer, int remaining) {
+    List<LoggedParameter> parameters = new ArrayList<LoggedParameter>();
+    remaining = captureParameters(statement, parameters, remaining);
+    appendParameters(parameters, buffer);
+    return remaining;
+  }
+
+  private int captureParameters(
+      SimpleStatement statement, List<LoggedParameter> parameters, int remaining) {
     if (remaining == 0) return 0;
     int numberOfParameters = statement.valuesCount();
     if (numberOfParameters > 0) {
@@ -820,19 +1290,16 @@ public abstract class QueryLogger implements LatencyTracker {
         valueNames = statement.getValueNames().iterator();
       }
       for (int i = 0; i < numberOfLoggedParameters; i++) {
-        if (buffer.length() == 0) buffer.append(" [");
-        else buffer.append(", ");
         if (valueNames != null && valueNames.hasNext()) {
           String valueName = valueNames.next();
-          buffer.append(
-              String.format(
-                  "%s:%s", valueName, parameterValueAsString(statement.getObject(valueName))));
+          parameters.add(
+              new LoggedParameter(valueName, null, copy(statement.getObject(valueName))));
         } else {
-          buffer.append(parameterValueAsString(statement.getObject(i)));
+          parameters.add(new LoggedParameter(null, null, copy(statement.getObject(i))));
         }
       }
       if (numberOfLoggedParameters < numberOfParameters) {
-        buffer.append(FURTHER_PARAMS_OMITTED);
+        parameters.add(LoggedParameter.FURTHER_PARAMS_OMITTED);
       }
     }
     return remaining;
@@ -869,6 +1336,14 @@ public abstract class QueryLogger implements LatencyTracker {
   }
 
   protected int appendParameters(BuiltStatement statement, StringBuilder buffer, int remaining) {
+    List<LoggedParameter> parameters = new ArrayList<LoggedParameter>();
+    remaining = captureParameters(statement, parameters, remaining);
+    appendParameters(parameters, buffer);
+    return remaining;
+  }
+
+  private int captureParameters(
+      BuiltStatement statement, List<LoggedParameter> parameters, int remaining) {
     if (remaining == 0) {
       return 0;
     }
@@ -885,16 +1360,10 @@ public abstract class QueryLogger implements LatencyTracker {
       }
 
       for (int i = 0; i < numberOfLoggedParameters; i++) {
-        if (buffer.length() == 0) {
-          buffer.append(" [");
-        } else {
-          buffer.append(", ");
-        }
-
-        buffer.append(parameterValueAsString(statement.getObject(i)));
+        parameters.add(new LoggedParameter(null, null, copy(statement.getObject(i))));
       }
       if (numberOfLoggedParameters < numberOfParameters) {
-        buffer.append(FURTHER_PARAMS_OMITTED);
+        parameters.add(LoggedParameter.FURTHER_PARAMS_OMITTED);
       }
     }
     return remaining;
@@ -967,4 +1436,100 @@ public abstract class QueryLogger implements LatencyTracker {
     }
     return remaining;
   }
+
+  // Buffers are read by the logging thread, don't let it see the position change
+  private static Object copy(Object value) {
+    return value instanceof ByteBuffer ? ((ByteBuffer) value).duplicate() : value;
+  }
+
+  /**
+   * What is logged about a query, copied from the statement so that it can be formatted later, on
+   * another thread.
+   */
+  private static final class QueryLogRecord {
+    final Logger logger;
+    final Host host;
+    final Exception exception;
+    final long latencyMs;
+    final long thresholdMs;
+    // NaN if the threshold is constant
+    final double thresholdPercentile;
+    // -1 if not a batch
+    final int statements;
+    // -1 if unknown
+    final int boundValues;
+    // truncated to maxQueryStringLength
+    final String query;
+    // null if parameters are not logged
+    final List<LoggedParameter> parameters;
+
+    QueryLogRecord(
+        Logger logger,
+        Host host,
+        Exception exception,
+        long latencyMs,
+        long thresholdMs,
+        double thresholdPercentile,
+        int statements,
+        int boundValues,
+        String query,
+        List<LoggedParameter> parameters) {
+      this.logger = logger;
+      this.host = host;
+      this.exception = exception;
+      this.latencyMs = latencyMs;
+      this.thresholdMs = thresholdMs;
+      this.thresholdPercentile = thresholdPercentile;
+      this.statements = statements;
+      this.boundValues = boundValues;
+      this.query = query;
+      this.parameters = parameters;
+    }
+  }
+
+  private static final class LoggedParameter {
+    static final Object UNSET = new Object();
+    static final LoggedParameter FURTHER_PARAMS_OMITTED = new LoggedParameter(null, null, null);
+
+    // null if the value is not named
+    final String name;
+    // non-null if the value is serialized
+    final ColumnDefinitions.Definition definition;
+    final Object value;
+
+    LoggedParameter(String name, ColumnDefinitions.Definition definition, Object value) {
+      this.name = name;
+      this.definition = definition;
+      this.value = value;
+    }
+  }
+
+  private class Drainer implements Runnable {
+    @Override
+    public void run() {
+      Thread self = Thread.currentThread();
+      try {
+        // also check the field, in case an appender swallowed the interruption
+        while (drainer == self) {
+          QueryLogRecord record = buffer.poll(1, SECONDS);
+          if (record != null) log(record);
+        }
+      } catch (InterruptedException e) {
+        // unregistered
+      }
+      // emit what's left
+      QueryLogRecord record;
+      while ((record = buffer.poll()) != null) {
+        log(record);
+      }
+    }
+
+    private void log(QueryLogRecord record) {
+      try {
+        QueryLogger.this.log(record);
+      } catch (RuntimeException e) {
+        logger.warn("Unexpected error while logging query", e);
+      }
+    }
+  }
 }
@@ -48,12 +48,22 @@ public class QueryOptions {
 
   public static final int DEFAULT_REFRESH_SCHEMA_INTERVAL_MILLIS = 1000;
 
+  /** The default value for {@link #getMaxLazilyLoadedKeyspaces()}: 100. */
+  public static final int DEFAULT_MAX_LAZILY_LOADED_KEYSPACES = 100;
+
+  /** The default maximum number of automatically prepared queries. */
+  public static final int DEFAULT_AUTO_PREPARE_MAX_STATEMENTS = 1000;
+
   private volatile ConsistencyLevel consistency = DEFAULT_CONSISTENCY_LEVEL;
   private volatile ConsistencyLevel serialConsistency = DEFAULT_SERIAL_CONSISTENCY_LEVEL;
   private volatile int fetchSize = DEFAULT_FETCH_SIZE;
   private volatile boolean defaultIdempotence = DEFAULT_IDEMPOTENCE;
 
   private volatile boolean metadataEnabled = true;
+  private volatile boolean lazySchemaLoading = false;
+  private volatile int maxLazilyLoadedKeyspaces = DEFAULT_MAX_LAZILY_LOADED_KEYSPACES;
+  private volatile int autoPrepareThreshold = 0;
+  private volatile int autoPrepareMaxStatements = DEFAULT_AUTO_PREPARE_MAX_STATEMENTS;
 
   private volatile int maxPendingRefreshNodeListRequests =
       DEFAULT_MAX_PENDING_REFRESH_NODE_LIST_REQUESTS;
@@ -319,6 +329,148 @@ public class QueryOptions {
     return metadataEnabled;
   }
 
+  /**
+   * Toggle lazy loading of schema metadata.
+   *
+   * <p>This feature is disabled by default, which means that the driver loads the definitions of
+   * all keyspaces and of all the elements they contain (tables, views, user types, functions and
+   * aggregates) when it initializes, and keeps them in memory. On clusters with a large number of
+   * keyspaces or tables, this can take a significant amount of time and memory.
+   *
+   * <p>If lazy loading is enabled, only the keyspace definitions (which are needed to compute the
+   * token map) are loaded eagerly. The contents of a keyspace are loaded the first time they are
+   * accessed through one of the getters of {@link KeyspaceMetadata} (for example {@link
+   * KeyspaceMetadata#getTable(String)}), which issues a blocking query on the control connection.
+   * At most {@link #getMaxLazilyLoadedKeyspaces()} keyspaces are kept loaded at the same time; the
+   * least recently accessed ones are unloaded, and will be loaded again on their next access.
+   *
+   * <p>Schema changes affecting an element of a keyspace that is not loaded are ignored, and no
+   * {@link SchemaChangeListener} notification is emitted for them; changes to the keyspace
+   * definitions themselves, and to loaded keyspaces, are processed as usual.
+   *
+   * <p>A keyspace can't be loaded from a driver I/O thread (for example in the callback of a future
+   * returned by the driver): in that case the load is scheduled in the background and the keyspace
+   * appears empty until it completes.
+   *
+   * <p>This should be set before the cluster is initialized; changing it afterwards only takes
+   * effect at the next full schema refresh.
+   *
+   * @param enabled whether schema metadata should be loaded lazily.
+   * @return this {@code QueryOptions} instance.
+   */
+  public QueryOptions setLazySchemaLoading(boolean enabled) {
+    this.lazySchemaLoading = enabled;
+    return this;
+  }
+
+  /**
+   * Whether schema metadata is loaded lazily.
+   *
+   * @return the value.
+   * @see #setLazySchemaLoading(boolean)
+   */
+  public boolean isLazySchemaLoading() {
+    return lazySchemaLoading;
+  }
+
+  /**
+   * Sets the maximum number of keyspaces whose contents can be loaded at the same time when {@link
+   * #setLazySchemaLoading(boolean) lazy schema loading} is enabled.
+   *
+   * @param maxLazilyLoadedKeyspaces the maximum number of loaded keyspaces; must be strictly
+   *     positive.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code maxLazilyLoadedKeyspaces <= 0}.
+   */
+  public QueryOptions setMaxLazilyLoadedKeyspaces(int maxLazilyLoadedKeyspaces) {
+    if (maxLazilyLoadedKeyspaces <= 0)
+      throw new IllegalArgumentException(
+          "Invalid maxLazilyLoadedKeyspaces, should be > 0, got " + maxLazilyLoadedKeyspaces);
+    this.maxLazilyLoadedKeyspaces = maxLazilyLoadedKeyspaces;
+    return this;
+  }
+
+  /**
+   * The maximum number of keyspaces whose contents can be loaded at the same time when lazy schema
+   * loading is enabled.
+   *
+   * @return the maximum number of loaded keyspaces.
+   * @see #setMaxLazilyLoadedKeyspaces(int)
+   */
+  public int getMaxLazilyLoadedKeyspaces() {
+    return maxLazilyLoadedKeyspaces;
+  }
+
+  /**
+   * Enables automatic preparation of frequently executed simple statements.
+   *
+   * <p>When enabled, each session estimates how often it executes each query string of a {@link
+   * SimpleStatement} with positional values. Once a query has been executed {@code threshold}
+   * times, it is prepared in the background, and subsequent executions of the same query string are
+   * sent as executions of the prepared statement, with the same values. This saves sending and
+   * parsing the query string each time, without any change in the application code.
+   *
+   * <p>This applies neither to simple statements with named values, nor to subclasses of {@link
+   * SimpleStatement}, nor to built statements. It is also disabled with protocol versions that
+   * don't support values in simple statements (v1), or that allow result metadata to change after
+   * preparation (v5).
+   *
+   * <p>The number of tracked queries is bounded, see {@link #setAutoPrepareMaxStatements(int)}. The
+   * number of automatically prepared statements, and the number of bytes saved by not sending the
+   * query strings, are exposed by {@link Metrics#getAutoPreparedStatements()} and {@link
+   * Metrics#getAutoPrepareSavedBytes()}.
+   *
+   * @param threshold the number of executions after which a query gets prepared, or 0 to disable
+   *     automatic preparation. It is disabled by default.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code threshold < 0}.
+   */
+  public QueryOptions setAutoPrepareThreshold(int threshold) {
+    if (threshold < 0)
+      throw new IllegalArgumentException(
+          "Invalid autoPrepareThreshold, should be >= 0, got " + threshold);
+    this.autoPrepareThreshold = threshold;
+    return this;
+  }
+
+  /**
+   * The number of executions after which a simple statement is automatically prepared, or 0 if
+   * automatic preparation is disabled.
+   *
+   * @return the threshold.
+   * @see #setAutoPrepareThreshold(int)
+   */
+  public int getAutoPrepareThreshold() {
+    return autoPrepareThreshold;
+  }
+
+  /**
+   * Sets the maximum number of queries that each session prepares automatically when {@link
+   * #setAutoPrepareThreshold(int) automatic preparation} is enabled. Once this number is reached,
+   * other queries are executed as is.
+   *
+   * @param maxStatements the maximum number of queries; must be strictly positive.
+   * @return this {@code QueryOptions} instance.
+   * @throws IllegalArgumentException if {@code maxStatements <= 0}.
+   */
+  public QueryOptions setAutoPrepareMaxStatements(int maxStatements) {
+    if (maxStatements <= 0)
+      throw new IllegalArgumentException(
+          "Invalid autoPrepareMaxStatements, should be > 0, got " + maxStatements);
+    this.autoPrepareMaxStatements = maxStatements;
+    return this;
+  }
+
+  /**
+   * The maximum number of queries that each session prepares automatically.
+   *
+   * @return the maximum number of queries.
+   * @see #setAutoPrepareMaxStatements(int)
+   */
+  public int getAutoPrepareMaxStatements() {
+    return autoPrepareMaxStatements;
+  }
+
   /**
    * Sets the default window size in milliseconds used to debounce node list refresh requests.
    *
@@ -488,6 +640,10 @@ public class QueryOptions {
         && this.fetchSize == other.fetchSize
         && this.defaultIdempotence == other.defaultIdempotence
         && this.metadataEnabled == other.metadataEnabled
+        && this.lazySchemaLoading == other.lazySchemaLoading
+        && this.maxLazilyLoadedKeyspaces == other.maxLazilyLoadedKeyspaces
+        && this.autoPrepareThreshold == other.autoPrepareThreshold
+        && this.autoPrepareMaxStatements == other.autoPrepareMaxStatements
         && this.maxPendingRefreshNodeListRequests == other.maxPendingRefreshNodeListRequests
         && this.maxPendingRefreshNodeRequests == other.maxPendingRefreshNodeRequests
         && this.maxPendingRefreshSchemaRequests == other.maxPendingRefreshSchemaRequests
@@ -506,6 +662,10 @@ public class QueryOptions {
         fetchSize,
         defaultIdempotence,
         metadataEnabled,
+        lazySchemaLoading,
+        maxLazilyLoadedKeyspaces,
+        autoPrepareThreshold,
+        autoPrepareMaxStatements,
         maxPendingRefreshNodeListRequests,
         maxPendingRefreshNodeRequests,
         maxPendingRefreshSchemaRequests,
@@ -18,8 +18,10 @@ package com.datastax.driver.core;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.ssl.SslHandler;
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSessionContext;
 
 /**
  * {@link RemoteEndpointAwareSSLOptions} implementation based on built-in JDK classes.
@@ -31,6 +33,8 @@ import javax.net.ssl.SSLEngine;
 public class RemoteEndpointAwareJdkSSLOptions extends JdkSSLOptions
     implements RemoteEndpointAwareSSLOptions {
 
+  private final Executor handshakeExecutor;
+
   /**
    * Creates a builder to create a new instance.
    *
@@ -47,7 +51,22 @@ public class RemoteEndpointAwareJdkSSLOptions extends JdkSSLOptions
    * @param cipherSuites the cipher suites to use.
    */
   protected RemoteEndpointAwareJdkSSLOptions(SSLContext context, String[] cipherSuites) {
+    this(context, cipherSuites, null);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param context the SSL context.
+   * @param cipherSuites the cipher suites to use.
+   * @param handshakeExecutor the executor to run handshake tasks on, or {@code null} to run them on
+   *     the I/O threads.
+   * @since 3.7.2
+   */
+  protected RemoteEndpointAwareJdkSSLOptions(
+      SSLContext context, String[] cipherSuites, Executor handshakeExecutor) {
     super(context, cipherSuites);
+    this.handshakeExecutor = handshakeExecutor;
   }
 
   @Override
@@ -59,7 +78,9 @@ public class RemoteEndpointAwareJdkSSLOptions extends JdkSSLOptions
   @Override
   public SslHandler newSSLHandler(SocketChannel channel, InetSocketAddress remoteEndpoint) {
     SSLEngine engine = newSSLEngine(channel, remoteEndpoint);
-    return new SslHandler(engine);
+    return (handshakeExecutor == null)
+        ? new SslHandler(engine)
+        : new SslHandler(engine, handshakeExecutor);
   }
 
   /**
@@ -87,6 +108,10 @@ public class RemoteEndpointAwareJdkSSLOptions extends JdkSSLOptions
   /** Helper class to build {@link RemoteEndpointAwareJdkSSLOptions} instances. */
   public static class Builder extends JdkSSLOptions.Builder {
 
+    private Executor handshakeExecutor;
+    private int sessionCacheSize = -1;
+    private int sessionTimeoutSeconds = -1;
+
     @Override
     public RemoteEndpointAwareJdkSSLOptions.Builder withSSLContext(SSLContext context) {
       super.withSSLContext(context);
@@ -99,9 +124,76 @@ public class RemoteEndpointAwareJdkSSLOptions extends JdkSSLOptions
       return this;
     }
 
+    /**
+     * Set the executor to run the expensive parts of SSL handshakes on (key exchange, certificate
+     * validation...).
+     *
+     * <p>If this method isn't called, handshakes run on the Netty I/O threads; when a large number
+     * of connections are opened at once (for example when a node restarts), this can starve the I/O
+     * threads and delay other requests. Passing a bounded executor keeps the I/O threads available.
+     *
+     * @param handshakeExecutor the executor.
+     * @return this builder.
+     * @since 3.7.2
+     */
+    public RemoteEndpointAwareJdkSSLOptions.Builder withHandshakeExecutor(
+        Executor handshakeExecutor) {
+      this.handshakeExecutor = handshakeExecutor;
+      return this;
+    }
+
+    /**
+     * Set the size of the client session cache of the SSL context.
+     *
+     * <p>Sessions are cached per remote host and port, and allow new connections to a host to
+     * resume a previous session with an abbreviated handshake, provided that the server supports
+     * it. This significantly reduces the CPU cost of reconnecting many connections at once.
+     *
+     * <p>If this method isn't called, the context's current setting is left unchanged (the JDK
+     * caches sessions by default). Note that this modifies the {@link
+     * SSLContext#getClientSessionContext() client session context} of the SSL context.
+     *
+     * @param sessionCacheSize the maximum number of cached sessions, or 0 for no limit.
+     * @return this builder.
+     * @since 3.7.2
+     */
+    public RemoteEndpointAwareJdkSSLOptions.Builder withSessionCacheSize(int sessionCacheSize) {
+      if (sessionCacheSize < 0)
+        throw new IllegalArgumentException("Session cache size must be positive");
+      this.sessionCacheSize = sessionCacheSize;
+      return this;
+    }
+
+    /**
+     * Set the timeout of the sessions cached by the SSL context.
+     *
+     * <p>If this method isn't called, the context's current setting is left unchanged. Note that
+     * this modifies the {@link SSLContext#getClientSessionContext() client session context} of the
+     * SSL context.
+     *
+     * @param sessionTimeoutSeconds the timeout in seconds, or 0 for no limit.
+     * @return this builder.
+     * @see #withSessionCacheSize(int)
+     * @since 3.7.2
+     */
+    public RemoteEndpointAwareJdkSSLOptions.Builder withSessionTimeoutSeconds(
+        int sessionTimeoutSeconds) {
+      if (sessionTimeoutSeconds < 0)
+        throw new IllegalArgumentException("Session timeout must be positive");
+      this.sessionTimeoutSeconds = sessionTimeoutSeconds;
+      return this;
+    }
+
     @Override
     public RemoteEndpointAwareJdkSSLOptions build() {
-      return new RemoteEndpointAwareJdkSSLOptions(context, cipherSuites);
+      RemoteEndpointAwareJdkSSLOptions options =
+          new RemoteEndpointAwareJdkSSLOptions(context, cipherSuites, handshakeExecutor);
+      SSLSessionContext sessionContext = options.context.getClientSessionContext();
+      if (sessionContext != null) {
+        if (sessionCacheSize >= 0) sessionContext.setSessionCacheSize(sessionCacheSize);
+        if (sessionTimeoutSeconds >= 0) sessionContext.setSessionTimeout(sessionTimeoutSeconds);
+      }
+      return options;
     }
   }
 }
@@ -19,6 +19,8 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import javax.net.ssl.SSLEngine;
 
 /**
  * {@link RemoteEndpointAwareSSLOptions} implementation based on Netty's SSL context.
@@ -33,6 +35,8 @@ import java.net.InetSocketAddress;
 public class RemoteEndpointAwareNettySSLOptions extends NettySSLOptions
     implements RemoteEndpointAwareSSLOptions {
 
+  private final Executor handshakeExecutor;
+
   /**
    * Create a new instance from a given context.
    *
@@ -40,7 +44,30 @@ public class RemoteEndpointAwareNettySSLOptions extends NettySSLOptions
    *     to build it.
    */
   public RemoteEndpointAwareNettySSLOptions(SslContext context) {
+    this(context, null);
+  }
+
+  /**
+   * Create a new instance from a given context, that performs the expensive parts of SSL handshakes
+   * on the given executor.
+   *
+   * <p>By default, handshakes run on the Netty I/O threads; when a large number of connections are
+   * opened at once (for example when a node restarts), this can starve the I/O threads and delay
+   * other requests. Passing a bounded executor keeps the I/O threads available.
+   *
+   * <p>Note that session resumption is controlled by the context, see {@code
+   * SslContextBuilder.sessionCacheSize} and {@code SslContextBuilder.sessionTimeout}. Sessions are
+   * cached per remote host and port.
+   *
+   * @param context the Netty context. {@code SslContextBuilder.forClient()} provides a fluent API
+   *     to build it.
+   * @param handshakeExecutor the executor to run handshake tasks on, or {@code null} to run them on
+   *     the I/O threads.
+   * @since 3.7.2
+   */
+  public RemoteEndpointAwareNettySSLOptions(SslContext context, Executor handshakeExecutor) {
     super(context);
+    this.handshakeExecutor = handshakeExecutor;
   }
 
   @Override
@@ -51,7 +78,11 @@ public class RemoteEndpointAwareNettySSLOptions extends NettySSLOptions
 
   @Override
   public SslHandler newSSLHandler(SocketChannel channel, InetSocketAddress remoteEndpoint) {
-    return context.newHandler(
-        channel.alloc(), remoteEndpoint.getHostName(), remoteEndpoint.getPort());
+    if (handshakeExecutor == null)
+      return context.newHandler(
+          channel.alloc(), remoteEndpoint.getHostName(), remoteEndpoint.getPort());
+    SSLEngine engine =
+        context.newEngine(channel.alloc(), remoteEndpoint.getHostName(), remoteEndpoint.getPort());
+    return new SslHandler(engine, handshakeExecutor);
   }
 }
@@ -27,10 +27,14 @@ import com.datastax.driver.core.exceptions.OperationTimedOutException;
 import com.datastax.driver.core.exceptions.OverloadedException;
 import com.datastax.driver.core.exceptions.ReadFailureException;
 import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.RequestTimeoutException;
 import com.datastax.driver.core.exceptions.ServerError;
 import com.datastax.driver.core.exceptions.UnavailableException;
 import com.datastax.driver.core.exceptions.WriteFailureException;
 import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.datastax.driver.core.policies.ContextAwareRetryPolicy;
+import com.datastax.driver.core.policies.RetryBudget;
+import com.datastax.driver.core.policies.RetryContext;
 import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.policies.RetryPolicy.RetryDecision.Type;
 import com.datastax.driver.core.policies.SpeculativeExecutionPolicy.SpeculativeExecutionPlan;
@@ -53,6 +57,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,6 +74,10 @@ class RequestHandler {
   private static final QueryLogger QUERY_LOGGER = QueryLogger.builder().build();
   static final String DISABLE_QUERY_WARNING_LOGS = "com.datastax.driver.DISABLE_QUERY_WARNING_LOGS";
 
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<RequestHandler, ConcurrentMap> ERRORS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(RequestHandler.class, ConcurrentMap.class, "errors");
+
   final String id;
 
   private final SessionManager manager;
@@ -78,7 +89,7 @@ class RequestHandler {
   private final Set<SpeculativeExecution> runningExecutions = Sets.newCopyOnWriteArraySet();
   private final Set<Timeout> scheduledExecutions = Sets.newCopyOnWriteArraySet();
   private final Statement statement;
-  private final io.netty.util.Timer scheduler;
+  private final Connection.Factory connectionFactory;
 
   private volatile List<Host> triedHosts;
   private volatile ConcurrentMap<InetSocketAddress, Throwable> errors;
@@ -86,6 +97,11 @@ class RequestHandler {
   private final Timer.Context timerContext;
   private final long startTime;
 
+  // The deadline of the whole request (if requestTimeoutMillis > 0), in System.nanoTime() units
+  private final int requestTimeoutMillis;
+  private final long deadline;
+  private volatile Timeout deadlineTimeout;
+
   private final AtomicBoolean isDone = new AtomicBoolean();
   private final AtomicInteger executionIndex = new AtomicInteger();
 
@@ -94,7 +110,7 @@ class RequestHandler {
     if (logger.isTraceEnabled()) logger.trace("[{}] {}", id, statement);
     this.manager = manager;
     this.callback = callback;
-    this.scheduler = manager.cluster.manager.connectionFactory.timer;
+    this.connectionFactory = manager.cluster.manager.connectionFactory;
 
     callback.register(this);
 
@@ -116,9 +132,13 @@ class RequestHandler {
 
     this.timerContext = metricsEnabled() ? metrics().getRequestsTimer().time() : null;
     this.startTime = System.nanoTime();
+    this.requestTimeoutMillis = statement.getRequestTimeoutMillis();
+    this.deadline = startTime + TimeUnit.MILLISECONDS.toNanos(requestTimeoutMillis);
   }
 
   void sendRequest() {
+    if (requestTimeoutMillis > 0)
+      deadlineTimeout = connectionFactory.newTimeout(newDeadlineTask(), requestTimeoutMillis, null);
     startNewExecution();
   }
 
@@ -142,6 +162,12 @@ class RequestHandler {
 
   private void scheduleExecution(long delayMillis) {
     if (isDone.get() || delayMillis < 0) return;
+    if (requestTimeoutMillis > 0
+        && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - deadline >= 0) {
+      if (logger.isTraceEnabled())
+        logger.trace("[{}] Next speculative execution would start after the deadline", id);
+      return;
+    }
     if (logger.isTraceEnabled())
       logger.trace("[{}] Schedule next speculative execution in {} ms", id, delayMillis);
     if (delayMillis == 0) {
@@ -149,16 +175,24 @@ class RequestHandler {
       scheduleExecutionImmediately();
     } else {
       scheduledExecutions.add(
-          scheduler.newTimeout(newExecutionTask, delayMillis, TimeUnit.MILLISECONDS));
+          connectionFactory.newTimeout(
+              newExecutionTask(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)),
+              delayMillis,
+              null));
     }
   }
 
-  private final TimerTask newExecutionTask =
-      new TimerTask() {
-        @Override
-        public void run(final Timeout timeout) throws Exception {
-          scheduledExecutions.remove(timeout);
-          if (!isDone.get()) {
+  private TimerTask newExecutionTask(final long deadlineNanos) {
+    return new TimerTask() {
+      @Override
+      public void run(final Timeout timeout) throws Exception {
+        scheduledExecutions.remove(timeout);
+        connectionFactory.recordTimerLag(deadlineNanos);
+        if (!isDone.get()) {
+          if (connectionFactory.eventLoopTimer != null) {
+            // We're on an event loop, which is where executions usually start from
+            scheduleExecutionImmediately();
+          } else {
             // We're on the timer thread so reschedule to another executor
             manager
                 .executor()
@@ -171,7 +205,9 @@ class RequestHandler {
                     });
           }
         }
-      };
+      }
+    };
+  }
 
   private void scheduleExecutionImmediately() {
     if (metricsEnabled()) metrics().getErrorMetrics().getSpeculativeExecutions().inc();
@@ -183,6 +219,43 @@ class RequestHandler {
       if (execution != ignore) // not vital but this produces nicer logs
       execution.cancel();
     for (Timeout execution : scheduledExecutions) execution.cancel();
+    Timeout deadlineTimeout = this.deadlineTimeout;
+    if (deadlineTimeout != null) deadlineTimeout.cancel();
+  }
+
+  private boolean isPastDeadline() {
+    return requestTimeoutMillis > 0 && System.nanoTime() - deadline >= 0;
+  }
+
+  private TimerTask newDeadlineTask() {
+    return new TimerTask() {
+      @Override
+      public void run(Timeout timeout) {
+        connectionFactory.recordTimerLag(deadline);
+        onDeadline();
+      }
+    };
+  }
+
+  // Fails the request once its deadline has passed. The outstanding executions are cancelled, which
+  // leaves their stream ids orphaned until the responses arrive.
+  private void onDeadline() {
+    if (!isDone.compareAndSet(false, true)) return;
+
+    if (logger.isTraceEnabled()) logger.trace("[{}] Request timed out", id);
+    if (metricsEnabled()) metrics().getErrorMetrics().getRequestTimeouts().inc();
+
+    cancelPendingExecutions(null);
+
+    try {
+      if (timerContext != null) timerContext.stop();
+    } finally {
+      callback.onException(
+          null,
+          new RequestTimeoutException(requestTimeoutMillis),
+          System.nanoTime() - startTime, /*unused*/
+          0);
+    }
   }
 
   private void setFinalResult(
@@ -296,6 +369,10 @@ class RequestHandler {
     return manager.cluster.manager.metrics;
   }
 
+  private RetryBudget retryBudget() {
+    return manager.configuration().getPolicies().getRetryBudget();
+  }
+
   private RetryPolicy retryPolicy() {
     return statement.getRetryPolicy() == null
         ? manager.configuration().getPolicies().getRetryPolicy()
@@ -341,6 +418,15 @@ class RequestHandler {
     // This is incremented by one writer at a time, so volatile is good enough.
     private volatile int retriesByPolicy;
 
+    // Whether this request was recorded in the retry budget (only done by the first execution)
+    private boolean recordedInBudget;
+
+    // The start of the current attempt, and the total duration of the attempts that ended with a
+    // retry decision. Like retriesByPolicy, these are updated by one writer at a time.
+    private volatile long attemptStart;
+    private volatile long failedAttemptsNanos;
+    private volatile int failedAttempts;
+
     private volatile Connection.ResponseHandler connectionHandler;
 
     SpeculativeExecution(Message.Request request, int position) {
@@ -352,6 +438,10 @@ class RequestHandler {
     }
 
     void findNextHostAndQuery() {
+      if (isPastDeadline()) {
+        onDeadline();
+        return;
+      }
       try {
         Host host;
         while (!isDone.get()
@@ -389,9 +479,19 @@ class RequestHandler {
 
       if (logger.isTraceEnabled()) logger.trace("[{}] Querying node {}", id, host);
 
+      attemptStart = System.nanoTime();
+
+      if (position == 0 && !recordedInBudget) {
+        recordedInBudget = true;
+        RetryBudget retryBudget = retryBudget();
+        if (retryBudget != null) retryBudget.onRequest(host);
+      }
+
       if (allowSpeculativeExecutions && nextExecutionScheduled.compareAndSet(false, true))
         scheduleExecution(speculativeExecutionPlan.nextExecution(host));
 
+      final RequestTracer tracer = connectionFactory.requestTracer;
+      final long borrowStart = (tracer == null) ? 0 : System.nanoTime();
       PoolingOptions poolingOptions = manager.configuration().getPoolingOptions();
       ListenableFuture<Connection> connectionFuture =
           pool.borrowConnection(
@@ -412,8 +512,17 @@ class RequestHandler {
                 triedHosts.add(current);
               }
               current = host;
+              TracedRequest trace = null;
+              long borrowEnd = 0;
+              if (tracer != null) {
+                trace = new TracedRequest(tracer, host, statement);
+                borrowEnd = System.nanoTime();
+              }
               try {
-                write(connection, SpeculativeExecution.this);
+                write(connection, SpeculativeExecution.this, trace);
+                // only report once the request is on its way
+                if (trace != null)
+                  trace.onPhase(RequestTracer.Phase.BORROW, borrowStart, borrowEnd);
               } catch (ConnectionException e) {
                 // If we have any problem with the connection, move to the next node.
                 if (metricsEnabled()) metrics().getErrorMetrics().getConnectionErrors().inc();
@@ -448,7 +557,8 @@ class RequestHandler {
       return true;
     }
 
-    private void write(Connection connection, Connection.ResponseCallback responseCallback)
+    private void write(
+        Connection connection, Connection.ResponseCallback responseCallback, TracedRequest trace)
         throws ConnectionException, BusyConnectionException {
       // Make sure cancel() does not see a stale connectionHandler if it sees the new query state
       // before connection.write has completed
@@ -467,7 +577,7 @@ class RequestHandler {
       }
 
       connectionHandler =
-          connection.write(responseCallback, statement.getReadTimeoutMillis(), false);
+          connection.write(responseCallback, statement.getReadTimeoutMillis(), false, trace);
       // Only start the timeout when we're sure connectionHandler is set. This avoids an edge case
       // where onTimeout() was triggered
       // *before* the call to connection.write had returned.
@@ -496,6 +606,7 @@ class RequestHandler {
       } else {
         decision = RetryPolicy.RetryDecision.rethrow();
       }
+      decision = confirmRetry(decision, request().consistency(), exception);
       if (metricsEnabled()) {
         if (exception instanceof OperationTimedOutException) {
           metrics().getErrorMetrics().getClientTimeouts().inc();
@@ -549,24 +660,97 @@ class RequestHandler {
       }
     }
 
+    // Checks the retry budget, then gives a ContextAwareRetryPolicy a chance to cancel the retry.
+    // This must be called before the decision is recorded in metrics or acted upon.
+    private RetryPolicy.RetryDecision confirmRetry(
+        RetryPolicy.RetryDecision decision, ConsistencyLevel consistency, DriverException error) {
+      if (decision.getType() != Type.RETRY) return decision;
+      long now = System.nanoTime();
+      failedAttemptsNanos += now - attemptStart;
+      failedAttempts += 1;
+      RetryBudget retryBudget = retryBudget();
+      if (retryBudget != null && !retryBudget.tryAcquire(current)) {
+        if (logger.isDebugEnabled())
+          logger.debug("[{}] Retry budget exhausted, not retrying query {}", id, statement);
+        if (metricsEnabled()) metrics().getErrorMetrics().getRetriesRejected().inc();
+        return RetryPolicy.RetryDecision.rethrow();
+      }
+      RetryPolicy retryPolicy = retryPolicy();
+      if (retryPolicy instanceof ContextAwareRetryPolicy) {
+        decision =
+            ((ContextAwareRetryPolicy) retryPolicy)
+                .confirmRetry(statement, decision, newRetryContext(consistency, error, now));
+        if (decision.getType() != Type.RETRY) {
+          if (retryBudget != null) retryBudget.release(current);
+          if (metricsEnabled()) metrics().getErrorMetrics().getRetriesRejected().inc();
+        }
+      }
+      return decision;
+    }
+
+    private RetryContext newRetryContext(
+        final ConsistencyLevel consistency, final DriverException error, final long now) {
+      final Host host = current;
+      final int retryCount = retriesByPolicy;
+      final long averageAttemptNanos = failedAttemptsNanos / failedAttempts;
+      return new RetryContext() {
+        @Override
+        public Host getHost() {
+          return host;
+        }
+
+        @Override
+        public ConsistencyLevel getConsistencyLevel() {
+          return consistency;
+        }
+
+        @Override
+        public DriverException getError() {
+          return error;
+        }
+
+        @Override
+        public int getRetryCount() {
+          return retryCount;
+        }
+
+        @Override
+        public long getElapsedNanos() {
+          return now - RequestHandler.this.startTime;
+        }
+
+        @Override
+        public long getAverageAttemptNanos() {
+          return averageAttemptNanos;
+        }
+
+        @Override
+        public long getRemainingNanos() {
+          return requestTimeoutMillis > 0 ? Math.max(0, deadline - now) : Long.MAX_VALUE;
+        }
+      };
+    }
+
     private void retry(final boolean retryCurrent, ConsistencyLevel newConsistencyLevel) {
       final Host h = current;
       if (newConsistencyLevel != null) this.retryConsistencyLevel = newConsistencyLevel;
 
       if (queryStateRef.get().isCancelled()) return;
 
+      if (isPastDeadline()) {
+        onDeadline();
+        return;
+      }
+
       if (!retryCurrent || !query(h)) findNextHostAndQuery();
     }
 
     private void logError(InetSocketAddress address, Throwable exception) {
       logger.debug("[{}] Error querying {} : {}", id, address, exception.toString());
-      if (errors == null) {
-        synchronized (RequestHandler.this) {
-          if (errors == null) {
-            errors = new ConcurrentHashMap<InetSocketAddress, Throwable>();
-          }
-        }
-      }
+      // Don't lock here: a contended monitor would pin the carrier of a virtual thread
+      if (errors == null)
+        ERRORS_UPDATER.compareAndSet(
+            RequestHandler.this, null, new ConcurrentHashMap<InetSocketAddress, Throwable>());
       errors.put(address, exception);
     }
 
@@ -659,6 +843,7 @@ class RequestHandler {
                         rte.getReceivedAcknowledgements(),
                         rte.wasDataRetrieved(),
                         retriesByPolicy);
+                retry = confirmRetry(retry, rte.getConsistencyLevel(), rte);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getReadTimeouts().inc();
                   if (retry.getType() == Type.RETRY)
@@ -684,6 +869,7 @@ class RequestHandler {
                 else {
                   retry = RetryPolicy.RetryDecision.rethrow();
                 }
+                retry = confirmRetry(retry, wte.getConsistencyLevel(), wte);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getWriteTimeouts().inc();
                   if (retry.getType() == Type.RETRY)
@@ -703,6 +889,7 @@ class RequestHandler {
                         ue.getRequiredReplicas(),
                         ue.getAliveReplicas(),
                         retriesByPolicy);
+                retry = confirmRetry(retry, ue.getConsistencyLevel(), ue);
                 if (metricsEnabled()) {
                   metrics().getErrorMetrics().getUnavailables().inc();
                   if (retry.getType() == Type.RETRY)
@@ -779,7 +966,7 @@ class RequestHandler {
                     toPrepare.getQueryString(),
                     connection.address);
 
-                write(connection, prepareAndRetry(toPrepare.getQueryString()));
+                write(connection, prepareAndRetry(toPrepare.getQueryString()), null);
                 // we're done for now, the prepareAndRetry callback will handle the rest
                 return;
               case READ_FAILURE:
@@ -1059,14 +1246,21 @@ class RequestHandler {
    */
   static class QueryPlan {
     private final Iterator<Host> iterator;
+    // Not a monitor, so that virtual threads that contend on it don't pin their carrier
+    private final Lock lock = new ReentrantLock();
 
     QueryPlan(Iterator<Host> iterator) {
       this.iterator = iterator;
     }
 
     /** @return null if there are no more hosts */
-    synchronized Host next() {
-      return iterator.hasNext() ? iterator.next() : null;
+    Host next() {
+      lock.lock();
+      try {
+        return iterator.hasNext() ? iterator.next() : null;
+      } finally {
+        lock.unlock();
+      }
     }
   }
 }
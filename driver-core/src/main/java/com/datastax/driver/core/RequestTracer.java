@@ -0,0 +1,88 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+/**
+ * Interface for objects that are interested in where the time goes while the driver executes a
+ * request against a Cassandra node.
+ *
+ * <p>An implementation of this interface can be configured with {@link
+ * Cluster.Builder#withRequestTracer(RequestTracer)}. Its {@link #onPhase(Host, Statement, Phase,
+ * long, long)} method will then be called at the end of each {@link Phase phase} of each attempt to
+ * execute a statement on a node (retries and speculative executions are separate attempts).
+ *
+ * <p>When no tracer is configured, the driver does not take the corresponding timestamps at all.
+ *
+ * @see PhaseHistograms
+ */
+public interface RequestTracer {
+
+  /** The phases of a request execution on a Cassandra node, in chronological order. */
+  enum Phase {
+    /**
+     * Acquiring a connection from the host's pool. This includes the time spent waiting in the
+     * pool's queue when all connections are busy, and switching the connection to the session's
+     * keyspace if needed.
+     */
+    BORROW,
+
+    /** Allocating a stream id on the connection. */
+    STREAM_ID,
+
+    /**
+     * Encoding the request and writing it to the socket. This includes the time spent waiting for
+     * the I/O thread to coalesce and flush pending writes.
+     */
+    WRITE,
+
+    /**
+     * From the moment the request was written to the socket, to the moment the complete response
+     * frame was read. This is the server-side latency, plus the network round trip and the time the
+     * response waited in the socket buffers before the I/O thread read it.
+     */
+    SERVER,
+
+    /** Decompressing and decoding the response, until it is dispatched to its handler. */
+    DECODE,
+
+    /**
+     * Processing the response: applying the retry policy, completing the future returned to the
+     * client, and running the future's listeners or handing them off to their executors.
+     */
+    COMPLETION
+  }
+
+  /**
+   * A method that is called at the end of each phase of a request execution.
+   *
+   * <p>This is called from the driver's internal threads, including the I/O threads: it must be
+   * fast and must not block. Note that there is no guarantee that this method won't be called
+   * concurrently by multiple threads, so implementations should synchronize internally if need be.
+   *
+   * <p>Phases are reported once the driver has moved on (for example, once the request has been
+   * handed off for writing, or the response has been handed to the client), so the calls for a
+   * given attempt are not necessarily made in chronological order: use the timestamps to order
+   * them. Exceptions thrown by this method are logged and otherwise ignored.
+   *
+   * @param host the Cassandra host on which the request is executed. This parameter is never {@code
+   *     null}.
+   * @param statement the {@link Statement} that is executed. This parameter is never {@code null}.
+   * @param phase the phase that just ended.
+   * @param startNanos the time at which the phase started, in {@link System#nanoTime()} units.
+   * @param endNanos the time at which the phase ended, in {@link System#nanoTime()} units.
+   */
+  void onPhase(Host host, Statement statement, Phase phase, long startNanos, long endNanos);
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the clients waiting for schema agreement, and shares the checks between them.
+ *
+ * <p>A single check is in flight at any time: waiters that register while a check is running are
+ * served by the next one. When the schema is not in agreement yet, checks are retried with an
+ * exponential backoff, or right away when an event that could change the outcome is received
+ * (schema change, node going up or down). Each waiter gives up once its own deadline has passed.
+ *
+ * <p>If a check fails, only the waiters that registered with the connection it used get the error;
+ * the others stay registered, and are served by the next check, on another connection.
+ */
+abstract class SchemaAgreementTracker {
+
+  private static final Logger logger = LoggerFactory.getLogger(SchemaAgreementTracker.class);
+
+  static final long MIN_DELAY_MS = 20;
+  static final long MAX_DELAY_MS = 1000;
+
+  private final ScheduledExecutorService executor;
+
+  private final Runnable checkTask =
+      new ExceptionCatchingRunnable() {
+        @Override
+        public void runMayThrow() {
+          check();
+        }
+      };
+
+  // All the fields below are guarded by this.
+  private final List<Waiter> waiters = new ArrayList<Waiter>();
+  private ScheduledFuture<?> nextCheck;
+  private boolean checkInProgress;
+  private boolean recheckRequested;
+  private long delayMs = MIN_DELAY_MS;
+
+  SchemaAgreementTracker(ScheduledExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /** Checks schema agreement through the given connection. */
+  abstract ListenableFuture<Boolean> checkAgreement(Connection connection);
+
+  /** How long a waiter is willing to wait for agreement. */
+  abstract long maxWaitNanos();
+
+  /**
+   * Invoked when a waiter completes, either because agreement was reached or because it timed out.
+   */
+  void onCompleted(long elapsedNanos, boolean agreement) {}
+
+  /**
+   * Waits for schema agreement.
+   *
+   * @param connection the connection the schema change was sent on; the check will be performed on
+   *     the connection of the most recent waiter.
+   * @return a future that completes with {@code true} if agreement was reached, or {@code false} if
+   *     it timed out.
+   */
+  ListenableFuture<Boolean> waitForAgreement(Connection connection) {
+    long maxWaitNanos = maxWaitNanos();
+    if (maxWaitNanos <= 0) return Futures.immediateFuture(false);
+
+    Waiter waiter = new Waiter(connection, System.nanoTime(), maxWaitNanos);
+    synchronized (this) {
+      waiters.add(waiter);
+      if (!checkInProgress && nextCheck == null) schedule(0);
+    }
+    return waiter.future;
+  }
+
+  /**
+   * Notifies this tracker of an event that could change the outcome of the check: any pending check
+   * is performed immediately instead of waiting for the backoff delay.
+   */
+  synchronized void onEvent() {
+    if (checkInProgress) {
+      recheckRequested = true;
+    } else if (nextCheck != null && nextCheck.cancel(false)) {
+      delayMs = MIN_DELAY_MS;
+      schedule(0);
+    }
+  }
+
+  // Must be called while holding the lock
+  private void schedule(long delay) {
+    try {
+      nextCheck = executor.schedule(checkTask, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // The cluster is shutting down
+      nextCheck = null;
+      for (Waiter waiter : waiters) waiter.future.set(false);
+      waiters.clear();
+    }
+  }
+
+  private void check() {
+    final List<Waiter> round;
+    synchronized (this) {
+      nextCheck = null;
+      if (waiters.isEmpty()) return;
+      round = new ArrayList<Waiter>(waiters);
+      waiters.clear();
+      checkInProgress = true;
+      recheckRequested = false;
+    }
+
+    // Use the most recent connection still open, it's the most likely to be usable
+    Connection candidate = round.get(round.size() - 1).connection;
+    for (int i = round.size() - 1; i >= 0; i--) {
+      if (!round.get(i).connection.isClosed()) {
+        candidate = round.get(i).connection;
+        break;
+      }
+    }
+    final Connection connection = candidate;
+
+    ListenableFuture<Boolean> result;
+    try {
+      result = checkAgreement(connection);
+    } catch (Exception e) {
+      result = Futures.immediateFailedFuture(e);
+    }
+    GuavaCompatibility.INSTANCE.addCallback(
+        result,
+        new FutureCallback<Boolean>() {
+          @Override
+          public void onSuccess(Boolean agreement) {
+            complete(round, connection, agreement, null);
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            complete(round, connection, false, t);
+          }
+        });
+  }
+
+  private void complete(
+      List<Waiter> round, Connection connection, boolean agreement, Throwable error) {
+    long now = System.nanoTime();
+    List<Waiter> remaining = new ArrayList<Waiter>();
+    long nextDeadline = Long.MAX_VALUE;
+    for (Waiter waiter : round) {
+      if (error != null && waiter.connection == connection) {
+        waiter.future.setException(error);
+      } else if (agreement || now - waiter.deadlineNanos >= 0) {
+        onCompleted(now - waiter.startNanos, agreement);
+        waiter.future.set(agreement);
+      } else {
+        remaining.add(waiter);
+        nextDeadline = Math.min(nextDeadline, waiter.deadlineNanos - now);
+      }
+    }
+    if (error != null) logger.debug("Error while checking schema agreement", error);
+
+    synchronized (this) {
+      checkInProgress = false;
+      waiters.addAll(0, remaining);
+      if (waiters.isEmpty()) {
+        delayMs = MIN_DELAY_MS;
+      } else if (remaining.isEmpty() || recheckRequested) {
+        // New waiters since the last check, or something changed in the meantime
+        schedule(0);
+      } else {
+        long nextDeadlineMs = TimeUnit.NANOSECONDS.toMillis(nextDeadline) + 1;
+        schedule(Math.min(delayMs, nextDeadlineMs));
+        delayMs = Math.min(delayMs * 2, MAX_DELAY_MS);
+      }
+    }
+  }
+
+  private static class Waiter {
+    final Connection connection;
+    final long startNanos;
+    final long deadlineNanos;
+    final SettableFuture<Boolean> future = SettableFuture.create();
+
+    Waiter(Connection connection, long startNanos, long maxWaitNanos) {
+      this.connection = connection;
+      this.startNanos = startNanos;
+      this.deadlineNanos = startNanos + maxWaitNanos;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static com.datastax.driver.core.SchemaElement.VIEW;
 
 import com.datastax.driver.core.exceptions.BusyConnectionException;
 import com.datastax.driver.core.exceptions.ConnectionException;
+import com.datastax.driver.core.utils.MoreObjects;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.ArrayList;
@@ -66,6 +67,7 @@ abstract class SchemaParser {
       String targetKeyspace,
       String targetName,
       List<String> targetSignature,
+      boolean keyspacesOnly,
       Connection connection,
       VersionNumber cassandraVersion)
       throws ConnectionException, BusyConnectionException, ExecutionException, InterruptedException;
@@ -83,6 +85,34 @@ abstract class SchemaParser {
       throws ConnectionException, BusyConnectionException, ExecutionException,
           InterruptedException {
 
+    Metadata metadata;
+    try {
+      metadata = cluster.getMetadata();
+    } catch (IllegalStateException e) {
+      logger.warn("Unable to refresh metadata, cluster has been closed");
+      return;
+    }
+
+    // With lazy loading, only fetch the contents of keyspaces that were already loaded
+    boolean lazy = cluster.getConfiguration().getQueryOptions().isLazySchemaLoading();
+    boolean keyspacesOnly = false;
+    if (lazy && targetType == null) {
+      keyspacesOnly = true;
+    } else if (lazy) {
+      KeyspaceMetadata keyspace = metadata.keyspaces.get(targetKeyspace);
+      if (targetType == KEYSPACE) {
+        keyspacesOnly = keyspace == null || !keyspace.isLoaded();
+      } else if (keyspace != null && !keyspace.isLoaded()) {
+        logger.debug(
+            "Skipping refresh of {} {}.{}, keyspace is not loaded",
+            targetType,
+            targetKeyspace,
+            targetName);
+        keyspace.skippedRefreshes += 1;
+        return;
+      }
+    }
+
     SystemRows rows =
         fetchSystemRows(
             cluster,
@@ -90,26 +120,31 @@ abstract class SchemaParser {
             targetKeyspace,
             targetName,
             targetSignature,
+            keyspacesOnly,
             connection,
             cassandraVersion);
 
-    Metadata metadata;
-    try {
-      metadata = cluster.getMetadata();
-    } catch (IllegalStateException e) {
-      logger.warn("Unable to refresh metadata, cluster has been closed");
-      return;
-    }
     metadata.lock.lock();
     try {
       if (targetType == null || targetType == KEYSPACE) {
         // building the whole schema or a keyspace
         assert rows.keyspaces != null;
         Map<String, KeyspaceMetadata> keyspaces = buildKeyspaces(rows, cassandraVersion, cluster);
-        updateKeyspaces(metadata, metadata.keyspaces, keyspaces, targetKeyspace);
-        // If we rebuild all from scratch or have an updated keyspace, rebuild the token map
-        // since some replication on some keyspace may have changed
-        metadata.rebuildTokenMap();
+        if (lazy) {
+          for (KeyspaceMetadata keyspace : keyspaces.values()) {
+            keyspace.setLazy(metadata, !keyspacesOnly);
+          }
+        }
+        boolean replicationChanged =
+            replicationChanged(metadata.keyspaces, keyspaces, targetKeyspace);
+        updateKeyspaces(metadata, metadata.keyspaces, keyspaces, targetKeyspace, keyspacesOnly);
+        // Computing replicas is expensive with many keyspaces, so only rebuild the token map if
+        // keyspaces were added or removed, or if the replication of an existing one changed
+        if (replicationChanged) metadata.rebuildTokenMap();
+        if (lazy && !keyspacesOnly && targetKeyspace != null) {
+          KeyspaceMetadata keyspace = metadata.keyspaces.get(targetKeyspace);
+          if (keyspace != null) metadata.evictLazilyLoadedKeyspaces(keyspace);
+        }
       } else {
         assert targetKeyspace != null;
         KeyspaceMetadata keyspace = metadata.keyspaces.get(targetKeyspace);
@@ -187,66 +222,69 @@ abstract class SchemaParser {
     }
   }
 
+  /**
+   * Fetches the contents of a keyspace that was lazily loaded, and adds them to the existing
+   * keyspace metadata.
+   */
+  void load(
+      Cluster cluster,
+      KeyspaceMetadata keyspace,
+      Connection connection,
+      VersionNumber cassandraVersion)
+      throws ConnectionException, BusyConnectionException, ExecutionException,
+          InterruptedException {
+
+    Metadata metadata;
+    try {
+      metadata = cluster.getMetadata();
+    } catch (IllegalStateException e) {
+      logger.warn("Unable to load keyspace metadata, cluster has been closed");
+      return;
+    }
+
+    int skippedRefreshes = keyspace.skippedRefreshes;
+    SystemRows rows =
+        fetchSystemRows(
+            cluster, KEYSPACE, keyspace.getName(), null, null, false, connection, cassandraVersion);
+
+    metadata.lock.lock();
+    try {
+      // The keyspace was dropped, or replaced by a newer version while we were fetching
+      if (metadata.keyspaces.get(keyspace.getName()) != keyspace || keyspace.isLoaded()) return;
+      if (keyspace.isVirtual()) addVirtualContents(keyspace, rows, cassandraVersion, cluster);
+      else addContents(keyspace, rows, cassandraVersion, cluster);
+      // If a change was skipped while we were fetching, our rows might not reflect it: keep the
+      // keyspace unloaded, so that it gets fetched again on next access.
+      if (keyspace.skippedRefreshes == skippedRefreshes) {
+        keyspace.markLoaded();
+        metadata.evictLazilyLoadedKeyspaces(keyspace);
+      }
+    } catch (RuntimeException e) {
+      // See #refresh for why we'd rather not propagate this further
+      logger.error(
+          String.format(
+              "Error parsing schema for keyspace %s: "
+                  + "Cluster.getMetadata().getKeyspace(\"%s\") will appear incomplete",
+              keyspace.getName(), keyspace.getName()),
+          e);
+    } finally {
+      metadata.lock.unlock();
+    }
+  }
+
   private Map<String, KeyspaceMetadata> buildKeyspaces(
       SystemRows rows, VersionNumber cassandraVersion, Cluster cluster) {
 
     Map<String, KeyspaceMetadata> keyspaces = new LinkedHashMap<String, KeyspaceMetadata>();
     for (Row keyspaceRow : rows.keyspaces) {
       KeyspaceMetadata keyspace = KeyspaceMetadata.build(keyspaceRow, cassandraVersion);
-      Map<String, UserType> userTypes =
-          buildUserTypes(keyspace, rows.udts.get(keyspace.getName()), cassandraVersion, cluster);
-      for (UserType userType : userTypes.values()) {
-        keyspace.add(userType);
-      }
-      Map<String, TableMetadata> tables =
-          buildTables(
-              keyspace,
-              rows.tables.get(keyspace.getName()),
-              rows.columns.get(keyspace.getName()),
-              rows.indexes.get(keyspace.getName()),
-              cassandraVersion,
-              cluster);
-      for (TableMetadata table : tables.values()) {
-        keyspace.add(table);
-      }
-      Map<String, FunctionMetadata> functions =
-          buildFunctions(
-              keyspace, rows.functions.get(keyspace.getName()), cassandraVersion, cluster);
-      for (FunctionMetadata function : functions.values()) {
-        keyspace.add(function);
-      }
-      Map<String, AggregateMetadata> aggregates =
-          buildAggregates(
-              keyspace, rows.aggregates.get(keyspace.getName()), cassandraVersion, cluster);
-      for (AggregateMetadata aggregate : aggregates.values()) {
-        keyspace.add(aggregate);
-      }
-      Map<String, MaterializedViewMetadata> views =
-          buildViews(
-              keyspace,
-              rows.views.get(keyspace.getName()),
-              rows.columns.get(keyspace.getName()),
-              cassandraVersion,
-              cluster);
-      for (MaterializedViewMetadata view : views.values()) {
-        keyspace.add(view);
-      }
+      addContents(keyspace, rows, cassandraVersion, cluster);
       keyspaces.put(keyspace.getName(), keyspace);
     }
     if (rows.virtualKeyspaces != null) {
       for (Row keyspaceRow : rows.virtualKeyspaces) {
         KeyspaceMetadata keyspace = KeyspaceMetadata.buildVirtual(keyspaceRow, cassandraVersion);
-        Map<String, TableMetadata> tables =
-            buildTables(
-                keyspace,
-                rows.virtualTables.get(keyspace.getName()),
-                rows.virtualColumns.get(keyspace.getName()),
-                Collections.<String, List<Row>>emptyMap(),
-                cassandraVersion,
-                cluster);
-        for (TableMetadata table : tables.values()) {
-          keyspace.add(table);
-        }
+        addVirtualContents(keyspace, rows, cassandraVersion, cluster);
         keyspaces.put(keyspace.getName(), keyspace);
       }
     }
@@ -254,6 +292,62 @@ abstract class SchemaParser {
     return keyspaces;
   }
 
+  private void addContents(
+      KeyspaceMetadata keyspace, SystemRows rows, VersionNumber cassandraVersion, Cluster cluster) {
+    Map<String, UserType> userTypes =
+        buildUserTypes(keyspace, rows.udts.get(keyspace.getName()), cassandraVersion, cluster);
+    for (UserType userType : userTypes.values()) {
+      keyspace.add(userType);
+    }
+    Map<String, TableMetadata> tables =
+        buildTables(
+            keyspace,
+            rows.tables.get(keyspace.getName()),
+            rows.columns.get(keyspace.getName()),
+            rows.indexes.get(keyspace.getName()),
+            cassandraVersion,
+            cluster);
+    for (TableMetadata table : tables.values()) {
+      keyspace.add(table);
+    }
+    Map<String, FunctionMetadata> functions =
+        buildFunctions(keyspace, rows.functions.get(keyspace.getName()), cassandraVersion, cluster);
+    for (FunctionMetadata function : functions.values()) {
+      keyspace.add(function);
+    }
+    Map<String, AggregateMetadata> aggregates =
+        buildAggregates(
+            keyspace, rows.aggregates.get(keyspace.getName()), cassandraVersion, cluster);
+    for (AggregateMetadata aggregate : aggregates.values()) {
+      keyspace.add(aggregate);
+    }
+    Map<String, MaterializedViewMetadata> views =
+        buildViews(
+            keyspace,
+            rows.views.get(keyspace.getName()),
+            rows.columns.get(keyspace.getName()),
+            cassandraVersion,
+            cluster);
+    for (MaterializedViewMetadata view : views.values()) {
+      keyspace.add(view);
+    }
+  }
+
+  private void addVirtualContents(
+      KeyspaceMetadata keyspace, SystemRows rows, VersionNumber cassandraVersion, Cluster cluster) {
+    Map<String, TableMetadata> tables =
+        buildTables(
+            keyspace,
+            rows.virtualTables.get(keyspace.getName()),
+            rows.virtualColumns.get(keyspace.getName()),
+            Collections.<String, List<Row>>emptyMap(),
+            cassandraVersion,
+            cluster);
+    for (TableMetadata table : tables.values()) {
+      keyspace.add(table);
+    }
+  }
+
   private Map<String, TableMetadata> buildTables(
       KeyspaceMetadata keyspace,
       List<Row> tableRows,
@@ -414,13 +508,34 @@ abstract class SchemaParser {
     return views;
   }
 
+  // Whether applying newKeyspaces to oldKeyspaces would change the inputs of the token map, i.e.
+  // add or remove a keyspace, or modify the replication settings of an existing one.
+  private static boolean replicationChanged(
+      Map<String, KeyspaceMetadata> oldKeyspaces,
+      Map<String, KeyspaceMetadata> newKeyspaces,
+      String keyspaceToRebuild) {
+    for (KeyspaceMetadata oldKeyspace : oldKeyspaces.values()) {
+      String keyspaceName = oldKeyspace.getName();
+      if ((keyspaceToRebuild == null || keyspaceToRebuild.equals(keyspaceName))
+          && !newKeyspaces.containsKey(keyspaceName)) return true;
+    }
+    for (KeyspaceMetadata newKeyspace : newKeyspaces.values()) {
+      KeyspaceMetadata oldKeyspace = oldKeyspaces.get(newKeyspace.getName());
+      if (oldKeyspace == null
+          || !MoreObjects.equal(oldKeyspace.getReplication(), newKeyspace.getReplication()))
+        return true;
+    }
+    return false;
+  }
+
   // Update oldKeyspaces with the changes contained in newKeyspaces.
   // This method also takes care of triggering the relevant events
   private void updateKeyspaces(
       Metadata metadata,
       Map<String, KeyspaceMetadata> oldKeyspaces,
       Map<String, KeyspaceMetadata> newKeyspaces,
-      String keyspaceToRebuild) {
+      String keyspaceToRebuild,
+      boolean keyspacesOnly) {
     Iterator<KeyspaceMetadata> it = oldKeyspaces.values().iterator();
     while (it.hasNext()) {
       KeyspaceMetadata oldKeyspace = it.next();
@@ -434,6 +549,27 @@ abstract class SchemaParser {
       }
     }
     for (KeyspaceMetadata newKeyspace : newKeyspaces.values()) {
+      if (keyspacesOnly) {
+        // The contents were not fetched, only compare the keyspace options
+        KeyspaceMetadata oldKeyspace = oldKeyspaces.get(newKeyspace.getName());
+        if (oldKeyspace == null) {
+          oldKeyspaces.put(newKeyspace.getName(), newKeyspace);
+          metadata.triggerOnKeyspaceAdded(newKeyspace);
+        } else if (oldKeyspace.isDurableWrites() != newKeyspace.isDurableWrites()
+            || oldKeyspace.isVirtual() != newKeyspace.isVirtual()
+            || !oldKeyspace.getReplication().equals(newKeyspace.getReplication())) {
+          oldKeyspaces.put(newKeyspace.getName(), newKeyspace);
+          metadata.triggerOnKeyspaceChanged(newKeyspace, oldKeyspace);
+        } else if (oldKeyspace.isLazy() && oldKeyspace.isLoaded()) {
+          // Keep the existing instance, but not its contents: a full refresh happens when schema
+          // events might have been missed (for example after the control connection reconnected),
+          // so they could be stale. They will be fetched again on next access. Also make sure
+          // that a load in progress, that might have read stale rows, doesn't mark it loaded.
+          oldKeyspace.skippedRefreshes += 1;
+          oldKeyspace.unload();
+        }
+        continue;
+      }
       KeyspaceMetadata oldKeyspace = oldKeyspaces.put(newKeyspace.getName(), newKeyspace);
       if (oldKeyspace == null) {
         metadata.triggerOnKeyspaceAdded(newKeyspace);
@@ -741,12 +877,14 @@ abstract class SchemaParser {
         String targetKeyspace,
         String targetName,
         List<String> targetSignature,
+        boolean keyspacesOnly,
         Connection connection,
         VersionNumber cassandraVersion)
         throws ConnectionException, BusyConnectionException, ExecutionException,
             InterruptedException {
 
       boolean isSchemaOrKeyspace = (targetType == null || targetType == KEYSPACE);
+      boolean withContents = isSchemaOrKeyspace && !keyspacesOnly;
 
       String whereClause = "";
       if (targetType != null) {
@@ -780,18 +918,18 @@ abstract class SchemaParser {
       if (isSchemaOrKeyspace)
         ksFuture = queryAsync(SELECT_KEYSPACES + whereClause, connection, protocolVersion);
 
-      if (isSchemaOrKeyspace && supportsUdts(cassandraVersion) || targetType == TYPE)
+      if (withContents && supportsUdts(cassandraVersion) || targetType == TYPE)
         udtFuture = queryAsync(SELECT_USERTYPES + whereClause, connection, protocolVersion);
 
-      if (isSchemaOrKeyspace || targetType == TABLE) {
+      if (withContents || targetType == TABLE) {
         cfFuture = queryAsync(SELECT_COLUMN_FAMILIES + whereClause, connection, protocolVersion);
         colsFuture = queryAsync(SELECT_COLUMNS + whereClause, connection, protocolVersion);
       }
 
-      if ((isSchemaOrKeyspace && supportsUdfs(cassandraVersion) || targetType == FUNCTION))
+      if ((withContents && supportsUdfs(cassandraVersion) || targetType == FUNCTION))
         functionsFuture = queryAsync(SELECT_FUNCTIONS + whereClause, connection, protocolVersion);
 
-      if (isSchemaOrKeyspace && supportsUdfs(cassandraVersion) || targetType == AGGREGATE)
+      if (withContents && supportsUdfs(cassandraVersion) || targetType == AGGREGATE)
         aggregatesFuture = queryAsync(SELECT_AGGREGATES + whereClause, connection, protocolVersion);
 
       return new SystemRows(
@@ -845,12 +983,14 @@ abstract class SchemaParser {
         String targetKeyspace,
         String targetName,
         List<String> targetSignature,
+        boolean keyspacesOnly,
         Connection connection,
         VersionNumber cassandraVersion)
         throws ConnectionException, BusyConnectionException, ExecutionException,
             InterruptedException {
 
       boolean isSchemaOrKeyspace = (targetType == null || targetType == KEYSPACE);
+      boolean withContents = isSchemaOrKeyspace && !keyspacesOnly;
 
       ResultSetFuture ksFuture = null,
           udtFuture = null,
@@ -872,7 +1012,7 @@ abstract class SchemaParser {
                 connection,
                 protocolVersion);
 
-      if (isSchemaOrKeyspace || targetType == TYPE)
+      if (withContents || targetType == TYPE)
         udtFuture =
             queryAsync(
                 SELECT_USERTYPES
@@ -880,7 +1020,7 @@ abstract class SchemaParser {
                 connection,
                 protocolVersion);
 
-      if (isSchemaOrKeyspace || targetType == TABLE) {
+      if (withContents || targetType == TABLE) {
         cfFuture =
             queryAsync(
                 SELECT_TABLES
@@ -911,7 +1051,7 @@ abstract class SchemaParser {
                 protocolVersion);
       }
 
-      if (isSchemaOrKeyspace || targetType == FUNCTION)
+      if (withContents || targetType == FUNCTION)
         functionsFuture =
             queryAsync(
                 SELECT_FUNCTIONS
@@ -919,7 +1059,7 @@ abstract class SchemaParser {
                 connection,
                 protocolVersion);
 
-      if (isSchemaOrKeyspace || targetType == AGGREGATE)
+      if (withContents || targetType == AGGREGATE)
         aggregatesFuture =
             queryAsync(
                 SELECT_AGGREGATES
@@ -1053,12 +1193,14 @@ abstract class SchemaParser {
         String targetKeyspace,
         String targetName,
         List<String> targetSignature,
+        boolean keyspacesOnly,
         Connection connection,
         VersionNumber cassandraVersion)
         throws ConnectionException, BusyConnectionException, ExecutionException,
             InterruptedException {
 
       boolean isSchemaOrKeyspace = (targetType == null || targetType == KEYSPACE);
+      boolean withContents = isSchemaOrKeyspace && !keyspacesOnly;
 
       ResultSetFuture ksFuture = null,
           udtFuture = null,
@@ -1088,6 +1230,9 @@ abstract class SchemaParser {
                     + whereClause(targetType, targetKeyspace, targetName, targetSignature),
                 connection,
                 protocolVersion);
+      }
+
+      if (withContents) {
         virtualColumnsFuture =
             queryAsync(
                 SELECT_VIRTUAL_COLUMNS
@@ -1102,7 +1247,7 @@ abstract class SchemaParser {
                 protocolVersion);
       }
 
-      if (isSchemaOrKeyspace || targetType == TYPE) {
+      if (withContents || targetType == TYPE) {
         udtFuture =
             queryAsync(
                 SELECT_USERTYPES
@@ -1111,7 +1256,7 @@ abstract class SchemaParser {
                 protocolVersion);
       }
 
-      if (isSchemaOrKeyspace || targetType == TABLE) {
+      if (withContents || targetType == TABLE) {
         cfFuture =
             queryAsync(
                 SELECT_TABLES
@@ -1142,7 +1287,7 @@ abstract class SchemaParser {
                 protocolVersion);
       }
 
-      if (isSchemaOrKeyspace || targetType == FUNCTION) {
+      if (withContents || targetType == FUNCTION) {
         functionsFuture =
             queryAsync(
                 SELECT_FUNCTIONS
@@ -1151,7 +1296,7 @@ abstract class SchemaParser {
                 protocolVersion);
       }
 
-      if (isSchemaOrKeyspace || targetType == AGGREGATE) {
+      if (withContents || targetType == AGGREGATE) {
         aggregatesFuture =
             queryAsync(
                 SELECT_AGGREGATES
@@ -0,0 +1,102 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import java.nio.ByteBuffer;
+
+/**
+ * The serialized form of a UDT or tuple value, with the position of each field in it.
+ *
+ * <p>This allows the built-in UDT and tuple codecs to decode values lazily: fields are only
+ * extracted when they are accessed, and a value that wasn't modified can be written back as is.
+ */
+class SerializedFields {
+
+  private final ByteBuffer bytes;
+
+  // the position of the size prefix of each field, or -1 if the input ends before that field
+  private final int[] offsets;
+
+  /**
+   * Locates the fields of a serialized value, without extracting them.
+   *
+   * @param bytes the serialized value. It will not be copied, and its position is not modified.
+   * @param length the number of fields of the type. Extraneous fields are ignored.
+   * @param kind the kind of value, for error messages.
+   * @throws InvalidTypeException if a field is truncated.
+   */
+  SerializedFields(ByteBuffer bytes, int length, String kind) {
+    this.bytes = bytes.duplicate();
+    this.offsets = new int[length];
+    int position = bytes.position();
+    int limit = bytes.limit();
+    for (int i = 0; i < length; i++) {
+      if (position >= limit) {
+        offsets[i] = -1;
+        continue;
+      }
+      if (limit - position < 4)
+        throw new InvalidTypeException("Not enough bytes to deserialize a " + kind);
+      int size = bytes.getInt(position);
+      offsets[i] = position;
+      position += 4;
+      if (size > 0) {
+        if (limit - position < size)
+          throw new InvalidTypeException("Not enough bytes to deserialize a " + kind);
+        position += size;
+      }
+    }
+  }
+
+  int size() {
+    return offsets.length;
+  }
+
+  /** Returns the serialized form of the {@code i}th field, or {@code null} if it is null. */
+  ByteBuffer get(int i) {
+    int offset = offsets[i];
+    if (offset < 0) return null;
+    int size = bytes.getInt(offset);
+    if (size < 0) return null;
+    ByteBuffer field = bytes.duplicate();
+    field.position(offset + 4);
+    field.limit(offset + 4 + size);
+    return field;
+  }
+
+  /** Extracts all the fields into the given array. */
+  void copyTo(ByteBuffer[] values) {
+    for (int i = 0; i < offsets.length; i++) values[i] = get(i);
+  }
+
+  /**
+   * Returns the whole serialized value, if it can be written back as is for a type with the given
+   * number of fields, or {@code null} otherwise.
+   */
+  ByteBuffer getBytes(int length) {
+    if (offsets.length != length) return null;
+    int end = bytes.position();
+    if (length > 0) {
+      int last = offsets[length - 1];
+      // missing fields would have to be written as nulls
+      if (last < 0) return null;
+      end = last + 4 + Math.max(bytes.getInt(last), 0);
+    }
+    // extraneous bytes would be ignored when decoding
+    return end == bytes.limit() ? bytes.duplicate() : null;
+  }
+}
@@ -41,10 +41,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +68,9 @@ class SessionManager extends AbstractSession {
   private volatile boolean isInit;
   private volatile boolean isClosing;
 
+  // Created on first use, see QueryOptions.setAutoPrepareThreshold
+  private final AtomicReference<AutoPreparer> autoPreparer = new AtomicReference<AutoPreparer>();
+
   // Package protected, only Cluster should construct that.
   SessionManager(Cluster cluster) {
     this.cluster = cluster;
@@ -91,8 +98,17 @@ class SessionManager extends AbstractSession {
     final SettableFuture<Session> myInitFuture = SettableFuture.create();
     if (!initFuture.compareAndSet(null, myInitFuture)) return initFuture.get();
 
+    final long startNanos = System.nanoTime();
     Collection<Host> hosts = cluster.getMetadata().allHosts();
-    ListenableFuture<?> allPoolsCreatedFuture = createPools(hosts);
+    PoolingOptions poolingOptions = cluster.manager.configuration.getPoolingOptions();
+    // If the session is ready before all pools are created, the final update will be performed
+    // once the warm-up completes
+    final PoolWarmup warmup =
+        (poolingOptions.getWarmupReadyFraction() < 1)
+            ? new PoolWarmup(hosts, poolingOptions, startNanos)
+            : null;
+    ListenableFuture<?> allPoolsCreatedFuture =
+        (warmup == null) ? createPools(hosts) : warmup.start();
     ListenableFuture<?> allPoolsUpdatedFuture =
         GuavaCompatibility.INSTANCE.transformAsync(
             allPoolsCreatedFuture,
@@ -101,7 +117,9 @@ class SessionManager extends AbstractSession {
               @SuppressWarnings("unchecked")
               public ListenableFuture<Object> apply(Object input) throws Exception {
                 isInit = true;
-                return (ListenableFuture<Object>) updateCreatedPools();
+                if (warmup == null) return (ListenableFuture<Object>) updateCreatedPools();
+                warmup.startBackground();
+                return Futures.immediateFuture(null);
               }
             });
 
@@ -110,6 +128,14 @@ class SessionManager extends AbstractSession {
         new FutureCallback<Object>() {
           @Override
           public void onSuccess(Object result) {
+            Metrics metrics = cluster.manager.metrics;
+            if (metrics != null) {
+              long elapsedNanos = System.nanoTime() - startNanos;
+              metrics.getSessionReadyTimer().update(elapsedNanos, TimeUnit.NANOSECONDS);
+              // otherwise recorded once the warm-up completes
+              if (warmup == null)
+                metrics.getSessionWarmupTimer().update(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
             myInitFuture.set(SessionManager.this);
           }
 
@@ -129,6 +155,136 @@ class SessionManager extends AbstractSession {
     return Futures.allAsList(futures);
   }
 
+  /**
+   * Opens the pools of a new session in priority order.
+   *
+   * <p>Pools to local hosts (or remote hosts if there are no local ones) are opened first, all in
+   * parallel; the session is ready as soon as the configured fraction of them are up, or all of
+   * them have been attempted. The other pools are then opened in the background, with a bounded
+   * concurrency.
+   */
+  private class PoolWarmup {
+    private final long startNanos;
+    private final List<Host> priorityHosts;
+    private final Queue<Host> backgroundHosts = new ConcurrentLinkedQueue<Host>();
+    private final int backgroundCount;
+    private final int readyThreshold;
+    private final int concurrency;
+    private final SettableFuture<Void> ready = SettableFuture.create();
+    private final AtomicInteger priorityUp = new AtomicInteger();
+    private final AtomicInteger priorityDone = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    PoolWarmup(Collection<Host> hosts, PoolingOptions poolingOptions, long startNanos) {
+      this.startNanos = startNanos;
+      List<Host> localHosts = new ArrayList<Host>();
+      List<Host> remoteHosts = new ArrayList<Host>();
+      for (Host host : hosts) {
+        if (host.state == Host.State.DOWN) continue;
+        HostDistance distance = loadBalancingPolicy().distance(host);
+        if (distance == HostDistance.LOCAL) localHosts.add(host);
+        else if (distance == HostDistance.REMOTE) remoteHosts.add(host);
+      }
+      if (localHosts.isEmpty()) {
+        priorityHosts = remoteHosts;
+      } else {
+        priorityHosts = localHosts;
+        backgroundHosts.addAll(remoteHosts);
+      }
+      backgroundCount = backgroundHosts.size();
+      readyThreshold =
+          Math.max(
+              1, (int) Math.ceil(priorityHosts.size() * poolingOptions.getWarmupReadyFraction()));
+      concurrency = poolingOptions.getWarmupConcurrency();
+      remaining = new AtomicInteger(priorityHosts.size() + backgroundCount);
+    }
+
+    /** @return a future that completes when the session is ready. */
+    ListenableFuture<Void> start() {
+      if (priorityHosts.isEmpty()) {
+        ready.set(null);
+        return ready;
+      }
+      for (Host host : priorityHosts) {
+        GuavaCompatibility.INSTANCE.addCallback(
+            maybeAddPool(host, null),
+            new FutureCallback<Boolean>() {
+              @Override
+              public void onSuccess(Boolean created) {
+                int up = created ? priorityUp.incrementAndGet() : priorityUp.get();
+                int done = priorityDone.incrementAndGet();
+                if ((up >= readyThreshold || done == priorityHosts.size()) && ready.set(null))
+                  logger.debug(
+                      "Session ready after {} ms ({}/{} priority pools up)",
+                      elapsedMillis(),
+                      up,
+                      priorityHosts.size());
+                if (done == priorityHosts.size())
+                  logger.debug(
+                      "Opened {} priority pools in {} ms", priorityHosts.size(), elapsedMillis());
+                onPoolDone();
+              }
+
+              @Override
+              public void onFailure(Throwable t) {
+                ready.setException(t);
+              }
+            });
+      }
+      return ready;
+    }
+
+    void startBackground() {
+      if (remaining.get() == 0) onAllDone();
+      for (int i = 0; i < concurrency; i++) openNext();
+    }
+
+    private void openNext() {
+      if (isClosing) return;
+      Host host = backgroundHosts.poll();
+      if (host == null) return;
+      GuavaCompatibility.INSTANCE.addCallback(
+          maybeAddPool(host, null),
+          new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean created) {
+              onPoolDone();
+              openNext();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              logger.error("Unexpected error while warming up connection pools", t);
+              onPoolDone();
+              openNext();
+            }
+          });
+    }
+
+    private void onPoolDone() {
+      if (remaining.decrementAndGet() == 0 && isInit) onAllDone();
+    }
+
+    private void onAllDone() {
+      if (!completed.compareAndSet(false, true)) return;
+      logger.debug(
+          "Session warm-up completed in {} ms ({} pools opened in the background)",
+          elapsedMillis(),
+          backgroundCount);
+      Metrics metrics = cluster.manager.metrics;
+      if (metrics != null)
+        metrics
+            .getSessionWarmupTimer()
+            .update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      updateCreatedPools();
+    }
+
+    private long elapsedMillis() {
+      return Cluster.timeSince(startNanos, TimeUnit.MILLISECONDS);
+    }
+  }
+
   @Override
   public String getLoggedKeyspace() {
     return poolsState.keyspace;
@@ -614,18 +770,58 @@ class SessionManager extends AbstractSession {
 
       String qString = rs.getQueryString(codecRegistry);
 
-      Requests.QueryProtocolOptions options =
-          new Requests.QueryProtocolOptions(
-              Message.Request.Type.QUERY,
-              consistency,
-              positionalValues,
-              namedValues,
-              false,
-              fetchSize,
-              usedPagingState,
-              serialConsistency,
-              defaultTimestamp);
-      request = new Requests.Query(qString, options, statement.isTracing());
+      PreparedStatement autoPrepared =
+          rawPositionalValues != null
+                  && rawNamedValues == null
+                  && statement.getClass() == SimpleStatement.class
+                  && protocolVersion != ProtocolVersion.V1
+                  && !ProtocolFeature.PREPARED_METADATA_CHANGES.isSupportedBy(protocolVersion)
+              ? autoPrepared(qString, rawPositionalValues.length)
+              : null;
+
+      if (autoPrepared != null) {
+        PreparedId preparedId = autoPrepared.getPreparedId();
+        Requests.QueryProtocolOptions options =
+            new Requests.QueryProtocolOptions(
+                Message.Request.Type.EXECUTE,
+                consistency,
+                positionalValues,
+                Collections.<String, ByteBuffer>emptyMap(),
+                false,
+                fetchSize,
+                usedPagingState,
+                serialConsistency,
+                defaultTimestamp);
+        request =
+            new Requests.Execute(
+                preparedId.boundValuesMetadata.id,
+                preparedId.resultSetMetadata.id,
+                options,
+                statement.isTracing());
+        Metrics metrics = cluster.getMetrics();
+        if (metrics != null)
+          // [long string] query vs [short bytes] id
+          metrics
+              .getAutoPrepareSavedBytes()
+              .inc(
+                  4
+                      + CodecUtils.utf8Length(qString)
+                      - 2
+                      - preparedId.boundValuesMetadata.id.bytes.length);
+      } else {
+        Requests.QueryProtocolOptions options =
+            new Requests.QueryProtocolOptions(
+                Message.Request.Type.QUERY,
+                consistency,
+                positionalValues,
+                namedValues,
+                false,
+                fetchSize,
+                usedPagingState,
+                serialConsistency,
+                defaultTimestamp);
+        request = new Requests.Query(qString, options, statement.isTracing());
+      }
     } else if (statement instanceof BoundStatement) {
       BoundStatement bs = (BoundStatement) statement;
       if (!cluster.manager.preparedQueries.containsKey(
@@ -682,6 +878,27 @@ class SessionManager extends AbstractSession {
     return request;
   }
 
+  /**
+   * Returns the automatically prepared statement to use for the given query string, or {@code null}
+   * if it should be executed as is.
+   */
+  private PreparedStatement autoPrepared(String query, int valueCount) {
+    QueryOptions options = configuration().getQueryOptions();
+    int threshold = options.getAutoPrepareThreshold();
+    if (threshold <= 0) return null;
+    AutoPreparer preparer = autoPreparer.get();
+    if (preparer == null) {
+      // don't lock on the request path: under contention, a redundant instance is discarded
+      autoPreparer.compareAndSet(
+          null, new AutoPreparer(this, cluster.manager.scheduledTasksExecutor));
+      preparer = autoPreparer.get();
+    }
+    PreparedStatement prepared =
+        preparer.get(query, poolsState.keyspace, threshold, options.getAutoPrepareMaxStatements());
+    // if the values don't match the variables, let the server report the error
+    return prepared != null && prepared.getVariables().size() == valueCount ? prepared : null;
+  }
+
   /**
    * Execute the provided request.
    *
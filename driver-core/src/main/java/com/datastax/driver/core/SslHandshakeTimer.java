@@ -0,0 +1,60 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.codahale.metrics.Timer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the duration of the SSL handshake, from the moment the channel becomes active (which is
+ * when {@link SslHandler} starts the handshake in client mode) to its completion.
+ *
+ * <p>This must be placed just before the SSL handler in the pipeline. It removes itself once the
+ * channel is active.
+ */
+class SslHandshakeTimer extends ChannelInboundHandlerAdapter {
+
+  private final Timer timer;
+  private final SslHandler sslHandler;
+
+  SslHandshakeTimer(Timer timer, SslHandler sslHandler) {
+    this.timer = timer;
+    this.sslHandler = sslHandler;
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) throws Exception {
+    final long start = System.nanoTime();
+    sslHandler
+        .handshakeFuture()
+        .addListener(
+            new GenericFutureListener<Future<Channel>>() {
+              @Override
+              public void operationComplete(Future<Channel> future) {
+                if (future.isSuccess())
+                  timer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+              }
+            });
+    ctx.pipeline().remove(this);
+    super.channelActive(ctx);
+  }
+}
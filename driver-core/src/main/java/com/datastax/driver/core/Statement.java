@@ -69,6 +69,7 @@ public abstract class Statement {
   private volatile int fetchSize;
   private volatile long defaultTimestamp = Long.MIN_VALUE;
   private volatile int readTimeoutMillis = Integer.MIN_VALUE;
+  private volatile int requestTimeoutMillis;
   private volatile RetryPolicy retryPolicy;
   private volatile ByteBuffer pagingState;
   protected volatile Boolean idempotent;
@@ -353,6 +354,36 @@ public abstract class Statement {
     return readTimeoutMillis;
   }
 
+  /**
+   * Sets a deadline for the whole execution of this statement, including retries and speculative
+   * executions.
+   *
+   * <p>Unlike the {@link #setReadTimeoutMillis(int) read timeout}, which applies to each host that
+   * is queried, this timeout starts when the statement is passed to {@link
+   * Session#executeAsync(Statement)}. If the request hasn't completed when it elapses, every
+   * outstanding execution is cancelled and the request fails with a {@link
+   * com.datastax.driver.core.exceptions.RequestTimeoutException}. Retries and speculative
+   * executions that could not start before the deadline are not attempted.
+   *
+   * @param requestTimeoutMillis the timeout to set. Negative values are not allowed. If it is 0
+   *     (the default), executions of this statement have no deadline.
+   * @return this {@code Statement} object.
+   */
+  public Statement setRequestTimeoutMillis(int requestTimeoutMillis) {
+    Preconditions.checkArgument(requestTimeoutMillis >= 0, "request timeout must be >= 0");
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Returns the deadline that was set for the whole execution of this statement.
+   *
+   * @return the timeout. 0 means that executions of this statement have no deadline.
+   */
+  public int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
   /**
    * Sets the paging state.
    *
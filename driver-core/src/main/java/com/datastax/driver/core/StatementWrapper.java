@@ -168,6 +168,17 @@ public abstract class StatementWrapper extends Statement {
     return wrapped.getReadTimeoutMillis();
   }
 
+  @Override
+  public Statement setRequestTimeoutMillis(int requestTimeoutMillis) {
+    wrapped.setRequestTimeoutMillis(requestTimeoutMillis);
+    return this;
+  }
+
+  @Override
+  public int getRequestTimeoutMillis() {
+    return wrapped.getRequestTimeoutMillis();
+  }
+
   @Override
   public Statement setPagingState(PagingState pagingState, CodecRegistry codecRegistry) {
     wrapped.setPagingState(pagingState, codecRegistry);
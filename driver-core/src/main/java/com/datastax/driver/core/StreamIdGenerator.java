@@ -113,6 +113,10 @@ class StreamIdGenerator {
     return maxIds - marked.get();
   }
 
+  public int markedStreams() {
+    return marked.get();
+  }
+
   // Returns >= 0 if found and set an id, -1 if no bits are available.
   private int atomicGetAndSetFirstAvailable(int idx) {
     while (true) {
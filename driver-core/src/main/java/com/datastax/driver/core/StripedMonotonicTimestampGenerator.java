@@ -0,0 +1,142 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A timestamp generator that guarantees unique timestamps among all client threads, and
+ * monotonically increasing timestamps on a per-thread basis, with less contention than {@link
+ * AtomicMonotonicTimestampGenerator}.
+ *
+ * <p>The microseconds are handed out in ranges of {@link #RANGE_MICROS} consecutive values, which
+ * are reserved from a shared counter. Each thread is always mapped to the same stripe, and each
+ * stripe draws timestamps from the range it currently owns, on a separate cache line: it returns
+ * the current clock tick if it falls in the range, or the value that follows the stripe's last
+ * timestamp. The shared counter is only updated when a stripe has exhausted its range, or when the
+ * clock has moved past it. Since ranges are never reserved twice, timestamps are unique across the
+ * whole generator; and as long as there are no more threads than stripes, most timestamps cost a
+ * single uncontended compare-and-set.
+ *
+ * <p>The trade-off is that timestamps generated by different threads are not strictly ordered: when
+ * several stripes need a new range at the same time, only one of them gets the range of the current
+ * tick, and the others get the next ones, slightly in the future. A thread can therefore get a
+ * timestamp lower than one returned to another thread just before, by at most {@code (stripes - 1)
+ * * RANGE_MICROS} microseconds under sustained load. Drifts beyond the warning threshold are
+ * reported like with the other generators (see {@link LoggingMonotonicTimestampGenerator}).
+ *
+ * @see AbstractMonotonicTimestampGenerator
+ */
+public class StripedMonotonicTimestampGenerator extends LoggingMonotonicTimestampGenerator {
+
+  /** The default number of stripes. */
+  public static final int DEFAULT_STRIPES = 16;
+
+  /** The number of consecutive microseconds that a stripe reserves at once. */
+  public static final int RANGE_MICROS = 64;
+
+  private static final int RANGE_SHIFT = Integer.numberOfTrailingZeros(RANGE_MICROS);
+
+  // Each stripe occupies its own 64-byte cache line in the array, to prevent false sharing
+  private static final int PADDING_SHIFT = 3;
+
+  private final int mask;
+  // the last timestamp of each stripe; it always belongs to the range currently owned by the stripe
+  private final AtomicLongArray lastRefs;
+  // the last range that was reserved, as the index of its first value divided by RANGE_MICROS
+  private final AtomicLong lastRangeRef = new AtomicLong(Long.MIN_VALUE >> RANGE_SHIFT);
+
+  /**
+   * Creates a new instance with {@link #DEFAULT_STRIPES} stripes, and a warning threshold and
+   * warning interval of one second.
+   *
+   * @see #StripedMonotonicTimestampGenerator(int, long, TimeUnit, long, TimeUnit)
+   */
+  public StripedMonotonicTimestampGenerator() {
+    this(DEFAULT_STRIPES, 1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param stripes the number of stripes. It will be rounded up to the next power of two. A good
+   *     value is the number of threads that generate timestamps concurrently (usually the number of
+   *     threads that execute queries).
+   * @param warningThreshold how far in the future timestamps are allowed to drift before a warning
+   *     is logged.
+   * @param warningThresholdUnit the unit for {@code warningThreshold}.
+   * @param warningInterval how often the warning will be logged if timestamps keep drifting above
+   *     the threshold.
+   * @param warningIntervalUnit the unit for {@code warningIntervalUnit}.
+   */
+  public StripedMonotonicTimestampGenerator(
+      int stripes,
+      long warningThreshold,
+      TimeUnit warningThresholdUnit,
+      long warningInterval,
+      TimeUnit warningIntervalUnit) {
+    super(warningThreshold, warningThresholdUnit, warningInterval, warningIntervalUnit);
+    Preconditions.checkArgument(
+        stripes > 0 && stripes <= 1024, "stripes must be between 1 and 1024, got %s", stripes);
+    int size = Integer.highestOneBit(stripes);
+    if (size < stripes) size <<= 1;
+    this.mask = size - 1;
+    this.lastRefs = new AtomicLongArray(size << PADDING_SHIFT);
+    for (int i = 0; i < size; i++) {
+      // no range reserved yet: the first call will reserve one
+      lastRefs.set(i << PADDING_SHIFT, Long.MIN_VALUE);
+    }
+  }
+
+  /**
+   * Returns the number of stripes.
+   *
+   * @return the number of stripes.
+   */
+  public int getStripes() {
+    return mask + 1;
+  }
+
+  @Override
+  public long next() {
+    int index = ((int) Thread.currentThread().getId() & mask) << PADDING_SHIFT;
+    while (true) {
+      long last = lastRefs.get(index);
+      long currentTick = clock.currentTimeMicros();
+      long next = Math.max(last + 1, currentTick);
+      if ((next >> RANGE_SHIFT) != (last >> RANGE_SHIFT)) {
+        // out of the stripe's range, reserve a new one
+        next = Math.max(reserveRange(currentTick) << RANGE_SHIFT, currentTick);
+      }
+      if (next > currentTick) onDrift(currentTick, next);
+      // if this fails, another thread of the stripe won: retry with its value (a range we reserved
+      // is lost, which is harmless since it's never handed out)
+      if (lastRefs.compareAndSet(index, last, next)) return next;
+    }
+  }
+
+  private long reserveRange(long currentTick) {
+    long currentRange = currentTick >> RANGE_SHIFT;
+    while (true) {
+      long last = lastRangeRef.get();
+      long next = Math.max(last + 1, currentRange);
+      if (lastRangeRef.compareAndSet(last, next)) return next;
+    }
+  }
+}
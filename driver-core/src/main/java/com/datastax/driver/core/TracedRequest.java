@@ -0,0 +1,50 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An attempt to execute a statement on a host, when a {@link RequestTracer} is configured.
+ *
+ * <p>Connections receive this along with the request, so that they can report the phases they
+ * handle without knowing about statements.
+ */
+final class TracedRequest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TracedRequest.class);
+
+  private final RequestTracer tracer;
+  private final Host host;
+  private final Statement statement;
+
+  TracedRequest(RequestTracer tracer, Host host, Statement statement) {
+    this.tracer = tracer;
+    this.host = host;
+    this.statement = statement;
+  }
+
+  // Callers report phases once the request has been handed off, but the tracer is user code: make
+  // sure it can't interrupt the request, or an I/O thread.
+  void onPhase(RequestTracer.Phase phase, long startNanos, long endNanos) {
+    try {
+      tracer.onPhase(host, statement, phase, startNanos, endNanos);
+    } catch (RuntimeException e) {
+      logger.error(String.format("Unexpected error while tracing phase %s of a request", phase), e);
+    }
+  }
+}
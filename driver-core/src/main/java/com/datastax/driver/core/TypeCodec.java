@@ -28,6 +28,7 @@ import com.datastax.driver.core.utils.Bytes;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
 import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
 import java.io.DataInput;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -520,6 +521,35 @@ public abstract class TypeCodec<T> {
   public abstract T deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
       throws InvalidTypeException;
 
+  // Direct writes: codecs for container types (collections, maps, UDTs and tuples) use these
+  // methods to serialize their elements into a single buffer, instead of serializing each element
+  // into a separate buffer and copying it. They are internal; codecs that don't override them
+  // (including all custom codecs) fall back to serialize().
+
+  /** Whether this codec overrides {@link #encodedSize} and {@link #writeTo} efficiently. */
+  boolean supportsWriteTo() {
+    return false;
+  }
+
+  /**
+   * Returns the number of bytes that {@link #serialize(Object, ProtocolVersion)} would produce for
+   * the given value, or -1 if it serializes to {@code null}.
+   */
+  int encodedSize(T value, ProtocolVersion protocolVersion) throws InvalidTypeException {
+    ByteBuffer bytes = serialize(value, protocolVersion);
+    return bytes == null ? -1 : bytes.remaining();
+  }
+
+  /**
+   * Writes exactly the bytes that {@link #serialize(Object, ProtocolVersion)} would produce for the
+   * given value (that is, {@link #encodedSize} bytes); nothing if it serializes to {@code null}.
+   */
+  void writeTo(T value, ByteBuf target, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    ByteBuffer bytes = serialize(value, protocolVersion);
+    if (bytes != null) target.writeBytes(bytes.duplicate());
+  }
+
   /**
    * Parse the given CQL literal into an instance of the Java type handled by this codec.
    *
@@ -912,6 +942,10 @@ public abstract class TypeCodec<T> {
     public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
       if (bytes == null) return null;
       if (bytes.remaining() == 0) return "";
+      // decode straight from the backing array, even if the buffer is a slice of a larger one
+      if (bytes.hasArray())
+        return new String(
+            bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), charset);
       return new String(Bytes.getArray(bytes), charset);
     }
   }
@@ -927,6 +961,21 @@ public abstract class TypeCodec<T> {
     private VarcharCodec() {
       super(DataType.varchar(), Charset.forName("UTF-8"));
     }
+
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(String value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : CodecUtils.utf8Length(value);
+    }
+
+    @Override
+    void writeTo(String value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) CodecUtils.writeUtf8(value, target);
+    }
   }
 
   /** This codec maps a CQL {@link DataType#ascii()} to a Java {@link String}. */
@@ -940,6 +989,11 @@ public abstract class TypeCodec<T> {
       super(DataType.ascii(), Charset.forName("US-ASCII"));
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
     @Override
     public ByteBuffer serialize(String value, ProtocolVersion protocolVersion) {
       if (value != null && !ASCII_PATTERN.matcher(value).matches()) {
@@ -948,6 +1002,27 @@ public abstract class TypeCodec<T> {
       return super.serialize(value, protocolVersion);
     }
 
+    @Override
+    int encodedSize(String value, ProtocolVersion protocolVersion) {
+      if (value == null) return -1;
+      for (int i = 0; i < value.length(); i++) {
+        if (value.charAt(i) > 0x7F)
+          throw new InvalidTypeException(String.format("%s is not a valid ASCII String", value));
+      }
+      return value.length();
+    }
+
+    @Override
+    void writeTo(String value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null) return;
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c > 0x7F)
+          throw new InvalidTypeException(String.format("%s is not a valid ASCII String", value));
+        target.writeByte(c);
+      }
+    }
+
     @Override
     public String format(String value) {
       if (value != null && !ASCII_PATTERN.matcher(value).matches()) {
@@ -985,6 +1060,21 @@ public abstract class TypeCodec<T> {
       return Long.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Long value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 8;
+    }
+
+    @Override
+    void writeTo(Long value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeLong(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(long value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(8);
@@ -1050,6 +1140,21 @@ public abstract class TypeCodec<T> {
       return value == null ? null : value.duplicate();
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(ByteBuffer value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : value.remaining();
+    }
+
+    @Override
+    void writeTo(ByteBuffer value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeBytes(value.duplicate());
+    }
+
     @Override
     public ByteBuffer deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
       return bytes == null ? null : bytes.duplicate();
@@ -1086,6 +1191,21 @@ public abstract class TypeCodec<T> {
       return value == null ? null : value.duplicate();
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(ByteBuffer value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : value.remaining();
+    }
+
+    @Override
+    void writeTo(ByteBuffer value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeBytes(value.duplicate());
+    }
+
     @Override
     public ByteBuffer deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
       return bytes == null ? null : bytes.duplicate();
@@ -1120,6 +1240,21 @@ public abstract class TypeCodec<T> {
       return value ? "true" : "false";
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Boolean value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 1;
+    }
+
+    @Override
+    void writeTo(Boolean value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeByte(value ? 1 : 0);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(boolean value, ProtocolVersion protocolVersion) {
       return value ? TRUE.duplicate() : FALSE.duplicate();
@@ -1221,6 +1356,21 @@ public abstract class TypeCodec<T> {
       return Double.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Double value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 8;
+    }
+
+    @Override
+    void writeTo(Double value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeDouble(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(double value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(8);
@@ -1266,6 +1416,21 @@ public abstract class TypeCodec<T> {
       return Float.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Float value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 4;
+    }
+
+    @Override
+    void writeTo(Float value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeFloat(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(float value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(4);
@@ -1358,6 +1523,21 @@ public abstract class TypeCodec<T> {
       return Byte.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Byte value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 1;
+    }
+
+    @Override
+    void writeTo(Byte value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeByte(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(byte value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(1);
@@ -1403,6 +1583,21 @@ public abstract class TypeCodec<T> {
       return Short.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Short value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 2;
+    }
+
+    @Override
+    void writeTo(Short value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeShort(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(short value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(2);
@@ -1448,6 +1643,21 @@ public abstract class TypeCodec<T> {
       return Integer.toString(value);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Integer value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 4;
+    }
+
+    @Override
+    void writeTo(Integer value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeInt(value);
+    }
+
     @Override
     public ByteBuffer serializeNoBoxing(int value, ProtocolVersion protocolVersion) {
       ByteBuffer bb = ByteBuffer.allocate(4);
@@ -1504,6 +1714,21 @@ public abstract class TypeCodec<T> {
       return Long.toString(value.getTime());
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(Date value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 8;
+    }
+
+    @Override
+    void writeTo(Date value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null) target.writeLong(value.getTime());
+    }
+
     @Override
     public ByteBuffer serialize(Date value, ProtocolVersion protocolVersion) {
       return value == null
@@ -1570,6 +1795,22 @@ public abstract class TypeCodec<T> {
       return ParseUtils.quote(value.toString());
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(LocalDate value, ProtocolVersion protocolVersion) {
+      return value == null ? -1 : 4;
+    }
+
+    @Override
+    void writeTo(LocalDate value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value != null)
+        target.writeInt(CodecUtils.fromSignedToUnsignedInt(value.getDaysSinceEpoch()));
+    }
+
     @Override
     public ByteBuffer serialize(LocalDate value, ProtocolVersion protocolVersion) {
       if (value == null) return null;
@@ -1656,6 +1897,28 @@ public abstract class TypeCodec<T> {
       return value.toString();
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(UUID value, ProtocolVersion protocolVersion) {
+      if (value == null) return -1;
+      checkValue(value);
+      return 16;
+    }
+
+    @Override
+    void writeTo(UUID value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null) return;
+      checkValue(value);
+      target.writeLong(value.getMostSignificantBits());
+      target.writeLong(value.getLeastSignificantBits());
+    }
+
+    void checkValue(UUID value) {}
+
     @Override
     public ByteBuffer serialize(UUID value, ProtocolVersion protocolVersion) {
       if (value == null) return null;
@@ -1704,10 +1967,15 @@ public abstract class TypeCodec<T> {
     @Override
     public ByteBuffer serialize(UUID value, ProtocolVersion protocolVersion) {
       if (value == null) return null;
+      checkValue(value);
+      return super.serialize(value, protocolVersion);
+    }
+
+    @Override
+    void checkValue(UUID value) {
       if (value.version() != 1)
         throw new InvalidTypeException(
             String.format("%s is not a Type 1 (time-based) UUID", value));
-      return super.serialize(value, protocolVersion);
     }
   }
 
@@ -1771,6 +2039,7 @@ public abstract class TypeCodec<T> {
     @Override
     public ByteBuffer serialize(C value, ProtocolVersion protocolVersion) {
       if (value == null) return null;
+      if (supportsWriteTo()) return CodecUtils.serializeWithWriteTo(this, value, protocolVersion);
       int i = 0;
       ByteBuffer[] bbs = new ByteBuffer[value.size()];
       for (E elt : value) {
@@ -1792,6 +2061,57 @@ public abstract class TypeCodec<T> {
       return CodecUtils.pack(bbs, value.size(), protocolVersion);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Implementation note: subclasses that override {@link #serialize(Collection,
+     * ProtocolVersion)} should not enable direct writes.
+     */
+    @Override
+    int encodedSize(C value, ProtocolVersion protocolVersion) {
+      if (value == null || !supportsWriteTo()) return super.encodedSize(value, protocolVersion);
+      int size = CodecUtils.sizeOfCollectionSize(protocolVersion);
+      for (E elt : value) {
+        if (elt == null) {
+          throw new NullPointerException("Collection elements cannot be null");
+        }
+        try {
+          size +=
+              CodecUtils.sizeOfValue(eltCodec.encodedSize(elt, protocolVersion), protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for %s element, expecting %s but got %s",
+                  cqlType, eltCodec.getJavaType(), elt.getClass()),
+              e);
+        }
+      }
+      return size;
+    }
+
+    @Override
+    void writeTo(C value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null || !supportsWriteTo()) {
+        super.writeTo(value, target, protocolVersion);
+        return;
+      }
+      CodecUtils.writeSize(target, value.size(), protocolVersion);
+      for (E elt : value) {
+        if (elt == null) {
+          throw new NullPointerException("Collection elements cannot be null");
+        }
+        try {
+          CodecUtils.writeValue(target, eltCodec, elt, protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for %s element, expecting %s but got %s",
+                  cqlType, eltCodec.getJavaType(), elt.getClass()),
+              e);
+        }
+      }
+    }
+
     @Override
     public C deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
       if (bytes == null || bytes.remaining() == 0) return newInstance(0);
@@ -1926,6 +2246,11 @@ public abstract class TypeCodec<T> {
     protected List<T> newInstance(int size) {
       return new ArrayList<T>(size);
     }
+
+    @Override
+    boolean supportsWriteTo() {
+      return eltCodec.supportsWriteTo();
+    }
   }
 
   /**
@@ -1943,6 +2268,11 @@ public abstract class TypeCodec<T> {
     protected Set<T> newInstance(int size) {
       return new LinkedHashSet<T>(size);
     }
+
+    @Override
+    boolean supportsWriteTo() {
+      return eltCodec.supportsWriteTo();
+    }
   }
 
   /**
@@ -2063,6 +2393,7 @@ public abstract class TypeCodec<T> {
     @Override
     public ByteBuffer serialize(Map<K, V> value, ProtocolVersion protocolVersion) {
       if (value == null) return null;
+      if (supportsWriteTo()) return CodecUtils.serializeWithWriteTo(this, value, protocolVersion);
       int i = 0;
       ByteBuffer[] bbs = new ByteBuffer[2 * value.size()];
       for (Map.Entry<K, V> entry : value.entrySet()) {
@@ -2100,6 +2431,86 @@ public abstract class TypeCodec<T> {
       return CodecUtils.pack(bbs, value.size(), protocolVersion);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Implementation note: subclasses that override {@link #serialize(Map, ProtocolVersion)}
+     * should not enable direct writes.
+     */
+    @Override
+    int encodedSize(Map<K, V> value, ProtocolVersion protocolVersion) {
+      if (value == null || !supportsWriteTo()) return super.encodedSize(value, protocolVersion);
+      int size = CodecUtils.sizeOfCollectionSize(protocolVersion);
+      for (Map.Entry<K, V> entry : value.entrySet()) {
+        K key = entry.getKey();
+        if (key == null) {
+          throw new NullPointerException("Map keys cannot be null");
+        }
+        try {
+          size +=
+              CodecUtils.sizeOfValue(keyCodec.encodedSize(key, protocolVersion), protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for map key, expecting %s but got %s",
+                  keyCodec.getJavaType(), key.getClass()),
+              e);
+        }
+        V v = entry.getValue();
+        if (v == null) {
+          throw new NullPointerException("Map values cannot be null");
+        }
+        try {
+          size +=
+              CodecUtils.sizeOfValue(valueCodec.encodedSize(v, protocolVersion), protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for map value, expecting %s but got %s",
+                  valueCodec.getJavaType(), v.getClass()),
+              e);
+        }
+      }
+      return size;
+    }
+
+    @Override
+    void writeTo(Map<K, V> value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null || !supportsWriteTo()) {
+        super.writeTo(value, target, protocolVersion);
+        return;
+      }
+      CodecUtils.writeSize(target, value.size(), protocolVersion);
+      for (Map.Entry<K, V> entry : value.entrySet()) {
+        K key = entry.getKey();
+        if (key == null) {
+          throw new NullPointerException("Map keys cannot be null");
+        }
+        try {
+          CodecUtils.writeValue(target, keyCodec, key, protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for map key, expecting %s but got %s",
+                  keyCodec.getJavaType(), key.getClass()),
+              e);
+        }
+        V v = entry.getValue();
+        if (v == null) {
+          throw new NullPointerException("Map values cannot be null");
+        }
+        try {
+          CodecUtils.writeValue(target, valueCodec, v, protocolVersion);
+        } catch (ClassCastException e) {
+          throw new InvalidTypeException(
+              String.format(
+                  "Invalid type for map value, expecting %s but got %s",
+                  valueCodec.getJavaType(), v.getClass()),
+              e);
+        }
+      }
+    }
+
     @Override
     public Map<K, V> deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
       if (bytes == null || bytes.remaining() == 0) return newInstance(0);
@@ -2144,6 +2555,11 @@ public abstract class TypeCodec<T> {
     protected Map<K, V> newInstance(int size) {
       return new LinkedHashMap<K, V>(size);
     }
+
+    @Override
+    boolean supportsWriteTo() {
+      return keyCodec.supportsWriteTo() && valueCodec.supportsWriteTo();
+    }
   }
 
   /**
@@ -2383,12 +2799,51 @@ public abstract class TypeCodec<T> {
       return definition.newValue();
     }
 
+    @Override
+    public ByteBuffer serialize(UDTValue value, ProtocolVersion protocolVersion) {
+      if (value == null) return null;
+      // a value that was read and not modified since can be written back as is
+      ByteBuffer serialized = value.getSerialized(definition.size());
+      return serialized != null ? serialized : super.serialize(value, protocolVersion);
+    }
+
+    @Override
+    public UDTValue deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+      if (bytes == null) return null;
+      // only locate the fields for now, they will be extracted if they are accessed
+      UDTValue value = newInstance();
+      value.setSerialized(new SerializedFields(bytes, definition.size(), "UDT"));
+      return value;
+    }
+
     @Override
     protected ByteBuffer serializeField(
         UDTValue source, String fieldName, ProtocolVersion protocolVersion) {
       return source.getBytesUnsafe(fieldName);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(UDTValue value, ProtocolVersion protocolVersion) {
+      if (value == null) return -1;
+      ByteBuffer serialized = value.getSerialized(definition.size());
+      return serialized != null
+          ? serialized.remaining()
+          : CodecUtils.sizeOfFields(value, value.values.length, definition.size());
+    }
+
+    @Override
+    void writeTo(UDTValue value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null) return;
+      ByteBuffer serialized = value.getSerialized(definition.size());
+      if (serialized != null) target.writeBytes(serialized);
+      else CodecUtils.writeFields(target, value, value.values.length, definition.size());
+    }
+
     @Override
     protected UDTValue deserializeAndSetField(
         ByteBuffer input, UDTValue target, String fieldName, ProtocolVersion protocolVersion) {
@@ -2618,6 +3073,24 @@ public abstract class TypeCodec<T> {
       return definition.newValue();
     }
 
+    @Override
+    public ByteBuffer serialize(TupleValue value, ProtocolVersion protocolVersion) {
+      if (value == null) return null;
+      // a value that was read and not modified since can be written back as is
+      ByteBuffer serialized = value.getSerialized(definition.getComponentTypes().size());
+      return serialized != null ? serialized : super.serialize(value, protocolVersion);
+    }
+
+    @Override
+    public TupleValue deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion) {
+      if (bytes == null) return null;
+      // only locate the fields for now, they will be extracted if they are accessed
+      TupleValue value = newInstance();
+      value.setSerialized(
+          new SerializedFields(bytes, definition.getComponentTypes().size(), "tuple"));
+      return value;
+    }
+
     @Override
     protected ByteBuffer serializeField(
         TupleValue source, int index, ProtocolVersion protocolVersion) {
@@ -2625,6 +3098,30 @@ public abstract class TypeCodec<T> {
       return source.getBytesUnsafe(index);
     }
 
+    @Override
+    boolean supportsWriteTo() {
+      return true;
+    }
+
+    @Override
+    int encodedSize(TupleValue value, ProtocolVersion protocolVersion) {
+      if (value == null) return -1;
+      int length = definition.getComponentTypes().size();
+      ByteBuffer serialized = value.getSerialized(length);
+      return serialized != null
+          ? serialized.remaining()
+          : CodecUtils.sizeOfFields(value, value.values.length, length);
+    }
+
+    @Override
+    void writeTo(TupleValue value, ByteBuf target, ProtocolVersion protocolVersion) {
+      if (value == null) return;
+      int length = definition.getComponentTypes().size();
+      ByteBuffer serialized = value.getSerialized(length);
+      if (serialized != null) target.writeBytes(serialized);
+      else CodecUtils.writeFields(target, value, value.values.length, length);
+    }
+
     @Override
     protected TupleValue deserializeAndSetField(
         ByteBuffer input, TupleValue target, int index, ProtocolVersion protocolVersion) {
@@ -15,6 +15,9 @@
  */
 package com.datastax.driver.core;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.reflect.TypeParameter;
 import com.google.common.reflect.TypeToken;
 import java.util.List;
@@ -25,6 +28,13 @@ import java.util.Set;
 public final class TypeTokens {
   private TypeTokens() {}
 
+  // Building a parameterized TypeToken relies on reflection and is costly compared to decoding a
+  // small collection, so the tokens created from classes (the common case when reading rows) are
+  // remembered. Entries hold their classes strongly, so the cache is bounded to limit what it can
+  // retain (for example the classes of an application that was undeployed from a container).
+  private static final Cache<List<Class<?>>, TypeToken<?>> CACHE =
+      CacheBuilder.newBuilder().maximumSize(256).build();
+
   /**
    * Create a {@link TypeToken} that represents a {@link List} whose elements are of the given type.
    *
@@ -34,9 +44,9 @@ public final class TypeTokens {
    *     type.
    */
   public static <T> TypeToken<List<T>> listOf(Class<T> eltType) {
-    // @formatter:off
-    return new TypeToken<List<T>>() {}.where(new TypeParameter<T>() {}, eltType);
-    // @formatter:on
+    List<Class<?>> key = ImmutableList.<Class<?>>of(List.class, eltType);
+    TypeToken<List<T>> type = cached(key);
+    return type != null ? type : cache(key, listOf(TypeToken.of(eltType)));
   }
 
   /**
@@ -61,9 +71,9 @@ public final class TypeTokens {
    * @return A {@link TypeToken} that represents a {@link Set} whose elements are of the given type.
    */
   public static <T> TypeToken<Set<T>> setOf(Class<T> eltType) {
-    // @formatter:off
-    return new TypeToken<Set<T>>() {}.where(new TypeParameter<T>() {}, eltType);
-    // @formatter:on
+    List<Class<?>> key = ImmutableList.<Class<?>>of(Set.class, eltType);
+    TypeToken<Set<T>> type = cached(key);
+    return type != null ? type : cache(key, setOf(TypeToken.of(eltType)));
   }
 
   /**
@@ -91,10 +101,9 @@ public final class TypeTokens {
    *     given key and value types
    */
   public static <K, V> TypeToken<Map<K, V>> mapOf(Class<K> keyType, Class<V> valueType) {
-    // @formatter:off
-    return new TypeToken<Map<K, V>>() {}.where(new TypeParameter<K>() {}, keyType)
-        .where(new TypeParameter<V>() {}, valueType);
-    // @formatter:on
+    List<Class<?>> key = ImmutableList.<Class<?>>of(Map.class, keyType, valueType);
+    TypeToken<Map<K, V>> type = cached(key);
+    return type != null ? type : cache(key, mapOf(TypeToken.of(keyType), TypeToken.of(valueType)));
   }
 
   /**
@@ -114,4 +123,15 @@ public final class TypeTokens {
         .where(new TypeParameter<V>() {}, valueType);
     // @formatter:on
   }
+
+  @SuppressWarnings("unchecked")
+  private static <T> TypeToken<T> cached(List<Class<?>> key) {
+    return (TypeToken<T>) CACHE.getIfPresent(key);
+  }
+
+  private static <T> TypeToken<T> cache(List<Class<?>> key, TypeToken<T> type) {
+    // Racing threads build equal tokens, it doesn't matter which one wins
+    CACHE.put(key, type);
+    return type;
+  }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import com.google.common.base.Throwables;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link ThreadingOptions} implementation that runs the driver's internal tasks on virtual
+ * threads.
+ *
+ * <p>Virtual threads were introduced in Java 21; this class accesses them reflectively, so that the
+ * driver can still be compiled and run on older JVMs. Use {@link #isSupported()} to check whether
+ * the current JVM provides them:
+ *
+ * <pre>{@code
+ * Cluster cluster = Cluster.builder()
+ *     .addContactPoint("127.0.0.1")
+ *     .withThreadingOptions(VirtualThreadingOptions.isSupported()
+ *         ? new VirtualThreadingOptions()
+ *         : new ThreadingOptions())
+ *     .build();
+ * }</pre>
+ *
+ * The {@link #createExecutor(String) main executor} and the {@link #createBlockingExecutor(String)
+ * blocking executor} start a new virtual thread for each task, instead of queuing tasks on a fixed
+ * number of platform threads. This covers the tasks that may block on the network: opening
+ * connections, schema refreshes and schema agreement checks, and lazy loading of keyspace metadata.
+ * The scheduled executors (reconnections, periodic tasks, connection reaper) keep the default
+ * implementations, because a thread-per-task executor can't schedule; their tasks are short and
+ * non-blocking. Netty's I/O threads are never virtual.
+ *
+ * <p>Note that this class is not required to call the driver's synchronous methods (such as {@link
+ * Session#execute(Statement)}) from virtual threads: while they wait for a response, those methods
+ * park the calling thread without holding a monitor, so that they don't pin the carrier thread.
+ * There are a few exceptions:
+ *
+ * <ul>
+ *   <li>{@link Cluster#init()} holds the monitor of the cluster while it connects; it is also
+ *       called by the first {@link Cluster#connect()}. Initialize the cluster when the application
+ *       starts, before the virtual threads use it;
+ *   <li>some internal state is protected by short {@code synchronized} sections, that are never
+ *       held across blocking operations; a virtual thread can be pinned briefly if it contends on
+ *       them.
+ * </ul>
+ */
+public class VirtualThreadingOptions extends ThreadingOptions {
+
+  private static final Method OF_VIRTUAL;
+  private static final Method NAME;
+  private static final Method FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null, name = null, factory = null, newThreadPerTaskExecutor = null;
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name = builderClass.getMethod("name", String.class, long.class);
+      factory = builderClass.getMethod("factory");
+      newThreadPerTaskExecutor =
+          Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+    } catch (Exception e) {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    FACTORY = factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  /**
+   * Whether the current JVM supports virtual threads.
+   *
+   * @return whether the current JVM supports virtual threads.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @throws UnsupportedOperationException if the current JVM does not support virtual threads.
+   */
+  public VirtualThreadingOptions() {
+    if (!isSupported())
+      throw new UnsupportedOperationException(
+          "Virtual threads are not supported by this JVM (Java 21 or higher is required)");
+  }
+
+  @Override
+  public ExecutorService createExecutor(String clusterName) {
+    return (ExecutorService)
+        invoke(
+            NEW_THREAD_PER_TASK_EXECUTOR, null, createVirtualThreadFactory(clusterName, "worker"));
+  }
+
+  @Override
+  public ExecutorService createBlockingExecutor(String clusterName) {
+    return (ExecutorService)
+        invoke(
+            NEW_THREAD_PER_TASK_EXECUTOR,
+            null,
+            createVirtualThreadFactory(clusterName, "blocking-task-worker"));
+  }
+
+  /**
+   * Builds a thread factory that creates virtual threads.
+   *
+   * @param clusterName the name of the cluster, as specified by {@link
+   *     com.datastax.driver.core.Cluster.Builder#withClusterName(String)}.
+   * @param executorName a name that identifies the executor.
+   * @return the thread factory.
+   */
+  protected ThreadFactory createVirtualThreadFactory(String clusterName, String executorName) {
+    Object builder = invoke(OF_VIRTUAL, null);
+    builder = invoke(NAME, builder, clusterName + "-" + executorName + "-", 0L);
+    return (ThreadFactory) invoke(FACTORY, builder);
+  }
+
+  private static Object invoke(Method method, Object target, Object... arguments) {
+    try {
+      return method.invoke(target, arguments);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Could not access " + method, e);
+    } catch (InvocationTargetException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.exceptions;
+
+/**
+ * Thrown when a request did not complete before the deadline set with {@link
+ * com.datastax.driver.core.Statement#setRequestTimeoutMillis(int)}.
+ *
+ * <p>Unlike {@link OperationTimedOutException}, which applies to a single host and can be retried,
+ * this exception is always reported to the client: it is raised once every outstanding execution of
+ * the request has been cancelled.
+ */
+public class RequestTimeoutException extends DriverException {
+
+  private static final long serialVersionUID = 0;
+
+  private final int timeoutMillis;
+
+  public RequestTimeoutException(int timeoutMillis) {
+    this(timeoutMillis, String.format("Request timed out after %d ms", timeoutMillis), null);
+  }
+
+  private RequestTimeoutException(int timeoutMillis, String message, Throwable cause) {
+    super(message, cause);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Returns the request timeout that elapsed.
+   *
+   * @return the request timeout that elapsed, in milliseconds.
+   */
+  public int getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  @Override
+  public RequestTimeoutException copy() {
+    return new RequestTimeoutException(timeoutMillis, getMessage(), this);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import com.datastax.driver.core.Statement;
+
+/**
+ * A retry policy that can take the progress of the request into account, for example to avoid
+ * retries that would not complete before the request's deadline.
+ *
+ * <p>When one of the {@link RetryPolicy} methods returns a {@link
+ * RetryPolicy.RetryDecision.Type#RETRY RETRY} decision, the driver calls {@link
+ * #confirmRetry(Statement, RetryDecision, RetryContext)} before retrying, and uses the decision it
+ * returns instead.
+ */
+public interface ContextAwareRetryPolicy extends RetryPolicy {
+
+  /**
+   * Confirms or overrides a decision to retry a request.
+   *
+   * @param statement the statement that is being executed.
+   * @param decision the decision returned by one of the other methods of this policy. Its type is
+   *     always {@link RetryPolicy.RetryDecision.Type#RETRY RETRY}.
+   * @param context information about the progress of the request.
+   * @return the decision to apply: either {@code decision}, or another one (typically {@link
+   *     RetryPolicy.RetryDecision#rethrow()}).
+   */
+  RetryDecision confirmRetry(Statement statement, RetryDecision decision, RetryContext context);
+}
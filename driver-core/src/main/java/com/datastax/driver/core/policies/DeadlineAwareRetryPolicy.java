@@ -0,0 +1,111 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.DriverException;
+
+/**
+ * A retry policy that wraps another policy, and cancels its retries when they are unlikely to
+ * complete before the request's deadline.
+ *
+ * <p>This only applies to statements that have a deadline ({@link
+ * Statement#setRequestTimeoutMillis(int)}). When the child policy decides to retry, this policy
+ * estimates the duration of the new attempt as the average duration of the previous attempts of the
+ * same execution (see {@link RetryContext#getAverageAttemptNanos()}); if the time left before the
+ * deadline is shorter than that, the error is rethrown immediately, instead of occupying the
+ * cluster with a request whose result would arrive too late to be used.
+ *
+ * <p>For all other cases, this policy delegates the decision to the child policy.
+ */
+public class DeadlineAwareRetryPolicy implements ContextAwareRetryPolicy {
+
+  private final RetryPolicy childPolicy;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param childPolicy the policy to wrap.
+   */
+  public DeadlineAwareRetryPolicy(RetryPolicy childPolicy) {
+    this.childPolicy = childPolicy;
+  }
+
+  @Override
+  public RetryDecision onReadTimeout(
+      Statement statement,
+      ConsistencyLevel cl,
+      int requiredResponses,
+      int receivedResponses,
+      boolean dataRetrieved,
+      int nbRetry) {
+    return childPolicy.onReadTimeout(
+        statement, cl, requiredResponses, receivedResponses, dataRetrieved, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onWriteTimeout(
+      Statement statement,
+      ConsistencyLevel cl,
+      WriteType writeType,
+      int requiredAcks,
+      int receivedAcks,
+      int nbRetry) {
+    return childPolicy.onWriteTimeout(
+        statement, cl, writeType, requiredAcks, receivedAcks, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onUnavailable(
+      Statement statement,
+      ConsistencyLevel cl,
+      int requiredReplica,
+      int aliveReplica,
+      int nbRetry) {
+    return childPolicy.onUnavailable(statement, cl, requiredReplica, aliveReplica, nbRetry);
+  }
+
+  @Override
+  public RetryDecision onRequestError(
+      Statement statement, ConsistencyLevel cl, DriverException e, int nbRetry) {
+    return childPolicy.onRequestError(statement, cl, e, nbRetry);
+  }
+
+  @Override
+  public RetryDecision confirmRetry(
+      Statement statement, RetryDecision decision, RetryContext context) {
+    long remaining = context.getRemainingNanos();
+    if (remaining != Long.MAX_VALUE) {
+      if (remaining < context.getAverageAttemptNanos()) return RetryDecision.rethrow();
+    }
+    return (childPolicy instanceof ContextAwareRetryPolicy)
+        ? ((ContextAwareRetryPolicy) childPolicy).confirmRetry(statement, decision, context)
+        : decision;
+  }
+
+  @Override
+  public void init(Cluster cluster) {
+    childPolicy.init(cluster);
+  }
+
+  @Override
+  public void close() {
+    childPolicy.close();
+  }
+}
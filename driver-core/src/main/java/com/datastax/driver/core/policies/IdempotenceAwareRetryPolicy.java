@@ -36,7 +36,7 @@ import com.datastax.driver.core.exceptions.DriverException;
  *     in this policy.
  */
 @Deprecated
-public class IdempotenceAwareRetryPolicy implements RetryPolicy {
+public class IdempotenceAwareRetryPolicy implements ContextAwareRetryPolicy {
 
   private final RetryPolicy childPolicy;
 
@@ -94,6 +94,14 @@ public class IdempotenceAwareRetryPolicy implements RetryPolicy {
     else return RetryDecision.rethrow();
   }
 
+  @Override
+  public RetryDecision confirmRetry(
+      Statement statement, RetryDecision decision, RetryContext context) {
+    return (childPolicy instanceof ContextAwareRetryPolicy)
+        ? ((ContextAwareRetryPolicy) childPolicy).confirmRetry(statement, decision, context)
+        : decision;
+  }
+
   @Override
   public void init(Cluster cluster) {
     childPolicy.init(cluster);
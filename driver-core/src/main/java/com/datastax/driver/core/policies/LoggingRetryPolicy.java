@@ -20,6 +20,9 @@ import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.WriteType;
 import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.UnavailableException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
 import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,10 +36,18 @@ import org.slf4j.LoggerFactory;
  * {@link com.datastax.driver.core.policies.RetryPolicy.RetryDecision.Type#RETHROW RETHROW}
  * decisions are just meant to propagate the Cassandra exception).
  *
+ * <p>By default, {@link com.datastax.driver.core.policies.RetryPolicy.RetryDecision.Type#RETRY
+ * RETRY} decisions are logged as soon as the child policy makes them. With {@link
+ * #LoggingRetryPolicy(RetryPolicy, boolean)}, they can instead be logged when the driver confirms
+ * them (see {@link ContextAwareRetryPolicy}), so that retries that are cancelled by the child
+ * policy or by the {@link RetryBudget} are not reported. In that case, if this policy is wrapped by
+ * another one, the wrapper must forward {@link #confirmRetry(Statement, RetryDecision,
+ * RetryContext)}, or retries won't be logged at all.
+ *
  * <p>The logging is done at the INFO level and the logger name is {@code
  * com.datastax.driver.core.policies.LoggingRetryPolicy}.
  */
-public class LoggingRetryPolicy implements RetryPolicy {
+public class LoggingRetryPolicy implements ContextAwareRetryPolicy {
 
   private static final Logger logger = LoggerFactory.getLogger(LoggingRetryPolicy.class);
 
@@ -74,6 +85,8 @@ public class LoggingRetryPolicy implements RetryPolicy {
 
   private final RetryPolicy policy;
 
+  private final boolean logConfirmedRetriesOnly;
+
   /**
    * Creates a new {@code RetryPolicy} that logs the decision of {@code policy}.
    *
@@ -81,7 +94,23 @@ public class LoggingRetryPolicy implements RetryPolicy {
    *     decision than {@code policy} but will log them.
    */
   public LoggingRetryPolicy(RetryPolicy policy) {
+    this(policy, false);
+  }
+
+  /**
+   * Creates a new {@code RetryPolicy} that logs the decision of {@code policy}, optionally
+   * deferring the logging of retries until they are confirmed.
+   *
+   * @param policy the policy to wrap. The policy created by this constructor will return the same
+   *     decision than {@code policy} but will log them.
+   * @param logConfirmedRetriesOnly whether to log retries only once they are confirmed by {@link
+   *     #confirmRetry(Statement, RetryDecision, RetryContext)}, rather than when {@code policy}
+   *     decides them. Only set this if the driver calls this policy directly, or if all the
+   *     policies wrapping it forward the confirmation.
+   */
+  public LoggingRetryPolicy(RetryPolicy policy, boolean logConfirmedRetriesOnly) {
     this.policy = policy;
+    this.logConfirmedRetriesOnly = logConfirmedRetriesOnly;
   }
 
   private static ConsistencyLevel cl(ConsistencyLevel cl, RetryDecision decision) {
@@ -114,15 +143,16 @@ public class LoggingRetryPolicy implements RetryPolicy {
             nbRetry);
         break;
       case RETRY:
-        logDecision(
-            RETRYING_ON_READ_TIMEOUT,
-            host(decision),
-            cl(cl, decision),
-            cl,
-            requiredResponses,
-            receivedResponses,
-            dataRetrieved,
-            nbRetry);
+        if (!logConfirmedRetriesOnly)
+          logDecision(
+              RETRYING_ON_READ_TIMEOUT,
+              host(decision),
+              cl(cl, decision),
+              cl,
+              requiredResponses,
+              receivedResponses,
+              dataRetrieved,
+              nbRetry);
         break;
     }
     return decision;
@@ -143,15 +173,16 @@ public class LoggingRetryPolicy implements RetryPolicy {
         logDecision(IGNORING_WRITE_TIMEOUT, cl, writeType, requiredAcks, receivedAcks, nbRetry);
         break;
       case RETRY:
-        logDecision(
-            RETRYING_ON_WRITE_TIMEOUT,
-            host(decision),
-            cl(cl, decision),
-            cl,
-            writeType,
-            requiredAcks,
-            receivedAcks,
-            nbRetry);
+        if (!logConfirmedRetriesOnly)
+          logDecision(
+              RETRYING_ON_WRITE_TIMEOUT,
+              host(decision),
+              cl(cl, decision),
+              cl,
+              writeType,
+              requiredAcks,
+              receivedAcks,
+              nbRetry);
         break;
     }
     return decision;
@@ -171,14 +202,15 @@ public class LoggingRetryPolicy implements RetryPolicy {
         logDecision(IGNORING_UNAVAILABLE, cl, requiredReplica, aliveReplica, nbRetry);
         break;
       case RETRY:
-        logDecision(
-            RETRYING_ON_UNAVAILABLE,
-            host(decision),
-            cl(cl, decision),
-            cl,
-            requiredReplica,
-            aliveReplica,
-            nbRetry);
+        if (!logConfirmedRetriesOnly)
+          logDecision(
+              RETRYING_ON_UNAVAILABLE,
+              host(decision),
+              cl(cl, decision),
+              cl,
+              requiredReplica,
+              aliveReplica,
+              nbRetry);
         break;
     }
     return decision;
@@ -193,13 +225,76 @@ public class LoggingRetryPolicy implements RetryPolicy {
         logDecision(IGNORING_REQUEST_ERROR, cl, nbRetry, e.toString());
         break;
       case RETRY:
-        logDecision(
-            RETRYING_ON_REQUEST_ERROR, host(decision), cl(cl, decision), cl, nbRetry, e.toString());
+        if (!logConfirmedRetriesOnly)
+          logDecision(
+              RETRYING_ON_REQUEST_ERROR,
+              host(decision),
+              cl(cl, decision),
+              cl,
+              nbRetry,
+              e.toString());
         break;
     }
     return decision;
   }
 
+  @Override
+  public RetryDecision confirmRetry(
+      Statement statement, RetryDecision decision, RetryContext context) {
+    if (policy instanceof ContextAwareRetryPolicy)
+      decision = ((ContextAwareRetryPolicy) policy).confirmRetry(statement, decision, context);
+    if (logConfirmedRetriesOnly && decision.getType() == RetryDecision.Type.RETRY)
+      logRetry(decision, context);
+    return decision;
+  }
+
+  private void logRetry(RetryDecision decision, RetryContext context) {
+    DriverException error = context.getError();
+    ConsistencyLevel cl = context.getConsistencyLevel();
+    int nbRetry = context.getRetryCount();
+    if (error instanceof ReadTimeoutException) {
+      ReadTimeoutException e = (ReadTimeoutException) error;
+      logDecision(
+          RETRYING_ON_READ_TIMEOUT,
+          host(decision),
+          cl(cl, decision),
+          cl,
+          e.getRequiredAcknowledgements(),
+          e.getReceivedAcknowledgements(),
+          e.wasDataRetrieved(),
+          nbRetry);
+    } else if (error instanceof WriteTimeoutException) {
+      WriteTimeoutException e = (WriteTimeoutException) error;
+      logDecision(
+          RETRYING_ON_WRITE_TIMEOUT,
+          host(decision),
+          cl(cl, decision),
+          cl,
+          e.getWriteType(),
+          e.getRequiredAcknowledgements(),
+          e.getReceivedAcknowledgements(),
+          nbRetry);
+    } else if (error instanceof UnavailableException) {
+      UnavailableException e = (UnavailableException) error;
+      logDecision(
+          RETRYING_ON_UNAVAILABLE,
+          host(decision),
+          cl(cl, decision),
+          cl,
+          e.getRequiredReplicas(),
+          e.getAliveReplicas(),
+          nbRetry);
+    } else {
+      logDecision(
+          RETRYING_ON_REQUEST_ERROR,
+          host(decision),
+          cl(cl, decision),
+          cl,
+          nbRetry,
+          String.valueOf(error));
+    }
+  }
+
   @Override
   public void init(Cluster cluster) {
     policy.init(cluster);
@@ -43,6 +43,7 @@ public class Policies {
   private final AddressTranslator addressTranslator;
   private final TimestampGenerator timestampGenerator;
   private final SpeculativeExecutionPolicy speculativeExecutionPolicy;
+  private final RetryBudget retryBudget;
 
   private Policies(
       LoadBalancingPolicy loadBalancingPolicy,
@@ -50,13 +51,15 @@ public class Policies {
       RetryPolicy retryPolicy,
       AddressTranslator addressTranslator,
       TimestampGenerator timestampGenerator,
-      SpeculativeExecutionPolicy speculativeExecutionPolicy) {
+      SpeculativeExecutionPolicy speculativeExecutionPolicy,
+      RetryBudget retryBudget) {
     this.loadBalancingPolicy = loadBalancingPolicy;
     this.reconnectionPolicy = reconnectionPolicy;
     this.retryPolicy = retryPolicy;
     this.addressTranslator = addressTranslator;
     this.timestampGenerator = timestampGenerator;
     this.speculativeExecutionPolicy = speculativeExecutionPolicy;
+    this.retryBudget = retryBudget;
   }
 
   /**
@@ -195,6 +198,15 @@ public class Policies {
     return speculativeExecutionPolicy;
   }
 
+  /**
+   * The retry budget in use.
+   *
+   * @return the retry budget in use, or {@code null} if retries are not limited.
+   */
+  public RetryBudget getRetryBudget() {
+    return retryBudget;
+  }
+
   /** A builder to create a new {@code Policies} object. */
   public static class Builder {
     private LoadBalancingPolicy loadBalancingPolicy;
@@ -203,6 +215,7 @@ public class Policies {
     private AddressTranslator addressTranslator;
     private TimestampGenerator timestampGenerator;
     private SpeculativeExecutionPolicy speculativeExecutionPolicy;
+    private RetryBudget retryBudget;
 
     /**
      * Sets the load balancing policy.
@@ -271,6 +284,17 @@ public class Policies {
       return this;
     }
 
+    /**
+     * Sets the retry budget.
+     *
+     * @param retryBudget see {@link #getRetryBudget()}.
+     * @return this builder.
+     */
+    public Builder withRetryBudget(RetryBudget retryBudget) {
+      this.retryBudget = retryBudget;
+      return this;
+    }
+
     /**
      * Builds the final object from this builder.
      *
@@ -287,7 +311,8 @@ public class Policies {
           timestampGenerator == null ? defaultTimestampGenerator() : timestampGenerator,
           speculativeExecutionPolicy == null
               ? defaultSpeculativeExecutionPolicy()
-              : speculativeExecutionPolicy);
+              : speculativeExecutionPolicy,
+          retryBudget);
     }
   }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import com.datastax.driver.core.Host;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of retries to a fraction of the number of requests, in order to prevent retry
+ * storms.
+ *
+ * <p>When a node becomes slow or partially unavailable, retrying every failed request multiplies
+ * the load on the cluster at the worst possible time. A retry budget caps that amplification: each
+ * new request deposits {@code retryRatio} tokens in a bucket, and each retry decided by the {@link
+ * RetryPolicy} withdraws one token. If the bucket is empty, the retry is not attempted and the
+ * error is returned to the client, as if the policy had decided to {@link
+ * RetryPolicy.RetryDecision#rethrow() rethrow}. The bucket holds at most {@code maxRetries} tokens
+ * (and starts full), which allows bursts of retries after a quiet period.
+ *
+ * <p>A budget is either shared by all the hosts of the cluster ({@link #perCluster(double, int)}),
+ * or tracked separately for each host ({@link #perHost(double, int)}). In the latter case, a
+ * request deposits in the bucket of the first host it is sent to, and a retry withdraws from the
+ * bucket of the host whose error triggered it; this way, a failing host can't consume the budget of
+ * the healthy ones.
+ *
+ * <p>Speculative executions, and the moves to the next host that the driver does on its own (for
+ * example after a connection error), are not counted as retries.
+ *
+ * <p>To use a retry budget, pass it to {@link
+ * com.datastax.driver.core.Cluster.Builder#withRetryBudget(RetryBudget)}. This class is
+ * thread-safe.
+ */
+public class RetryBudget {
+
+  /**
+   * Creates a retry budget shared by all hosts.
+   *
+   * @param retryRatio the number of retries allowed per request, for example {@code 0.1} to allow
+   *     retries for 10% of the requests.
+   * @param maxRetries the maximum number of retries that can be accumulated.
+   * @return the budget.
+   */
+  public static RetryBudget perCluster(double retryRatio, int maxRetries) {
+    return new RetryBudget(retryRatio, maxRetries, false);
+  }
+
+  /**
+   * Creates a retry budget that is tracked separately for each host.
+   *
+   * @param retryRatio the number of retries allowed per request sent to a host, for example {@code
+   *     0.1} to allow retries for 10% of the requests.
+   * @param maxRetries the maximum number of retries that can be accumulated for each host.
+   * @return the budget.
+   */
+  public static RetryBudget perHost(double retryRatio, int maxRetries) {
+    return new RetryBudget(retryRatio, maxRetries, true);
+  }
+
+  // Tokens are stored as fixed-point values, to allow fractional deposits
+  private static final long ONE_TOKEN = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final Bucket clusterBucket;
+  private final ConcurrentMap<Host, Bucket> hostBuckets;
+
+  private RetryBudget(double retryRatio, int maxRetries, boolean perHost) {
+    Preconditions.checkArgument(
+        retryRatio >= 0 && retryRatio <= 1,
+        "retryRatio must be between 0 and 1, got %s",
+        retryRatio);
+    Preconditions.checkArgument(maxRetries >= 0, "maxRetries must be positive, got %s", maxRetries);
+    this.deposit = Math.round(retryRatio * ONE_TOKEN);
+    this.capacity = maxRetries * ONE_TOKEN;
+    this.clusterBucket = perHost ? null : new Bucket(capacity);
+    this.hostBuckets = perHost ? new ConcurrentHashMap<Host, Bucket>() : null;
+  }
+
+  /**
+   * Records a new request.
+   *
+   * <p>This is called by the driver when a request is sent for the first time; there is no need to
+   * call it from client code.
+   *
+   * @param host the first host the request is sent to.
+   */
+  public void onRequest(Host host) {
+    bucket(host).deposit(deposit, capacity);
+  }
+
+  /**
+   * Tries to withdraw a retry from the budget.
+   *
+   * <p>This is called by the driver when the retry policy decided to retry; there is no need to
+   * call it from client code.
+   *
+   * @param host the host whose error triggered the retry.
+   * @return whether the retry can proceed.
+   */
+  public boolean tryAcquire(Host host) {
+    return bucket(host).withdraw(ONE_TOKEN);
+  }
+
+  /**
+   * Gives back a retry that was withdrawn from the budget, but was not attempted in the end.
+   *
+   * <p>This is called by the driver when a {@link ContextAwareRetryPolicy} cancels a retry; there
+   * is no need to call it from client code.
+   *
+   * @param host the host whose error triggered the retry.
+   */
+  public void release(Host host) {
+    bucket(host).deposit(ONE_TOKEN, capacity);
+  }
+
+  /**
+   * Returns the number of retries currently available.
+   *
+   * @param host the host to inspect. Ignored if the budget is shared by all hosts.
+   * @return the number of retries that can proceed before the budget is exhausted.
+   */
+  public int getAvailableRetries(Host host) {
+    return (int) (bucket(host).tokens.get() / ONE_TOKEN);
+  }
+
+  private Bucket bucket(Host host) {
+    if (clusterBucket != null) return clusterBucket;
+    Bucket bucket = hostBuckets.get(host);
+    if (bucket == null) {
+      Bucket newBucket = new Bucket(capacity);
+      bucket = hostBuckets.putIfAbsent(host, newBucket);
+      if (bucket == null) bucket = newBucket;
+    }
+    return bucket;
+  }
+
+  private static class Bucket {
+    private final AtomicLong tokens;
+
+    Bucket(long initialTokens) {
+      this.tokens = new AtomicLong(initialTokens);
+    }
+
+    void deposit(long amount, long capacity) {
+      while (true) {
+        long current = tokens.get();
+        if (current >= capacity) return;
+        if (tokens.compareAndSet(current, Math.min(capacity, current + amount))) return;
+      }
+    }
+
+    boolean withdraw(long amount) {
+      while (true) {
+        long current = tokens.get();
+        if (current < amount) return false;
+        if (tokens.compareAndSet(current, current - amount)) return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.exceptions.DriverException;
+
+/**
+ * Information about the progress of a request, provided to {@link ContextAwareRetryPolicy}
+ * instances when they confirm a retry.
+ */
+public interface RetryContext {
+
+  /**
+   * Returns the host whose error triggered the retry.
+   *
+   * @return the host.
+   */
+  Host getHost();
+
+  /**
+   * Returns the consistency level of the attempt that failed (this is the same value as the {@code
+   * cl} argument of the {@link RetryPolicy} methods).
+   *
+   * @return the consistency level.
+   */
+  ConsistencyLevel getConsistencyLevel();
+
+  /**
+   * Returns the error that triggered the retry: a {@link
+   * com.datastax.driver.core.exceptions.ReadTimeoutException ReadTimeoutException}, {@link
+   * com.datastax.driver.core.exceptions.WriteTimeoutException WriteTimeoutException} or {@link
+   * com.datastax.driver.core.exceptions.UnavailableException UnavailableException} if the decision
+   * was made by the corresponding method of the {@link RetryPolicy}, or the exception that was
+   * passed to {@link RetryPolicy#onRequestError(com.datastax.driver.core.Statement,
+   * ConsistencyLevel, DriverException, int) onRequestError}.
+   *
+   * @return the error.
+   */
+  DriverException getError();
+
+  /**
+   * Returns the number of retries already performed for this execution of the request (this is the
+   * same value as the {@code nbRetry} argument of the {@link RetryPolicy} methods).
+   *
+   * @return the number of retries.
+   */
+  int getRetryCount();
+
+  /**
+   * Returns the time elapsed since the request was executed.
+   *
+   * @return the elapsed time, in nanoseconds.
+   */
+  long getElapsedNanos();
+
+  /**
+   * Returns the average duration of the attempts of this execution of the request that ended with a
+   * retry decision, including the one that triggered this retry. An attempt starts when the driver
+   * borrows a connection to the host, and ends when the error is received.
+   *
+   * <p>Unlike {@link #getElapsedNanos()}, this does not include the time that the request spent
+   * before this execution started (for example the delay of a speculative execution).
+   *
+   * @return the average duration, in nanoseconds.
+   */
+  long getAverageAttemptNanos();
+
+  /**
+   * Returns the time left before the request's deadline, as set with {@link
+   * com.datastax.driver.core.Statement#setRequestTimeoutMillis(int)}.
+   *
+   * @return the remaining time, in nanoseconds, or {@link Long#MAX_VALUE} if the request has no
+   *     deadline.
+   */
+  long getRemainingNanos();
+}
@@ -15,6 +15,7 @@
  */
 package com.datastax.driver.core.querybuilder;
 
+import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.RegularStatement;
@@ -235,6 +236,34 @@ public final class QueryBuilder {
     return new Truncate(table);
   }
 
+  /**
+   * Compiles a statement into a reusable template.
+   *
+   * <p>This method calls {@link #template(BuiltStatement, CodecRegistry)} with {@link
+   * CodecRegistry#DEFAULT_INSTANCE}.
+   *
+   * @param statement the statement to compile. It should use {@link #bindMarker() bind markers} for
+   *     the values that change between executions.
+   * @return the template.
+   */
+  public static QueryTemplate template(BuiltStatement statement) {
+    return template(statement, CodecRegistry.DEFAULT_INSTANCE);
+  }
+
+  /**
+   * Compiles a statement into a reusable template: the query string is generated once, and the
+   * statement will be prepared on first use. See {@link QueryTemplate} for more details.
+   *
+   * @param statement the statement to compile. It should use {@link #bindMarker() bind markers} for
+   *     the values that change between executions.
+   * @param codecRegistry the codec registry used to inline the values that are not bind markers
+   *     (see {@link BuiltStatement} for more explanations on why this is needed).
+   * @return the template.
+   */
+  public static QueryTemplate template(BuiltStatement statement, CodecRegistry codecRegistry) {
+    return new QueryTemplate(statement, codecRegistry);
+  }
+
   /**
    * Quotes a column name to make it case sensitive.
    *
@@ -0,0 +1,190 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.querybuilder;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.GuavaCompatibility;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The compiled form of a statement built with {@link QueryBuilder}, meant to be executed many times
+ * with different values.
+ *
+ * <p>A template is created once from a statement that uses {@link QueryBuilder#bindMarker() bind
+ * markers} for the values that change between executions:
+ *
+ * <pre>{@code
+ * QueryTemplate selectUser = QueryBuilder.template(
+ *     select().all().from("ks", "users").where(eq("id", bindMarker())));
+ * }</pre>
+ *
+ * The query string is generated when the template is created, and the statement is prepared the
+ * first time it is bound with a given session. After that, each execution only binds the values:
+ *
+ * <pre>{@code
+ * ResultSet rs = session.execute(selectUser.bind(session, userId));
+ * }</pre>
+ *
+ * <p>Values that are not bind markers are inlined in the query string. The consistency levels,
+ * tracing flag, retry policy, outgoing payload and idempotence of the source statement are copied
+ * to the prepared statement, and therefore to the statements bound from it. Changes to the source
+ * statement after the template was created are not taken into account.
+ *
+ * <p>A template remembers the prepared statement of the last session it was bound with; it is
+ * intended to be used with a single session, typically stored in a static field or a DAO. It is
+ * thread-safe.
+ */
+public final class QueryTemplate {
+
+  private final SimpleStatement statement;
+
+  private volatile Prepared prepared;
+
+  QueryTemplate(BuiltStatement source, CodecRegistry codecRegistry) {
+    String query =
+        BuiltStatement.maybeAddSemicolon(source.buildQueryString(null, codecRegistry)).toString();
+    statement = new SimpleStatement(query);
+    if (source.getConsistencyLevel() != null)
+      statement.setConsistencyLevel(source.getConsistencyLevel());
+    if (source.getSerialConsistencyLevel() != null)
+      statement.setSerialConsistencyLevel(source.getSerialConsistencyLevel());
+    if (source.isTracing()) statement.enableTracing();
+    statement.setRetryPolicy(source.getRetryPolicy());
+    statement.setOutgoingPayload(source.getOutgoingPayload());
+    statement.setIdempotent(source.isIdempotent());
+  }
+
+  /**
+   * Returns the query string of this template.
+   *
+   * @return the query string.
+   */
+  public String getQueryString() {
+    return statement.getQueryString();
+  }
+
+  /**
+   * Returns the prepared statement for the given session, preparing it if this template hasn't been
+   * used with that session yet.
+   *
+   * <p>This method blocks while the statement is prepared; it should not be called from a driver
+   * I/O thread, use {@link #prepareAsync(Session)} instead.
+   *
+   * @param session the session to use.
+   * @return the prepared statement.
+   */
+  public PreparedStatement prepare(Session session) {
+    Prepared current = prepared;
+    if (current != null && current.session == session && current.future.isDone()) {
+      try {
+        return current.future.get();
+      } catch (ExecutionException e) {
+        // the failed attempt is discarded by its callback, try again below
+      } catch (InterruptedException e) {
+        // cannot happen since the future is done
+        Thread.currentThread().interrupt();
+      }
+    }
+    PreparedStatement result = session.prepare(statement);
+    prepared = new Prepared(session, Futures.immediateFuture(result));
+    return result;
+  }
+
+  /**
+   * Returns the prepared statement for the given session, preparing it asynchronously if this
+   * template hasn't been used with that session yet.
+   *
+   * @param session the session to use.
+   * @return a future on the prepared statement.
+   */
+  public ListenableFuture<PreparedStatement> prepareAsync(Session session) {
+    Prepared current = prepared;
+    if (current != null && current.session == session) return current.future;
+
+    ListenableFuture<PreparedStatement> future = session.prepareAsync(statement);
+    final Prepared attempt = new Prepared(session, future);
+    prepared = attempt;
+    GuavaCompatibility.INSTANCE.addCallback(
+        future,
+        new FutureCallback<PreparedStatement>() {
+          @Override
+          public void onSuccess(PreparedStatement result) {}
+
+          @Override
+          public void onFailure(Throwable t) {
+            // allow the next call to try again, unless another attempt already replaced this one
+            if (prepared == attempt) prepared = null;
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Binds values to this template, preparing it first if needed.
+   *
+   * <p>This method blocks if the statement must be prepared; see {@link #prepare(Session)}.
+   *
+   * @param session the session that will execute the statement.
+   * @param values the values to bind, in the order of the bind markers.
+   * @return the bound statement.
+   * @see PreparedStatement#bind(Object...)
+   */
+  public BoundStatement bind(Session session, Object... values) {
+    return prepare(session).bind(values);
+  }
+
+  /**
+   * Binds values to this template, preparing it asynchronously first if needed.
+   *
+   * @param session the session that will execute the statement.
+   * @param values the values to bind, in the order of the bind markers.
+   * @return a future on the bound statement.
+   * @see PreparedStatement#bind(Object...)
+   */
+  public ListenableFuture<BoundStatement> bindAsync(Session session, final Object... values) {
+    return GuavaCompatibility.INSTANCE.transform(
+        prepareAsync(session),
+        new Function<PreparedStatement, BoundStatement>() {
+          @Override
+          public BoundStatement apply(PreparedStatement prepared) {
+            return prepared.bind(values);
+          }
+        });
+  }
+
+  @Override
+  public String toString() {
+    return getQueryString();
+  }
+
+  private static class Prepared {
+    final Session session;
+    final ListenableFuture<PreparedStatement> future;
+
+    Prepared(Session session, ListenableFuture<PreparedStatement> future) {
+      this.session = session;
+      this.future = future;
+    }
+  }
+}
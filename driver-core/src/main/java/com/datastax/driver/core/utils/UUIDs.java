@@ -17,6 +17,7 @@ package com.datastax.driver.core.utils;
 
 import com.datastax.driver.core.Native;
 import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
 import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
@@ -24,9 +25,11 @@ import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
@@ -95,6 +98,21 @@ public final class UUIDs {
 
   private static final AtomicLong lastTimestamp = new AtomicLong(0L);
 
+  // The maximum number of timestamps that a thread reserves at once in fastTimeBased()
+  private static final int MAX_TIMESTAMP_BLOCK = 64;
+
+  // For each thread: the next timestamp of its block, the end of the block (exclusive), and the
+  // size of the last reservation. We're deliberately avoiding an anonymous subclass with
+  // initialValue(), because this can introduce classloader leaks in managed environments.
+  private static final ThreadLocal<long[]> timestampBlocks = new ThreadLocal<long[]>();
+
+  // For each thread: the state of its SplitMix64 generator, see fastRandom()
+  private static final ThreadLocal<long[]> randomStates = new ThreadLocal<long[]>();
+  private static final AtomicLong randomSeeder =
+      new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+  private static final long SEEDER_INCREMENT = 0xbb67ae8584caa73bL;
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
   private static long makeEpoch() {
     // UUID v1 timestamp must be in 100-nanoseconds interval since 00:00:00.000 15 Oct 1582.
     Calendar c = Calendar.getInstance(TimeZone.getTimeZone("GMT-0"));
@@ -217,6 +235,33 @@ public final class UUIDs {
     return UUID.randomUUID();
   }
 
+  /**
+   * Creates a new random (version 4) UUID, using a fast, non-cryptographic generator.
+   *
+   * <p>Unlike {@link #random()}, which draws from a {@link java.security.SecureRandom} shared by
+   * the whole JVM, this method uses a per-thread instance of the SplitMix64 algorithm. It never
+   * blocks and does not contend with other threads, which makes it suitable to generate a large
+   * number of identifiers, for example one per inserted row.
+   *
+   * <p><b>The UUIDs generated by this method are predictable</b>: do not use them where an attacker
+   * could take advantage of guessing them (session identifiers, tokens, etc.); use {@link
+   * #random()} instead.
+   *
+   * @return a newly generated, pseudo random, version 4 UUID.
+   */
+  public static UUID fastRandom() {
+    long[] state = randomStates.get();
+    if (state == null) {
+      state = new long[] {mix64(randomSeeder.getAndAdd(SEEDER_INCREMENT))};
+      randomStates.set(state);
+    }
+    long msb = mix64(state[0] += GOLDEN_GAMMA);
+    long lsb = mix64(state[0] += GOLDEN_GAMMA);
+    msb = (msb & 0xffffffffffff0fffL) | 0x0000000000004000L; // version 4
+    lsb = (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L; // IETF variant
+    return new UUID(msb, lsb);
+  }
+
   /**
    * Creates a new time-based (version 1) UUID.
    *
@@ -241,6 +286,66 @@ public final class UUIDs {
     return new UUID(makeMSB(getCurrentTimestamp()), CLOCK_SEQ_AND_NODE);
   }
 
+  /**
+   * Creates new time-based (version 1) UUIDs in a batch.
+   *
+   * <p>This is equivalent to calling {@link #timeBased()} {@code count} times, but the timestamps
+   * are reserved in as few atomic operations as possible (as long as they fit in the current
+   * millisecond, see {@link #timeBased()} for the limits of the algorithm).
+   *
+   * @param count the number of UUIDs to generate.
+   * @return the new UUIDs, in ascending timestamp order.
+   * @throws IllegalArgumentException if {@code count} is negative.
+   */
+  public static List<UUID> timeBased(int count) {
+    Preconditions.checkArgument(count >= 0, "count must be positive, got %s", count);
+    List<UUID> uuids = new ArrayList<UUID>(count);
+    long[] range = new long[2];
+    while (uuids.size() < count) {
+      reserveTimestamps(count - uuids.size(), range);
+      for (long timestamp = range[0]; timestamp < range[1]; timestamp++)
+        uuids.add(new UUID(makeMSB(timestamp), CLOCK_SEQ_AND_NODE));
+    }
+    return uuids;
+  }
+
+  /**
+   * Creates a new time-based (version 1) UUID, with less contention than {@link #timeBased()}.
+   *
+   * <p>Instead of reserving each timestamp with an atomic operation on a counter shared by all
+   * threads, each thread reserves a block of timestamps within the current millisecond, and
+   * consumes it locally. The block size adapts to the rate of each thread: a thread that calls this
+   * method rarely reserves one timestamp at a time, and a busy thread up to {@value
+   * #MAX_TIMESTAMP_BLOCK}.
+   *
+   * <p>UUIDs are still unique (including with the UUIDs generated by the other methods of this
+   * class), and strictly increasing for a given thread. However, they are only ordered to the
+   * millisecond across threads: a thread can get a UUID slightly lower than one returned to another
+   * thread just before, if both were generated in the same millisecond.
+   *
+   * @return a new time-based UUID.
+   */
+  public static UUID fastTimeBased() {
+    long[] block = timestampBlocks.get();
+    if (block == null) {
+      block = new long[3];
+      timestampBlocks.set(block);
+    }
+    long currentMillis = System.currentTimeMillis() - START_EPOCH;
+    if (block[0] >= block[1] || millisOf(block[0]) < currentMillis) {
+      int size = (int) block[2];
+      // A busy thread that used its whole block in the current millisecond gets a bigger one; any
+      // other thread only reserves the timestamp it needs, to avoid wasting the rest of the block.
+      size =
+          (block[0] >= block[1] && millisOf(block[1] - 1) >= currentMillis)
+              ? Math.min(size * 2, MAX_TIMESTAMP_BLOCK)
+              : 1;
+      reserveTimestamps(size, block);
+      block[2] = block[1] - block[0];
+    }
+    return new UUID(makeMSB(block[0]++), CLOCK_SEQ_AND_NODE);
+  }
+
   /**
    * Creates a "fake" time-based UUID that sorts as the smallest possible version 1 UUID generated
    * at the provided timestamp.
@@ -344,6 +449,44 @@ public final class UUIDs {
     }
   }
 
+  /*
+   * Same algorithm as getCurrentTimestamp(), but reserves up to max consecutive timestamps at once,
+   * as long as they are in the same millisecond. The reserved range is stored as [range[0],
+   * range[1]).
+   */
+  private static void reserveTimestamps(int max, long[] range) {
+    while (true) {
+      long now = fromUnixTimestamp(System.currentTimeMillis());
+      long last = lastTimestamp.get();
+      long start, end;
+      if (now > last) {
+        start = now;
+        end = Math.min(start + max, (millisOf(start) + 1) * 10000);
+      } else if (millisOf(now) < millisOf(last)) {
+        // The clock went back in time, keep incrementing
+        start = last + 1;
+        end = start + max;
+      } else {
+        start = last + 1;
+        // No timestamps left in that millisecond, wait for the next one
+        if (millisOf(start) != millisOf(last)) continue;
+        end = Math.min(start + max, (millisOf(start) + 1) * 10000);
+      }
+      if (lastTimestamp.compareAndSet(last, end - 1)) {
+        range[0] = start;
+        range[1] = end;
+        return;
+      }
+    }
+  }
+
+  // The SplitMix64 mixing function
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
   // Package visible for testing
   static long fromUnixTimestamp(long tstamp) {
     return (tstamp - START_EPOCH) * 10000;
@@ -0,0 +1,173 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AutoPreparerTest {
+
+  private static final String QUERY = "SELECT * FROM t WHERE k = ?";
+
+  private SessionManager session;
+  private PreparedStatement prepared;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    session = mock(SessionManager.class);
+    when(session.getCluster()).thenReturn(mock(Cluster.class));
+    prepared = mock(PreparedStatement.class);
+    when(prepared.getQueryKeyspace()).thenReturn("ks");
+  }
+
+  @Test(groups = "unit")
+  public void should_prepare_query_once_threshold_is_reached() {
+    when(session.prepareAsync(QUERY)).thenReturn(Futures.immediateFuture(prepared));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    assertThat(preparer.get(QUERY, "ks", 3, 10)).isNull();
+    assertThat(preparer.get(QUERY, "ks", 3, 10)).isNull();
+    verify(session, never()).prepareAsync(anyString());
+    // the third execution triggers the preparation, but is not executed as prepared yet
+    assertThat(preparer.get(QUERY, "ks", 3, 10)).isNull();
+    verify(session).prepareAsync(QUERY);
+
+    assertThat(preparer.get(QUERY, "ks", 3, 10)).isSameAs(prepared);
+    assertThat(preparer.get(QUERY, "ks", 3, 10)).isSameAs(prepared);
+    verify(session, times(1)).prepareAsync(anyString());
+  }
+
+  @Test(groups = "unit")
+  public void should_not_use_statement_while_preparing() {
+    SettableFuture<PreparedStatement> future = SettableFuture.create();
+    when(session.prepareAsync(QUERY)).thenReturn(future);
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    assertThat(preparer.get(QUERY, "ks", 1, 10)).isNull();
+    assertThat(preparer.get(QUERY, "ks", 1, 10)).isNull();
+    future.set(prepared);
+    assertThat(preparer.get(QUERY, "ks", 1, 10)).isSameAs(prepared);
+    verify(session, times(1)).prepareAsync(anyString());
+  }
+
+  @Test(groups = "unit")
+  public void should_not_use_statement_prepared_with_other_keyspace() {
+    when(session.prepareAsync(QUERY)).thenReturn(Futures.immediateFuture(prepared));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    preparer.get(QUERY, "ks", 1, 10);
+
+    assertThat(preparer.get(QUERY, "ks2", 1, 10)).isNull();
+    assertThat(preparer.get(QUERY, null, 1, 10)).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_retry_failed_preparation() {
+    when(session.prepareAsync(QUERY))
+        .thenReturn(
+            Futures.<PreparedStatement>immediateFailedFuture(new RuntimeException("mock error")));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    for (int i = 0; i < 5; i++) assertThat(preparer.get(QUERY, "ks", 1, 10)).isNull();
+
+    verify(session, times(1)).prepareAsync(anyString());
+  }
+
+  @Test(groups = "unit")
+  public void should_not_prepare_more_than_max_statements() {
+    when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(prepared));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    for (int i = 0; i < 10; i++) preparer.get(QUERY + i, "ks", 1, 3);
+
+    verify(session, times(3)).prepareAsync(anyString());
+  }
+
+  @Test(groups = "unit")
+  public void should_forget_old_counts() {
+    when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(prepared));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    // executed a few times a long time ago
+    for (int i = 0; i < 8; i++) preparer.get(QUERY, "ks", 10, 10);
+    // lots of other executions since then
+    for (int i = 0; i < 100000; i++) preparer.get("SELECT * FROM t2", "ks", 1000000, 10);
+    preparer.get(QUERY, "ks", 10, 10);
+    preparer.get(QUERY, "ks", 10, 10);
+
+    verify(session, never()).prepareAsync(QUERY);
+  }
+
+  @Test(groups = "unit")
+  public void should_halve_counts_on_executor() {
+    when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(prepared));
+    final List<Runnable> tasks = new ArrayList<Runnable>();
+    AutoPreparer preparer =
+        new AutoPreparer(
+            session,
+            new Executor() {
+              @Override
+              public void execute(Runnable task) {
+                tasks.add(task);
+              }
+            });
+
+    for (int i = 0; i < 8; i++) preparer.get(QUERY, "ks", 10, 10);
+    for (int i = 0; i < 100000; i++) preparer.get("SELECT * FROM t2", "ks", 1000000, 10);
+
+    // halving was requested once, and not run inline
+    assertThat(tasks).hasSize(1);
+    preparer.get(QUERY, "ks", 10, 10);
+    preparer.get(QUERY, "ks", 10, 10);
+    verify(session).prepareAsync(QUERY);
+
+    // once it has run, it can be requested again
+    tasks.get(0).run();
+    for (int i = 0; i < 100000; i++) preparer.get("SELECT * FROM t2", "ks", 1000000, 10);
+    assertThat(tasks).hasSize(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_count_executions_when_no_room_left() {
+    when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(prepared));
+    AutoPreparer preparer =
+        new AutoPreparer(session, GuavaCompatibility.INSTANCE.sameThreadExecutor());
+
+    preparer.get(QUERY + 1, "ks", 1, 1);
+    for (int i = 0; i < 5; i++) preparer.get(QUERY, "ks", 1, 1);
+
+    verify(session, never()).prepareAsync(QUERY);
+  }
+}
@@ -15,8 +15,15 @@
  */
 package com.datastax.driver.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.testng.Assert.assertTrue;
 
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.google.common.reflect.TypeToken;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 import org.testng.annotations.Test;
 
 public class ColumnDefinitionsTest {
@@ -78,4 +85,119 @@ public class ColumnDefinitionsTest {
 
     assertTrue(defs.getType("column").equals(DataType.text()));
   }
+
+  @Test(groups = "unit")
+  public void should_resolve_same_codecs_as_registry() {
+    CodecRegistry codecRegistry = new CodecRegistry();
+    DataType listType = DataType.list(DataType.cint());
+    ColumnDefinitions defs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "c1", DataType.text()),
+              new ColumnDefinitions.Definition("ks", "cf", "c2", listType)
+            },
+            codecRegistry);
+    TypeToken<List<Integer>> listOfInts = new TypeToken<List<Integer>>() {};
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(defs.codecFor(0, String.class)).isSameAs(TypeCodec.varchar());
+      assertThat(defs.codecFor(0)).isSameAs(TypeCodec.varchar());
+      assertThat(defs.codecFor(1, listOfInts))
+          .isSameAs(codecRegistry.codecFor(listType, listOfInts));
+      assertThat(defs.codecFor(1)).isSameAs(codecRegistry.codecFor(listType));
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_not_remember_failed_codec_lookups() {
+    ColumnDefinitions defs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "c1", DataType.text())
+            },
+            new CodecRegistry());
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        defs.codecFor(0, Integer.class);
+        fail("Expected a CodecNotFoundException");
+      } catch (CodecNotFoundException e) {
+        // expected
+      }
+    }
+    assertThat(defs.codecFor(0, String.class)).isSameAs(TypeCodec.varchar());
+  }
+
+  @Test(groups = "unit")
+  public void should_find_columns_among_many() {
+    ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[100];
+    for (int i = 0; i < definitions.length; i++)
+      definitions[i] = new ColumnDefinitions.Definition("ks", "cf", "Column" + i, DataType.cint());
+    ColumnDefinitions defs = new ColumnDefinitions(definitions, CodecRegistry.DEFAULT_INSTANCE);
+
+    for (int i = 0; i < definitions.length; i++) {
+      assertThat(defs.getIndexOf("column" + i)).isEqualTo(i);
+      assertThat(defs.getIndexOf("COLUMN" + i)).isEqualTo(i);
+      assertThat(defs.getIndexOf("\"Column" + i + "\"")).isEqualTo(i);
+      assertThat(defs.getIndexOf("\"column" + i + "\"")).isEqualTo(-1);
+    }
+    assertThat(defs.contains("column100")).isFalse();
+    assertThat(defs.contains("\"\"")).isFalse();
+    assertThat(defs.contains("")).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_read_rows_with_accessor() {
+    ColumnDefinitions defs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "k", DataType.cint()),
+              new ColumnDefinitions.Definition("ks", "cf", "v", DataType.text())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+    ColumnDefinitions.Accessor accessor = defs.accessor("V");
+    assertThat(accessor.getIndex()).isEqualTo(1);
+    assertThat(accessor.getDefinition().getName()).isEqualTo("v");
+
+    ProtocolVersion protocolVersion = ProtocolVersion.NEWEST_SUPPORTED;
+    Row row1 = row(defs, TypeCodec.cint().serialize(1, protocolVersion), null);
+    assertThat(accessor.isNull(row1)).isTrue();
+
+    // rows from another page have their own metadata
+    ColumnDefinitions defs2 =
+        new ColumnDefinitions(
+            defs.asList().toArray(new ColumnDefinitions.Definition[0]),
+            CodecRegistry.DEFAULT_INSTANCE);
+    Row row2 =
+        row(
+            defs2,
+            TypeCodec.cint().serialize(2, protocolVersion),
+            TypeCodec.varchar().serialize("foo", protocolVersion));
+    assertThat(accessor.isNull(row2)).isFalse();
+    assertThat(accessor.get(row2, String.class)).isEqualTo("foo");
+    assertThat(accessor.get(row2, TypeToken.of(String.class))).isEqualTo("foo");
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_not_read_other_rows_with_accessor() {
+    ColumnDefinitions defs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "k", DataType.cint())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+    ColumnDefinitions otherDefs =
+        new ColumnDefinitions(
+            new ColumnDefinitions.Definition[] {
+              new ColumnDefinitions.Definition("ks", "cf", "j", DataType.cint())
+            },
+            CodecRegistry.DEFAULT_INSTANCE);
+
+    defs.accessor("k").isNull(row(otherDefs, (ByteBuffer) null));
+  }
+
+  private static Row row(ColumnDefinitions defs, ByteBuffer... values) {
+    return ArrayBackedRow.fromData(
+        defs, null, ProtocolVersion.NEWEST_SUPPORTED, Arrays.asList(values));
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class EventLoopTimerTest {
+
+  private NioEventLoopGroup eventLoopGroup;
+  private EventLoopTimer timer;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    eventLoopGroup = new NioEventLoopGroup(2);
+    timer = new EventLoopTimer(eventLoopGroup);
+  }
+
+  @AfterMethod(groups = "unit", alwaysRun = true)
+  public void teardown() {
+    eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+  }
+
+  @Test(groups = "unit")
+  public void should_run_task_on_given_event_loop() throws InterruptedException {
+    final EventLoop eventLoop = eventLoopGroup.next();
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicBoolean inEventLoop = new AtomicBoolean();
+    final AtomicReference<Timeout> received = new AtomicReference<Timeout>();
+
+    Timeout timeout =
+        timer.newTimeout(
+            new TimerTask() {
+              @Override
+              public void run(Timeout timeout) {
+                inEventLoop.set(eventLoop.inEventLoop());
+                received.set(timeout);
+                latch.countDown();
+              }
+            },
+            10,
+            TimeUnit.MILLISECONDS,
+            eventLoop);
+
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(inEventLoop.get()).isTrue();
+    assertThat(received.get()).isSameAs(timeout);
+    assertThat(timeout.isExpired()).isTrue();
+    assertThat(timeout.isCancelled()).isFalse();
+    assertThat(timeout.timer()).isSameAs(timer);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_run_cancelled_task() throws InterruptedException {
+    final AtomicBoolean ran = new AtomicBoolean();
+
+    Timeout timeout =
+        timer.newTimeout(
+            new TimerTask() {
+              @Override
+              public void run(Timeout timeout) {
+                ran.set(true);
+              }
+            },
+            50,
+            TimeUnit.MILLISECONDS);
+
+    assertThat(timeout.cancel()).isTrue();
+    assertThat(timeout.isCancelled()).isTrue();
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertThat(ran.get()).isFalse();
+    assertThat(timeout.isExpired()).isFalse();
+    assertThat(timeout.cancel()).isFalse();
+  }
+}
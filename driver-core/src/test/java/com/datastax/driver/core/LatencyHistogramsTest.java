@@ -0,0 +1,124 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.exceptions.DriverException;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramsTest {
+
+  private final Host host1 = mockHost("dc1");
+  private final Host host2 = mockHost("dc2");
+
+  @Test(groups = "unit")
+  public void should_record_latencies_per_host_datacenter_and_statement() {
+    LatencyHistograms histograms = LatencyHistograms.builder().build();
+    Statement statement1 = mockBoundStatement("SELECT a FROM t");
+
+    histograms.update(host1, statement1, null, TimeUnit.MILLISECONDS.toNanos(1));
+    histograms.update(host1, statement1, null, TimeUnit.MILLISECONDS.toNanos(2));
+    histograms.update(host2, new SimpleStatement("SELECT b FROM t"), null, 1000);
+
+    LatencyHistograms.Snapshot snapshot = histograms.snapshot(null);
+    assertThat(snapshot.getClusterHistogram().getTotalCount()).isEqualTo(3);
+    assertThat(snapshot.getHostHistograms()).containsOnlyKeys(host1, host2);
+    assertThat(snapshot.getHostHistograms().get(host1).getTotalCount()).isEqualTo(2);
+    assertThat(snapshot.getHostHistograms().get(host1).getMaxValue()).isBetween(1990L, 2010L);
+    assertThat(snapshot.getDatacenterHistograms()).containsOnlyKeys("dc1", "dc2");
+    // simple statements are not tracked individually
+    assertThat(snapshot.getStatementHistograms()).containsOnlyKeys("SELECT a FROM t");
+    assertThat(snapshot.getStatementHistograms().get("SELECT a FROM t").getTotalCount())
+        .isEqualTo(2);
+    assertThat(snapshot.getOtherStatementsHistogram().getTotalCount()).isZero();
+  }
+
+  @Test(groups = "unit")
+  public void should_only_report_latest_interval_and_forget_idle_entries() {
+    LatencyHistograms histograms = LatencyHistograms.builder().build();
+    histograms.update(host1, mockBoundStatement("SELECT a FROM t"), null, 1000);
+    LatencyHistograms.Snapshot snapshot1 = histograms.snapshot(null);
+
+    histograms.update(host2, null, null, 1000);
+    LatencyHistograms.Snapshot snapshot2 = histograms.snapshot(snapshot1);
+
+    assertThat(snapshot2.getClusterHistogram().getTotalCount()).isEqualTo(1);
+    assertThat(snapshot2.getHostHistograms()).containsOnlyKeys(host2);
+    assertThat(snapshot2.getDatacenterHistograms()).containsOnlyKeys("dc2");
+    assertThat(snapshot2.getStatementHistograms()).isEmpty();
+  }
+
+  @Test(groups = "unit")
+  public void should_limit_tracked_statements() {
+    LatencyHistograms histograms = LatencyHistograms.builder().withMaxStatements(2).build();
+    Statement statement1 = mockBoundStatement("SELECT a FROM t");
+    Statement statement2 = mockBoundStatement("SELECT b FROM t");
+    Statement statement3 = mockBoundStatement("SELECT c FROM t");
+
+    histograms.update(host1, statement1, null, 1000);
+    histograms.update(host1, statement1, null, 1000);
+    histograms.update(host1, statement2, null, 1000);
+    histograms.update(host1, statement3, null, 1000);
+    LatencyHistograms.Snapshot snapshot = histograms.snapshot(null);
+    assertThat(snapshot.getStatementHistograms())
+        .containsOnlyKeys("SELECT a FROM t", "SELECT b FROM t");
+    assertThat(snapshot.getOtherStatementsHistogram().getTotalCount()).isEqualTo(1);
+
+    // the least active statement was evicted to make room
+    histograms.update(host1, statement1, null, 1000);
+    histograms.update(host1, statement3, null, 1000);
+    histograms.update(host1, statement2, null, 1000);
+    snapshot = histograms.snapshot(snapshot);
+    assertThat(snapshot.getStatementHistograms())
+        .containsOnlyKeys("SELECT a FROM t", "SELECT c FROM t");
+    assertThat(snapshot.getOtherStatementsHistogram().getTotalCount()).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_ignore_fast_errors() {
+    LatencyHistograms histograms = LatencyHistograms.builder().build();
+    histograms.update(host1, null, CancelledSpeculativeExecutionException.INSTANCE, 1000);
+    histograms.update(host1, null, new DriverException("test"), 1000);
+    assertThat(histograms.snapshot(null).getClusterHistogram().getTotalCount()).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_cap_latencies_to_highest_trackable_value() {
+    LatencyHistograms histograms =
+        LatencyHistograms.builder().withHighestTrackableLatency(1, TimeUnit.SECONDS).build();
+    histograms.update(host1, null, null, TimeUnit.SECONDS.toNanos(10));
+    assertThat(histograms.snapshot(null).getClusterHistogram().getMaxValue())
+        .isBetween(990000L, 1010000L);
+  }
+
+  private static Host mockHost(String datacenter) {
+    Host host = mock(Host.class);
+    when(host.getDatacenter()).thenReturn(datacenter);
+    return host;
+  }
+
+  private static Statement mockBoundStatement(String query) {
+    PreparedStatement prepared = mock(PreparedStatement.class);
+    when(prepared.getQueryString()).thenReturn(query);
+    BoundStatement statement = mock(BoundStatement.class);
+    when(statement.preparedStatement()).thenReturn(prepared);
+    return statement;
+  }
+}
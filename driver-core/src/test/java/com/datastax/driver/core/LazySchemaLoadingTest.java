@@ -0,0 +1,125 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.datastax.driver.core.TestUtils.CREATE_KEYSPACE_SIMPLE_FORMAT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.Futures;
+import org.testng.annotations.Test;
+
+@CCMConfig(createKeyspace = false)
+public class LazySchemaLoadingTest extends CCMTestsSupport {
+
+  private static final String KEYSPACE1 = "lazy_ks1";
+  private static final String KEYSPACE2 = "lazy_ks2";
+
+  @Override
+  public Cluster.Builder createClusterBuilder() {
+    return Cluster.builder()
+        .withQueryOptions(
+            TestUtils.nonDebouncingQueryOptions()
+                .setLazySchemaLoading(true)
+                .setMaxLazilyLoadedKeyspaces(1));
+  }
+
+  @Override
+  public void onTestContextInitialized() {
+    execute(
+        String.format(CREATE_KEYSPACE_SIMPLE_FORMAT, KEYSPACE1, 1),
+        String.format(CREATE_KEYSPACE_SIMPLE_FORMAT, KEYSPACE2, 1),
+        String.format("CREATE TABLE %s.foo (k int PRIMARY KEY, v int)", KEYSPACE1),
+        String.format("CREATE TABLE %s.bar (k int PRIMARY KEY, v int)", KEYSPACE2));
+  }
+
+  @Test(groups = "short")
+  public void should_load_keyspace_contents_on_first_access() {
+    KeyspaceMetadata keyspace = cluster().getMetadata().getKeyspace(KEYSPACE1);
+    assertThat(keyspace).isNotNull();
+    assertThat(keyspace.getReplication()).isNotEmpty();
+
+    TableMetadata table = keyspace.getTable("foo");
+
+    assertThat(table).isNotNull();
+    assertThat(table.getKeyspace()).isSameAs(keyspace);
+    assertThat(keyspace.isLoaded()).isTrue();
+  }
+
+  @Test(groups = "short")
+  public void should_unload_least_recently_accessed_keyspace() {
+    KeyspaceMetadata keyspace1 = cluster().getMetadata().getKeyspace(KEYSPACE1);
+    KeyspaceMetadata keyspace2 = cluster().getMetadata().getKeyspace(KEYSPACE2);
+
+    assertThat(keyspace1.getTable("foo")).isNotNull();
+    assertThat(keyspace2.getTable("bar")).isNotNull();
+
+    // only one keyspace can be loaded at a time
+    assertThat(keyspace1.isLoaded()).isFalse();
+    assertThat(keyspace2.isLoaded()).isTrue();
+
+    // accessing it again loads it again
+    assertThat(keyspace1.getTable("foo")).isNotNull();
+    assertThat(keyspace1.isLoaded()).isTrue();
+    assertThat(keyspace2.isLoaded()).isFalse();
+  }
+
+  @Test(groups = "short")
+  public void should_refresh_loaded_keyspace_on_schema_change() {
+    KeyspaceMetadata keyspace = cluster().getMetadata().getKeyspace(KEYSPACE1);
+    assertThat(keyspace.getTable("foo")).isNotNull();
+
+    session().execute(String.format("CREATE TABLE %s.baz (k int PRIMARY KEY)", KEYSPACE1));
+
+    assertThat(keyspace.isLoaded()).isTrue();
+    assertThat(keyspace.getTable("baz")).isNotNull();
+  }
+
+  @Test(groups = "short")
+  public void should_keep_keyspace_instance_on_full_schema_refresh() {
+    KeyspaceMetadata keyspace = cluster().getMetadata().getKeyspace(KEYSPACE1);
+    assertThat(keyspace.getTable("foo")).isNotNull();
+
+    Futures.getUnchecked(cluster().manager.submitSchemaRefresh(null, null, null, null));
+
+    // the options of the keyspace didn't change, so the instance was not replaced; its contents
+    // are fetched again on next access
+    assertThat(cluster().getMetadata().getKeyspace(KEYSPACE1)).isSameAs(keyspace);
+    assertThat(keyspace.isLoaded()).isFalse();
+    assertThat(keyspace.getTable("foo")).isNotNull();
+    assertThat(keyspace.isLoaded()).isTrue();
+  }
+
+  @Test(groups = "short")
+  public void should_not_keep_stale_contents_after_full_schema_refresh() {
+    session().execute(String.format("CREATE TABLE %s.missed (k int PRIMARY KEY)", KEYSPACE1));
+    KeyspaceMetadata keyspace = cluster().getMetadata().getKeyspace(KEYSPACE1);
+    assertThat(keyspace.getTable("missed")).isNotNull();
+
+    // schema events are ignored while metadata is disabled
+    QueryOptions queryOptions = cluster().getConfiguration().getQueryOptions();
+    queryOptions.setMetadataEnabled(false);
+    try {
+      session().execute(String.format("DROP TABLE %s.missed", KEYSPACE1));
+      assertThat(keyspace.getTable("missed")).isNotNull();
+    } finally {
+      queryOptions.setMetadataEnabled(true);
+    }
+
+    Futures.getUnchecked(cluster().manager.submitSchemaRefresh(null, null, null, null));
+
+    assertThat(cluster().getMetadata().getKeyspace(KEYSPACE1).getTable("missed")).isNull();
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+public class PagingPublisherTest {
+
+  @Test(groups = "unit")
+  public void should_not_execute_query_until_elements_are_requested() {
+    CountingQuery query = new CountingQuery(new FakePages(Arrays.asList(1, 2)));
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    PagingPublisher.from(query).subscribe(subscriber);
+    assertThat(query.count).isEqualTo(0);
+
+    subscriber.subscription.request(1);
+    assertThat(query.count).isEqualTo(1);
+    assertThat(subscriber.elements).containsExactly(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_fetch_next_page_only_when_demand_exceeds_available_rows() {
+    FakePages pages = new FakePages(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5));
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    PagingPublisher.from(new CountingQuery(pages)).subscribe(subscriber);
+
+    subscriber.subscription.request(2);
+    assertThat(subscriber.elements).containsExactly(1, 2);
+    assertThat(pages.fetches).isEqualTo(0);
+
+    subscriber.subscription.request(1);
+    assertThat(pages.fetches).isEqualTo(1);
+    assertThat(subscriber.elements).containsExactly(1, 2);
+
+    pages.completeFetch();
+    assertThat(subscriber.elements).containsExactly(1, 2, 3);
+    // one row left in the page, no need to fetch more
+    subscriber.subscription.request(1);
+    assertThat(subscriber.elements).containsExactly(1, 2, 3, 4);
+    assertThat(pages.fetches).isEqualTo(1);
+    assertThat(subscriber.completed).isFalse();
+
+    subscriber.subscription.request(10);
+    pages.completeFetch();
+    assertThat(subscriber.elements).containsExactly(1, 2, 3, 4, 5);
+    assertThat(subscriber.completed).isTrue();
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_complete_empty_result() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    PagingPublisher.from(new CountingQuery(new FakePages(new ArrayList<Integer>())))
+        .subscribe(subscriber);
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertThat(subscriber.elements).isEmpty();
+    assertThat(subscriber.completed).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_report_query_failure() {
+    final RuntimeException failure = new RuntimeException("mock failure");
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    PagingPublisher.from(
+            new Supplier<ListenableFuture<FakePages>>() {
+              @Override
+              public ListenableFuture<FakePages> get() {
+                return Futures.immediateFailedFuture(failure);
+              }
+            })
+        .subscribe(subscriber);
+
+    subscriber.subscription.request(1);
+    assertThat(subscriber.error).isSameAs(failure);
+    assertThat(subscriber.completed).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_cancel_pending_fetch_and_stop_emitting() {
+    FakePages pages = new FakePages(Arrays.asList(1), Arrays.asList(2));
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    PagingPublisher.from(new CountingQuery(pages)).subscribe(subscriber);
+
+    subscriber.subscription.request(5);
+    assertThat(pages.fetches).isEqualTo(1);
+    subscriber.subscription.cancel();
+
+    assertThat(pages.pending.isCancelled()).isTrue();
+    assertThat(subscriber.elements).containsExactly(1);
+    assertThat(subscriber.completed).isFalse();
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_signal_error_on_non_positive_request() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    PagingPublisher.from(new CountingQuery(new FakePages(Arrays.asList(1)))).subscribe(subscriber);
+
+    subscriber.subscription.request(0);
+    assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    assertThat(subscriber.elements).isEmpty();
+  }
+
+  private static class CountingQuery implements Supplier<ListenableFuture<FakePages>> {
+    private final FakePages pages;
+    private int count;
+
+    CountingQuery(FakePages pages) {
+      this.pages = pages;
+    }
+
+    @Override
+    public ListenableFuture<FakePages> get() {
+      count += 1;
+      return Futures.immediateFuture(pages);
+    }
+  }
+
+  /** A paged result where the test controls when the next page arrives. */
+  private static class FakePages implements PagingIterable<FakePages, Integer> {
+    private final Queue<List<Integer>> remainingPages = new LinkedList<List<Integer>>();
+    private final Queue<Integer> available = new LinkedList<Integer>();
+    private SettableFuture<FakePages> pending;
+    private int fetches;
+
+    FakePages(List<Integer>... pages) {
+      remainingPages.addAll(Arrays.asList(pages));
+      available.addAll(remainingPages.poll());
+    }
+
+    void completeFetch() {
+      SettableFuture<FakePages> future = pending;
+      pending = null;
+      available.addAll(remainingPages.poll());
+      future.set(this);
+    }
+
+    @Override
+    public boolean isExhausted() {
+      return available.isEmpty() && isFullyFetched();
+    }
+
+    @Override
+    public boolean isFullyFetched() {
+      return remainingPages.isEmpty();
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+      return available.size();
+    }
+
+    @Override
+    public ListenableFuture<FakePages> fetchMoreResults() {
+      if (pending == null) {
+        fetches += 1;
+        pending = SettableFuture.create();
+      }
+      return pending;
+    }
+
+    @Override
+    public Integer one() {
+      assertThat(available).as("one() would block").isNotEmpty();
+      return available.poll();
+    }
+
+    @Override
+    public List<Integer> all() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+      return null;
+    }
+
+    @Override
+    public List<ExecutionInfo> getAllExecutionInfo() {
+      return null;
+    }
+  }
+
+  private static class RecordingSubscriber implements Subscriber<Integer> {
+    private final List<Integer> elements = new ArrayList<Integer>();
+    private Subscription subscription;
+    private Throwable error;
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Integer element) {
+      elements.add(element);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      this.error = error;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class PhaseHistogramsTest {
+
+  @Test(groups = "unit")
+  public void should_record_durations_per_phase() {
+    PhaseHistograms histograms = PhaseHistograms.builder().build();
+    Statement statement = new SimpleStatement("SELECT a FROM t");
+
+    histograms.onPhase(null, statement, RequestTracer.Phase.WRITE, 1000, 1500);
+    histograms.onPhase(null, statement, RequestTracer.Phase.WRITE, 1000, 3000);
+    histograms.onPhase(
+        null, statement, RequestTracer.Phase.SERVER, 0, TimeUnit.MILLISECONDS.toNanos(5));
+
+    PhaseHistograms.Snapshot snapshot = histograms.snapshot(null);
+    assertThat(snapshot.getHistograms()).hasSize(RequestTracer.Phase.values().length);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.WRITE).getTotalCount()).isEqualTo(2);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.WRITE).getMaxValue())
+        .isBetween(1990L, 2010L);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.SERVER).getMaxValue())
+        .isBetween(5000000L, 5050000L);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.BORROW).getTotalCount()).isZero();
+  }
+
+  @Test(groups = "unit")
+  public void should_only_report_latest_interval() {
+    PhaseHistograms histograms = PhaseHistograms.builder().build();
+    histograms.onPhase(null, null, RequestTracer.Phase.DECODE, 0, 100);
+    PhaseHistograms.Snapshot snapshot1 = histograms.snapshot(null);
+    assertThat(snapshot1.getHistogram(RequestTracer.Phase.DECODE).getTotalCount()).isEqualTo(1);
+
+    histograms.onPhase(null, null, RequestTracer.Phase.COMPLETION, 0, 100);
+    PhaseHistograms.Snapshot snapshot2 = histograms.snapshot(snapshot1);
+    assertThat(snapshot2.getHistogram(RequestTracer.Phase.DECODE).getTotalCount()).isZero();
+    assertThat(snapshot2.getHistogram(RequestTracer.Phase.COMPLETION).getTotalCount()).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_clamp_out_of_range_durations() {
+    PhaseHistograms histograms =
+        PhaseHistograms.builder().withHighestTrackableDuration(1, TimeUnit.MILLISECONDS).build();
+    histograms.onPhase(null, null, RequestTracer.Phase.SERVER, 0, TimeUnit.SECONDS.toNanos(1));
+    histograms.onPhase(null, null, RequestTracer.Phase.SERVER, 100, 50);
+
+    PhaseHistograms.Snapshot snapshot = histograms.snapshot(null);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.SERVER).getTotalCount()).isEqualTo(2);
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.SERVER).getMinValue()).isZero();
+    assertThat(snapshot.getHistogram(RequestTracer.Phase.SERVER).getMaxValue())
+        .isBetween(990000L, 1010000L);
+  }
+}
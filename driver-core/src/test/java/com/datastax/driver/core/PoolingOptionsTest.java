@@ -153,4 +153,31 @@ public class PoolingOptionsTest {
       /*expected*/
     }
   }
+
+  @Test(groups = "unit")
+  public void should_reject_invalid_warmup_options() {
+    PoolingOptions options = new PoolingOptions();
+
+    try {
+      options.setWarmupReadyFraction(0);
+      fail("expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      /*expected*/
+    }
+    try {
+      options.setWarmupReadyFraction(1.5);
+      fail("expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      /*expected*/
+    }
+    try {
+      options.setWarmupConcurrency(0);
+      fail("expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      /*expected*/
+    }
+    assertThat(options.getWarmupReadyFraction())
+        .isEqualTo(PoolingOptions.DEFAULT_WARMUP_READY_FRACTION);
+    assertThat(options.getWarmupConcurrency()).isEqualTo(PoolingOptions.DEFAULT_WARMUP_CONCURRENCY);
+  }
 }
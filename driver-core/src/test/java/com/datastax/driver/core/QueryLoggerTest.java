@@ -28,11 +28,13 @@ import static com.datastax.driver.core.TestUtils.ipOfNode;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.set;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.log4j.Level.DEBUG;
 import static org.apache.log4j.Level.INFO;
 import static org.apache.log4j.Level.TRACE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.datastax.driver.core.StatementWrapperTest.CustomStatement;
 import com.datastax.driver.core.exceptions.DriverException;
@@ -384,6 +386,115 @@ public class QueryLoggerTest extends CCMTestsSupport {
     assertThat(errorAppender.get()).isEmpty();
   }
 
+  // Tests for overhead limiting options
+
+  @Test(groups = "unit")
+  public void should_log_asynchronously() throws Exception {
+    // given
+    normal.setLevel(DEBUG);
+    queryLogger = QueryLogger.builder().withAsynchronousLogging(10).build();
+    Cluster cluster = mock(Cluster.class);
+    queryLogger.onRegister(cluster);
+    try {
+      // when
+      queryLogger.update(null, new SimpleStatement("SELECT foo FROM bar"), null, 0);
+      // then
+      String line = normalAppender.waitAndGet(5000);
+      assertThat(line).contains("Query completed normally").contains("SELECT foo FROM bar");
+      assertThat(queryLogger.getDroppedLogs()).isZero();
+    } finally {
+      queryLogger.onUnregister(cluster);
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_not_log_unsampled_queries() throws Exception {
+    // given
+    normal.setLevel(DEBUG);
+    queryLogger = QueryLogger.builder().withSamplingRate(Double.MIN_VALUE).build();
+    queryLogger.onRegister(mock(Cluster.class));
+    // when
+    for (int i = 0; i < 100; i++) {
+      queryLogger.update(null, new SimpleStatement("SELECT foo FROM bar"), null, 0);
+    }
+    // then
+    assertThat(normalAppender.get()).isEmpty();
+  }
+
+  @Test(groups = "unit")
+  public void should_limit_logs_per_statement() throws Exception {
+    // given
+    normal.setLevel(DEBUG);
+    queryLogger = QueryLogger.builder().withMaxLogsPerStatementPerSecond(2).build();
+    queryLogger.onRegister(mock(Cluster.class));
+    // when
+    for (int i = 0; i < 5; i++) {
+      queryLogger.update(null, new SimpleStatement("SELECT foo FROM bar"), null, 0);
+    }
+    queryLogger.update(null, new SimpleStatement("SELECT bar FROM foo"), null, 0);
+    // then
+    String logs = normalAppender.get();
+    assertThat(logs.split("SELECT foo FROM bar", -1)).hasSize(3);
+    assertThat(logs).contains("SELECT bar FROM foo");
+  }
+
+  @Test(groups = "unit")
+  public void should_not_count_unlogged_queries_against_rate_limit() throws Exception {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger =
+        QueryLogger.builder().withConstantThreshold(10).withMaxLogsPerStatementPerSecond(1).build();
+    queryLogger.onRegister(mock(Cluster.class));
+    SimpleStatement statement = new SimpleStatement("SELECT foo FROM bar");
+    // when
+    for (int i = 0; i < 1000; i++) {
+      queryLogger.update(null, statement, null, MILLISECONDS.toNanos(1));
+    }
+    queryLogger.update(null, statement, null, MILLISECONDS.toNanos(20));
+    // then
+    assertThat(slowAppender.get()).contains("Query too slow, took 20 ms");
+  }
+
+  @Test(groups = "unit")
+  public void should_copy_values_when_logging_asynchronously() throws Exception {
+    // given
+    normal.setLevel(TRACE);
+    queryLogger = QueryLogger.builder().withAsynchronousLogging(10).build();
+    Cluster cluster = mock(Cluster.class);
+    when(cluster.getConfiguration()).thenReturn(Configuration.builder().build());
+    // don't start the drainer yet, so that the record stays in the buffer
+    queryLogger.cluster = cluster;
+    Object[] values = new Object[] {42};
+    // when
+    queryLogger.update(
+        null, new SimpleStatement("SELECT foo FROM bar WHERE k = ?", values), null, 0);
+    values[0] = 43;
+    queryLogger.onRegister(cluster);
+    try {
+      // then
+      String line = normalAppender.waitAndGet(5000);
+      assertThat(line).contains("SELECT foo FROM bar WHERE k = ?").contains("[42]");
+    } finally {
+      queryLogger.onUnregister(cluster);
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_log_structured_output() throws Exception {
+    // given
+    slow.setLevel(DEBUG);
+    queryLogger =
+        QueryLogger.builder().withConstantThreshold(10).withStructuredOutput(true).build();
+    queryLogger.onRegister(mock(Cluster.class));
+    // when
+    queryLogger.update(
+        null, new SimpleStatement("SELECT \"foo\" FROM bar WHERE k = ?", 1), null, 20000000);
+    // then
+    assertThat(slowAppender.get())
+        .contains("status=slow latencyMs=20 boundValues=1")
+        .contains("query=\"SELECT \\\"foo\\\" FROM bar WHERE k = ?;\"");
+  }
+
   // Tests for different query types (normal, slow, exception)
 
   @Test(groups = "short")
@@ -0,0 +1,64 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.scassandra.http.client.PrimingRequest.queryBuilder;
+import static org.scassandra.http.client.PrimingRequest.then;
+
+import com.datastax.driver.core.exceptions.RequestTimeoutException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RequestTimeoutTest extends ScassandraTestBase.PerClassCluster {
+
+  String query = "SELECT foo FROM bar";
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    primingClient.prime(
+        queryBuilder().withQuery(query).withThen(then().withFixedDelay(1000L)).build());
+    cluster.getConfiguration().getSocketOptions().setReadTimeoutMillis(10000);
+  }
+
+  @Test(groups = "short")
+  public void should_fail_when_deadline_elapses_before_response() {
+    Statement statement = new SimpleStatement(query).setRequestTimeoutMillis(100);
+    long timeoutsBefore = cluster.getMetrics().getErrorMetrics().getRequestTimeouts().getCount();
+    long start = System.nanoTime();
+    try {
+      session.execute(statement);
+      fail("Expected a RequestTimeoutException");
+    } catch (RequestTimeoutException e) {
+      assertThat(e.getTimeoutMillis()).isEqualTo(100);
+      assertThat(System.nanoTime() - start).isLessThan(900 * 1000 * 1000L);
+    }
+    assertThat(cluster.getMetrics().getErrorMetrics().getRequestTimeouts().getCount())
+        .isEqualTo(timeoutsBefore + 1);
+  }
+
+  @Test(groups = "short")
+  public void should_complete_if_response_arrives_before_deadline() {
+    Statement statement = new SimpleStatement(query).setRequestTimeoutMillis(10000);
+    session.execute(statement);
+  }
+
+  @Test(groups = "short")
+  public void should_not_have_deadline_by_default() {
+    session.execute(query);
+  }
+}
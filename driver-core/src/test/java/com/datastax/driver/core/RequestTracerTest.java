@@ -0,0 +1,134 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.scassandra.http.client.PrimingRequest.queryBuilder;
+import static org.scassandra.http.client.PrimingRequest.then;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RequestTracerTest extends ScassandraTestBase.PerClassCluster {
+
+  private static final String QUERY = "SELECT foo FROM bar";
+
+  private final RecordingTracer tracer = new RecordingTracer();
+
+  @Override
+  protected Cluster.Builder createClusterBuilder() {
+    return super.createClusterBuilder().withRequestTracer(tracer);
+  }
+
+  @BeforeMethod(groups = "short")
+  public void setup() {
+    primingClient.prime(
+        queryBuilder().withQuery(QUERY).withThen(then().withFixedDelay(50L)).build());
+    tracer.events.clear();
+    tracer.fail = false;
+  }
+
+  @Test(groups = "short")
+  public void should_report_all_phases() {
+    Statement statement = new SimpleStatement(QUERY);
+    session.execute(statement);
+
+    // COMPLETION is reported after the future has been completed
+    ConditionChecker.check()
+        .that(
+            new Callable<Boolean>() {
+              @Override
+              public Boolean call() {
+                return tracer.events.size() == RequestTracer.Phase.values().length;
+              }
+            })
+        .becomesTrue();
+
+    // phases are reported after the driver moved on, not necessarily in order
+    List<Event> events = new ArrayList<Event>(tracer.events);
+    Collections.sort(
+        events,
+        new Comparator<Event>() {
+          @Override
+          public int compare(Event e1, Event e2) {
+            return e1.phase.compareTo(e2.phase);
+          }
+        });
+    List<RequestTracer.Phase> phases = new ArrayList<RequestTracer.Phase>();
+    long previousEnd = events.get(0).startNanos;
+    for (Event event : events) {
+      phases.add(event.phase);
+      assertThat(event.host).isEqualTo(host);
+      assertThat(event.statement).isSameAs(statement);
+      assertThat(event.endNanos).isGreaterThanOrEqualTo(event.startNanos);
+      // each phase starts where the previous one ended
+      assertThat(event.startNanos).isGreaterThanOrEqualTo(previousEnd);
+      previousEnd = event.endNanos;
+    }
+    assertThat(phases).containsExactly(RequestTracer.Phase.values());
+
+    Event server = events.get(RequestTracer.Phase.SERVER.ordinal());
+    assertThat(server.endNanos - server.startNanos).isGreaterThanOrEqualTo(50 * 1000 * 1000L);
+  }
+
+  @Test(groups = "short")
+  public void should_complete_requests_when_tracer_fails() {
+    tracer.fail = true;
+
+    // every phase throws, the requests still complete and the connection stays usable
+    for (int i = 0; i < 3; i++) session.execute(QUERY);
+
+    assertThat(tracer.events).isNotEmpty();
+    Session.State state = session.getState();
+    assertThat(state.getOpenConnections(host)).isGreaterThan(0);
+    assertThat(state.getInFlightQueries(host)).isEqualTo(0);
+  }
+
+  private static class Event {
+    final Host host;
+    final Statement statement;
+    final RequestTracer.Phase phase;
+    final long startNanos;
+    final long endNanos;
+
+    Event(
+        Host host, Statement statement, RequestTracer.Phase phase, long startNanos, long endNanos) {
+      this.host = host;
+      this.statement = statement;
+      this.phase = phase;
+      this.startNanos = startNanos;
+      this.endNanos = endNanos;
+    }
+  }
+
+  private static class RecordingTracer implements RequestTracer {
+    final List<Event> events = new CopyOnWriteArrayList<Event>();
+    volatile boolean fail;
+
+    @Override
+    public void onPhase(
+        Host host, Statement statement, Phase phase, long startNanos, long endNanos) {
+      events.add(new Event(host, statement, phase, startNanos, endNanos));
+      if (fail) throw new RuntimeException("mock tracer error");
+    }
+  }
+}
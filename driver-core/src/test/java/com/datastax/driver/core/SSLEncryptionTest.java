@@ -21,6 +21,8 @@ import static com.datastax.driver.core.CCMBridge.DEFAULT_CLIENT_TRUSTSTORE_PASSW
 import static com.datastax.driver.core.CreateCCM.TestMode.PER_METHOD;
 
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.testng.annotations.Test;
 
@@ -41,6 +43,32 @@ public class SSLEncryptionTest extends SSLTestBase {
     connectWithSSLOptions(getSSLOptions(sslImplementation, false, true));
   }
 
+  /**
+   * Validates that an SSL connection can be established when handshakes are performed on a
+   * dedicated executor, and that handshakes are reported in the metrics.
+   *
+   * @test_category connection:ssl
+   * @expected_result Connection can be established to a cassandra node using SSL.
+   */
+  @Test(groups = "short", dataProvider = "sslImplementation", dataProviderClass = SSLTestBase.class)
+  public void should_connect_with_ssl_using_handshake_executor(SslImplementation sslImplementation)
+      throws Exception {
+    ExecutorService handshakeExecutor = Executors.newFixedThreadPool(2);
+    try {
+      Cluster cluster =
+          register(
+              Cluster.builder()
+                  .addContactPoints(getContactPoints())
+                  .withPort(ccm().getBinaryPort())
+                  .withSSL(getSSLOptions(sslImplementation, false, true, handshakeExecutor))
+                  .build());
+      cluster.connect();
+      assertThat(cluster.getMetrics().getSslHandshakesTimer().getCount()).isGreaterThan(0);
+    } finally {
+      handshakeExecutor.shutdown();
+    }
+  }
+
   /**
    * Validates that an SSL connection can not be established if the client does not trust the
    * cassandra node's certificate.
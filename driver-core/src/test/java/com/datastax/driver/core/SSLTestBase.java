@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.fail;
 import io.netty.handler.ssl.SslContextBuilder;
 import java.security.KeyStore;
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
@@ -94,6 +95,24 @@ public abstract class SSLTestBase extends CCMTestsSupport {
   public SSLOptions getSSLOptions(
       SslImplementation sslImplementation, boolean clientAuth, boolean trustingServer)
       throws Exception {
+    return getSSLOptions(sslImplementation, clientAuth, trustingServer, null);
+  }
+
+  /**
+   * @param sslImplementation the SSL implementation to use
+   * @param clientAuth whether the client should authenticate
+   * @param trustingServer whether the client should trust the server's certificate
+   * @param handshakeExecutor the executor to perform SSL handshakes on, or {@code null} to use the
+   *     I/O threads.
+   * @return {@link com.datastax.driver.core.SSLOptions} with the given configuration for server
+   *     certificate validation and client certificate authentication.
+   */
+  public SSLOptions getSSLOptions(
+      SslImplementation sslImplementation,
+      boolean clientAuth,
+      boolean trustingServer,
+      Executor handshakeExecutor)
+      throws Exception {
 
     TrustManagerFactory tmf = null;
     if (trustingServer) {
@@ -125,7 +144,10 @@ public abstract class SSLTestBase extends CCMTestsSupport {
             tmf != null ? tmf.getTrustManagers() : null,
             new SecureRandom());
 
-        return RemoteEndpointAwareJdkSSLOptions.builder().withSSLContext(sslContext).build();
+        return RemoteEndpointAwareJdkSSLOptions.builder()
+            .withSSLContext(sslContext)
+            .withHandshakeExecutor(handshakeExecutor)
+            .build();
 
       case NETTY_OPENSSL:
         SslContextBuilder builder =
@@ -136,7 +158,7 @@ public abstract class SSLTestBase extends CCMTestsSupport {
               CCMBridge.DEFAULT_CLIENT_CERT_CHAIN_FILE, CCMBridge.DEFAULT_CLIENT_PRIVATE_KEY_FILE);
         }
 
-        return new RemoteEndpointAwareNettySSLOptions(builder.build());
+        return new RemoteEndpointAwareNettySSLOptions(builder.build(), handshakeExecutor);
       default:
         fail("Unsupported SSL implementation: " + sslImplementation);
         return null;
@@ -0,0 +1,217 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SchemaAgreementTrackerTest {
+
+  private ScheduledExecutorService executor;
+
+  private MockTracker tracker;
+
+  private Connection connection;
+
+  @BeforeMethod(groups = "unit")
+  public void setup() {
+    executor = Executors.newScheduledThreadPool(1);
+    tracker = new MockTracker(executor, 10);
+    connection = mock(Connection.class);
+  }
+
+  @AfterMethod(groups = "unit")
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test(groups = "unit")
+  public void should_share_check_between_waiters_registered_before_it_starts() throws Exception {
+    // block the executor so that both waiters register before the first check runs
+    final CountDownLatch blocker = new CountDownLatch(1);
+    executor.submit(
+        new Runnable() {
+          @Override
+          public void run() {
+            Uninterruptibles.awaitUninterruptibly(blocker);
+          }
+        });
+    ListenableFuture<Boolean> future1 = tracker.waitForAgreement(connection);
+    ListenableFuture<Boolean> future2 = tracker.waitForAgreement(connection);
+    blocker.countDown();
+
+    tracker.nextCheck().set(true);
+
+    assertThat(future1.get(1, SECONDS)).isTrue();
+    assertThat(future2.get(1, SECONDS)).isTrue();
+    assertThat(tracker.checks.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    assertThat(tracker.completed).isEqualTo(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_serve_waiters_registered_during_check_with_next_check() throws Exception {
+    ListenableFuture<Boolean> future1 = tracker.waitForAgreement(connection);
+    SettableFuture<Boolean> check1 = tracker.nextCheck();
+    ListenableFuture<Boolean> future2 = tracker.waitForAgreement(connection);
+
+    check1.set(true);
+    assertThat(future1.get(1, SECONDS)).isTrue();
+    assertThat(future2.isDone()).isFalse();
+
+    tracker.nextCheck().set(true);
+    assertThat(future2.get(1, SECONDS)).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_retry_until_agreement() throws Exception {
+    ListenableFuture<Boolean> future = tracker.waitForAgreement(connection);
+
+    tracker.nextCheck().set(false);
+    assertThat(future.isDone()).isFalse();
+    tracker.nextCheck().set(false);
+    assertThat(future.isDone()).isFalse();
+    tracker.nextCheck().set(true);
+
+    assertThat(future.get(1, SECONDS)).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_check_immediately_on_event() throws Exception {
+    ListenableFuture<Boolean> future = tracker.waitForAgreement(connection);
+    // grow the backoff delay
+    for (int i = 0; i < 7; i++) tracker.nextCheck().set(false);
+
+    // the last check was rescheduled with a delay of about a second
+    long start = System.nanoTime();
+    tracker.onEvent();
+    tracker.nextCheck().set(true);
+
+    assertThat(future.get(1, SECONDS)).isTrue();
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+  }
+
+  @Test(groups = "unit")
+  public void should_give_up_after_max_wait() throws Exception {
+    tracker = new MockTracker(executor, 1);
+    ListenableFuture<Boolean> future = tracker.waitForAgreement(connection);
+
+    while (!future.isDone()) {
+      SettableFuture<Boolean> check = tracker.checks.poll(100, TimeUnit.MILLISECONDS);
+      if (check != null) check.set(false);
+    }
+
+    assertThat(future.get()).isFalse();
+    assertThat(tracker.completed).isEqualTo(1);
+  }
+
+  @Test(groups = "unit")
+  public void should_fail_waiters_if_check_fails() throws Exception {
+    ListenableFuture<Boolean> future = tracker.waitForAgreement(connection);
+
+    tracker.nextCheck().setException(new RuntimeException("mock"));
+
+    try {
+      future.get(1, SECONDS);
+      fail("Expected an ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).hasMessage("mock");
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_only_fail_waiters_of_failed_connection() throws Exception {
+    Connection otherConnection = mock(Connection.class);
+    // block the executor so that both waiters are served by the same check
+    final CountDownLatch blocker = new CountDownLatch(1);
+    executor.submit(
+        new Runnable() {
+          @Override
+          public void run() {
+            Uninterruptibles.awaitUninterruptibly(blocker);
+          }
+        });
+    ListenableFuture<Boolean> future1 = tracker.waitForAgreement(connection);
+    ListenableFuture<Boolean> future2 = tracker.waitForAgreement(otherConnection);
+    blocker.countDown();
+
+    // the check uses the connection of the most recent waiter
+    tracker.nextCheck().setException(new RuntimeException("mock"));
+
+    try {
+      future2.get(1, SECONDS);
+      fail("Expected an ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).hasMessage("mock");
+    }
+    assertThat(future1.isDone()).isFalse();
+
+    tracker.nextCheck().set(true);
+    assertThat(future1.get(1, SECONDS)).isTrue();
+  }
+
+  private static class MockTracker extends SchemaAgreementTracker {
+
+    final BlockingQueue<SettableFuture<Boolean>> checks =
+        new LinkedBlockingQueue<SettableFuture<Boolean>>();
+    final long maxWaitSeconds;
+    volatile int completed;
+
+    MockTracker(ScheduledExecutorService executor, long maxWaitSeconds) {
+      super(executor);
+      this.maxWaitSeconds = maxWaitSeconds;
+    }
+
+    @Override
+    ListenableFuture<Boolean> checkAgreement(Connection connection) {
+      SettableFuture<Boolean> check = SettableFuture.create();
+      checks.add(check);
+      return check;
+    }
+
+    @Override
+    long maxWaitNanos() {
+      return SECONDS.toNanos(maxWaitSeconds);
+    }
+
+    @Override
+    void onCompleted(long elapsedNanos, boolean agreement) {
+      completed += 1;
+    }
+
+    SettableFuture<Boolean> nextCheck() throws InterruptedException, TimeoutException {
+      SettableFuture<Boolean> check = checks.poll(5, SECONDS);
+      if (check == null) throw new TimeoutException("No check was performed");
+      return check;
+    }
+  }
+}
@@ -155,14 +155,14 @@ public class SchemaRefreshDebouncerTest extends CCMTestsSupport {
    * Ensures that when multiple CREATED schema_change events are received on a control connection
    * for tables belonging to the same keyspace within {@link
    * QueryOptions#getRefreshSchemaIntervalMillis()} that the schema refresh is debounced and
-   * coalesced into a single schema refresh for that keyspace only.
+   * coalesced into targeted refreshes of each table, without reloading the whole keyspace.
    *
    * @throws Exception
    * @jira_ticket JAVA-657
    * @since 2.0.11
    */
   @Test(groups = "short")
-  public void should_debounce_and_coalesce_tables_in_same_keyspace_into_refresh_keyspace()
+  public void should_debounce_and_coalesce_tables_in_same_keyspace_into_refresh_tables()
       throws Exception {
     String keyspace = TestUtils.generateIdentifier("ks_");
     session2.execute(String.format(CREATE_KEYSPACE_SIMPLE_FORMAT, keyspace, 1));
@@ -181,17 +181,17 @@ public class SchemaRefreshDebouncerTest extends CCMTestsSupport {
 
     verify(listener, timeout(DEBOUNCE_TIME * 3).times(3)).onTableAdded(any(TableMetadata.class));
 
-    // Verify a refresh of the keyspace was executed, but not individually on the
-    // tables since those events were coalesced.
-    verify(controlConnection).refreshSchema(KEYSPACE, keyspace, null, null);
+    // Verify that the tables were refreshed individually, and that the keyspace was never
+    // reloaded.
+    verify(controlConnection, never()).refreshSchema(KEYSPACE, keyspace, null, null);
 
     KeyspaceMetadata ksm = cluster2.getMetadata().getKeyspace(keyspace);
     assertThat(ksm).isNotNull();
     // metadata is present for each table.
     for (int i = 0; i < tableCount; i++) {
       String table = "tbl" + i;
-      // Should have never been a refreshSchema on the table.
-      verify(controlConnection, never()).refreshSchema(TABLE, keyspace, table, null);
+      verify(controlConnection, times(1))
+          .refreshSchema(TABLE, keyspace, table, Collections.<String>emptyList());
       assertThat(ksm.getTable(table)).isNotNull();
     }
   }
@@ -0,0 +1,100 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static com.datastax.driver.core.ScassandraCluster.datacenter;
+import static com.datastax.driver.core.TestUtils.nonQuietClusterCloseOptions;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.policies.DelegatingLoadBalancingPolicy;
+import com.datastax.driver.core.policies.RoundRobinPolicy;
+import java.util.concurrent.Callable;
+import org.testng.annotations.Test;
+
+public class SessionWarmupTest {
+
+  @Test(groups = "short")
+  public void should_open_all_pools_eventually_when_ready_before_full_warmup() {
+    ScassandraCluster sCluster = ScassandraCluster.builder().withNodes(4, 4).build();
+    Cluster cluster =
+        Cluster.builder()
+            .addContactPoints(sCluster.address(1, 1).getAddress())
+            .withPort(sCluster.getBinaryPort())
+            .withLoadBalancingPolicy(new RemoteDcPolicy(datacenter(1)))
+            .withPoolingOptions(
+                new PoolingOptions().setWarmupReadyFraction(0.5).setWarmupConcurrency(1))
+            .withNettyOptions(nonQuietClusterCloseOptions)
+            .build();
+    try {
+      sCluster.init();
+
+      final Session session = cluster.connect();
+
+      // at least half of the local pools are up when the session is returned
+      int localPools = 0;
+      for (Host host : session.getState().getConnectedHosts())
+        if (host.getDatacenter().equals(datacenter(1))) localPools += 1;
+      assertThat(localPools).isGreaterThanOrEqualTo(2);
+      final Metrics metrics = cluster.getMetrics();
+      assertThat(metrics.getSessionReadyTimer().getCount()).isEqualTo(1);
+
+      // the remaining pools are opened in the background
+      ConditionChecker.check()
+          .that(
+              new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                  return session.getState().getConnectedHosts().size() == 8;
+                }
+              })
+          .becomesTrue();
+
+      // the time of each phase is recorded, the warm-up completing after the session is ready
+      ConditionChecker.check()
+          .that(
+              new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                  return metrics.getSessionWarmupTimer().getCount() == 1;
+                }
+              })
+          .becomesTrue();
+      Timer ready = metrics.getSessionReadyTimer();
+      Timer warmup = metrics.getSessionWarmupTimer();
+      assertThat(ready.getSnapshot().getMax()).isGreaterThan(0);
+      assertThat(warmup.getSnapshot().getMax()).isGreaterThan(ready.getSnapshot().getMax());
+    } finally {
+      cluster.close();
+      sCluster.stop();
+    }
+  }
+
+  /** Treats the hosts of one datacenter as local, and all the others as remote. */
+  static class RemoteDcPolicy extends DelegatingLoadBalancingPolicy {
+    private final String localDc;
+
+    RemoteDcPolicy(String localDc) {
+      super(new RoundRobinPolicy());
+      this.localDc = localDc;
+    }
+
+    @Override
+    public HostDistance distance(Host host) {
+      return localDc.equals(host.getDatacenter()) ? HostDistance.LOCAL : HostDistance.REMOTE;
+    }
+  }
+}
@@ -43,4 +43,21 @@ public class StreamIdGeneratorTest {
 
     assertEquals(generator.next(), -1);
   }
+
+  @Test(groups = "unit")
+  public void should_count_marked_ids_as_unavailable_until_unmarked() {
+    StreamIdGenerator generator = StreamIdGenerator.newInstance(ProtocolVersion.V3);
+    int id = generator.next();
+
+    generator.mark(id);
+    assertEquals(generator.markedStreams(), 1);
+    assertEquals(
+        generator.maxAvailableStreams(), StreamIdGenerator.MAX_STREAM_PER_CONNECTION_V3 - 1);
+
+    // the late response arrives
+    generator.release(id);
+    generator.unmark(id);
+    assertEquals(generator.markedStreams(), 0);
+    assertEquals(generator.maxAvailableStreams(), StreamIdGenerator.MAX_STREAM_PER_CONNECTION_V3);
+  }
 }
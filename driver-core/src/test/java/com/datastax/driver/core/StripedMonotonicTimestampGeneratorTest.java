@@ -0,0 +1,149 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.fail;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class StripedMonotonicTimestampGeneratorTest {
+
+  @Test(groups = "unit")
+  public void should_round_stripes_to_power_of_two() {
+    assertThat(newGenerator(1).getStripes()).isEqualTo(1);
+    assertThat(newGenerator(5).getStripes()).isEqualTo(8);
+    assertThat(newGenerator(16).getStripes()).isEqualTo(16);
+  }
+
+  @Test(groups = "unit")
+  public void should_increment_by_one_when_clock_does_not_advance() {
+    final long fixedTime = 1000;
+    StripedMonotonicTimestampGenerator generator = newGenerator(8);
+    generator.clock = new MockClocks.FixedTimeClock(fixedTime);
+
+    // spans several ranges: the stripe reserves the next ones from the shared counter, without
+    // drifting faster than the other generators
+    for (int i = 0; i < 1000; i++) {
+      assertThat(generator.next()).isEqualTo(fixedTime + i);
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_follow_clock_when_it_advances() {
+    StripedMonotonicTimestampGenerator generator = newGenerator(8);
+    generator.clock = new MockClocks.FixedTimeClock(1000);
+    long first = generator.next();
+    generator.clock = new MockClocks.FixedTimeClock(1010);
+    long second = generator.next();
+    generator.clock = new MockClocks.FixedTimeClock(2000);
+    long third = generator.next();
+
+    assertThat(first).isEqualTo(1000);
+    // same range
+    assertThat(second).isEqualTo(1010);
+    // new range
+    assertThat(third).isEqualTo(2000);
+  }
+
+  @Test(groups = "unit")
+  public void should_reserve_distinct_ranges_for_each_stripe() throws Exception {
+    final StripedMonotonicTimestampGenerator generator = newGenerator(2);
+    generator.clock = new MockClocks.FixedTimeClock(1000);
+    long mine = generator.next();
+    // a new thread with the other parity is mapped to the other stripe
+    final long[] theirs = new long[1];
+    Thread other;
+    do {
+      other =
+          new Thread() {
+            @Override
+            public void run() {
+              theirs[0] = generator.next();
+            }
+          };
+    } while ((other.getId() & 1) == (Thread.currentThread().getId() & 1));
+    other.start();
+    other.join();
+
+    assertThat(mine).isEqualTo(1000);
+    // the range of the current tick is taken, the other stripe gets the next one
+    int range = StripedMonotonicTimestampGenerator.RANGE_MICROS;
+    assertThat(theirs[0]).isEqualTo((1000 / range + 1) * range);
+  }
+
+  @Test(groups = "unit")
+  public void should_generate_unique_timestamps_for_all_threads() throws Exception {
+    final StripedMonotonicTimestampGenerator generator = newGenerator(4);
+    generator.clock = new MockClocks.FixedTimeClock(1);
+
+    // more threads than stripes, so that some threads share a stripe
+    final int threadCount = 8;
+    final int timestampsPerThread = 1000;
+    final Set<Long> allTimestamps = new ConcurrentSkipListSet<Long>();
+    ListeningExecutorService executor =
+        MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(threadCount));
+
+    List<ListenableFuture<Void>> futures = Lists.newArrayListWithExpectedSize(threadCount);
+    for (int i = 0; i < threadCount; i++) {
+      futures.add(
+          executor.submit(
+              new Callable<Void>() {
+                @Override
+                public Void call() {
+                  long previous = Long.MIN_VALUE;
+                  for (int i = 0; i < timestampsPerThread; i++) {
+                    long timestamp = generator.next();
+                    assertThat(timestamp).isGreaterThan(previous);
+                    allTimestamps.add(timestamp);
+                    previous = timestamp;
+                  }
+                  return null;
+                }
+              }));
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    try {
+      Futures.allAsList(futures).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof AssertionError) throw (AssertionError) cause;
+      else fail("Error in a test thread", cause);
+    }
+
+    assertThat(allTimestamps).hasSize(threadCount * timestampsPerThread);
+  }
+
+  private static StripedMonotonicTimestampGenerator newGenerator(int stripes) {
+    // disable drift warnings, the tests use a fixed clock
+    return new StripedMonotonicTimestampGenerator(
+        stripes, -1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS);
+  }
+}
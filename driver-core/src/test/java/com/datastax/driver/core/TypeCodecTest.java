@@ -35,10 +35,15 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -280,6 +285,66 @@ public class TypeCodecTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test(groups = "unit")
+  public void should_decode_udt_fields_on_access_and_write_back_unmodified_value_as_is() {
+    UserType udt = newUserType();
+    TypeCodec<UDTValue> codec = codecRegistry.codecFor(udt, UDTValue.class);
+    UDTValue original =
+        udt.newValue().setString("t", "foo").setInt("i", 42).setList("l", newArrayList("bar"));
+    ByteBuffer bytes = codec.serialize(original, V3);
+
+    UDTValue decoded = codec.deserialize(bytes, V3);
+    assertThat(decoded.getInt("i")).isEqualTo(42);
+    assertThat(decoded.getList("l", String.class)).containsExactly("bar");
+    assertThat(decoded).isEqualTo(original);
+
+    ByteBuffer reserialized = codec.serialize(decoded, V3);
+    assertThat(reserialized).isEqualTo(bytes);
+    // not copied
+    assertThat(reserialized.array()).isSameAs(bytes.array());
+    assertWritesSameBytes(codec, decoded);
+  }
+
+  @Test(groups = "unit")
+  public void should_reencode_udt_value_after_modification() {
+    UserType udt = newUserType();
+    TypeCodec<UDTValue> codec = codecRegistry.codecFor(udt, UDTValue.class);
+    UDTValue decoded =
+        codec.deserialize(codec.serialize(udt.newValue().setString("t", "foo"), V3), V3);
+
+    decoded.setInt("i", 42);
+
+    assertThat(decoded.getString("t")).isEqualTo("foo");
+    assertThat(codec.serialize(decoded, V3))
+        .isEqualTo(codec.serialize(udt.newValue().setString("t", "foo").setInt("i", 42), V3));
+    assertWritesSameBytes(codec, decoded);
+  }
+
+  @Test(groups = "unit")
+  public void should_write_missing_tuple_fields_as_null() {
+    TupleType tupleType = TupleType.of(V3, codecRegistry, cint(), text());
+    TypeCodec<TupleValue> codec = codecRegistry.codecFor(tupleType, TupleValue.class);
+    ByteBuffer partial = ByteBuffer.allocate(8);
+    partial.putInt(4).putInt(42).flip();
+
+    TupleValue decoded = codec.deserialize(partial, V3);
+
+    assertThat(decoded.getInt(0)).isEqualTo(42);
+    assertThat(decoded.isNull(1)).isTrue();
+    assertThat(codec.serialize(decoded, V3))
+        .isEqualTo(codec.serialize(tupleType.newValue(42, null), V3));
+    assertWritesSameBytes(codec, decoded);
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_decode_truncated_udt_value() {
+    UserType udt = newUserType();
+    ByteBuffer truncated = ByteBuffer.allocate(6);
+    truncated.putInt(4).put((byte) 'f').put((byte) 'o').flip();
+
+    codecRegistry.codecFor(udt, UDTValue.class).deserialize(truncated, V3);
+  }
+
   /**
    * Ensures that {@link TypeCodec#timeUUID()} is resolved for all UUIDs and throws an {@link
    * InvalidTypeException} when attempting to serialize or format a non-type 1 UUID.
@@ -308,6 +373,100 @@ public class TypeCodecTest {
     assertThat(TypeCodec.cdouble()).accepts(Double.class).accepts(Double.TYPE).accepts(42.0D);
   }
 
+  @Test(groups = "unit")
+  public void should_write_same_bytes_as_serialize() {
+    String utf8 = "Dès Noël, où un zéphyr haï \u20ac \ud83d\ude00 \ud83d unpaired \ude00";
+    UUID timeUUID = UUID.fromString("fe2b4360-28c6-11e2-81c1-0800200c9a66");
+    Map<String, List<Integer>> map = new LinkedHashMap<String, List<Integer>>();
+    map.put("foo", newArrayList(1, 2, 3));
+    map.put(utf8, Collections.<Integer>emptyList());
+    TupleType tupleType = TupleType.of(V3, codecRegistry, cint(), text());
+
+    assertWritesSameBytes(TypeCodec.varchar(), utf8);
+    assertWritesSameBytes(TypeCodec.varchar(), "");
+    assertWritesSameBytes(TypeCodec.ascii(), "The quick brown fox");
+    assertWritesSameBytes(TypeCodec.cboolean(), true);
+    assertWritesSameBytes(TypeCodec.tinyInt(), (byte) 42);
+    assertWritesSameBytes(TypeCodec.smallInt(), (short) 42);
+    assertWritesSameBytes(TypeCodec.cint(), 42);
+    assertWritesSameBytes(TypeCodec.bigint(), 42L);
+    assertWritesSameBytes(TypeCodec.cfloat(), 42.0F);
+    assertWritesSameBytes(TypeCodec.cdouble(), 42.0D);
+    assertWritesSameBytes(TypeCodec.timestamp(), new Date(42));
+    assertWritesSameBytes(TypeCodec.date(), LocalDate.fromDaysSinceEpoch(-42));
+    assertWritesSameBytes(TypeCodec.uuid(), UUID.randomUUID());
+    assertWritesSameBytes(TypeCodec.timeUUID(), timeUUID);
+    assertWritesSameBytes(TypeCodec.blob(), ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    assertWritesSameBytes(TypeCodec.list(TypeCodec.varchar()), newArrayList("foo", utf8));
+    assertWritesSameBytes(
+        TypeCodec.map(TypeCodec.varchar(), TypeCodec.list(TypeCodec.cint())), map);
+    assertWritesSameBytes(TypeCodec.tuple(tupleType), tupleType.newValue(1, null));
+    // non-streaming elements
+    assertWritesSameBytes(
+        TypeCodec.list(TypeCodec.varint()), newArrayList(BigInteger.ONE, BigInteger.TEN));
+  }
+
+  @Test(groups = "unit")
+  public void should_serialize_collection_in_single_buffer() {
+    TypeCodec<Map<String, List<Integer>>> codec =
+        TypeCodec.map(TypeCodec.varchar(), TypeCodec.list(TypeCodec.cint()));
+    Map<String, List<Integer>> map = new LinkedHashMap<String, List<Integer>>();
+    map.put("foo", newArrayList(1, 2, 3));
+    map.put("bar", newArrayList(4));
+
+    for (ProtocolVersion version : ProtocolVersion.values()) {
+      if (version == ProtocolVersion.V1) continue;
+      ByteBuffer expected =
+          CodecUtils.pack(
+              new ByteBuffer[] {
+                TypeCodec.varchar().serialize("foo", version),
+                CodecUtils.pack(
+                    new ByteBuffer[] {
+                      TypeCodec.cint().serialize(1, version),
+                      TypeCodec.cint().serialize(2, version),
+                      TypeCodec.cint().serialize(3, version)
+                    },
+                    3,
+                    version),
+                TypeCodec.varchar().serialize("bar", version),
+                CodecUtils.pack(
+                    new ByteBuffer[] {TypeCodec.cint().serialize(4, version)}, 1, version)
+              },
+              2,
+              version);
+      assertThat(codec.serialize(map, version)).isEqualTo(expected);
+      assertThat(codec.deserialize(codec.serialize(map, version), version)).isEqualTo(map);
+    }
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_serialize_collection_with_invalid_element_type() {
+    @SuppressWarnings("unchecked")
+    TypeCodec<List<Object>> codec = (TypeCodec) TypeCodec.list(TypeCodec.cint());
+    codec.serialize(Lists.<Object>newArrayList(1, "foo"), V3);
+  }
+
+  private UserType newUserType() {
+    return new UserType(
+        "ks",
+        "t",
+        false,
+        Arrays.asList(
+            new UserType.Field("t", DataType.text()),
+            new UserType.Field("i", DataType.cint()),
+            new UserType.Field("l", DataType.list(DataType.text()))),
+        V3,
+        codecRegistry);
+  }
+
+  private <T> void assertWritesSameBytes(TypeCodec<T> codec, T value) {
+    ByteBuffer expected = codec.serialize(value, V3);
+    assertThat(codec.encodedSize(value, V3)).isEqualTo(expected.remaining());
+    ByteBuf target = Unpooled.buffer();
+    codec.writeTo(value, target, V3);
+    assertThat(target.nioBuffer()).isEqualTo(expected);
+  }
+
   private class ListVarcharToListListInteger extends TypeCodec<List<List<Integer>>> {
 
     private final TypeCodec<List<String>> codec = TypeCodec.list(TypeCodec.varchar());
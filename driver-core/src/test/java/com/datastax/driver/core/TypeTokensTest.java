@@ -0,0 +1,49 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.reflect.TypeToken;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+public class TypeTokensTest {
+
+  @Test(groups = "unit")
+  public void should_create_same_tokens_from_classes_and_type_tokens() {
+    assertThat(TypeTokens.listOf(String.class)).isEqualTo(new TypeToken<List<String>>() {});
+    assertThat(TypeTokens.setOf(Integer.class)).isEqualTo(new TypeToken<Set<Integer>>() {});
+    assertThat(TypeTokens.mapOf(String.class, Long.class))
+        .isEqualTo(new TypeToken<Map<String, Long>>() {})
+        .isEqualTo(TypeTokens.mapOf(TypeToken.of(String.class), TypeToken.of(Long.class)));
+    assertThat(TypeTokens.mapOf(Long.class, String.class))
+        .isEqualTo(new TypeToken<Map<Long, String>>() {});
+  }
+
+  @Test(groups = "unit")
+  public void should_reuse_tokens_created_from_classes() {
+    TypeToken<List<String>> list = TypeTokens.listOf(String.class);
+    TypeToken<Set<String>> set = TypeTokens.setOf(String.class);
+    TypeToken<Map<String, Integer>> map = TypeTokens.mapOf(String.class, Integer.class);
+
+    assertThat(TypeTokens.listOf(String.class)).isSameAs(list);
+    assertThat(TypeTokens.setOf(String.class)).isSameAs(set);
+    assertThat(TypeTokens.mapOf(String.class, Integer.class)).isSameAs(map);
+  }
+}
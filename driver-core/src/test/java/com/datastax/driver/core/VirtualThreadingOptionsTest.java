@@ -0,0 +1,77 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+public class VirtualThreadingOptionsTest {
+
+  @Test(groups = "unit")
+  public void should_fail_to_create_if_virtual_threads_not_supported() {
+    if (VirtualThreadingOptions.isSupported())
+      throw new SkipException("This JVM supports virtual threads");
+    try {
+      new VirtualThreadingOptions();
+      fail("Expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      assertThat(e).hasMessageContaining("Java 21");
+    }
+  }
+
+  @Test(groups = "unit")
+  public void should_run_blocking_tasks_on_virtual_threads() throws Exception {
+    if (!VirtualThreadingOptions.isSupported())
+      throw new SkipException("This JVM does not support virtual threads");
+    ExecutorService executor = new VirtualThreadingOptions().createBlockingExecutor("test");
+    assertRunsOnVirtualThreads(executor, "test-blocking-task-worker-");
+  }
+
+  @Test(groups = "unit")
+  public void should_run_main_executor_tasks_on_virtual_threads() throws Exception {
+    if (!VirtualThreadingOptions.isSupported())
+      throw new SkipException("This JVM does not support virtual threads");
+    // schema refreshes run on this executor
+    ExecutorService executor = new VirtualThreadingOptions().createExecutor("test");
+    assertRunsOnVirtualThreads(executor, "test-worker-");
+  }
+
+  private static void assertRunsOnVirtualThreads(ExecutorService executor, String namePrefix)
+      throws Exception {
+    try {
+      Thread thread =
+          executor
+              .submit(
+                  new Callable<Thread>() {
+                    @Override
+                    public Thread call() {
+                      return Thread.currentThread();
+                    }
+                  })
+              .get(10, TimeUnit.SECONDS);
+      assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+      assertThat(thread.getName()).startsWith(namePrefix);
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -88,6 +88,11 @@ public class AbstractRetryPolicyIntegrationTest {
     this.retryPolicy = Mockito.spy(retryPolicy);
   }
 
+  /** The budget used by each test's cluster, none by default. */
+  protected RetryBudget newRetryBudget() {
+    return null;
+  }
+
   @BeforeMethod(groups = "short")
   public void beforeMethod() {
     scassandras = ScassandraCluster.builder().withNodes(3).build();
@@ -98,6 +103,7 @@ public class AbstractRetryPolicyIntegrationTest {
             .addContactPoints(scassandras.address(1).getAddress())
             .withPort(scassandras.getBinaryPort())
             .withRetryPolicy(retryPolicy)
+            .withRetryBudget(newRetryBudget())
             .withLoadBalancingPolicy(new SortingLoadBalancingPolicy())
             .withPoolingOptions(
                 new PoolingOptions()
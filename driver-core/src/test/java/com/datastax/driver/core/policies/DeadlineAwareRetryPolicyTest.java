@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.policies.RetryPolicy.RetryDecision;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class DeadlineAwareRetryPolicyTest {
+
+  private final Statement statement = new SimpleStatement("mock query");
+  private final RetryDecision retry = RetryDecision.tryNextHost(null);
+
+  @Test(groups = "unit")
+  public void should_confirm_retry_without_deadline() {
+    DeadlineAwareRetryPolicy policy = new DeadlineAwareRetryPolicy(DefaultRetryPolicy.INSTANCE);
+    RetryDecision decision =
+        policy.confirmRetry(statement, retry, context(millis(5000), Long.MAX_VALUE));
+    assertThat(decision).isSameAs(retry);
+  }
+
+  @Test(groups = "unit")
+  public void should_confirm_retry_if_enough_time_remains() {
+    DeadlineAwareRetryPolicy policy = new DeadlineAwareRetryPolicy(DefaultRetryPolicy.INSTANCE);
+    // attempts took 100 ms on average, 150 ms left
+    RetryDecision decision =
+        policy.confirmRetry(statement, retry, context(millis(100), millis(150)));
+    assertThat(decision).isSameAs(retry);
+  }
+
+  @Test(groups = "unit")
+  public void should_rethrow_if_not_enough_time_remains() {
+    DeadlineAwareRetryPolicy policy = new DeadlineAwareRetryPolicy(DefaultRetryPolicy.INSTANCE);
+    // attempts took 200 ms on average, 150 ms left
+    RetryDecision decision =
+        policy.confirmRetry(statement, retry, context(millis(200), millis(150)));
+    assertThat(decision.getType()).isEqualTo(RetryDecision.Type.RETHROW);
+  }
+
+  @Test(groups = "unit")
+  public void should_delegate_to_context_aware_child() {
+    DeadlineAwareRetryPolicy policy =
+        new DeadlineAwareRetryPolicy(
+            new LoggingRetryPolicy(new DeadlineAwareRetryPolicy(DefaultRetryPolicy.INSTANCE)));
+    // the outer policy doesn't reject, but the same logic in the inner one doesn't either
+    assertThat(policy.confirmRetry(statement, retry, context(millis(100), millis(150))))
+        .isSameAs(retry);
+    assertThat(policy.confirmRetry(statement, retry, context(millis(200), millis(150))).getType())
+        .isEqualTo(RetryDecision.Type.RETHROW);
+  }
+
+  private static long millis(long value) {
+    return TimeUnit.MILLISECONDS.toNanos(value);
+  }
+
+  private static RetryContext context(final long averageAttemptNanos, final long remainingNanos) {
+    return new RetryContext() {
+      @Override
+      public Host getHost() {
+        return null;
+      }
+
+      @Override
+      public ConsistencyLevel getConsistencyLevel() {
+        return ConsistencyLevel.ONE;
+      }
+
+      @Override
+      public DriverException getError() {
+        return null;
+      }
+
+      @Override
+      public int getRetryCount() {
+        return 0;
+      }
+
+      @Override
+      public long getElapsedNanos() {
+        // should be ignored: this includes the time spent before the current execution
+        return Long.MAX_VALUE;
+      }
+
+      @Override
+      public long getAverageAttemptNanos() {
+        return averageAttemptNanos;
+      }
+
+      @Override
+      public long getRemainingNanos() {
+        return remainingNanos;
+      }
+    };
+  }
+}
@@ -17,6 +17,7 @@ package com.datastax.driver.core.policies;
 
 import static com.datastax.driver.core.Assertions.assertThat;
 import static com.datastax.driver.core.ConsistencyLevel.LOCAL_ONE;
+import static com.datastax.driver.core.ConsistencyLevel.ONE;
 import static com.datastax.driver.core.WriteType.SIMPLE;
 import static com.datastax.driver.core.policies.LoggingRetryPolicy.IGNORING_READ_TIMEOUT;
 import static com.datastax.driver.core.policies.LoggingRetryPolicy.IGNORING_REQUEST_ERROR;
@@ -28,6 +29,7 @@ import static com.datastax.driver.core.policies.LoggingRetryPolicy.RETRYING_ON_U
 import static com.datastax.driver.core.policies.LoggingRetryPolicy.RETRYING_ON_WRITE_TIMEOUT;
 import static com.datastax.driver.core.policies.RetryPolicy.RetryDecision.ignore;
 import static com.datastax.driver.core.policies.RetryPolicy.RetryDecision.tryNextHost;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.log4j.Level.INFO;
 import static org.scassandra.http.client.Result.read_request_timeout;
 import static org.scassandra.http.client.Result.server_error;
@@ -37,10 +39,12 @@ import static org.scassandra.http.client.Result.write_request_timeout;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.MemoryAppender;
+import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.WriteType;
 import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.ServerError;
+import com.datastax.driver.core.exceptions.UnavailableException;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.mockito.Mockito;
@@ -199,6 +203,47 @@ public class LoggingRetryPolicyIntegrationTest extends AbstractRetryPolicyIntegr
     Mockito.verify(innerPolicyMock).close();
   }
 
+  @Test(groups = "unit")
+  public void should_log_retry_before_confirmation_by_default() {
+    LoggingRetryPolicy policy = new LoggingRetryPolicy(DefaultRetryPolicy.INSTANCE);
+    Statement statement = new SimpleStatement("mock query");
+    RetryPolicy.RetryDecision decision = policy.onUnavailable(statement, ONE, 1, 0, 0);
+    assertThat(decision.getType()).isEqualTo(RetryPolicy.RetryDecision.Type.RETRY);
+    String expected = expectedMessage(RETRYING_ON_UNAVAILABLE, "next host", ONE, ONE, 1, 0, 0);
+    assertThat(appender.get().trim()).isEqualTo(expected);
+
+    // confirming must not log the retry a second time
+    RetryContext context = Mockito.mock(RetryContext.class);
+    Mockito.when(context.getConsistencyLevel()).thenReturn(ONE);
+    Mockito.when(context.getError()).thenReturn(new UnavailableException(ONE, 1, 0));
+    assertThat(policy.confirmRetry(statement, decision, context)).isSameAs(decision);
+    assertThat(appender.get().trim()).isEqualTo(expected);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_log_retry_cancelled_by_child_policy_if_deferred() {
+    LoggingRetryPolicy policy =
+        new LoggingRetryPolicy(new DeadlineAwareRetryPolicy(DefaultRetryPolicy.INSTANCE), true);
+    Statement statement = new SimpleStatement("mock query");
+    RetryPolicy.RetryDecision decision = policy.onUnavailable(statement, ONE, 1, 0, 0);
+    assertThat(decision.getType()).isEqualTo(RetryPolicy.RetryDecision.Type.RETRY);
+    RetryContext context = Mockito.mock(RetryContext.class);
+    Mockito.when(context.getConsistencyLevel()).thenReturn(ONE);
+    Mockito.when(context.getError()).thenReturn(new UnavailableException(ONE, 1, 0));
+    Mockito.when(context.getAverageAttemptNanos()).thenReturn(MILLISECONDS.toNanos(200));
+
+    // not enough time left: cancelled by the child policy
+    Mockito.when(context.getRemainingNanos()).thenReturn(MILLISECONDS.toNanos(100));
+    assertThat(policy.confirmRetry(statement, decision, context).getType())
+        .isEqualTo(RetryPolicy.RetryDecision.Type.RETHROW);
+    assertThat(appender.get()).isEmpty();
+
+    Mockito.when(context.getRemainingNanos()).thenReturn(MILLISECONDS.toNanos(300));
+    assertThat(policy.confirmRetry(statement, decision, context)).isSameAs(decision);
+    assertThat(appender.get().trim())
+        .isEqualTo(expectedMessage(RETRYING_ON_UNAVAILABLE, "next host", ONE, ONE, 1, 0, 0));
+  }
+
   private String expectedMessage(String template, Object... args) {
     return MessageFormatter.arrayFormat(template, args).getMessage();
   }
@@ -0,0 +1,68 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.scassandra.http.client.Result.unavailable;
+
+import com.datastax.driver.core.exceptions.UnavailableException;
+import org.testng.annotations.Test;
+
+public class RetryBudgetIntegrationTest extends AbstractRetryPolicyIntegrationTest {
+
+  public RetryBudgetIntegrationTest() {
+    super(DefaultRetryPolicy.INSTANCE);
+  }
+
+  @Override
+  protected RetryBudget newRetryBudget() {
+    // one retry in reserve, and a new one every two requests
+    return RetryBudget.perCluster(0.5, 1);
+  }
+
+  @Test(groups = "short")
+  public void should_rethrow_when_budget_is_exhausted_and_retry_once_refilled() {
+    simulateError(1, unavailable);
+    simulateNormalResponse(2);
+
+    // uses the reserve
+    query();
+    assertThat(errors.getRetries().getCount()).isEqualTo(1);
+
+    // half a retry available
+    try {
+      query();
+      fail("expected an UnavailableException");
+    } catch (UnavailableException e) {
+      // expected
+    }
+    assertThat(errors.getRetries().getCount()).isEqualTo(1);
+    assertThat(errors.getRetriesRejected().getCount()).isEqualTo(1);
+    // the rejected retry is not counted as a retry on unavailable
+    assertThat(errors.getRetriesOnUnavailable().getCount()).isEqualTo(1);
+
+    // one retry available again
+    query();
+    assertThat(errors.getRetries().getCount()).isEqualTo(2);
+    assertThat(errors.getRetriesRejected().getCount()).isEqualTo(1);
+
+    assertOnUnavailableWasCalled(3);
+    assertQueried(1, 3);
+    assertQueried(2, 2);
+    assertQueried(3, 0);
+  }
+}
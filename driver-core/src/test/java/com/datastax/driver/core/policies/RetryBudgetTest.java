@@ -0,0 +1,68 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.policies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.datastax.driver.core.Host;
+import org.testng.annotations.Test;
+
+public class RetryBudgetTest {
+
+  private final Host host1 = mock(Host.class);
+  private final Host host2 = mock(Host.class);
+
+  @Test(groups = "unit")
+  public void should_start_full_and_refill_with_requests() {
+    RetryBudget budget = RetryBudget.perCluster(0.5, 2);
+    assertThat(budget.getAvailableRetries(host1)).isEqualTo(2);
+
+    assertThat(budget.tryAcquire(host1)).isTrue();
+    assertThat(budget.tryAcquire(host2)).isTrue();
+    assertThat(budget.tryAcquire(host1)).isFalse();
+
+    budget.onRequest(host1);
+    assertThat(budget.tryAcquire(host1)).isFalse();
+    budget.onRequest(host2);
+    assertThat(budget.tryAcquire(host1)).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_not_accumulate_more_than_max_retries() {
+    RetryBudget budget = RetryBudget.perCluster(1, 3);
+    for (int i = 0; i < 100; i++) budget.onRequest(host1);
+    assertThat(budget.getAvailableRetries(host1)).isEqualTo(3);
+  }
+
+  @Test(groups = "unit")
+  public void should_track_hosts_separately() {
+    RetryBudget budget = RetryBudget.perHost(1, 1);
+
+    assertThat(budget.tryAcquire(host1)).isTrue();
+    assertThat(budget.tryAcquire(host1)).isFalse();
+    assertThat(budget.tryAcquire(host2)).isTrue();
+
+    budget.onRequest(host1);
+    assertThat(budget.getAvailableRetries(host1)).isEqualTo(1);
+    assertThat(budget.getAvailableRetries(host2)).isEqualTo(0);
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_reject_invalid_ratio() {
+    RetryBudget.perCluster(1.5, 10);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core.querybuilder;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+public class QueryTemplateTest {
+
+  @Test(groups = "unit")
+  public void should_generate_query_string_once() {
+    QueryTemplate template =
+        QueryBuilder.template(
+            select().all().from("ks", "users").where(eq("id", bindMarker())).and(eq("c", "foo")));
+
+    // values that are not bind markers are inlined
+    assertThat(template.getQueryString())
+        .isEqualTo("SELECT * FROM ks.users WHERE id=? AND c='foo';");
+    assertThat(template.toString()).isEqualTo(template.getQueryString());
+  }
+
+  @Test(groups = "unit")
+  public void should_prepare_once_per_session() throws Exception {
+    Session session = mock(Session.class);
+    PreparedStatement prepared = mockPrepared(session);
+    QueryTemplate template = newTemplate();
+
+    template.bind(session, 1);
+    template.bind(session, 2);
+    template.bindAsync(session, 3).get();
+
+    ArgumentCaptor<RegularStatement> captor = ArgumentCaptor.forClass(RegularStatement.class);
+    verify(session, times(1)).prepare(captor.capture());
+    verify(prepared).bind(1);
+    verify(prepared).bind(2);
+    verify(prepared).bind(3);
+    RegularStatement statement = captor.getValue();
+    assertThat(statement.getQueryString()).isEqualTo("SELECT * FROM ks.users WHERE id=?;");
+    assertThat(statement.getConsistencyLevel()).isEqualTo(ConsistencyLevel.LOCAL_QUORUM);
+    assertThat(statement.isIdempotent()).isTrue();
+  }
+
+  @Test(groups = "unit")
+  public void should_prepare_again_for_other_session() {
+    Session session1 = mock(Session.class);
+    Session session2 = mock(Session.class);
+    mockPrepared(session1);
+    mockPrepared(session2);
+    QueryTemplate template = newTemplate();
+
+    template.bind(session1, 1);
+    template.bind(session2, 1);
+
+    verify(session1).prepare(any(RegularStatement.class));
+    verify(session2).prepare(any(RegularStatement.class));
+  }
+
+  @Test(groups = "unit")
+  public void should_retry_after_failed_preparation() throws Exception {
+    Session session = mock(Session.class);
+    PreparedStatement prepared = mock(PreparedStatement.class);
+    when(session.prepareAsync(any(RegularStatement.class)))
+        .thenReturn(
+            Futures.<PreparedStatement>immediateFailedFuture(new RuntimeException("mock error")))
+        .thenReturn(Futures.immediateFuture(prepared));
+    QueryTemplate template = newTemplate();
+
+    ListenableFuture<PreparedStatement> failed = template.prepareAsync(session);
+    ListenableFuture<PreparedStatement> succeeded = template.prepareAsync(session);
+
+    assertThat(failed.isDone()).isTrue();
+    assertThat(succeeded.get()).isSameAs(prepared);
+    assertThat(template.prepareAsync(session)).isSameAs(succeeded);
+    verify(session, times(2)).prepareAsync(any(RegularStatement.class));
+  }
+
+  private static QueryTemplate newTemplate() {
+    BuiltStatement statement = select().all().from("ks", "users").where(eq("id", bindMarker()));
+    statement.setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    return QueryBuilder.template(statement);
+  }
+
+  private static PreparedStatement mockPrepared(Session session) {
+    PreparedStatement prepared = mock(PreparedStatement.class);
+    when(prepared.bind(any())).thenReturn(mock(BoundStatement.class));
+    when(session.prepare(any(RegularStatement.class))).thenReturn(prepared);
+    when(session.prepareAsync(any(RegularStatement.class)))
+        .thenReturn(Futures.immediateFuture(prepared));
+    return prepared;
+  }
+}
@@ -22,6 +22,7 @@ import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.TypeCodec;
 import java.nio.ByteBuffer;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -91,6 +92,62 @@ public class UUIDsTest {
     }
   }
 
+  @Test(groups = "unit")
+  public void fastTimeBasedTest() throws Exception {
+    long now = System.currentTimeMillis();
+    UUID uuid = UUIDs.fastTimeBased();
+    assertEquals(uuid.version(), 1);
+    assertEquals(uuid.variant(), 2);
+    long tstamp = UUIDs.unixTimestamp(uuid);
+    assert now <= tstamp && now >= tstamp - 10
+        : String.format("now = %d, tstamp = %d", now, tstamp);
+
+    // Mix with the other generation methods, timestamps must be unique across all of them, and
+    // increasing for each thread
+    int nbThread = 10;
+    int nbGenerated = 10000;
+    Set<UUID> generated = new ConcurrentSkipListSet<UUID>();
+    UUIDGenerator[] generators = new UUIDGenerator[nbThread];
+    for (int i = 0; i < nbThread; i++)
+      generators[i] = new UUIDGenerator(nbGenerated, generated, i % 2 == 0);
+    for (int i = 0; i < nbThread; i++) generators[i].start();
+    for (int i = 0; i < nbThread; i++) generators[i].join();
+
+    assertEquals(generated.size(), nbThread * nbGenerated);
+  }
+
+  @Test(groups = "unit")
+  public void batchTimeBasedTest() {
+    assertTrue(UUIDs.timeBased(0).isEmpty());
+
+    // More than what fits in a millisecond
+    int nbGenerated = 25000;
+    List<UUID> uuids = UUIDs.timeBased(nbGenerated);
+    assertEquals(uuids.size(), nbGenerated);
+    assertEquals(new HashSet<UUID>(uuids).size(), nbGenerated);
+    long previous = 0;
+    for (UUID uuid : uuids) {
+      assertEquals(uuid.version(), 1);
+      long current = uuid.timestamp();
+      assert previous < current : String.format("previous = %d >= %d = current", previous, current);
+      previous = current;
+    }
+    assertTrue(UUIDs.timeBased().timestamp() > previous);
+  }
+
+  @Test(groups = "unit")
+  public void fastRandomTest() {
+    int nbGenerated = 100000;
+    Set<UUID> generated = new HashSet<UUID>(nbGenerated);
+    for (int i = 0; i < nbGenerated; ++i) {
+      UUID uuid = UUIDs.fastRandom();
+      assertEquals(uuid.version(), 4);
+      assertEquals(uuid.variant(), 2);
+      generated.add(uuid);
+    }
+    assertEquals(generated.size(), nbGenerated);
+  }
+
   @Test(groups = "unit")
   public void startEndOfTest() {
 
@@ -150,15 +207,27 @@ public class UUIDsTest {
 
     private final int toGenerate;
     private final Set<UUID> generated;
+    private final boolean fast;
 
     UUIDGenerator(int toGenerate, Set<UUID> generated) {
+      this(toGenerate, generated, false);
+    }
+
+    UUIDGenerator(int toGenerate, Set<UUID> generated, boolean fast) {
       this.toGenerate = toGenerate;
       this.generated = generated;
+      this.fast = fast;
     }
 
     @Override
     public void run() {
-      for (int i = 0; i < toGenerate; ++i) generated.add(UUIDs.timeBased());
+      long previous = 0;
+      for (int i = 0; i < toGenerate; ++i) {
+        UUID uuid = fast ? UUIDs.fastTimeBased() : UUIDs.timeBased();
+        assert previous < uuid.timestamp();
+        previous = uuid.timestamp();
+        generated.add(uuid);
+      }
     }
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link TypeCodec} for text columns that returns the same {@link String} instance when it
+ * decodes the same value again.
+ *
+ * <p>This is intended for columns with a small number of distinct values, such as statuses or
+ * enum-like labels: when the decoded strings are retained (for example in an application-level
+ * cache), each distinct value is only kept once in memory, and decoding a value that was seen
+ * recently doesn't allocate.
+ *
+ * <p>The cache is bounded: it holds a fixed number of slots, each new value replaces the one in its
+ * slot, and values longer than a given size are not cached. Deduplication is therefore best-effort.
+ *
+ * <p>Since the cache is only useful if it is used for a given column, this codec is typically not
+ * registered, but rather used explicitly for the columns that need it:
+ *
+ * <pre>{@code
+ * TypeCodec<String> statusCodec = new DeduplicatingStringCodec();
+ * String status = row.get("status", statusCodec);
+ * }</pre>
+ *
+ * With the object mapper, use {@code @Column(codec = DeduplicatingStringCodec.class)}: each
+ * annotated property gets its own instance, and therefore its own cache.
+ *
+ * <p>This class is thread-safe.
+ */
+public class DeduplicatingStringCodec extends TypeCodec<String> {
+
+  public static final int DEFAULT_CAPACITY = 256;
+
+  public static final int DEFAULT_MAX_LENGTH = 64;
+
+  private final TypeCodec<String> innerCodec;
+
+  private final int maxLength;
+
+  private final AtomicReferenceArray<Entry> entries;
+
+  /**
+   * Creates a new instance for {@code varchar} columns, with {@link #DEFAULT_CAPACITY} slots,
+   * caching values of up to {@link #DEFAULT_MAX_LENGTH} bytes.
+   */
+  public DeduplicatingStringCodec() {
+    this(TypeCodec.varchar(), DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param innerCodec the codec that decodes values that are not cached yet, typically {@link
+   *     TypeCodec#varchar()} or {@link TypeCodec#ascii()}.
+   * @param capacity the number of slots in the cache. It will be rounded up to the next power of
+   *     two.
+   * @param maxLength the maximum size, in bytes, of the serialized values that will be cached.
+   */
+  public DeduplicatingStringCodec(TypeCodec<String> innerCodec, int capacity, int maxLength) {
+    super(innerCodec.getCqlType(), String.class);
+    checkArgument(capacity > 0, "capacity must be strictly positive, got %s", capacity);
+    checkArgument(
+        capacity <= 1 << 20, "capacity must be less than or equal to 2^20, got %s", capacity);
+    checkArgument(maxLength >= 0, "maxLength must be positive, got %s", maxLength);
+    this.innerCodec = innerCodec;
+    this.maxLength = maxLength;
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) size <<= 1;
+    this.entries = new AtomicReferenceArray<Entry>(size);
+  }
+
+  @Override
+  public ByteBuffer serialize(String value, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    return innerCodec.serialize(value, protocolVersion);
+  }
+
+  @Override
+  public String deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (bytes == null || bytes.remaining() == 0 || bytes.remaining() > maxLength)
+      return innerCodec.deserialize(bytes, protocolVersion);
+
+    int slot = hash(bytes) & (entries.length() - 1);
+    Entry entry = entries.get(slot);
+    if (entry != null && entry.matches(bytes)) return entry.value;
+
+    String value = innerCodec.deserialize(bytes, protocolVersion);
+    byte[] key = new byte[bytes.remaining()];
+    bytes.duplicate().get(key);
+    entries.set(slot, new Entry(key, value));
+    return value;
+  }
+
+  @Override
+  public String format(String value) throws InvalidTypeException {
+    return innerCodec.format(value);
+  }
+
+  @Override
+  public String parse(String value) throws InvalidTypeException {
+    return innerCodec.parse(value);
+  }
+
+  private static int hash(ByteBuffer bytes) {
+    int h = 1;
+    for (int i = bytes.position(); i < bytes.limit(); i++) h = 31 * h + bytes.get(i);
+    return h ^ (h >>> 16);
+  }
+
+  private static class Entry {
+    final byte[] key;
+    final String value;
+
+    Entry(byte[] key, String value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    boolean matches(ByteBuffer bytes) {
+      int length = key.length;
+      if (bytes.remaining() != length) return false;
+      int position = bytes.position();
+      for (int i = 0; i < length; i++) if (key[i] != bytes.get(position + i)) return false;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.google.common.reflect.TypeParameter;
+import com.google.common.reflect.TypeToken;
+import java.nio.ByteBuffer;
+
+/**
+ * A codec that wraps another codec to decode values lazily, as {@link LazyValue} instances.
+ *
+ * <p>Reading a column with this codec only keeps a reference to its serialized form; the wrapped
+ * codec is invoked the first time {@link LazyValue#get()} is called. This is useful for large
+ * values, such as JSON documents, that are only needed for some of the rows:
+ *
+ * <pre>{@code
+ * LazyCodec<JsonNode> codec = new LazyCodec<JsonNode>(new JacksonJsonCodec<JsonNode>(JsonNode.class));
+ * LazyValue<JsonNode> payload = row.get("payload", codec);
+ * if (shouldProcess(row)) process(payload.get());
+ * }</pre>
+ *
+ * When a value that was read with this codec is written back before being accessed, its original
+ * bytes are reused as is. Once {@link LazyValue#get()} has been called, the value is encoded again
+ * with the wrapped codec, since it might have been modified.
+ *
+ * <p>Note that a lazy value holds on to the buffer it was read from; it should not be retained
+ * longer than necessary if it is never accessed.
+ *
+ * @param <T> The wrapped Java type
+ */
+public class LazyCodec<T> extends TypeCodec<LazyValue<T>> {
+
+  private final TypeCodec<T> innerCodec;
+
+  public LazyCodec(TypeCodec<T> innerCodec) {
+    // @formatter:off
+    super(
+        innerCodec.getCqlType(),
+        new TypeToken<LazyValue<T>>() {}.where(
+            new TypeParameter<T>() {}, innerCodec.getJavaType()));
+    // @formatter:on
+    this.innerCodec = innerCodec;
+  }
+
+  @Override
+  public ByteBuffer serialize(LazyValue<T> value, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (value == null) return null;
+    ByteBuffer raw = value.getRawBytes(innerCodec, protocolVersion);
+    return raw != null ? raw : innerCodec.serialize(value.get(), protocolVersion);
+  }
+
+  @Override
+  public LazyValue<T> deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    return bytes == null ? null : new LazyValue<T>(innerCodec, bytes.duplicate(), protocolVersion);
+  }
+
+  @Override
+  public String format(LazyValue<T> value) throws InvalidTypeException {
+    return innerCodec.format(value == null ? null : value.get());
+  }
+
+  @Override
+  public LazyValue<T> parse(String value) throws InvalidTypeException {
+    T parsed = innerCodec.parse(value);
+    return parsed == null ? null : LazyValue.of(parsed);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import java.nio.ByteBuffer;
+
+/**
+ * A value that is decoded the first time it is accessed.
+ *
+ * <p>Instances are created by {@link LazyCodec} when reading, or with {@link #of(Object)} when
+ * writing. An instance that was read and never accessed keeps its serialized form; if it is written
+ * back, the original bytes are reused as is, without decoding and re-encoding the value.
+ *
+ * <p>This class is thread-safe, provided that the decoded value is not modified concurrently.
+ *
+ * @param <T> the type of the value.
+ * @see LazyCodec
+ */
+public final class LazyValue<T> {
+
+  private final TypeCodec<T> codec;
+  private final ProtocolVersion protocolVersion;
+
+  // set to null once the value is decoded
+  private volatile ByteBuffer bytes;
+  private T value;
+
+  /**
+   * Creates an instance with an already decoded value.
+   *
+   * @param value the value.
+   * @param <T> the type of the value.
+   * @return the new instance.
+   */
+  public static <T> LazyValue<T> of(T value) {
+    return new LazyValue<T>(null, null, null, value);
+  }
+
+  LazyValue(TypeCodec<T> codec, ByteBuffer bytes, ProtocolVersion protocolVersion) {
+    this(codec, bytes, protocolVersion, null);
+  }
+
+  private LazyValue(
+      TypeCodec<T> codec, ByteBuffer bytes, ProtocolVersion protocolVersion, T value) {
+    this.codec = codec;
+    this.bytes = bytes;
+    this.protocolVersion = protocolVersion;
+    this.value = value;
+  }
+
+  /**
+   * Returns the value, decoding it if this hasn't been done yet.
+   *
+   * @return the value.
+   * @throws com.datastax.driver.core.exceptions.InvalidTypeException if the value can't be decoded.
+   */
+  public T get() {
+    if (bytes != null) {
+      synchronized (this) {
+        ByteBuffer toDecode = bytes;
+        if (toDecode != null) {
+          value = codec.deserialize(toDecode.duplicate(), protocolVersion);
+          bytes = null;
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Returns whether the value has been decoded, either because {@link #get()} was called, or
+   * because this instance was created with {@link #of(Object)}.
+   *
+   * @return whether the value has been decoded.
+   */
+  public boolean isDecoded() {
+    return bytes == null;
+  }
+
+  /**
+   * Returns the serialized form of the value if it hasn't been decoded and was read with the given
+   * codec and protocol version, or {@code null} otherwise.
+   */
+  ByteBuffer getRawBytes(TypeCodec<T> codec, ProtocolVersion protocolVersion) {
+    ByteBuffer raw = bytes;
+    return raw != null && this.codec == codec && this.protocolVersion == protocolVersion
+        ? raw.duplicate()
+        : null;
+  }
+
+  @Override
+  public String toString() {
+    return isDecoded() ? "LazyValue(" + value + ")" : "LazyValue(<not decoded>)";
+  }
+}
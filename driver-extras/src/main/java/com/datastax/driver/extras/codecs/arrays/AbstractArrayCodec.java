@@ -28,19 +28,31 @@ import java.lang.reflect.Array;
  * Base class for all codecs dealing with Java arrays. This class aims to reduce the amount of code
  * required to create such codecs.
  *
+ * <p>Arrays are usually mapped to CQL lists, but they can also be mapped to CQL sets. In that case,
+ * the elements of deserialized arrays are in the order defined by the CQL type, which for numeric
+ * types means that they are sorted in ascending order.
+ *
  * @param <T> The Java array type this codec handles
  */
 public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
 
+  private final char openingChar;
+  private final char closingChar;
+
   /**
-   * @param cqlType The CQL type. Must be a list type.
+   * @param cqlType The CQL type. Must be a list or set type.
    * @param javaClass The Java type. Must be an array class.
    */
   public AbstractArrayCodec(DataType.CollectionType cqlType, Class<T> javaClass) {
     super(cqlType, javaClass);
     checkArgument(
-        cqlType.getName() == DataType.Name.LIST, "Expecting CQL list type, got %s", cqlType);
+        cqlType.getName() == DataType.Name.LIST || cqlType.getName() == DataType.Name.SET,
+        "Expecting CQL list or set type, got %s",
+        cqlType);
     checkArgument(javaClass.isArray(), "Expecting Java array class, got %s", javaClass);
+    boolean isSet = cqlType.getName() == DataType.Name.SET;
+    this.openingChar = isSet ? '{' : '[';
+    this.closingChar = isSet ? '}' : ']';
   }
 
   @Override
@@ -48,12 +60,12 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
     if (array == null) return "NULL";
     int length = Array.getLength(array);
     StringBuilder sb = new StringBuilder();
-    sb.append('[');
+    sb.append(openingChar);
     for (int i = 0; i < length; i++) {
       if (i != 0) sb.append(",");
       formatElement(sb, array, i);
     }
-    sb.append(']');
+    sb.append(closingChar);
     return sb.toString();
   }
 
@@ -62,15 +74,15 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
     if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
 
     int idx = skipSpaces(value, 0);
-    if (value.charAt(idx++) != '[')
+    if (value.charAt(idx++) != openingChar)
       throw new InvalidTypeException(
           String.format(
-              "cannot parse list value from \"%s\", at character %d expecting '[' but got '%c'",
-              value, idx, value.charAt(idx)));
+              "cannot parse %s value from \"%s\", at character %d expecting '%c' but got '%c'",
+              cqlType.getName(), value, idx, openingChar, value.charAt(idx)));
 
     idx = skipSpaces(value, idx);
 
-    if (value.charAt(idx) == ']') return newInstance(0);
+    if (value.charAt(idx) == closingChar) return newInstance(0);
 
     // first pass: determine array length
     int length = getArrayLength(value, idx);
@@ -82,13 +94,15 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
       int n = skipLiteral(value, idx);
       parseElement(value.substring(idx, n), array, i);
       idx = skipSpaces(value, n);
-      if (value.charAt(idx) == ']') return array;
+      if (value.charAt(idx) == closingChar) return array;
       idx = skipComma(value, idx);
       idx = skipSpaces(value, idx);
     }
 
     throw new InvalidTypeException(
-        String.format("Malformed list value \"%s\", missing closing ']'", value));
+        String.format(
+            "Malformed %s value \"%s\", missing closing '%c'",
+            cqlType.getName(), value, closingChar));
   }
 
   /**
@@ -122,7 +136,7 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
     for (; idx < value.length(); length++) {
       idx = skipLiteral(value, idx);
       idx = skipSpaces(value, idx);
-      if (value.charAt(idx) == ']') break;
+      if (value.charAt(idx) == closingChar) break;
       idx = skipComma(value, idx);
       idx = skipSpaces(value, idx);
     }
@@ -133,8 +147,8 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
     if (value.charAt(idx) != ',')
       throw new InvalidTypeException(
           String.format(
-              "Cannot parse list value from \"%s\", at character %d expecting ',' but got '%c'",
-              value, idx, value.charAt(idx)));
+              "Cannot parse %s value from \"%s\", at character %d expecting ',' but got '%c'",
+              cqlType.getName(), value, idx, value.charAt(idx)));
     return idx + 1;
   }
 
@@ -144,7 +158,8 @@ public abstract class AbstractArrayCodec<T> extends TypeCodec<T> {
     } catch (IllegalArgumentException e) {
       throw new InvalidTypeException(
           String.format(
-              "Cannot parse list value from \"%s\", invalid CQL value at character %d", value, idx),
+              "Cannot parse %s value from \"%s\", invalid CQL value at character %d",
+              cqlType.getName(), value, idx),
           e);
     }
   }
@@ -34,7 +34,7 @@ import java.nio.ByteBuffer;
 public abstract class AbstractPrimitiveArrayCodec<T> extends AbstractArrayCodec<T> {
 
   /**
-   * @param cqlType The CQL type. Must be a list type.
+   * @param cqlType The CQL type. Must be a list or set type.
    * @param javaClass The Java type. Must be an array class.
    */
   public AbstractPrimitiveArrayCodec(DataType.CollectionType cqlType, Class<T> javaClass) {
@@ -87,12 +87,15 @@ public abstract class AbstractPrimitiveArrayCodec<T> extends AbstractArrayCodec<
     int sizeOfSize = isProtocolV3OrAbove ? 4 : 2;
     ByteBuffer input = bytes.duplicate();
     int size = CodecUtils.readSize(input, protocolVersion);
+    // All elements have the same size, so check the layout once instead of reading each size
+    int stride = sizeOfSize + sizeOfComponentType();
+    if (size < 0 || (long) size * stride != input.remaining())
+      throw new InvalidTypeException(
+          String.format(
+              "Invalid serialized %s: expected %d bytes for %d elements, got %d",
+              cqlType, (long) size * stride, size, input.remaining()));
     T array = newInstance(size);
-    for (int i = 0; i < size; i++) {
-      // Skip size (we know it will always be 4 since the elements are ints)
-      input.position(input.position() + sizeOfSize);
-      deserializeElement(input, array, i, protocolVersion);
-    }
+    deserializeElements(input, array, size, sizeOfSize, protocolVersion);
     return array;
   }
 
@@ -114,6 +117,28 @@ public abstract class AbstractPrimitiveArrayCodec<T> extends AbstractArrayCodec<
   protected abstract void serializeElement(
       ByteBuffer output, T array, int index, ProtocolVersion protocolVersion);
 
+  /**
+   * Read all the elements of {@code array} from {@code input}.
+   *
+   * <p>When this method is called, the layout of {@code input} has already been validated: it
+   * contains exactly {@code size} elements, each preceded by its size on {@code sizeOfSize} bytes.
+   * The default implementation calls {@link #deserializeElement(ByteBuffer, Object, int,
+   * ProtocolVersion)} for each element; subclasses can override it to read the elements in bulk.
+   *
+   * @param input The ByteBuffer to read from, positioned on the size of the first element.
+   * @param array The array to write to.
+   * @param size The number of elements.
+   * @param sizeOfSize The number of bytes used to encode the size of each element.
+   * @param protocolVersion The protocol version to use.
+   */
+  protected void deserializeElements(
+      ByteBuffer input, T array, int size, int sizeOfSize, ProtocolVersion protocolVersion) {
+    for (int i = 0; i < size; i++) {
+      input.position(input.position() + sizeOfSize);
+      deserializeElement(input, array, i, protocolVersion);
+    }
+  }
+
   /**
    * Read the {@code index}th element of {@code array} from {@code input}.
    *
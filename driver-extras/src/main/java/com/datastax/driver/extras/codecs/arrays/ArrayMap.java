@@ -0,0 +1,117 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * The contents of a CQL map, stored as two parallel arrays: the {@code i}th element of {@link
+ * #getValues()} is the value associated to the {@code i}th element of {@link #getKeys()}.
+ *
+ * <p>The arrays can be primitive arrays ({@code long[]}, {@code double[]}...), which avoids boxing
+ * keys and values. When instances are decoded by {@link ArrayMapCodec}, the keys are in the order
+ * defined by their CQL type; for numeric keys, this means that they are sorted in ascending order,
+ * so a key can be found with {@link Arrays#binarySearch(long[], long)} or similar methods.
+ *
+ * <p>This class does not copy the arrays: modifying them will modify the map.
+ *
+ * @param <K> the type of the keys array.
+ * @param <V> the type of the values array.
+ * @see ArrayMapCodec
+ */
+public final class ArrayMap<K, V> {
+
+  private final K keys;
+  private final V values;
+  private final int size;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param keys the keys.
+   * @param values the values.
+   * @throws IllegalArgumentException if {@code keys} or {@code values} is not an array, or if they
+   *     don't have the same length.
+   */
+  public ArrayMap(K keys, V values) {
+    checkNotNull(keys, "keys cannot be null");
+    checkNotNull(values, "values cannot be null");
+    checkArgument(keys.getClass().isArray(), "Expecting an array for keys, got %s", keys);
+    checkArgument(values.getClass().isArray(), "Expecting an array for values, got %s", values);
+    this.size = Array.getLength(keys);
+    checkArgument(
+        Array.getLength(values) == size,
+        "keys and values must have the same length (got %s and %s)",
+        size,
+        Array.getLength(values));
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Returns the keys.
+   *
+   * @return the keys.
+   */
+  public K getKeys() {
+    return keys;
+  }
+
+  /**
+   * Returns the values.
+   *
+   * @return the values.
+   */
+  public V getValues() {
+    return values;
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof ArrayMap)) return false;
+    ArrayMap<?, ?> that = (ArrayMap<?, ?>) other;
+    return Arrays.deepEquals(new Object[] {keys, values}, new Object[] {that.keys, that.values});
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.deepHashCode(new Object[] {keys, values});
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) sb.append(", ");
+      sb.append(Array.get(keys, i)).append('=').append(Array.get(values, i));
+    }
+    return sb.append('}').toString();
+  }
+}
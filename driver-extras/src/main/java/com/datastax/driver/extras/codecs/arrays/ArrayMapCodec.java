@@ -0,0 +1,343 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.datastax.driver.core.CodecUtils;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ParseUtils;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.google.common.reflect.TypeParameter;
+import com.google.common.reflect.TypeToken;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A codec that maps a CQL map to an {@link ArrayMap}, storing the keys and values in two parallel
+ * arrays.
+ *
+ * <p>The handling of keys and values is delegated to two array codecs, that only serve to describe
+ * the element types: for example, this codec maps {@code map<bigint, double>} to {@code
+ * ArrayMap<long[], double[]>}, without boxing any key or value:
+ *
+ * <pre>{@code
+ * ArrayMapCodec<long[], double[]> codec =
+ *     new ArrayMapCodec<long[], double[]>(LongArrayCodec.instance, DoubleArrayCodec.instance);
+ * }</pre>
+ *
+ * Keys or values that don't map to Java primitives can be handled with an {@link ObjectArrayCodec};
+ * for example, for {@code map<text, int>}:
+ *
+ * <pre>{@code
+ * ArrayMapCodec<String[], int[]> codec =
+ *     new ArrayMapCodec<String[], int[]>(
+ *         new ObjectArrayCodec<String>(
+ *             DataType.list(DataType.varchar()), String[].class, TypeCodec.varchar()),
+ *         IntArrayCodec.instance);
+ * }</pre>
+ *
+ * @param <K> the Java array type of the keys.
+ * @param <V> the Java array type of the values.
+ */
+public class ArrayMapCodec<K, V> extends TypeCodec<ArrayMap<K, V>> {
+
+  private final AbstractArrayCodec<K> keyCodec;
+  private final AbstractArrayCodec<V> valueCodec;
+  private final Elements<K> keys;
+  private final Elements<V> values;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param keyCodec the codec describing the keys. Must be an {@link AbstractPrimitiveArrayCodec}
+   *     or an {@link ObjectArrayCodec}.
+   * @param valueCodec the codec describing the values. Must be an {@link
+   *     AbstractPrimitiveArrayCodec} or an {@link ObjectArrayCodec}.
+   */
+  public ArrayMapCodec(AbstractArrayCodec<K> keyCodec, AbstractArrayCodec<V> valueCodec) {
+    super(
+        DataType.map(elementType(keyCodec), elementType(valueCodec)),
+        arrayMapOf(keyCodec.getJavaType(), valueCodec.getJavaType()));
+    this.keyCodec = keyCodec;
+    this.valueCodec = valueCodec;
+    this.keys = elements(keyCodec);
+    this.values = elements(valueCodec);
+  }
+
+  @Override
+  public ByteBuffer serialize(ArrayMap<K, V> value, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (value == null) return null;
+    int size = value.size();
+    boolean isProtocolV3OrAbove = protocolVersion.compareTo(ProtocolVersion.V2) > 0;
+    checkArgument(
+        isProtocolV3OrAbove || size < 65536,
+        "Native protocol version %d supports up to 65535 elements in any collection - but collection contains %d elements",
+        protocolVersion.toInt(),
+        size);
+    int sizeOfSize = isProtocolV3OrAbove ? 4 : 2;
+
+    ByteBuffer[] serializedKeys = keys.serializeAll(value.getKeys(), size, protocolVersion);
+    ByteBuffer[] serializedValues = values.serializeAll(value.getValues(), size, protocolVersion);
+    int totalSize =
+        sizeOfSize
+            + keys.sizeOfAll(serializedKeys, size, sizeOfSize)
+            + values.sizeOfAll(serializedValues, size, sizeOfSize);
+
+    ByteBuffer output = ByteBuffer.allocate(totalSize);
+    CodecUtils.writeSize(output, size, protocolVersion);
+    for (int i = 0; i < size; i++) {
+      keys.write(output, value.getKeys(), serializedKeys, i, protocolVersion);
+      values.write(output, value.getValues(), serializedValues, i, protocolVersion);
+    }
+    output.flip();
+    return output;
+  }
+
+  @Override
+  public ArrayMap<K, V> deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (bytes == null || bytes.remaining() == 0)
+      return new ArrayMap<K, V>(keyCodec.newInstance(0), valueCodec.newInstance(0));
+    try {
+      ByteBuffer input = bytes.duplicate();
+      int size = CodecUtils.readSize(input, protocolVersion);
+      K keyArray = keyCodec.newInstance(size);
+      V valueArray = valueCodec.newInstance(size);
+      for (int i = 0; i < size; i++) {
+        keys.read(input, keyArray, i, protocolVersion);
+        values.read(input, valueArray, i, protocolVersion);
+      }
+      return new ArrayMap<K, V>(keyArray, valueArray);
+    } catch (BufferUnderflowException e) {
+      throw new InvalidTypeException("Not enough bytes to deserialize a map", e);
+    }
+  }
+
+  @Override
+  public String format(ArrayMap<K, V> value) throws InvalidTypeException {
+    if (value == null) return "NULL";
+    StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    for (int i = 0; i < value.size(); i++) {
+      if (i != 0) sb.append(",");
+      keyCodec.formatElement(sb, value.getKeys(), i);
+      sb.append(':');
+      valueCodec.formatElement(sb, value.getValues(), i);
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  @Override
+  public ArrayMap<K, V> parse(String value) throws InvalidTypeException {
+    if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
+
+    int idx = skipSpaces(value, 0);
+    if (value.charAt(idx++) != '{')
+      throw new InvalidTypeException(
+          String.format(
+              "cannot parse map value from \"%s\", at character %d expecting '{' but got '%c'",
+              value, idx, value.charAt(idx)));
+
+    idx = skipSpaces(value, idx);
+
+    List<String> keyLiterals = new ArrayList<String>();
+    List<String> valueLiterals = new ArrayList<String>();
+    if (value.charAt(idx) != '}') {
+      while (true) {
+        int n = skipLiteral(value, idx);
+        keyLiterals.add(value.substring(idx, n));
+        idx = skip(value, skipSpaces(value, n), ':');
+        idx = skipSpaces(value, idx);
+        n = skipLiteral(value, idx);
+        valueLiterals.add(value.substring(idx, n));
+        idx = skipSpaces(value, n);
+        if (value.charAt(idx) == '}') break;
+        idx = skipSpaces(value, skip(value, idx, ','));
+      }
+    }
+
+    int size = keyLiterals.size();
+    K keyArray = keyCodec.newInstance(size);
+    V valueArray = valueCodec.newInstance(size);
+    for (int i = 0; i < size; i++) {
+      keyCodec.parseElement(keyLiterals.get(i), keyArray, i);
+      valueCodec.parseElement(valueLiterals.get(i), valueArray, i);
+    }
+    return new ArrayMap<K, V>(keyArray, valueArray);
+  }
+
+  private static int skipSpaces(String value, int idx) {
+    if (idx >= value.length())
+      throw new InvalidTypeException(
+          String.format("Malformed map value \"%s\", missing closing '}'", value));
+    return ParseUtils.skipSpaces(value, idx);
+  }
+
+  private static int skip(String value, int idx, char expected) {
+    if (idx >= value.length() || value.charAt(idx) != expected)
+      throw new InvalidTypeException(
+          String.format(
+              "Cannot parse map value from \"%s\", at character %d expecting '%c'",
+              value, idx, expected));
+    return idx + 1;
+  }
+
+  private static int skipLiteral(String value, int idx) {
+    try {
+      return ParseUtils.skipCQLValue(value, idx);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidTypeException(
+          String.format(
+              "Cannot parse map value from \"%s\", invalid CQL value at character %d", value, idx),
+          e);
+    }
+  }
+
+  private static DataType elementType(AbstractArrayCodec<?> codec) {
+    return codec.getCqlType().getTypeArguments().get(0);
+  }
+
+  private static <K, V> TypeToken<ArrayMap<K, V>> arrayMapOf(
+      TypeToken<K> keyType, TypeToken<V> valueType) {
+    // @formatter:off
+    return new TypeToken<ArrayMap<K, V>>() {}.where(new TypeParameter<K>() {}, keyType)
+        .where(new TypeParameter<V>() {}, valueType);
+    // @formatter:on
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <A> Elements<A> elements(AbstractArrayCodec<A> codec) {
+    if (codec instanceof AbstractPrimitiveArrayCodec)
+      return new PrimitiveElements<A>((AbstractPrimitiveArrayCodec<A>) codec);
+    else if (codec instanceof ObjectArrayCodec)
+      return (Elements<A>) new ObjectElements<Object>((ObjectArrayCodec<Object>) codec);
+    else
+      throw new IllegalArgumentException(
+          String.format(
+              "Expecting an AbstractPrimitiveArrayCodec or an ObjectArrayCodec, got %s", codec));
+  }
+
+  /** Reads and writes individual keys or values. */
+  private abstract static class Elements<A> {
+
+    /**
+     * Serializes the elements up front if their size is not known in advance, or returns {@code
+     * null}.
+     */
+    abstract ByteBuffer[] serializeAll(A array, int size, ProtocolVersion protocolVersion);
+
+    /** Returns the number of bytes needed to write all the elements, including their sizes. */
+    abstract int sizeOfAll(ByteBuffer[] serialized, int size, int sizeOfSize);
+
+    abstract void write(
+        ByteBuffer output,
+        A array,
+        ByteBuffer[] serialized,
+        int index,
+        ProtocolVersion protocolVersion);
+
+    abstract void read(ByteBuffer input, A array, int index, ProtocolVersion protocolVersion);
+  }
+
+  private static class PrimitiveElements<A> extends Elements<A> {
+    private final AbstractPrimitiveArrayCodec<A> codec;
+
+    PrimitiveElements(AbstractPrimitiveArrayCodec<A> codec) {
+      this.codec = codec;
+    }
+
+    @Override
+    ByteBuffer[] serializeAll(A array, int size, ProtocolVersion protocolVersion) {
+      return null;
+    }
+
+    @Override
+    int sizeOfAll(ByteBuffer[] serialized, int size, int sizeOfSize) {
+      return size * (sizeOfSize + codec.sizeOfComponentType());
+    }
+
+    @Override
+    void write(
+        ByteBuffer output,
+        A array,
+        ByteBuffer[] serialized,
+        int index,
+        ProtocolVersion protocolVersion) {
+      CodecUtils.writeSize(output, codec.sizeOfComponentType(), protocolVersion);
+      codec.serializeElement(output, array, index, protocolVersion);
+    }
+
+    @Override
+    void read(ByteBuffer input, A array, int index, ProtocolVersion protocolVersion) {
+      int size = CodecUtils.readSize(input, protocolVersion);
+      if (size != codec.sizeOfComponentType())
+        throw new InvalidTypeException(
+            String.format(
+                "Invalid element size for %s, expecting %d bytes but got %d",
+                codec.getCqlType().getTypeArguments().get(0), codec.sizeOfComponentType(), size));
+      codec.deserializeElement(input, array, index, protocolVersion);
+    }
+  }
+
+  private static class ObjectElements<E> extends Elements<E[]> {
+    private final ObjectArrayCodec<E> codec;
+
+    ObjectElements(ObjectArrayCodec<E> codec) {
+      this.codec = codec;
+    }
+
+    @Override
+    ByteBuffer[] serializeAll(E[] array, int size, ProtocolVersion protocolVersion) {
+      ByteBuffer[] serialized = new ByteBuffer[size];
+      for (int i = 0; i < size; i++) {
+        E element = array[i];
+        if (element == null) throw new NullPointerException("Map keys and values cannot be null");
+        serialized[i] = codec.eltCodec.serialize(element, protocolVersion);
+      }
+      return serialized;
+    }
+
+    @Override
+    int sizeOfAll(ByteBuffer[] serialized, int size, int sizeOfSize) {
+      int total = 0;
+      for (ByteBuffer bb : serialized) total += sizeOfSize + (bb == null ? 0 : bb.remaining());
+      return total;
+    }
+
+    @Override
+    void write(
+        ByteBuffer output,
+        E[] array,
+        ByteBuffer[] serialized,
+        int index,
+        ProtocolVersion protocolVersion) {
+      CodecUtils.writeValue(output, serialized[index], protocolVersion);
+    }
+
+    @Override
+    void read(ByteBuffer input, E[] array, int index, ProtocolVersion protocolVersion) {
+      ByteBuffer bb = CodecUtils.readValue(input, protocolVersion);
+      array[index] = codec.eltCodec.deserialize(bb, protocolVersion);
+    }
+  }
+}
@@ -15,12 +15,15 @@
  */
 package com.datastax.driver.extras.codecs.arrays;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ProtocolVersion;
 import java.nio.ByteBuffer;
 
 /**
- * A codec that maps the CQL type {@code list<double>} to the Java type {@code double[]}.
+ * A codec that maps the CQL type {@code list<double>} (or {@code set<double>}, see {@link
+ * #setInstance}) to the Java type {@code double[]}.
  *
  * <p>Note that this codec is designed for performance and converts CQL lists <em>directly</em> to
  * {@code double[]}, thus avoiding any unnecessary boxing and unboxing of Java primitive {@code
@@ -31,8 +34,21 @@ public class DoubleArrayCodec extends AbstractPrimitiveArrayCodec<double[]> {
 
   public static final DoubleArrayCodec instance = new DoubleArrayCodec();
 
+  /** An instance that maps the CQL type {@code set<double>} to the Java type {@code double[]}. */
+  public static final DoubleArrayCodec setInstance =
+      new DoubleArrayCodec(DataType.set(DataType.cdouble()));
+
   public DoubleArrayCodec() {
-    super(DataType.list(DataType.cdouble()), double[].class);
+    this(DataType.list(DataType.cdouble()));
+  }
+
+  /** @param cqlType The CQL type. Must be {@code list<double>} or {@code set<double>}. */
+  public DoubleArrayCodec(DataType.CollectionType cqlType) {
+    super(cqlType, double[].class);
+    checkArgument(
+        cqlType.getTypeArguments().get(0).equals(DataType.cdouble()),
+        "Expecting CQL collection of double, got %s",
+        cqlType);
   }
 
   @Override
@@ -52,6 +68,14 @@ public class DoubleArrayCodec extends AbstractPrimitiveArrayCodec<double[]> {
     array[index] = input.getDouble();
   }
 
+  @Override
+  protected void deserializeElements(
+      ByteBuffer input, double[] array, int size, int sizeOfSize, ProtocolVersion protocolVersion) {
+    int stride = sizeOfSize + 8;
+    for (int i = 0, offset = input.position() + sizeOfSize; i < size; i++, offset += stride)
+      array[i] = input.getDouble(offset);
+  }
+
   @Override
   protected void formatElement(StringBuilder output, double[] array, int index) {
     output.append(array[index]);
@@ -15,12 +15,15 @@
  */
 package com.datastax.driver.extras.codecs.arrays;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ProtocolVersion;
 import java.nio.ByteBuffer;
 
 /**
- * A codec that maps the CQL type {@code list<float>} to the Java type {@code float[]}.
+ * A codec that maps the CQL type {@code list<float>} (or {@code set<float>}, see {@link
+ * #setInstance}) to the Java type {@code float[]}.
  *
  * <p>Note that this codec is designed for performance and converts CQL lists <em>directly</em> to
  * {@code float[]}, thus avoiding any unnecessary boxing and unboxing of Java primitive {@code
@@ -31,8 +34,21 @@ public class FloatArrayCodec extends AbstractPrimitiveArrayCodec<float[]> {
 
   public static final FloatArrayCodec instance = new FloatArrayCodec();
 
+  /** An instance that maps the CQL type {@code set<float>} to the Java type {@code float[]}. */
+  public static final FloatArrayCodec setInstance =
+      new FloatArrayCodec(DataType.set(DataType.cfloat()));
+
   public FloatArrayCodec() {
-    super(DataType.list(DataType.cfloat()), float[].class);
+    this(DataType.list(DataType.cfloat()));
+  }
+
+  /** @param cqlType The CQL type. Must be {@code list<float>} or {@code set<float>}. */
+  public FloatArrayCodec(DataType.CollectionType cqlType) {
+    super(cqlType, float[].class);
+    checkArgument(
+        cqlType.getTypeArguments().get(0).equals(DataType.cfloat()),
+        "Expecting CQL collection of float, got %s",
+        cqlType);
   }
 
   @Override
@@ -52,6 +68,14 @@ public class FloatArrayCodec extends AbstractPrimitiveArrayCodec<float[]> {
     array[index] = input.getFloat();
   }
 
+  @Override
+  protected void deserializeElements(
+      ByteBuffer input, float[] array, int size, int sizeOfSize, ProtocolVersion protocolVersion) {
+    int stride = sizeOfSize + 4;
+    for (int i = 0, offset = input.position() + sizeOfSize; i < size; i++, offset += stride)
+      array[i] = input.getFloat(offset);
+  }
+
   @Override
   protected void formatElement(StringBuilder output, float[] array, int index) {
     output.append(array[index]);
@@ -15,12 +15,15 @@
  */
 package com.datastax.driver.extras.codecs.arrays;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ProtocolVersion;
 import java.nio.ByteBuffer;
 
 /**
- * A codec that maps the CQL type {@code list<int>} to the Java type {@code int[]}.
+ * A codec that maps the CQL type {@code list<int>} (or {@code set<int>}, see {@link #setInstance})
+ * to the Java type {@code int[]}.
  *
  * <p>Note that this codec is designed for performance and converts CQL lists <em>directly</em> to
  * {@code int[]}, thus avoiding any unnecessary boxing and unboxing of Java primitive {@code int}
@@ -31,8 +34,20 @@ public class IntArrayCodec extends AbstractPrimitiveArrayCodec<int[]> {
 
   public static final IntArrayCodec instance = new IntArrayCodec();
 
+  /** An instance that maps the CQL type {@code set<int>} to the Java type {@code int[]}. */
+  public static final IntArrayCodec setInstance = new IntArrayCodec(DataType.set(DataType.cint()));
+
   public IntArrayCodec() {
-    super(DataType.list(DataType.cint()), int[].class);
+    this(DataType.list(DataType.cint()));
+  }
+
+  /** @param cqlType The CQL type. Must be {@code list<int>} or {@code set<int>}. */
+  public IntArrayCodec(DataType.CollectionType cqlType) {
+    super(cqlType, int[].class);
+    checkArgument(
+        cqlType.getTypeArguments().get(0).equals(DataType.cint()),
+        "Expecting CQL collection of int, got %s",
+        cqlType);
   }
 
   @Override
@@ -52,6 +67,14 @@ public class IntArrayCodec extends AbstractPrimitiveArrayCodec<int[]> {
     array[index] = input.getInt();
   }
 
+  @Override
+  protected void deserializeElements(
+      ByteBuffer input, int[] array, int size, int sizeOfSize, ProtocolVersion protocolVersion) {
+    int stride = sizeOfSize + 4;
+    for (int i = 0, offset = input.position() + sizeOfSize; i < size; i++, offset += stride)
+      array[i] = input.getInt(offset);
+  }
+
   @Override
   protected void formatElement(StringBuilder output, int[] array, int index) {
     output.append(array[index]);
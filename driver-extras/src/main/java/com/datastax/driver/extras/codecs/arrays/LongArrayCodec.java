@@ -15,12 +15,15 @@
  */
 package com.datastax.driver.extras.codecs.arrays;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.ProtocolVersion;
 import java.nio.ByteBuffer;
 
 /**
- * A codec that maps the CQL type {@code list<long>} to the Java type {@code long[]}.
+ * A codec that maps the CQL type {@code list<bigint>} (or {@code set<bigint>}, see {@link
+ * #setInstance}) to the Java type {@code long[]}.
  *
  * <p>Note that this codec is designed for performance and converts CQL lists <em>directly</em> to
  * {@code long[]}, thus avoiding any unnecessary boxing and unboxing of Java primitive {@code long}
@@ -31,8 +34,21 @@ public class LongArrayCodec extends AbstractPrimitiveArrayCodec<long[]> {
 
   public static final LongArrayCodec instance = new LongArrayCodec();
 
+  /** An instance that maps the CQL type {@code set<bigint>} to the Java type {@code long[]}. */
+  public static final LongArrayCodec setInstance =
+      new LongArrayCodec(DataType.set(DataType.bigint()));
+
   public LongArrayCodec() {
-    super(DataType.list(DataType.bigint()), long[].class);
+    this(DataType.list(DataType.bigint()));
+  }
+
+  /** @param cqlType The CQL type. Must be {@code list<bigint>} or {@code set<bigint>}. */
+  public LongArrayCodec(DataType.CollectionType cqlType) {
+    super(cqlType, long[].class);
+    checkArgument(
+        cqlType.getTypeArguments().get(0).equals(DataType.bigint()),
+        "Expecting CQL collection of bigint, got %s",
+        cqlType);
   }
 
   @Override
@@ -52,6 +68,14 @@ public class LongArrayCodec extends AbstractPrimitiveArrayCodec<long[]> {
     array[index] = input.getLong();
   }
 
+  @Override
+  protected void deserializeElements(
+      ByteBuffer input, long[] array, int size, int sizeOfSize, ProtocolVersion protocolVersion) {
+    int stride = sizeOfSize + 8;
+    for (int i = 0, offset = input.position() + sizeOfSize; i < size; i++, offset += stride)
+      array[i] = input.getLong(offset);
+  }
+
   @Override
   protected void formatElement(StringBuilder output, long[] array, int index) {
     output.append(array[index]);
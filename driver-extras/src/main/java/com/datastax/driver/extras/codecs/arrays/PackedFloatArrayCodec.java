@@ -0,0 +1,81 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.datastax.driver.core.utils.Bytes;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A codec that maps the CQL type {@code blob} to the Java type {@code float[]}, by packing the
+ * elements as consecutive 4-byte big-endian IEEE 754 values.
+ *
+ * <p>This is more compact than a {@code list<float>}, where each element is preceded by its size,
+ * and cheaper to decode: the array is copied in a single bulk operation. It is well suited to large
+ * fixed-size vectors, such as embeddings.
+ *
+ * <p>Note that this codec accepts any blob whose size is a multiple of 4; since Cassandra sees the
+ * column as an opaque blob, it is up to the application to only store packed floats in it.
+ */
+public class PackedFloatArrayCodec extends TypeCodec<float[]> {
+
+  public static final PackedFloatArrayCodec instance = new PackedFloatArrayCodec();
+
+  public PackedFloatArrayCodec() {
+    super(DataType.blob(), float[].class);
+  }
+
+  @Override
+  public ByteBuffer serialize(float[] value, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (value == null) return null;
+    ByteBuffer bytes = ByteBuffer.allocate(value.length * 4);
+    bytes.asFloatBuffer().put(value);
+    return bytes;
+  }
+
+  @Override
+  public float[] deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
+      throws InvalidTypeException {
+    if (bytes == null || bytes.remaining() == 0) return new float[0];
+    if (bytes.remaining() % 4 != 0)
+      throw new InvalidTypeException(
+          String.format(
+              "Invalid packed float array: size must be a multiple of 4, got %d",
+              bytes.remaining()));
+    float[] array = new float[bytes.remaining() / 4];
+    // asFloatBuffer() respects the byte order of the buffer, make sure it is the protocol's
+    bytes.duplicate().order(ByteOrder.BIG_ENDIAN).asFloatBuffer().get(array);
+    return array;
+  }
+
+  @Override
+  public String format(float[] value) throws InvalidTypeException {
+    if (value == null) return "NULL";
+    return Bytes.toHexString(serialize(value, ProtocolVersion.NEWEST_SUPPORTED));
+  }
+
+  @Override
+  public float[] parse(String value) throws InvalidTypeException {
+    return value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")
+        ? null
+        : deserialize(Bytes.fromHexString(value), ProtocolVersion.NEWEST_SUPPORTED);
+  }
+}
@@ -15,6 +15,6 @@
  */
 /**
  * This package contains a collection of convenience {@link com.datastax.driver.core.TypeCodec
- * TypeCodec} instances useful for serializing between CQL lists and Java arrays.
+ * TypeCodec} instances useful for serializing between CQL collections and Java arrays.
  */
 package com.datastax.driver.extras.codecs.arrays;
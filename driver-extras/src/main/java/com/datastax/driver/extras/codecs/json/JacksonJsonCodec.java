@@ -20,11 +20,12 @@ import com.datastax.driver.core.ParseUtils;
 import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
-import com.datastax.driver.core.utils.Bytes;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.google.common.reflect.TypeToken;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -49,11 +50,18 @@ import java.nio.ByteBuffer;
  *   <version>2.6.3</version>
  * </dependency>
  * }</pre>
+ *
+ * <p>Values are read from and written to UTF-8 bytes directly, without going through an
+ * intermediary {@code String}. The {@link ObjectReader} for the codec's Java type is created from
+ * the {@link ObjectMapper} the first time a value is read; changes to the mapper's deserialization
+ * settings after that will not be taken into account.
  */
 public class JacksonJsonCodec<T> extends TypeCodec<T> {
 
   private final ObjectMapper objectMapper;
 
+  private volatile ObjectReader reader;
+
   /**
    * Creates a new instance for the provided {@code javaClass}, using a default, newly-allocated
    * {@link ObjectMapper}.
@@ -107,12 +115,14 @@ public class JacksonJsonCodec<T> extends TypeCodec<T> {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public T deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
       throws InvalidTypeException {
     if (bytes == null) return null;
     try {
-      return (T) objectMapper.readValue(Bytes.getArray(bytes), toJacksonJavaType());
+      if (bytes.hasArray())
+        return reader()
+            .readValue(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+      else return reader().readValue(new ByteBufferBackedInputStream(bytes.duplicate()));
     } catch (IOException e) {
       throw new InvalidTypeException(e.getMessage(), e);
     }
@@ -131,14 +141,13 @@ public class JacksonJsonCodec<T> extends TypeCodec<T> {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public T parse(String value) throws InvalidTypeException {
     if (value == null || value.isEmpty() || value.equalsIgnoreCase("NULL")) return null;
     if (!ParseUtils.isQuoted(value))
       throw new InvalidTypeException("JSON strings must be enclosed by single quotes");
     String json = ParseUtils.unquote(value);
     try {
-      return (T) objectMapper.readValue(json, toJacksonJavaType());
+      return reader().readValue(json);
     } catch (IOException e) {
       throw new InvalidTypeException(e.getMessage(), e);
     }
@@ -154,4 +163,11 @@ public class JacksonJsonCodec<T> extends TypeCodec<T> {
   protected JavaType toJacksonJavaType() {
     return TypeFactory.defaultInstance().constructType(getJavaType().getType());
   }
+
+  private ObjectReader reader() {
+    // Races are harmless, at worst a few readers get created
+    ObjectReader result = reader;
+    if (result == null) reader = result = objectMapper.readerFor(toJacksonJavaType());
+    return result;
+  }
 }
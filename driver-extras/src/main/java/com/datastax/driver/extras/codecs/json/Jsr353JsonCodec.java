@@ -87,6 +87,14 @@ import javax.json.JsonWriterFactory;
  */
 public class Jsr353JsonCodec extends TypeCodec<JsonStructure> {
 
+  private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024;
+
+  // Documents are written to a per-thread buffer, to avoid growing a new one for each value.
+  // We're deliberately avoiding an anonymous subclass with initialValue(), because this can
+  // introduce classloader leaks in managed environments like Tomcat
+  private static final ThreadLocal<ByteArrayOutputStream> OUTPUT_BUFFERS =
+      new ThreadLocal<ByteArrayOutputStream>();
+
   private final JsonReaderFactory readerFactory;
 
   private final JsonWriterFactory writerFactory;
@@ -112,7 +120,13 @@ public class Jsr353JsonCodec extends TypeCodec<JsonStructure> {
   public ByteBuffer serialize(JsonStructure value, ProtocolVersion protocolVersion)
       throws InvalidTypeException {
     if (value == null) return null;
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ByteArrayOutputStream baos = OUTPUT_BUFFERS.get();
+    if (baos == null) {
+      baos = new ByteArrayOutputStream(1024);
+      OUTPUT_BUFFERS.set(baos);
+    } else {
+      baos.reset();
+    }
     try {
       JsonWriter writer = writerFactory.createWriter(baos);
       writer.write(value);
@@ -120,12 +134,8 @@ public class Jsr353JsonCodec extends TypeCodec<JsonStructure> {
     } catch (JsonException e) {
       throw new InvalidTypeException(e.getMessage(), e);
     } finally {
-      try {
-        baos.close();
-      } catch (IOException e) {
-        // cannot happen
-        throw new InvalidTypeException(e.getMessage(), e);
-      }
+      // don't hold on to the memory used by large documents
+      if (baos.size() > MAX_RETAINED_BUFFER_SIZE) OUTPUT_BUFFERS.remove();
     }
   }
 
@@ -134,7 +144,11 @@ public class Jsr353JsonCodec extends TypeCodec<JsonStructure> {
   public JsonStructure deserialize(ByteBuffer bytes, ProtocolVersion protocolVersion)
       throws InvalidTypeException {
     if (bytes == null) return null;
-    ByteArrayInputStream bais = new ByteArrayInputStream(Bytes.getArray(bytes));
+    ByteArrayInputStream bais =
+        bytes.hasArray()
+            ? new ByteArrayInputStream(
+                bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining())
+            : new ByteArrayInputStream(Bytes.getArray(bytes));
     try {
       JsonReader reader = readerFactory.createReader(bais);
       return reader.read();
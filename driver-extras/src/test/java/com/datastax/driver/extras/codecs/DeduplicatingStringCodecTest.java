@@ -0,0 +1,94 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs;
+
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.TypeCodec;
+import com.google.common.base.Charsets;
+import java.nio.ByteBuffer;
+import org.testng.annotations.Test;
+
+public class DeduplicatingStringCodecTest {
+
+  @Test(groups = "unit")
+  public void should_return_same_instance_for_same_value() {
+    DeduplicatingStringCodec codec = new DeduplicatingStringCodec();
+
+    String value1 = codec.deserialize(bytes("ACTIVE"), V4);
+    String value2 = codec.deserialize(bytes("ACTIVE"), V4);
+    String value3 = codec.deserialize(bytes("INACTIVE"), V4);
+
+    assertThat(value1).isEqualTo("ACTIVE");
+    assertThat(value2).isSameAs(value1);
+    assertThat(value3).isEqualTo("INACTIVE");
+  }
+
+  @Test(groups = "unit")
+  public void should_decode_slices_of_larger_buffers() {
+    DeduplicatingStringCodec codec = new DeduplicatingStringCodec();
+    ByteBuffer buffer = bytes("xxACTIVExx");
+    buffer.position(2);
+    buffer.limit(8);
+    ByteBuffer slice = buffer.slice();
+
+    String value1 = codec.deserialize(buffer, V4);
+    String value2 = codec.deserialize(slice, V4);
+
+    assertThat(value1).isEqualTo("ACTIVE");
+    assertThat(value2).isSameAs(value1);
+    // the source buffer is left untouched
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_replace_colliding_values() {
+    // a single slot: every new value replaces the previous one
+    DeduplicatingStringCodec codec = new DeduplicatingStringCodec(TypeCodec.varchar(), 1, 64);
+
+    String foo1 = codec.deserialize(bytes("foo"), V4);
+    assertThat(codec.deserialize(bytes("bar"), V4)).isEqualTo("bar");
+    String foo2 = codec.deserialize(bytes("foo"), V4);
+
+    assertThat(foo2).isEqualTo(foo1).isNotSameAs(foo1);
+  }
+
+  @Test(groups = "unit")
+  public void should_not_cache_long_values() {
+    DeduplicatingStringCodec codec = new DeduplicatingStringCodec(TypeCodec.varchar(), 16, 4);
+
+    String value1 = codec.deserialize(bytes("ACTIVE"), V4);
+    String value2 = codec.deserialize(bytes("ACTIVE"), V4);
+
+    assertThat(value2).isEqualTo(value1).isNotSameAs(value1);
+  }
+
+  @Test(groups = "unit")
+  public void should_behave_like_inner_codec() {
+    DeduplicatingStringCodec codec = new DeduplicatingStringCodec();
+
+    assertThat(codec.deserialize(null, V4)).isNull();
+    assertThat(codec.deserialize(ByteBuffer.allocate(0), V4)).isEmpty();
+    assertThat(codec.deserialize(codec.serialize("été", V4), V4)).isEqualTo("été");
+    assertThat(codec.format("foo")).isEqualTo("'foo'");
+    assertThat(codec.parse("'foo'")).isEqualTo("foo");
+  }
+
+  private static ByteBuffer bytes(String value) {
+    return ByteBuffer.wrap(value.getBytes(Charsets.UTF_8));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs;
+
+import static com.datastax.driver.core.ProtocolVersion.V3;
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.extras.codecs.json.JacksonJsonCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Charsets;
+import java.nio.ByteBuffer;
+import org.testng.annotations.Test;
+
+public class LazyCodecTest {
+
+  private final JacksonJsonCodec<JsonNode> jsonCodec =
+      new JacksonJsonCodec<JsonNode>(JsonNode.class);
+
+  private final LazyCodec<JsonNode> codec = new LazyCodec<JsonNode>(jsonCodec);
+
+  @Test(groups = "unit")
+  public void should_decode_on_first_access() {
+    LazyValue<JsonNode> value = codec.deserialize(bytes("{\"id\":1}"), V4);
+
+    assertThat(value.isDecoded()).isFalse();
+    JsonNode node = value.get();
+    assertThat(node.get("id").asInt()).isEqualTo(1);
+    assertThat(value.isDecoded()).isTrue();
+    assertThat(value.get()).isSameAs(node);
+  }
+
+  @Test(groups = "unit")
+  public void should_decode_slices_of_larger_buffers() {
+    ByteBuffer buffer = bytes("xx{\"id\":1}xx");
+    buffer.position(2);
+    buffer.limit(10);
+
+    LazyValue<JsonNode> value = codec.deserialize(buffer, V4);
+
+    assertThat(value.get().get("id").asInt()).isEqualTo(1);
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_reuse_raw_bytes_if_not_decoded() {
+    ByteBuffer bytes = bytes("{ \"id\" : 1 }");
+    LazyValue<JsonNode> value = codec.deserialize(bytes, V4);
+
+    ByteBuffer serialized = codec.serialize(value, V4);
+
+    // not re-encoded: the original formatting is preserved
+    assertThat(serialized).isEqualTo(bytes);
+    assertThat(value.isDecoded()).isFalse();
+  }
+
+  @Test(groups = "unit")
+  public void should_reencode_if_protocol_version_differs() {
+    LazyValue<JsonNode> value = codec.deserialize(bytes("{ \"id\" : 1 }"), V4);
+
+    assertThat(codec.serialize(value, V3)).isEqualTo(bytes("{\"id\":1}"));
+  }
+
+  @Test(groups = "unit")
+  public void should_reencode_if_decoded() {
+    LazyValue<JsonNode> value = codec.deserialize(bytes("{\"id\":1}"), V4);
+
+    ((ObjectNode) value.get()).put("id", 2);
+
+    assertThat(codec.serialize(value, V4)).isEqualTo(bytes("{\"id\":2}"));
+  }
+
+  @Test(groups = "unit")
+  public void should_encode_new_values() {
+    LazyValue<String> value = LazyValue.of("foo");
+    LazyCodec<String> textCodec = new LazyCodec<String>(TypeCodec.varchar());
+
+    assertThat(value.isDecoded()).isTrue();
+    assertThat(textCodec.serialize(value, V4)).isEqualTo(bytes("foo"));
+    assertThat(textCodec.format(value)).isEqualTo("'foo'");
+    assertThat(textCodec.parse("'foo'").get()).isEqualTo("foo");
+    assertThat(textCodec.serialize(null, V4)).isNull();
+    assertThat(textCodec.deserialize(null, V4)).isNull();
+  }
+
+  @Test(groups = "unit")
+  public void should_read_json_from_direct_buffers() {
+    ByteBuffer direct = ByteBuffer.allocateDirect(8);
+    direct.put(bytes("{\"id\":1}"));
+    direct.flip();
+
+    assertThat(jsonCodec.deserialize(direct, V4).get("id").asInt()).isEqualTo(1);
+    assertThat(direct.position()).isEqualTo(0);
+  }
+
+  private static ByteBuffer bytes(String value) {
+    return ByteBuffer.wrap(value.getBytes(Charsets.UTF_8));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.datastax.driver.core.ProtocolVersion.V2;
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ArrayMapCodecTest {
+
+  private static final ArrayMapCodec<long[], double[]> longDoubleCodec =
+      new ArrayMapCodec<long[], double[]>(LongArrayCodec.instance, DoubleArrayCodec.instance);
+
+  private static final ArrayMapCodec<String[], int[]> stringIntCodec =
+      new ArrayMapCodec<String[], int[]>(
+          new ObjectArrayCodec<String>(
+              DataType.list(DataType.varchar()), String[].class, TypeCodec.varchar()),
+          IntArrayCodec.instance);
+
+  @DataProvider(name = "versions")
+  public Object[][] versions() {
+    return new Object[][] {{V2}, {V4}};
+  }
+
+  @Test(groups = "unit")
+  public void should_map_cql_and_java_types() {
+    assertThat(longDoubleCodec.getCqlType())
+        .isEqualTo(DataType.map(DataType.bigint(), DataType.cdouble()));
+    assertThat(stringIntCodec.getCqlType())
+        .isEqualTo(DataType.map(DataType.varchar(), DataType.cint()));
+    assertThat(longDoubleCodec.accepts(new ArrayMap<long[], double[]>(new long[0], new double[0])))
+        .isTrue();
+  }
+
+  @Test(groups = "unit", dataProvider = "versions")
+  public void should_serialize_like_boxed_codec(ProtocolVersion version) {
+    ArrayMap<long[], double[]> value =
+        new ArrayMap<long[], double[]>(new long[] {1, 2, 3}, new double[] {1.5, 2.5, 3.5});
+    Map<Long, Double> boxed = ImmutableMap.of(1L, 1.5, 2L, 2.5, 3L, 3.5);
+    TypeCodec<Map<Long, Double>> boxedCodec =
+        TypeCodec.map(TypeCodec.bigint(), TypeCodec.cdouble());
+
+    ByteBuffer bytes = longDoubleCodec.serialize(value, version);
+
+    assertThat(bytes).isEqualTo(boxedCodec.serialize(boxed, version));
+    assertThat(longDoubleCodec.deserialize(bytes, version)).isEqualTo(value);
+  }
+
+  @Test(groups = "unit", dataProvider = "versions")
+  public void should_serialize_object_keys_like_boxed_codec(ProtocolVersion version) {
+    ArrayMap<String[], int[]> value =
+        new ArrayMap<String[], int[]>(new String[] {"a", "bb"}, new int[] {1, 2});
+    Map<String, Integer> boxed = ImmutableMap.of("a", 1, "bb", 2);
+    TypeCodec<Map<String, Integer>> boxedCodec =
+        TypeCodec.map(TypeCodec.varchar(), TypeCodec.cint());
+
+    ByteBuffer bytes = stringIntCodec.serialize(value, version);
+
+    assertThat(bytes).isEqualTo(boxedCodec.serialize(boxed, version));
+    assertThat(stringIntCodec.deserialize(bytes, version)).isEqualTo(value);
+  }
+
+  @Test(groups = "unit")
+  public void should_deserialize_null_and_empty_as_empty_map() {
+    assertThat(longDoubleCodec.deserialize(null, V4).size()).isEqualTo(0);
+    assertThat(longDoubleCodec.deserialize(ByteBuffer.allocate(0), V4).size()).isEqualTo(0);
+    assertThat(longDoubleCodec.serialize(null, V4)).isNull();
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_deserialize_invalid_element_size() {
+    // a map<int, double> is not a valid map<bigint, double>
+    ByteBuffer bytes =
+        TypeCodec.map(TypeCodec.cint(), TypeCodec.cdouble()).serialize(ImmutableMap.of(1, 1.0), V4);
+    longDoubleCodec.deserialize(bytes, V4);
+  }
+
+  @Test(groups = "unit")
+  public void should_format_and_parse() {
+    ArrayMap<String[], int[]> value =
+        new ArrayMap<String[], int[]>(new String[] {"a", "b"}, new int[] {1, 2});
+
+    assertThat(stringIntCodec.format(value)).isEqualTo("{'a':1,'b':2}");
+    assertThat(stringIntCodec.parse(" { 'a' : 1 , 'b':2 } ")).isEqualTo(value);
+    assertThat(stringIntCodec.parse("{}").size()).isEqualTo(0);
+    assertThat(stringIntCodec.parse("NULL")).isNull();
+    assertThat(stringIntCodec.format(null)).isEqualTo("NULL");
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_parse_unclosed_map() {
+    stringIntCodec.parse("{'a':1");
+  }
+
+  @Test(groups = "unit", dataProvider = "versions")
+  public void should_map_sets_to_arrays(ProtocolVersion version) {
+    TypeCodec<java.util.Set<Long>> boxedCodec = TypeCodec.set(TypeCodec.bigint());
+
+    ByteBuffer bytes = LongArrayCodec.setInstance.serialize(new long[] {1, 2, 3}, version);
+
+    assertThat(bytes).isEqualTo(boxedCodec.serialize(ImmutableSet.of(1L, 2L, 3L), version));
+    assertThat(LongArrayCodec.setInstance.deserialize(bytes, version))
+        .isEqualTo(new long[] {1, 2, 3});
+    assertThat(LongArrayCodec.setInstance.format(new long[] {1, 2})).isEqualTo("{1,2}");
+    assertThat(LongArrayCodec.setInstance.parse("{1, 2}")).isEqualTo(new long[] {1, 2});
+  }
+
+  @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+  public void should_reject_set_of_wrong_type() {
+    new IntArrayCodec(DataType.set(DataType.bigint()));
+  }
+}
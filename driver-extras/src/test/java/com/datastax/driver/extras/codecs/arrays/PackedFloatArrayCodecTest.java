@@ -0,0 +1,68 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import java.nio.ByteBuffer;
+import org.testng.annotations.Test;
+
+public class PackedFloatArrayCodecTest {
+
+  private final PackedFloatArrayCodec codec = PackedFloatArrayCodec.instance;
+
+  @Test(groups = "unit")
+  public void should_serialize_as_packed_big_endian_floats() {
+    ByteBuffer bytes = codec.serialize(new float[] {1.0f, -2.5f}, V4);
+
+    assertThat(bytes.remaining()).isEqualTo(8);
+    assertThat(bytes.getFloat(0)).isEqualTo(1.0f);
+    assertThat(bytes.getFloat(4)).isEqualTo(-2.5f);
+  }
+
+  @Test(groups = "unit")
+  public void should_deserialize_slice_of_larger_buffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(14);
+    buffer.position(2);
+    buffer.putFloat(1.0f).putFloat(Float.NaN).putFloat(Float.MAX_VALUE);
+    buffer.position(2);
+
+    assertThat(codec.deserialize(buffer, V4)).containsExactly(1.0f, Float.NaN, Float.MAX_VALUE);
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test(groups = "unit")
+  public void should_handle_null_and_empty() {
+    assertThat(codec.serialize(null, V4)).isNull();
+    assertThat(codec.deserialize(null, V4)).isEmpty();
+    assertThat(codec.deserialize(ByteBuffer.allocate(0), V4)).isEmpty();
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_deserialize_truncated_blob() {
+    codec.deserialize(ByteBuffer.allocate(6), V4);
+  }
+
+  @Test(groups = "unit")
+  public void should_format_and_parse() {
+    assertThat(codec.format(new float[] {1.0f})).isEqualTo("0x3f800000");
+    assertThat(codec.parse("0x3f800000")).containsExactly(1.0f);
+    assertThat(codec.format(null)).isEqualTo("NULL");
+    assertThat(codec.parse("NULL")).isNull();
+  }
+}
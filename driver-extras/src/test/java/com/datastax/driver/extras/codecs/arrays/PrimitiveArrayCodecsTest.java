@@ -0,0 +1,75 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.extras.codecs.arrays;
+
+import static com.datastax.driver.core.ProtocolVersion.V2;
+import static com.datastax.driver.core.ProtocolVersion.V4;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.InvalidTypeException;
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class PrimitiveArrayCodecsTest {
+
+  @DataProvider(name = "versions")
+  public Object[][] versions() {
+    return new Object[][] {{V2}, {V4}};
+  }
+
+  @Test(groups = "unit", dataProvider = "versions")
+  public void should_deserialize_lists_in_bulk(ProtocolVersion version) {
+    float[] floats = new float[1024];
+    double[] doubles = new double[1024];
+    for (int i = 0; i < floats.length; i++) {
+      floats[i] = i * 0.5f;
+      doubles[i] = i * 0.25;
+    }
+
+    ByteBuffer floatBytes = FloatArrayCodec.instance.serialize(floats, version);
+    ByteBuffer doubleBytes = DoubleArrayCodec.instance.serialize(doubles, version);
+
+    assertThat(FloatArrayCodec.instance.deserialize(floatBytes, version)).isEqualTo(floats);
+    assertThat(DoubleArrayCodec.instance.deserialize(doubleBytes, version)).isEqualTo(doubles);
+    assertThat(floatBytes.position()).isEqualTo(0);
+  }
+
+  @Test(groups = "unit")
+  public void should_deserialize_what_boxed_codec_serializes() {
+    ByteBuffer bytes =
+        TypeCodec.list(TypeCodec.bigint()).serialize(Lists.newArrayList(1L, -2L, 3L), V4);
+
+    assertThat(LongArrayCodec.instance.deserialize(bytes, V4)).isEqualTo(new long[] {1, -2, 3});
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_deserialize_list_with_wrong_element_size() {
+    // a list<int> is not a valid list<bigint>
+    ByteBuffer bytes = TypeCodec.list(TypeCodec.cint()).serialize(Lists.newArrayList(1, 2), V4);
+    LongArrayCodec.instance.deserialize(bytes, V4);
+  }
+
+  @Test(groups = "unit", expectedExceptions = InvalidTypeException.class)
+  public void should_fail_to_deserialize_truncated_list() {
+    ByteBuffer bytes = IntArrayCodec.instance.serialize(new int[] {1, 2}, V4);
+    bytes.limit(bytes.limit() - 1);
+    IntArrayCodec.instance.deserialize(bytes, V4);
+  }
+}